@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PHONE_HOME_ENABLED;
+
+/**
+ * Starts the embedded single-member instances the benchmarks run against.
+ * <p>
+ * The members neither look for other members nor call home, so the
+ * benchmarks work offline and are not disturbed by other members running on
+ * the same network.
+ */
+public final class EmbeddedMember {
+
+    private EmbeddedMember() {
+    }
+
+    /**
+     * Returns a config of a standalone member which doesn't need any network
+     * access besides the loopback interface.
+     */
+    public static Config standaloneConfig() {
+        Config config = new Config();
+        config.setClusterName("benchmark-" + System.nanoTime());
+        config.setProperty(PHONE_HOME_ENABLED.getName(), "false");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(false);
+        return config;
+    }
+
+    /**
+     * Starts a member with the given config.
+     *
+     * @see #standaloneConfig()
+     */
+    public static HazelcastInstance start(Config config) {
+        return Hazelcast.newHazelcastInstance(config);
+    }
+
+    /**
+     * Returns the node of the given embedded member.
+     */
+    public static Node node(HazelcastInstance instance) {
+        return ((HazelcastInstanceProxy) instance).getOriginal().node;
+    }
+
+    /**
+     * Returns the node engine of the given embedded member.
+     */
+    public static NodeEngineImpl nodeEngine(HazelcastInstance instance) {
+        return node(instance).getNodeEngine();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.concurrent;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput of a {@link ManyToOneConcurrentArrayQueue} and of
+ * a {@link ConcurrentConveyor} with {@value #PRODUCERS} producers and a
+ * single consumer.
+ * <p>
+ * The producers never block: an offer to a full queue fails and is counted
+ * as an operation as well, so the results of {@code offer} show how often
+ * the consumer keeps up. The queues are plain data structures, so this
+ * benchmark doesn't need an embedded member.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentQueueBenchmark {
+
+    private static final int PRODUCERS = 3;
+    private static final Object ITEM = new Object();
+    private static final Object SUBMITTER_GONE = new Object();
+
+    @Param({"1024"})
+    public int capacity;
+
+    private ManyToOneConcurrentArrayQueue<Object> queue;
+    private ConcurrentConveyor<Object> conveyor;
+    private final AtomicInteger producerIndex = new AtomicInteger();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        queue = new ManyToOneConcurrentArrayQueue<>(capacity);
+        QueuedPipe<Object>[] queues = new QueuedPipe[PRODUCERS];
+        for (int i = 0; i < PRODUCERS; i++) {
+            queues[i] = new OneToOneConcurrentArrayQueue<>(capacity);
+        }
+        conveyor = ConcurrentConveyor.concurrentConveyor(SUBMITTER_GONE, queues);
+    }
+
+    /**
+     * The state of a producer: the index of the conveyor queue it submits to.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+        int queueIndex;
+
+        @Setup
+        public void setup(ConcurrentQueueBenchmark benchmark) {
+            queueIndex = benchmark.producerIndex.getAndIncrement() % PRODUCERS;
+        }
+    }
+
+    /**
+     * The state of the consumer: the list the items are drained to.
+     */
+    @State(Scope.Thread)
+    public static class Consumer {
+        List<Object> batch;
+
+        @Setup
+        public void setup(ConcurrentQueueBenchmark benchmark) {
+            batch = new ArrayList<>(benchmark.capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(PRODUCERS)
+    public boolean queueOffer() {
+        return queue.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public int queueDrain(Consumer consumer) {
+        consumer.batch.clear();
+        return queue.drainTo(consumer.batch, capacity);
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(PRODUCERS)
+    public boolean conveyorOffer(Producer producer) {
+        return conveyor.offer(producer.queueIndex, ITEM);
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(1)
+    public int conveyorDrain(Consumer consumer) {
+        int drained = 0;
+        for (int i = 0; i < PRODUCERS; i++) {
+            consumer.batch.clear();
+            drained += conveyor.drainTo(i, consumer.batch, capacity);
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.jet;
+
+import com.hazelcast.benchmarks.EmbeddedMember;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.pipeline.Pipeline;
+import com.hazelcast.jet.pipeline.Sinks;
+import com.hazelcast.jet.pipeline.Sources;
+import com.hazelcast.jet.pipeline.test.TestSources;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_USE_VIRTUAL_THREADS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Compares running the blocking processors of Jet jobs on platform threads
+ * and on virtual threads, see {@link
+ * com.hazelcast.jet.config.JobConfigArguments#KEY_USE_VIRTUAL_THREADS}.
+ * <p>
+ * {@code writeJdbc} runs a batch job writing rows to an in-memory H2
+ * database through {@code WriteJdbcP} processors, {@code streamJms} sends
+ * messages to an embedded ActiveMQ Artemis broker and waits until a running
+ * job receives them through {@code StreamJmsP} processors. Both use {@link
+ * #parallelism} blocking processors. Besides the time per operation, the
+ * number of live threads and the used heap are reported as auxiliary
+ * counters. Virtual threads need Java 21 or later, on older versions both
+ * variants use platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class BlockingProcessorThreadsBenchmark {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+    private static final String QUEUE_NAME = "benchmark";
+    private static final String BROKER_URL = "vm://0";
+    private static final int ROW_COUNT = 10_000;
+    private static final int MESSAGE_COUNT = 10_000;
+
+    /** The number of messages received by the JMS job, the job runs in the same JVM. */
+    private static final LongAdder RECEIVED_MESSAGES = new LongAdder();
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"16", "512"})
+    public int parallelism;
+
+    private HazelcastInstance instance;
+    private List<Integer> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Config config = EmbeddedMember.standaloneConfig();
+        config.getJetConfig().setEnabled(true);
+        instance = EmbeddedMember.start(config);
+        rows = IntStream.range(0, ROW_COUNT).boxed().collect(Collectors.toList());
+        try (java.sql.Connection connection = DriverManager.getConnection(JDBC_URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS benchmark (id INT, name VARCHAR(64))");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        instance.shutdown();
+        try (java.sql.Connection connection = DriverManager.getConnection(JDBC_URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE benchmark");
+        }
+    }
+
+    @Benchmark
+    public void writeJdbc(ResourceUsage usage) {
+        Pipeline p = Pipeline.create();
+        p.readFrom(TestSources.items(rows))
+         .writeTo(Sinks.<Integer>jdbc("INSERT INTO benchmark VALUES (?, ?)", JDBC_URL, (stmt, item) -> {
+             stmt.setInt(1, item);
+             stmt.setString(2, "name-" + item);
+         }))
+         .setLocalParallelism(parallelism);
+        Job job = instance.getJet().newJob(p, jobConfig());
+        // sample while the processors are running
+        while (!job.getStatus().isTerminal()) {
+            usage.sample();
+            parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        job.join();
+    }
+
+    @Benchmark
+    public void streamJms(JmsState jms, ResourceUsage usage) throws JMSException {
+        long expected = RECEIVED_MESSAGES.sum() + MESSAGE_COUNT;
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            jms.producer.send(jms.session.createTextMessage("message-" + i));
+        }
+        usage.sample();
+        while (RECEIVED_MESSAGES.sum() < expected) {
+            parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    private JobConfig jobConfig() {
+        return new JobConfig().setArgument(KEY_USE_VIRTUAL_THREADS, virtualThreads);
+    }
+
+    /**
+     * The embedded broker, the producer of the messages and the job
+     * consuming them.
+     */
+    @State(Scope.Benchmark)
+    public static class JmsState {
+
+        private HazelcastInstance instance;
+        private EmbeddedActiveMQ broker;
+        private Connection connection;
+        private Session session;
+        private MessageProducer producer;
+        private Job job;
+
+        @Setup(Level.Trial)
+        public void setUp(BlockingProcessorThreadsBenchmark benchmark) throws Exception {
+            instance = benchmark.instance;
+            broker = new EmbeddedActiveMQ();
+            broker.setConfiguration(new ConfigurationImpl()
+                    .setPersistenceEnabled(false)
+                    .setSecurityEnabled(false)
+                    .addAcceptorConfiguration("in-vm", BROKER_URL));
+            broker.start();
+
+            connection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = session.createProducer(session.createQueue(QUEUE_NAME));
+
+            Pipeline p = Pipeline.create();
+            p.readFrom(Sources.jmsQueueBuilder(() -> new ActiveMQConnectionFactory(BROKER_URL))
+                              .destinationName(QUEUE_NAME)
+                              .maxGuarantee(ProcessingGuarantee.NONE)
+                              .build())
+             .withoutTimestamps()
+             .setLocalParallelism(benchmark.parallelism)
+             .filter(message -> {
+                 RECEIVED_MESSAGES.increment();
+                 return false;
+             })
+             .writeTo(Sinks.noop());
+            job = instance.getJet().newJob(p, benchmark.jobConfig());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            // the member might have been shut down already
+            if (instance.getLifecycleService().isRunning()) {
+                job.cancel();
+            }
+            connection.close();
+            broker.stop();
+        }
+    }
+
+    /**
+     * The resources used while the blocking processors run, the last sample
+     * of an iteration is reported.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ResourceUsage {
+
+        public long liveThreads;
+        public long usedHeapMB;
+
+        void sample() {
+            liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+            usedHeapMB = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+        }
+    }
+}
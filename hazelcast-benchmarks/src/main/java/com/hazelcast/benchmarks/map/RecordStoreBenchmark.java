@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.benchmarks.EmbeddedMember;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Measures put, get and evict of the {@code DefaultRecordStore} of a single
+ * partition of an embedded member.
+ * <p>
+ * The record store is called directly, bypassing the operations, so the
+ * benchmark thread takes the role of the partition thread. Therefore the
+ * benchmark runs single-threaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class RecordStoreBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final int PARTITION_ID = 0;
+
+    @Param({"1024", "65536"})
+    public int entryCount;
+
+    private HazelcastInstance instance;
+    private RecordStore recordStore;
+    private Data[] keys;
+    private Data[] absentKeys;
+    private Data value;
+    private int index;
+
+    @Setup
+    public void setup() {
+        instance = EmbeddedMember.start(EmbeddedMember.standaloneConfig());
+        NodeEngineImpl nodeEngine = EmbeddedMember.nodeEngine(instance);
+        InternalSerializationService serializationService = EmbeddedMember.node(instance).getSerializationService();
+        MapServiceContext mapServiceContext = nodeEngine.<MapService>getService(MapService.SERVICE_NAME)
+                .getMapServiceContext();
+        recordStore = mapServiceContext.getRecordStore(PARTITION_ID, MAP_NAME);
+
+        keys = new Data[entryCount];
+        absentKeys = new Data[entryCount];
+        int count = 0;
+        for (long i = 0; count < 2 * entryCount; i++) {
+            Data key = serializationService.toData(i);
+            if (nodeEngine.getPartitionService().getPartitionId(key) != PARTITION_ID) {
+                continue;
+            }
+            if (count < entryCount) {
+                keys[count] = key;
+            } else {
+                absentKeys[count - entryCount] = key;
+            }
+            count++;
+        }
+        value = serializationService.toData(new byte[100]);
+        for (Data key : keys) {
+            recordStore.put(key, value, UNSET, UNSET);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    public Object put() {
+        return recordStore.put(nextKey(keys), value, UNSET, UNSET);
+    }
+
+    @Benchmark
+    public Object get() {
+        return recordStore.get(nextKey(keys), false, null);
+    }
+
+    /**
+     * Puts an absent key and evicts it, so the size of the record store
+     * stays the same.
+     */
+    @Benchmark
+    public Object putAndEvict() {
+        Data key = nextKey(absentKeys);
+        recordStore.put(key, value, UNSET, UNSET);
+        return recordStore.evict(key, false);
+    }
+
+    private Data nextKey(Data[] keys) {
+        int i = index++;
+        if (index == keys.length) {
+            index = 0;
+        }
+        return keys[i];
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.nio;
+
+import com.hazelcast.benchmarks.EmbeddedMember;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.server.tcp.PacketDecoder;
+import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.internal.util.counters.SwCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures the {@link PacketEncoder} and the {@link PacketDecoder} on
+ * in-memory buffers for packets carrying payloads serialized by an
+ * embedded member.
+ * <p>
+ * Each invocation encodes or decodes a batch of packets the way the
+ * pipelines of a connection do it: the encoder fills its destination buffer
+ * until it is full or no packets are left, and the decoder reads all complete
+ * packets from its source buffer. The reported time is per packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    @Param({"64", "1024", "16384"})
+    public int payloadSize;
+
+    private HazelcastInstance instance;
+    private PacketEncoder encoder;
+    private PacketDecoder decoder;
+    private ByteBuffer encodedBatch;
+    private final PacketSupplier packets = new PacketSupplier();
+    private final PacketCounter decodedPackets = new PacketCounter();
+
+    @Setup
+    public void setup() throws Exception {
+        instance = EmbeddedMember.start(EmbeddedMember.standaloneConfig());
+        InternalSerializationService serializationService = EmbeddedMember.node(instance).getSerializationService();
+        packets.packet = new Packet(serializationService.toBytes(new byte[payloadSize]));
+
+        encoder = new PacketEncoder();
+        encoder.src(packets);
+        ByteBuffer dst = ByteBuffer.allocate(BUFFER_SIZE);
+        dst.flip();
+        encoder.dst(dst);
+
+        decoder = new PacketDecoder(null, decodedPackets);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+        decoder.setPriorityPacketsRead(SwCounter.newSwCounter());
+        int packetSize = packets.packet.getFrameLength();
+        decoder.src(ByteBuffer.allocate(BATCH_SIZE * packetSize));
+
+        PacketIOHelper writer = new PacketIOHelper();
+        encodedBatch = ByteBuffer.allocate(BATCH_SIZE * packetSize);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (!writer.writeTo(packets.packet, encodedBatch)) {
+                throw new IllegalStateException("Packet didn't fit into the buffer");
+            }
+        }
+        encodedBatch.flip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int encode() {
+        packets.remaining = BATCH_SIZE;
+        ByteBuffer dst = encoder.dst();
+        int bytes = 0;
+        while (true) {
+            boolean clean = encoder.onWrite() == CLEAN;
+            // pretend that the whole buffer got written to the socket
+            bytes += dst.remaining();
+            dst.position(dst.limit());
+            if (clean) {
+                return bytes;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int decode() throws Exception {
+        decodedPackets.count = 0;
+        decoder.src().put(encodedBatch.duplicate());
+        decoder.onRead();
+        return decodedPackets.count;
+    }
+
+    private static final class PacketSupplier implements Supplier<Packet> {
+        private Packet packet;
+        private int remaining;
+
+        @Override
+        public Packet get() {
+            if (remaining == 0) {
+                return null;
+            }
+            remaining--;
+            return packet;
+        }
+    }
+
+    private static final class PacketCounter implements Consumer<Packet> {
+        private int count;
+
+        @Override
+        public void accept(Packet packet) {
+            count++;
+        }
+    }
+}
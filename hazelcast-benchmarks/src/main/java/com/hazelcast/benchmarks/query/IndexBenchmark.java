@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.benchmarks.EmbeddedMember;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Measures updates and range queries of the global sorted index of a map of
+ * an embedded member.
+ * <p>
+ * The map holds {@code Long} values which are indexed as a whole. The
+ * updates are applied directly to the index, the same way the record stores
+ * apply them when an indexed entry changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class IndexBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final String INDEX_NAME = "value";
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"10", "1000"})
+    public int rangeWidth;
+
+    private HazelcastInstance instance;
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private InternalIndex index;
+    private Data[] keys;
+    private long[] values;
+    private int keyIndex;
+    private long from;
+
+    @Setup
+    public void setup() {
+        Config config = EmbeddedMember.standaloneConfig();
+        config.getMapConfig(MAP_NAME).addIndexConfig(
+                new IndexConfig(IndexType.SORTED, THIS_ATTRIBUTE_NAME.value()).setName(INDEX_NAME));
+        instance = EmbeddedMember.start(config);
+
+        IMap<Long, Long> map = instance.getMap(MAP_NAME);
+        Map<Long, Long> entries = new HashMap<>();
+        for (long i = 0; i < entryCount; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+
+        NodeEngineImpl nodeEngine = EmbeddedMember.nodeEngine(instance);
+        serializationService = EmbeddedMember.node(instance).getSerializationService();
+        MapContainer mapContainer = nodeEngine.<MapService>getService(MapService.SERVICE_NAME)
+                .getMapServiceContext().getMapContainer(MAP_NAME);
+        extractors = mapContainer.getExtractors();
+        index = mapContainer.getGlobalIndexRegistry().getIndex(INDEX_NAME);
+
+        keys = new Data[entryCount];
+        values = new long[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            keys[i] = serializationService.toData((long) i);
+            values[i] = i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    /**
+     * Moves the value of an entry to the other end of the value range.
+     */
+    @Benchmark
+    public void update() {
+        int i = keyIndex++;
+        if (keyIndex == entryCount) {
+            keyIndex = 0;
+        }
+        long oldValue = values[i];
+        long newValue = entryCount - 1 - oldValue;
+        values[i] = newValue;
+
+        CachedQueryEntry oldEntry = new CachedQueryEntry(serializationService, keys[i], oldValue, extractors);
+        CachedQueryEntry newEntry = new CachedQueryEntry(serializationService, keys[i], newValue, extractors);
+        index.putEntry(newEntry, oldEntry, newEntry, Index.OperationSource.USER);
+    }
+
+    @Benchmark
+    public int rangeQuery() {
+        long to = from + rangeWidth;
+        int size = index.getRecords(from, true, to, false).size();
+        from = to < entryCount - rangeWidth ? to : 0;
+        return size;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A person serialized with an explicit {@link CompactSerializer}.
+ */
+public class CompactPerson {
+
+    private final long id;
+    private final String name;
+    private final int age;
+    private final double salary;
+    private final boolean active;
+
+    public CompactPerson(long id, String name, int age, double salary, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.salary = salary;
+        this.active = active;
+    }
+
+    /**
+     * The serializer of {@link CompactPerson}.
+     */
+    public static class Serializer implements CompactSerializer<CompactPerson> {
+
+        @Nonnull
+        @Override
+        public CompactPerson read(@Nonnull CompactReader reader) {
+            return new CompactPerson(reader.readInt64("id"), reader.readString("name"), reader.readInt32("age"),
+                    reader.readFloat64("salary"), reader.readBoolean("active"));
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactPerson person) {
+            writer.writeInt64("id", person.id);
+            writer.writeString("name", person.name);
+            writer.writeInt32("age", person.age);
+            writer.writeFloat64("salary", person.salary);
+            writer.writeBoolean("active", person.active);
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "person";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactPerson> getCompactClass() {
+            return CompactPerson.class;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+
+import java.io.IOException;
+
+/**
+ * A person serialized as {@link Portable}.
+ */
+public class PortablePerson implements Portable {
+
+    static final int FACTORY_ID = 1001;
+    static final int CLASS_ID = 1;
+
+    private long id;
+    private String name;
+    private int age;
+    private double salary;
+    private boolean active;
+
+    public PortablePerson() {
+    }
+
+    public PortablePerson(long id, String name, int age, double salary, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.salary = salary;
+        this.active = active;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CLASS_ID;
+    }
+
+    @Override
+    public void writePortable(PortableWriter writer) throws IOException {
+        writer.writeLong("id", id);
+        writer.writeString("name", name);
+        writer.writeInt("age", age);
+        writer.writeDouble("salary", salary);
+        writer.writeBoolean("active", active);
+    }
+
+    @Override
+    public void readPortable(PortableReader reader) throws IOException {
+        id = reader.readLong("id");
+        name = reader.readString("name");
+        age = reader.readInt("age");
+        salary = reader.readDouble("salary");
+        active = reader.readBoolean("active");
+    }
+}
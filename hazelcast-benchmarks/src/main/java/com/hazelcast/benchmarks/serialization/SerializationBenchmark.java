@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.benchmarks.EmbeddedMember;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code toData} and {@code toObject} of the serialization service
+ * of an embedded member for the same object serialized as
+ * {@code IdentifiedDataSerializable}, Compact and Portable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * The serialization format of the benchmarked object.
+     */
+    public enum Format {
+        IDENTIFIED,
+        COMPACT,
+        PORTABLE
+    }
+
+    @Param
+    public Format format;
+
+    private HazelcastInstance instance;
+    private InternalSerializationService serializationService;
+    private Object object;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        Config config = EmbeddedMember.standaloneConfig();
+        SerializationConfig serializationConfig = config.getSerializationConfig();
+        serializationConfig.addDataSerializableFactory(IdentifiedPerson.FACTORY_ID, classId -> new IdentifiedPerson());
+        serializationConfig.addPortableFactory(PortablePerson.FACTORY_ID, classId -> new PortablePerson());
+        serializationConfig.getCompactSerializationConfig().addSerializer(new CompactPerson.Serializer());
+        instance = EmbeddedMember.start(config);
+        serializationService = EmbeddedMember.node(instance).getSerializationService();
+
+        switch (format) {
+            case IDENTIFIED:
+                object = new IdentifiedPerson(42, "Joe Doe", 30, 1000.5, true);
+                break;
+            case COMPACT:
+                object = new CompactPerson(42, "Joe Doe", 30, 1000.5, true);
+                break;
+            case PORTABLE:
+                object = new PortablePerson(42, "Joe Doe", 30, 1000.5, true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        // registers the schema or the class definition before the measurement
+        data = serializationService.toData(object);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+}
@@ -604,6 +604,23 @@ SqlAlterJob SqlAlterJob() :
     }
 }
 
+/**
+ * Parses ANALYZE MAPPING statement.
+ */
+SqlAnalyzeMapping SqlAnalyzeMapping() :
+{
+    SqlParserPos pos = getPos();
+
+    SqlIdentifier name;
+}
+{
+    <ANALYZE> [ <EXTERNAL> ] <MAPPING>
+    name = CompoundIdentifier()
+    {
+        return new SqlAnalyzeMapping(name, pos.plus(getPos()));
+    }
+}
+
 /**
  * Parses DROP JOB statement.
  */
@@ -21,6 +21,7 @@ import com.hazelcast.dataconnection.impl.InternalDataConnectionService;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.sql.impl.SqlPlanImpl.AlterJobPlan;
+import com.hazelcast.jet.sql.impl.SqlPlanImpl.AnalyzeMappingPlan;
 import com.hazelcast.jet.sql.impl.SqlPlanImpl.CreateJobPlan;
 import com.hazelcast.jet.sql.impl.SqlPlanImpl.CreateMappingPlan;
 import com.hazelcast.jet.sql.impl.SqlPlanImpl.CreateSnapshotPlan;
@@ -72,6 +73,7 @@ import com.hazelcast.jet.sql.impl.opt.physical.visitor.RexToExpressionVisitor;
 import com.hazelcast.jet.sql.impl.parse.QueryConvertResult;
 import com.hazelcast.jet.sql.impl.parse.QueryParseResult;
 import com.hazelcast.jet.sql.impl.parse.SqlAlterJob;
+import com.hazelcast.jet.sql.impl.parse.SqlAnalyzeMapping;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateDataConnection;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateIndex;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateJob;
@@ -343,6 +345,8 @@ public class CalciteSqlOptimizer implements SqlOptimizer {
             return toCreateMappingPlan(planKey, (SqlCreateMapping) node);
         } else if (node instanceof SqlDropMapping) {
             return toDropMappingPlan(planKey, (SqlDropMapping) node);
+        } else if (node instanceof SqlAnalyzeMapping) {
+            return toAnalyzeMappingPlan(planKey, (SqlAnalyzeMapping) node);
         } else if (node instanceof SqlCreateIndex) {
             return toCreateIndexPlan(planKey, (SqlCreateIndex) node);
         } else if (node instanceof SqlDropIndex) {
@@ -442,6 +446,10 @@ public class CalciteSqlOptimizer implements SqlOptimizer {
         return new DropMappingPlan(planKey, sqlDropMapping.nameWithoutSchema(), sqlDropMapping.ifExists(), planExecutor);
     }
 
+    private SqlPlan toAnalyzeMappingPlan(PlanKey planKey, SqlAnalyzeMapping sqlAnalyzeMapping) {
+        return new AnalyzeMappingPlan(planKey, sqlAnalyzeMapping.nameWithoutSchema(), planExecutor);
+    }
+
     private SqlPlan toCreateIndexPlan(PlanKey planKey, SqlCreateIndex sqlCreateIndex) {
         return new CreateIndexPlan(
                 planKey,
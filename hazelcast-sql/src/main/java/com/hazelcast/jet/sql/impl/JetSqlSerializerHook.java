@@ -95,9 +95,11 @@ import com.hazelcast.sql.impl.extract.GenericQueryTargetDescriptor;
 import com.hazelcast.sql.impl.extract.QueryPath;
 import com.hazelcast.sql.impl.row.EmptyRow;
 import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
 import com.hazelcast.sql.impl.schema.Mapping;
 import com.hazelcast.sql.impl.schema.MappingField;
 import com.hazelcast.sql.impl.schema.dataconnection.DataConnectionCatalogEntry;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
 import com.hazelcast.sql.impl.schema.type.Type;
 import com.hazelcast.sql.impl.schema.view.View;
 import com.hazelcast.sql.impl.type.QueryDataType;
@@ -220,7 +222,10 @@ public class JetSqlSerializerHook implements DataSerializerHook {
 
     public static final int LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER = 91;
 
-    public static final int LEN = LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER + 1;
+    public static final int MAP_TABLE_STATISTICS = 92;
+    public static final int COLUMN_STATISTICS = 93;
+
+    public static final int LEN = COLUMN_STATISTICS + 1;
 
     @Override
     public int getFactoryId() {
@@ -340,6 +345,9 @@ public class JetSqlSerializerHook implements DataSerializerHook {
 
         constructors[LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER] = arg -> new LazyDefiningSpecificMemberPms();
 
+        constructors[MAP_TABLE_STATISTICS] = arg -> new MapTableStatistics();
+        constructors[COLUMN_STATISTICS] = arg -> new ColumnStatistics();
+
         return new ArrayDataSerializableFactory(constructors);
     }
 
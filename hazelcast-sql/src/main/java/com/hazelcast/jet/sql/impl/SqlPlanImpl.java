@@ -206,6 +206,48 @@ abstract class SqlPlanImpl extends SqlPlan {
         }
     }
 
+    static class AnalyzeMappingPlan extends SqlPlanImpl {
+        private final String name;
+        private final PlanExecutor planExecutor;
+
+        AnalyzeMappingPlan(
+                PlanKey planKey,
+                String name,
+                PlanExecutor planExecutor
+        ) {
+            super(planKey);
+
+            this.name = name;
+            this.planExecutor = planExecutor;
+        }
+
+        String name() {
+            return name;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return false;
+        }
+
+        @Override
+        public void checkPermissions(SqlSecurityContext context) {
+            context.checkPermission(new SqlPermission(name, ACTION_CREATE));
+        }
+
+        @Override
+        public boolean producesRows() {
+            return false;
+        }
+
+        @Override
+        public SqlResult execute(QueryId queryId, List<Object> arguments, long timeout, SqlSecurityContext ssc) {
+            SqlPlanImpl.ensureNoArguments("ANALYZE MAPPING", arguments);
+            SqlPlanImpl.ensureNoTimeout("ANALYZE MAPPING", timeout);
+            return planExecutor.execute(this, ssc);
+        }
+    }
+
     static class CreateDataConnectionPlan extends SqlPlanImpl {
         private final boolean replace;
         private final boolean ifNotExists;
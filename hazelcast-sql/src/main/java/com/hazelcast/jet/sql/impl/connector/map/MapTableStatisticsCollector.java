@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.connector.map;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.sql.impl.connector.keyvalue.KvRowProjector;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
+import com.hazelcast.sql.impl.schema.TableField;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
+import com.hazelcast.sql.impl.schema.map.PartitionedMapTable;
+import com.hazelcast.sql.impl.security.SqlSecurityContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_STATISTICS_SAMPLE_SIZE;
+import static java.util.Collections.emptyList;
+
+/**
+ * Collects the {@link MapTableStatistics} of an IMap mapping for {@code
+ * ANALYZE MAPPING}.
+ * <p>
+ * Whole partitions are read in random order with the partition iterators
+ * until {@link com.hazelcast.spi.properties.ClusterProperty#SQL_STATISTICS_SAMPLE_SIZE}
+ * rows are sampled. The entries are distributed to the partitions by the
+ * hash of the key, so the rows of a partition are a fair sample of the map.
+ * The distinct counts are extrapolated from the sample using the Duj1
+ * estimator by Haas and Stokes.
+ */
+public final class MapTableStatisticsCollector {
+
+    static final int HISTOGRAM_BUCKETS = 32;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private MapTableStatisticsCollector() {
+    }
+
+    public static MapTableStatistics collect(
+            NodeEngine nodeEngine,
+            PartitionedMapTable table,
+            SqlSecurityContext ssc
+    ) {
+        InternalSerializationService ss = (InternalSerializationService) nodeEngine.getSerializationService();
+        ExpressionEvalContext evalContext = ExpressionEvalContext.createContext(emptyList(), nodeEngine, ss, ssc);
+
+        List<TableField> fields = table.getFields();
+        List<Expression<?>> projections = new ArrayList<>(fields.size());
+        ColumnSample[] samples = new ColumnSample[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            TableField field = fields.get(i);
+            projections.add(ColumnExpression.create(i, field.getType()));
+            samples[i] = new ColumnSample(field.getType().getTypeFamily().isNumeric());
+        }
+        KvRowProjector projector = KvRowProjector.supplier(
+                table.paths(),
+                table.types(),
+                table.getKeyDescriptor(),
+                table.getValueDescriptor(),
+                null,
+                projections
+        ).get(evalContext, Extractors.newBuilder(ss).build());
+
+        MapProxyImpl<Object, Object> map =
+                (MapProxyImpl<Object, Object>) nodeEngine.getHazelcastInstance().getMap(table.getMapName());
+        long rowCount = map.size();
+        int sampleSize = nodeEngine.getProperties().getInteger(SQL_STATISTICS_SAMPLE_SIZE);
+
+        List<Integer> partitionIds = new ArrayList<>();
+        for (int i = 0; i < nodeEngine.getPartitionService().getPartitionCount(); i++) {
+            partitionIds.add(i);
+        }
+        Collections.shuffle(partitionIds, ThreadLocalRandom.current());
+
+        int sampled = 0;
+        for (int partitionId : partitionIds) {
+            Iterator<Entry<Object, Object>> iterator = map.iterator(FETCH_SIZE, partitionId, true);
+            while (sampled < sampleSize && iterator.hasNext()) {
+                Entry<Object, Object> entry = iterator.next();
+                JetSqlRow row = projector.project(entry.getKey(), entry.getValue());
+                for (int i = 0; i < samples.length; i++) {
+                    samples[i].add(row.get(i));
+                }
+                sampled++;
+            }
+            if (sampled >= sampleSize) {
+                break;
+            }
+        }
+
+        Map<String, ColumnStatistics> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).getName(), samples[i].toStatistics(Math.max(rowCount, sampled)));
+        }
+        return new MapTableStatistics(table.getSqlName(), System.currentTimeMillis(), rowCount, columns);
+    }
+
+    private static final class ColumnSample {
+
+        private final Map<Object, Integer> counts = new HashMap<>();
+        private final boolean numeric;
+        private double[] numbers = new double[16];
+        private int numberCount;
+        private int nullCount;
+        private int rowCount;
+
+        ColumnSample(boolean numeric) {
+            this.numeric = numeric;
+        }
+
+        void add(Object value) {
+            rowCount++;
+            if (value == null) {
+                nullCount++;
+                return;
+            }
+            counts.merge(value, 1, Integer::sum);
+            if (numeric) {
+                if (numberCount == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, numberCount * 2);
+                }
+                numbers[numberCount++] = ((Number) value).doubleValue();
+            }
+        }
+
+        ColumnStatistics toStatistics(long totalRowCount) {
+            double nullFraction = rowCount == 0 ? 0 : (double) nullCount / rowCount;
+            return new ColumnStatistics(distinctCount(totalRowCount), nullFraction, histogram());
+        }
+
+        /**
+         * The Duj1 estimator: {@code n * d / (n - f1 + f1 * n / N)}, where
+         * {@code n} is the number of sampled non-null values, {@code d} the
+         * number of distinct ones, {@code f1} the number of values seen once
+         * and {@code N} the number of non-null values in the table.
+         */
+        private long distinctCount(long totalRowCount) {
+            long d = counts.size();
+            long n = rowCount - nullCount;
+            if (n == 0) {
+                return 0;
+            }
+            double total = totalRowCount * ((double) n / rowCount);
+            if (total <= n) {
+                return d;
+            }
+            long f1 = counts.values().stream().filter(count -> count == 1).count();
+            double estimate = n * d / (n - f1 + f1 * n / total);
+            return (long) Math.max(d, Math.min(estimate, total));
+        }
+
+        private double[] histogram() {
+            if (numberCount == 0) {
+                return null;
+            }
+            double[] sorted = Arrays.copyOf(numbers, numberCount);
+            Arrays.sort(sorted);
+            int buckets = Math.min(HISTOGRAM_BUCKETS, numberCount);
+            double[] bounds = new double[buckets + 1];
+            for (int i = 0; i <= buckets; i++) {
+                bounds[i] = sorted[(int) ((long) i * (numberCount - 1) / buckets)];
+            }
+            return bounds;
+        }
+    }
+}
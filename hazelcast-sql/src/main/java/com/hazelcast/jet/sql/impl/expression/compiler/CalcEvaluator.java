@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.expression.compiler;
+
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Evaluates the filter and the projections of a SQL {@code Calc} operator
+ * for a row, see {@link ExpressionCompiler}.
+ * <p>
+ * Instances aren't thread-safe, each processor must use its own.
+ */
+@FunctionalInterface
+public interface CalcEvaluator {
+
+    /**
+     * Returns the projected row or {@code null}, if the row is rejected by
+     * the filter.
+     */
+    @Nullable
+    JetSqlRow evaluate(@Nonnull Row row);
+
+    /**
+     * Evaluates the selected rows of the batch. The selection is narrowed to
+     * the rows passing the filter, their projections are written to the
+     * beginning of {@code output}.
+     *
+     * @return the number of rows written to {@code output}
+     */
+    default int evaluate(@Nonnull JetSqlRowBatch batch, @Nonnull JetSqlRow[] output) {
+        int selectedCount = batch.getSelectedCount();
+        batch.clearSelection();
+        int outputCount = 0;
+        for (int i = 0; i < selectedCount; i++) {
+            // the selection is overwritten behind the read position
+            int index = batch.getSelected(i);
+            JetSqlRow result = evaluate(batch.getRow(index));
+            if (result != null) {
+                batch.select(index);
+                output[outputCount++] = result;
+            }
+        }
+        return outputCount;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.expression.compiler;
+
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+/**
+ * A node of a compiled expression tree.
+ * <p>
+ * The subclasses evaluate to unboxed values, {@link #evalObject} boxes the
+ * value into the Java type the interpreter would return for the same SQL
+ * type. The numeric subclasses report a {@code null} result through the
+ * {@code wasNull} field, therefore the instances aren't thread-safe.
+ */
+abstract class Evaluator {
+
+    /** The {@link OfBoolean} result for {@code FALSE}. */
+    static final int FALSE = 0;
+
+    /** The {@link OfBoolean} result for {@code TRUE}. */
+    static final int TRUE = 1;
+
+    /** The {@link OfBoolean} result for {@code NULL}, also known as UNKNOWN. */
+    static final int UNKNOWN = 2;
+
+    abstract Object evalObject(Row row);
+
+    /**
+     * Evaluates the node and returns {@code true}, if the result is {@code
+     * null}.
+     */
+    boolean evalIsNull(Row row) {
+        return evalObject(row) == null;
+    }
+
+    /**
+     * A node of a BOOLEAN expression, evaluates to {@link #FALSE}, {@link
+     * #TRUE} or {@link #UNKNOWN}.
+     */
+    abstract static class OfBoolean extends Evaluator {
+
+        abstract int evalBoolean(Row row);
+
+        @Override
+        final Object evalObject(Row row) {
+            int result = evalBoolean(row);
+            return result == UNKNOWN ? null : result == TRUE;
+        }
+
+        @Override
+        final boolean evalIsNull(Row row) {
+            return evalBoolean(row) == UNKNOWN;
+        }
+    }
+
+    /**
+     * A node of a TINYINT, SMALLINT, INTEGER or BIGINT expression.
+     */
+    abstract static class OfLong extends Evaluator {
+
+        /** Set by {@link #evalLong}, the returned value is undefined if {@code true}. */
+        boolean wasNull;
+
+        private final QueryDataTypeFamily family;
+
+        OfLong(QueryDataTypeFamily family) {
+            assert family.isNumericInteger() : family;
+            this.family = family;
+        }
+
+        abstract long evalLong(Row row);
+
+        @Override
+        final Object evalObject(Row row) {
+            long value = evalLong(row);
+            if (wasNull) {
+                return null;
+            }
+
+            switch (family) {
+                case TINYINT:
+                    return (byte) value;
+                case SMALLINT:
+                    return (short) value;
+                case INTEGER:
+                    return (int) value;
+                default:
+                    return value;
+            }
+        }
+
+        @Override
+        final boolean evalIsNull(Row row) {
+            evalLong(row);
+            return wasNull;
+        }
+    }
+
+    /**
+     * A node of a REAL or DOUBLE expression.
+     */
+    abstract static class OfDouble extends Evaluator {
+
+        /** Set by {@link #evalDouble}, the returned value is undefined if {@code true}. */
+        boolean wasNull;
+
+        private final QueryDataTypeFamily family;
+
+        OfDouble(QueryDataTypeFamily family) {
+            assert family.isNumericApproximate() : family;
+            this.family = family;
+        }
+
+        abstract double evalDouble(Row row);
+
+        @Override
+        final Object evalObject(Row row) {
+            double value = evalDouble(row);
+            if (wasNull) {
+                return null;
+            }
+
+            return family == QueryDataTypeFamily.REAL ? (Object) (float) value : (Object) value;
+        }
+
+        @Override
+        final boolean evalIsNull(Row row) {
+            evalDouble(row);
+            return wasNull;
+        }
+    }
+
+    /**
+     * Evaluates an expression, which can't be compiled, with the interpreter.
+     */
+    static final class Interpreted extends Evaluator {
+
+        private final Expression<?> expression;
+        private final ExpressionEvalContext context;
+
+        Interpreted(Expression<?> expression, ExpressionEvalContext context) {
+            this.expression = expression;
+            this.context = context;
+        }
+
+        @Override
+        Object evalObject(Row row) {
+            return expression.eval(row, context);
+        }
+
+        Object evalTop(Row row) {
+            return expression.evalTop(row, context);
+        }
+    }
+}
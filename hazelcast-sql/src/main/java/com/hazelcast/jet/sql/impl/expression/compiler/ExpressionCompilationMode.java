@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.expression.compiler;
+
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_EXPRESSION_COMPILATION;
+
+/**
+ * The ways to evaluate the expressions of a SQL {@code Calc} operator, see
+ * {@link com.hazelcast.spi.properties.ClusterProperty#SQL_EXPRESSION_COMPILATION}.
+ */
+public enum ExpressionCompilationMode {
+
+    /**
+     * Compile the expressions, interpret the parts that can't be compiled.
+     */
+    ENABLED,
+
+    /**
+     * Interpret the expressions.
+     */
+    DISABLED,
+
+    /**
+     * Evaluate both ways and fail if the results differ.
+     */
+    VERIFY;
+
+    public static ExpressionCompilationMode from(HazelcastProperties properties) {
+        return properties.getEnum(SQL_EXPRESSION_COMPILATION, ExpressionCompilationMode.class);
+    }
+}
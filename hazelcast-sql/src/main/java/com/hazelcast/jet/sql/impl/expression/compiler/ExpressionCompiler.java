@@ -0,0 +1,879 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.expression.compiler;
+
+import com.hazelcast.jet.sql.impl.ExpressionUtil;
+import com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.Interpreted;
+import com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.OfBoolean;
+import com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.OfDouble;
+import com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.OfLong;
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlErrorCode;
+import com.hazelcast.sql.impl.expression.BiExpression;
+import com.hazelcast.sql.impl.expression.CastExpression;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.ParameterExpression;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.ExpressionMath;
+import com.hazelcast.sql.impl.expression.math.MinusFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.FALSE;
+import static com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.TRUE;
+import static com.hazelcast.jet.sql.impl.expression.compiler.Evaluator.UNKNOWN;
+
+/**
+ * Compiles the filter and the projections of a SQL {@code Calc} operator
+ * into a tree of {@link Evaluator}s.
+ * <p>
+ * The interpreter boxes every intermediate value and dispatches on the
+ * result type family for every arithmetic operation. The compiled tree is
+ * specialized for the types when it's built: BOOLEAN, integer and
+ * approximate numeric sub-expressions evaluate to {@code int}, {@code long}
+ * and {@code double} without allocation. The supported nodes are the
+ * boolean connectives and tests, comparisons, BIGINT and DOUBLE arithmetic,
+ * widening casts, columns, parameters and constants. Any other
+ * sub-expression is evaluated by the interpreter and its result is unboxed
+ * into the compiled parent, if needed.
+ * <p>
+ * The compiled tree must return the same results and throw the same errors
+ * as the interpreter. {@link ExpressionCompilationMode#VERIFY} evaluates
+ * each row both ways to test it.
+ */
+public final class ExpressionCompiler {
+
+    private final ExpressionEvalContext context;
+
+    private ExpressionCompiler(ExpressionEvalContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns an evaluator of the given filter and projections, the mode is
+     * read from the member properties.
+     */
+    @Nonnull
+    public static CalcEvaluator compile(
+            @Nullable Expression<Boolean> predicate,
+            @Nonnull List<Expression<?>> projections,
+            @Nonnull ExpressionEvalContext context
+    ) {
+        ExpressionCompilationMode mode = ExpressionCompilationMode.from(context.getNodeEngine().getProperties());
+        return compile(predicate, projections, context, mode);
+    }
+
+    @Nonnull
+    public static CalcEvaluator compile(
+            @Nullable Expression<Boolean> predicate,
+            @Nonnull List<Expression<?>> projections,
+            @Nonnull ExpressionEvalContext context,
+            @Nonnull ExpressionCompilationMode mode
+    ) {
+        switch (mode) {
+            case DISABLED:
+                return interpreted(predicate, projections, context);
+            case ENABLED:
+                return compiled(predicate, projections, context);
+            case VERIFY:
+                return verifying(interpreted(predicate, projections, context), compiled(predicate, projections, context));
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    private static CalcEvaluator interpreted(
+            Expression<Boolean> predicate,
+            List<Expression<?>> projections,
+            ExpressionEvalContext context
+    ) {
+        return row -> ExpressionUtil.projection(predicate, projections, row, context);
+    }
+
+    private static CalcEvaluator compiled(
+            Expression<Boolean> predicate,
+            List<Expression<?>> projections,
+            ExpressionEvalContext context
+    ) {
+        ExpressionCompiler compiler = new ExpressionCompiler(context);
+        OfBoolean filter = predicate == null ? null : compiler.compileBoolean(predicate);
+        Evaluator[] evaluators = new Evaluator[projections.size()];
+        for (int i = 0; i < evaluators.length; i++) {
+            evaluators[i] = compiler.compileProjection(projections.get(i));
+        }
+        return new CompiledCalcEvaluator(filter, evaluators, context);
+    }
+
+    private static CalcEvaluator verifying(CalcEvaluator interpreted, CalcEvaluator compiled) {
+        return row -> {
+            JetSqlRow expected = interpreted.evaluate(row);
+            JetSqlRow actual = compiled.evaluate(row);
+            boolean matches = expected == null
+                    ? actual == null
+                    : actual != null && Arrays.equals(expected.getValues(), actual.getValues());
+            if (!matches) {
+                throw QueryException.error("Compiled expressions returned " + actual
+                        + ", but the interpreter returned " + expected);
+            }
+            return expected;
+        };
+    }
+
+    /**
+     * The evaluator of the compiled trees. A batch is evaluated one
+     * expression at a time: first the filter narrows the selection, then
+     * each projection is evaluated for all selected rows.
+     */
+    private static final class CompiledCalcEvaluator implements CalcEvaluator {
+
+        private final OfBoolean filter;
+        private final Evaluator[] evaluators;
+        private final ExpressionEvalContext context;
+
+        CompiledCalcEvaluator(@Nullable OfBoolean filter, Evaluator[] evaluators, ExpressionEvalContext context) {
+            this.filter = filter;
+            this.evaluators = evaluators;
+            this.context = context;
+        }
+
+        @Nullable
+        @Override
+        public JetSqlRow evaluate(@Nonnull Row row) {
+            if (filter != null && filter.evalBoolean(row) != TRUE) {
+                return null;
+            }
+
+            Object[] values = new Object[evaluators.length];
+            for (int i = 0; i < evaluators.length; i++) {
+                values[i] = evalProjection(evaluators[i], row);
+            }
+            return new JetSqlRow(context.getSerializationService(), values);
+        }
+
+        @Override
+        public int evaluate(@Nonnull JetSqlRowBatch batch, @Nonnull JetSqlRow[] output) {
+            if (filter != null) {
+                int selectedCount = batch.getSelectedCount();
+                batch.clearSelection();
+                for (int i = 0; i < selectedCount; i++) {
+                    // the selection is overwritten behind the read position
+                    int index = batch.getSelected(i);
+                    if (filter.evalBoolean(batch.getRow(index)) == TRUE) {
+                        batch.select(index);
+                    }
+                }
+            }
+
+            int outputCount = batch.getSelectedCount();
+            Object[][] values = new Object[outputCount][];
+            for (int i = 0; i < outputCount; i++) {
+                values[i] = new Object[evaluators.length];
+            }
+            for (int column = 0; column < evaluators.length; column++) {
+                Evaluator evaluator = evaluators[column];
+                for (int i = 0; i < outputCount; i++) {
+                    values[i][column] = evalProjection(evaluator, batch.getRow(batch.getSelected(i)));
+                }
+            }
+            for (int i = 0; i < outputCount; i++) {
+                output[i] = new JetSqlRow(context.getSerializationService(), values[i]);
+            }
+            return outputCount;
+        }
+
+        private static Object evalProjection(Evaluator evaluator, Row row) {
+            return evaluator instanceof Interpreted
+                    ? ((Interpreted) evaluator).evalTop(row)
+                    : evaluator.evalObject(row);
+        }
+    }
+
+    private Evaluator compileProjection(Expression<?> expression) {
+        if (expression instanceof ColumnExpression
+                || expression instanceof ConstantExpression
+                || expression instanceof ParameterExpression) {
+            // the interpreter returns the value as is, unboxing and boxing it again would only add work
+            return new Interpreted(expression, context);
+        }
+
+        Evaluator evaluator = compile(expression);
+        if (evaluator instanceof OfLongInterpreted || evaluator instanceof OfDoubleInterpreted
+                || evaluator instanceof OfBooleanInterpreted) {
+            return new Interpreted(expression, context);
+        }
+        return evaluator;
+    }
+
+    private Evaluator compile(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        if (family == QueryDataTypeFamily.BOOLEAN) {
+            return compileBoolean(expression);
+        }
+        if (family.isNumericInteger()) {
+            return compileLong(expression);
+        }
+        if (family.isNumericApproximate()) {
+            return compileDouble(expression);
+        }
+        return new Interpreted(expression, context);
+    }
+
+    private OfBoolean compileBoolean(Expression<?> expression) {
+        if (expression instanceof ConstantExpression) {
+            Boolean value = (Boolean) ((ConstantExpression<?>) expression).getValue();
+            int result = value == null ? UNKNOWN : value ? TRUE : FALSE;
+            return new OfBoolean() {
+                @Override
+                int evalBoolean(Row row) {
+                    return result;
+                }
+            };
+        }
+        if (expression instanceof AndPredicate) {
+            return new And(compileBooleans(((AndPredicate) expression).operands()));
+        }
+        if (expression instanceof OrPredicate) {
+            return new Or(compileBooleans(((OrPredicate) expression).operands()));
+        }
+        if (expression instanceof NotPredicate) {
+            return new Not(compileBoolean(((NotPredicate) expression).getOperand()));
+        }
+        if (expression instanceof IsNullPredicate) {
+            return new IsNull(compile(((IsNullPredicate) expression).getOperand()), true);
+        }
+        if (expression instanceof IsNotNullPredicate) {
+            return new IsNull(compile(((IsNotNullPredicate) expression).getOperand()), false);
+        }
+        if (expression instanceof IsTruePredicate) {
+            return new Is(compileBoolean(((IsTruePredicate) expression).getOperand()), TRUE, FALSE, FALSE);
+        }
+        if (expression instanceof IsNotTruePredicate) {
+            return new Is(compileBoolean(((IsNotTruePredicate) expression).getOperand()), FALSE, TRUE, TRUE);
+        }
+        if (expression instanceof IsFalsePredicate) {
+            return new Is(compileBoolean(((IsFalsePredicate) expression).getOperand()), FALSE, TRUE, FALSE);
+        }
+        if (expression instanceof IsNotFalsePredicate) {
+            return new Is(compileBoolean(((IsNotFalsePredicate) expression).getOperand()), TRUE, FALSE, TRUE);
+        }
+        if (expression instanceof ComparisonPredicate) {
+            ComparisonPredicate comparison = (ComparisonPredicate) expression;
+            QueryDataTypeFamily family1 = comparison.getOperand1().getType().getTypeFamily();
+            QueryDataTypeFamily family2 = comparison.getOperand2().getType().getTypeFamily();
+            if (family1.isNumericInteger() && family2.isNumericInteger()) {
+                return new LongComparison(comparison.getMode(),
+                        compileLong(comparison.getOperand1()), compileLong(comparison.getOperand2()));
+            }
+            if (family1.isNumericApproximate() && family2.isNumericApproximate()) {
+                return new DoubleComparison(comparison.getMode(),
+                        compileDouble(comparison.getOperand1()), compileDouble(comparison.getOperand2()));
+            }
+        }
+        return new OfBooleanInterpreted(expression, context);
+    }
+
+    private OfBoolean[] compileBooleans(Expression<?>[] operands) {
+        OfBoolean[] evaluators = new OfBoolean[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            evaluators[i] = compileBoolean(operands[i]);
+        }
+        return evaluators;
+    }
+
+    private OfLong compileLong(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        if (expression instanceof ColumnExpression) {
+            return new LongColumn(family, ((ColumnExpression<?>) expression).getIndex());
+        }
+        if (expression instanceof ParameterExpression) {
+            return new LongParameter(family, ((ParameterExpression<?>) expression).getIndex(), context);
+        }
+        if (expression instanceof ConstantExpression) {
+            return new LongConstant(family, (Number) ((ConstantExpression<?>) expression).getValue());
+        }
+        if (family == QueryDataTypeFamily.BIGINT && isArithmetic(expression)) {
+            Expression<?> operand1 = ((BiExpression<?>) expression).getOperand1();
+            Expression<?> operand2 = ((BiExpression<?>) expression).getOperand2();
+            if (operand1.getType().getTypeFamily().isNumericInteger()
+                    && operand2.getType().getTypeFamily().isNumericInteger()) {
+                return new BigintArithmetic(operator(expression), compileLong(operand1), compileLong(operand2));
+            }
+        }
+        if (expression instanceof CastExpression) {
+            Expression<?> operand = ((CastExpression<?>) expression).getOperand();
+            QueryDataTypeFamily operandFamily = operand.getType().getTypeFamily();
+            if (operandFamily.isNumericInteger() && bitWidth(operandFamily) <= bitWidth(family)) {
+                return new LongWidening(family, compileLong(operand));
+            }
+        }
+        return new OfLongInterpreted(family, expression, context);
+    }
+
+    private OfDouble compileDouble(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        if (expression instanceof ColumnExpression) {
+            return new DoubleColumn(family, ((ColumnExpression<?>) expression).getIndex());
+        }
+        if (expression instanceof ParameterExpression) {
+            return new DoubleParameter(family, ((ParameterExpression<?>) expression).getIndex(), context);
+        }
+        if (expression instanceof ConstantExpression) {
+            return new DoubleConstant(family, (Number) ((ConstantExpression<?>) expression).getValue());
+        }
+        if (family == QueryDataTypeFamily.DOUBLE && isArithmetic(expression)) {
+            Expression<?> operand1 = ((BiExpression<?>) expression).getOperand1();
+            Expression<?> operand2 = ((BiExpression<?>) expression).getOperand2();
+            if (isIntegerOrApproximate(operand1) && isIntegerOrApproximate(operand2)) {
+                return new DoubleArithmetic(operator(expression), toDouble(operand1), toDouble(operand2));
+            }
+        }
+        if (family == QueryDataTypeFamily.DOUBLE && expression instanceof CastExpression) {
+            // every integer and REAL value converts to DOUBLE exactly, same as the interpreter does
+            Expression<?> operand = ((CastExpression<?>) expression).getOperand();
+            if (isIntegerOrApproximate(operand)) {
+                return new DoubleWidening(toDouble(operand));
+            }
+        }
+        return new OfDoubleInterpreted(family, expression, context);
+    }
+
+    private OfDouble toDouble(Expression<?> expression) {
+        if (expression.getType().getTypeFamily().isNumericInteger()) {
+            return new LongToDouble(compileLong(expression));
+        }
+        return compileDouble(expression);
+    }
+
+    private static boolean isIntegerOrApproximate(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        return family.isNumericInteger() || family.isNumericApproximate();
+    }
+
+    private static boolean isArithmetic(Expression<?> expression) {
+        return expression instanceof PlusFunction
+                || expression instanceof MinusFunction
+                || expression instanceof MultiplyFunction
+                || expression instanceof DivideFunction;
+    }
+
+    private static char operator(Expression<?> expression) {
+        if (expression instanceof PlusFunction) {
+            return '+';
+        } else if (expression instanceof MinusFunction) {
+            return '-';
+        } else if (expression instanceof MultiplyFunction) {
+            return '*';
+        } else {
+            return '/';
+        }
+    }
+
+    private static int bitWidth(QueryDataTypeFamily family) {
+        switch (family) {
+            case TINYINT:
+                return Byte.SIZE;
+            case SMALLINT:
+                return Short.SIZE;
+            case INTEGER:
+                return Integer.SIZE;
+            default:
+                return Long.SIZE;
+        }
+    }
+
+    private static boolean matches(ComparisonMode mode, int order) {
+        switch (mode) {
+            case EQUALS:
+                return order == 0;
+            case NOT_EQUALS:
+                return order != 0;
+            case GREATER_THAN:
+                return order > 0;
+            case GREATER_THAN_OR_EQUAL:
+                return order >= 0;
+            case LESS_THAN:
+                return order < 0;
+            case LESS_THAN_OR_EQUAL:
+                return order <= 0;
+            default:
+                throw new IllegalStateException("unexpected comparison mode: " + mode);
+        }
+    }
+
+    private static final class And extends OfBoolean {
+        private final OfBoolean[] operands;
+
+        And(OfBoolean[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            boolean seenUnknown = false;
+            for (OfBoolean operand : operands) {
+                int result = operand.evalBoolean(row);
+                if (result == FALSE) {
+                    return FALSE;
+                }
+                seenUnknown |= result == UNKNOWN;
+            }
+            return seenUnknown ? UNKNOWN : TRUE;
+        }
+    }
+
+    private static final class Or extends OfBoolean {
+        private final OfBoolean[] operands;
+
+        Or(OfBoolean[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            boolean seenUnknown = false;
+            for (OfBoolean operand : operands) {
+                int result = operand.evalBoolean(row);
+                if (result == TRUE) {
+                    return TRUE;
+                }
+                seenUnknown |= result == UNKNOWN;
+            }
+            return seenUnknown ? UNKNOWN : FALSE;
+        }
+    }
+
+    private static final class Not extends OfBoolean {
+        private final OfBoolean operand;
+
+        Not(OfBoolean operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            int result = operand.evalBoolean(row);
+            return result == UNKNOWN ? UNKNOWN : result ^ TRUE;
+        }
+    }
+
+    private static final class IsNull extends OfBoolean {
+        private final Evaluator operand;
+        private final boolean expectNull;
+
+        IsNull(Evaluator operand, boolean expectNull) {
+            this.operand = operand;
+            this.expectNull = expectNull;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            return operand.evalIsNull(row) == expectNull ? TRUE : FALSE;
+        }
+    }
+
+    /**
+     * {@code IS [NOT] TRUE} and {@code IS [NOT] FALSE}, never returns UNKNOWN.
+     */
+    private static final class Is extends OfBoolean {
+        private final OfBoolean operand;
+        private final int ifTrue;
+        private final int ifFalse;
+        private final int ifUnknown;
+
+        Is(OfBoolean operand, int ifTrue, int ifFalse, int ifUnknown) {
+            this.operand = operand;
+            this.ifTrue = ifTrue;
+            this.ifFalse = ifFalse;
+            this.ifUnknown = ifUnknown;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            int result = operand.evalBoolean(row);
+            return result == TRUE ? ifTrue : result == FALSE ? ifFalse : ifUnknown;
+        }
+    }
+
+    private static final class LongComparison extends OfBoolean {
+        private final ComparisonMode mode;
+        private final OfLong operand1;
+        private final OfLong operand2;
+
+        LongComparison(ComparisonMode mode, OfLong operand1, OfLong operand2) {
+            this.mode = mode;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            long left = operand1.evalLong(row);
+            if (operand1.wasNull) {
+                return UNKNOWN;
+            }
+            long right = operand2.evalLong(row);
+            if (operand2.wasNull) {
+                return UNKNOWN;
+            }
+            return matches(mode, Long.compare(left, right)) ? TRUE : FALSE;
+        }
+    }
+
+    private static final class DoubleComparison extends OfBoolean {
+        private final ComparisonMode mode;
+        private final OfDouble operand1;
+        private final OfDouble operand2;
+
+        DoubleComparison(ComparisonMode mode, OfDouble operand1, OfDouble operand2) {
+            this.mode = mode;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            double left = operand1.evalDouble(row);
+            if (operand1.wasNull) {
+                return UNKNOWN;
+            }
+            double right = operand2.evalDouble(row);
+            if (operand2.wasNull) {
+                return UNKNOWN;
+            }
+            // Double.compare() orders NaN and -0.0 the same way as Double.compareTo() used by the interpreter
+            return matches(mode, Double.compare(left, right)) ? TRUE : FALSE;
+        }
+    }
+
+    private static final class OfBooleanInterpreted extends OfBoolean {
+        private final Expression<?> expression;
+        private final ExpressionEvalContext context;
+
+        OfBooleanInterpreted(Expression<?> expression, ExpressionEvalContext context) {
+            this.expression = expression;
+            this.context = context;
+        }
+
+        @Override
+        int evalBoolean(Row row) {
+            Boolean result = (Boolean) expression.eval(row, context);
+            return result == null ? UNKNOWN : result ? TRUE : FALSE;
+        }
+    }
+
+    private static final class LongColumn extends OfLong {
+        private final int index;
+
+        LongColumn(QueryDataTypeFamily family, int index) {
+            super(family);
+            this.index = index;
+        }
+
+        @Override
+        long evalLong(Row row) {
+            Number value = row.get(index, false);
+            wasNull = value == null;
+            return wasNull ? 0 : value.longValue();
+        }
+    }
+
+    private static final class LongParameter extends OfLong {
+        private final int index;
+        private final ExpressionEvalContext context;
+
+        LongParameter(QueryDataTypeFamily family, int index, ExpressionEvalContext context) {
+            super(family);
+            this.index = index;
+            this.context = context;
+        }
+
+        @Override
+        long evalLong(Row row) {
+            Number value = (Number) context.getArgument(index);
+            wasNull = value == null;
+            return wasNull ? 0 : value.longValue();
+        }
+    }
+
+    private static final class LongConstant extends OfLong {
+        private final long value;
+        private final boolean isNull;
+
+        LongConstant(QueryDataTypeFamily family, Number value) {
+            super(family);
+            this.isNull = value == null;
+            this.value = isNull ? 0 : value.longValue();
+        }
+
+        @Override
+        long evalLong(Row row) {
+            wasNull = isNull;
+            return value;
+        }
+    }
+
+    private static final class LongWidening extends OfLong {
+        private final OfLong operand;
+
+        LongWidening(QueryDataTypeFamily family, OfLong operand) {
+            super(family);
+            this.operand = operand;
+        }
+
+        @Override
+        long evalLong(Row row) {
+            long value = operand.evalLong(row);
+            wasNull = operand.wasNull;
+            return value;
+        }
+    }
+
+    private static final class BigintArithmetic extends OfLong {
+        private final char operator;
+        private final OfLong operand1;
+        private final OfLong operand2;
+
+        BigintArithmetic(char operator, OfLong operand1, OfLong operand2) {
+            super(QueryDataTypeFamily.BIGINT);
+            this.operator = operator;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        long evalLong(Row row) {
+            long left = operand1.evalLong(row);
+            if (operand1.wasNull) {
+                wasNull = true;
+                return 0;
+            }
+            long right = operand2.evalLong(row);
+            if (operand2.wasNull) {
+                wasNull = true;
+                return 0;
+            }
+            wasNull = false;
+
+            try {
+                switch (operator) {
+                    case '+':
+                        return Math.addExact(left, right);
+                    case '-':
+                        return Math.subtractExact(left, right);
+                    case '*':
+                        return Math.multiplyExact(left, right);
+                    default:
+                        break;
+                }
+            } catch (ArithmeticException e) {
+                throw QueryException.error(SqlErrorCode.DATA_EXCEPTION,
+                        "BIGINT overflow in '" + operator + "' operator (consider adding explicit CAST to DECIMAL)");
+            }
+
+            try {
+                return ExpressionMath.divideExact(left, right);
+            } catch (ArithmeticException e) {
+                throw QueryException.error(SqlErrorCode.DATA_EXCEPTION, "Division by zero", e);
+            }
+        }
+    }
+
+    private static final class OfLongInterpreted extends OfLong {
+        private final Expression<?> expression;
+        private final ExpressionEvalContext context;
+
+        OfLongInterpreted(QueryDataTypeFamily family, Expression<?> expression, ExpressionEvalContext context) {
+            super(family);
+            this.expression = expression;
+            this.context = context;
+        }
+
+        @Override
+        long evalLong(Row row) {
+            Number value = (Number) expression.eval(row, context);
+            wasNull = value == null;
+            return wasNull ? 0 : value.longValue();
+        }
+    }
+
+    private static final class DoubleColumn extends OfDouble {
+        private final int index;
+
+        DoubleColumn(QueryDataTypeFamily family, int index) {
+            super(family);
+            this.index = index;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            Number value = row.get(index, false);
+            wasNull = value == null;
+            return wasNull ? 0 : value.doubleValue();
+        }
+    }
+
+    private static final class DoubleParameter extends OfDouble {
+        private final int index;
+        private final ExpressionEvalContext context;
+
+        DoubleParameter(QueryDataTypeFamily family, int index, ExpressionEvalContext context) {
+            super(family);
+            this.index = index;
+            this.context = context;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            Number value = (Number) context.getArgument(index);
+            wasNull = value == null;
+            return wasNull ? 0 : value.doubleValue();
+        }
+    }
+
+    private static final class DoubleConstant extends OfDouble {
+        private final double value;
+        private final boolean isNull;
+
+        DoubleConstant(QueryDataTypeFamily family, Number value) {
+            super(family);
+            this.isNull = value == null;
+            this.value = isNull ? 0 : value.doubleValue();
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            wasNull = isNull;
+            return value;
+        }
+    }
+
+    private static final class LongToDouble extends OfDouble {
+        private final OfLong operand;
+
+        LongToDouble(OfLong operand) {
+            super(QueryDataTypeFamily.DOUBLE);
+            this.operand = operand;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            long value = operand.evalLong(row);
+            wasNull = operand.wasNull;
+            return value;
+        }
+    }
+
+    private static final class DoubleWidening extends OfDouble {
+        private final OfDouble operand;
+
+        DoubleWidening(OfDouble operand) {
+            super(QueryDataTypeFamily.DOUBLE);
+            this.operand = operand;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            double value = operand.evalDouble(row);
+            wasNull = operand.wasNull;
+            return value;
+        }
+    }
+
+    private static final class DoubleArithmetic extends OfDouble {
+        private final char operator;
+        private final OfDouble operand1;
+        private final OfDouble operand2;
+
+        DoubleArithmetic(char operator, OfDouble operand1, OfDouble operand2) {
+            super(QueryDataTypeFamily.DOUBLE);
+            this.operator = operator;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            double left = operand1.evalDouble(row);
+            if (operand1.wasNull) {
+                wasNull = true;
+                return 0;
+            }
+            double right = operand2.evalDouble(row);
+            if (operand2.wasNull) {
+                wasNull = true;
+                return 0;
+            }
+            wasNull = false;
+
+            switch (operator) {
+                case '+':
+                    return left + right;
+                case '-':
+                    return left - right;
+                case '*':
+                    return left * right;
+                default:
+                    try {
+                        return ExpressionMath.divideExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw QueryException.error(SqlErrorCode.DATA_EXCEPTION, "Division by zero", e);
+                    }
+            }
+        }
+    }
+
+    private static final class OfDoubleInterpreted extends OfDouble {
+        private final Expression<?> expression;
+        private final ExpressionEvalContext context;
+
+        OfDoubleInterpreted(QueryDataTypeFamily family, Expression<?> expression, ExpressionEvalContext context) {
+            super(family);
+            this.expression = expression;
+            this.context = context;
+        }
+
+        @Override
+        double evalDouble(Row row) {
+            Number value = (Number) expression.eval(row, context);
+            wasNull = value == null;
+            return wasNull ? 0 : value.doubleValue();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.opt.cost;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
+import com.hazelcast.sql.impl.schema.Table;
+import com.hazelcast.sql.impl.schema.TableStatistics;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUnknownAs;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.Sarg;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+
+/**
+ * Estimates the selectivity of the filters on a table using the column
+ * statistics collected by {@code ANALYZE MAPPING}.
+ * <p>
+ * The conjuncts and disjuncts are assumed to be independent. The predicates
+ * that can't be estimated from the statistics use {@link
+ * RelMdUtil#guessSelectivity}. If none of the referenced columns has
+ * statistics, the whole condition is guessed.
+ */
+public final class SelectivityEstimator {
+
+    private SelectivityEstimator() {
+    }
+
+    /**
+     * Returns the estimated fraction of the rows of the table matching the
+     * condition.
+     *
+     * @param condition Condition over the fields of the table.
+     * @param table     Table the condition is applied to.
+     */
+    public static Double estimate(@Nullable RexNode condition, Table table) {
+        if (condition == null || !hasColumnStatistics(condition, table)) {
+            return RelMdUtil.guessSelectivity(condition);
+        }
+        return Math.max(0d, Math.min(1d, selectivity(condition, table)));
+    }
+
+    private static boolean hasColumnStatistics(RexNode condition, Table table) {
+        TableStatistics statistics = table.getStatistics();
+        if (statistics == null) {
+            return false;
+        }
+        for (int index : RelOptUtil.InputFinder.bits(condition)) {
+            if (index < table.getFieldCount()
+                    && statistics.getColumnStatistics(table.getField(index).getName()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("checkstyle:ReturnCount")
+    private static double selectivity(RexNode node, Table table) {
+        switch (node.getKind()) {
+            case AND: {
+                double result = 1;
+                for (RexNode operand : ((RexCall) node).getOperands()) {
+                    result *= selectivity(operand, table);
+                }
+                return result;
+            }
+
+            case OR: {
+                double result = 0;
+                for (RexNode operand : ((RexCall) node).getOperands()) {
+                    double operandSelectivity = selectivity(operand, table);
+                    result = result + operandSelectivity - result * operandSelectivity;
+                }
+                return result;
+            }
+
+            case NOT:
+                return 1 - selectivity(((RexCall) node).getOperands().get(0), table);
+
+            case IS_NULL:
+            case IS_NOT_NULL: {
+                ColumnStatistics statistics = columnStatistics(((RexCall) node).getOperands().get(0), table);
+                if (statistics == null) {
+                    break;
+                }
+                return node.getKind() == SqlKind.IS_NULL
+                        ? statistics.getNullFraction()
+                        : 1 - statistics.getNullFraction();
+            }
+
+            case EQUALS:
+            case NOT_EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL: {
+                Double result = comparisonSelectivity((RexCall) node, table);
+                if (result == null) {
+                    break;
+                }
+                return result;
+            }
+
+            case SEARCH: {
+                Double result = searchSelectivity((RexCall) node, table);
+                if (result == null) {
+                    break;
+                }
+                return result;
+            }
+
+            default:
+                break;
+        }
+
+        return RelMdUtil.guessSelectivity(node);
+    }
+
+    @Nullable
+    private static Double comparisonSelectivity(RexCall call, Table table) {
+        RexNode left = call.getOperands().get(0);
+        RexNode right = call.getOperands().get(1);
+        SqlKind kind = call.getKind();
+
+        ColumnStatistics statistics = columnStatistics(left, table);
+        RexNode value = right;
+        if (statistics == null) {
+            statistics = columnStatistics(right, table);
+            value = left;
+            kind = kind.reverse();
+        }
+        if (statistics == null || columnStatistics(value, table) != null) {
+            // comparisons of two columns aren't estimated
+            return null;
+        }
+
+        double nonNull = 1 - statistics.getNullFraction();
+        double equals = Math.min(statistics.equalsSelectivity(), nonNull);
+        if (kind == SqlKind.EQUALS) {
+            return equals;
+        } else if (kind == SqlKind.NOT_EQUALS) {
+            return nonNull - equals;
+        }
+
+        Double number = numericValue(value);
+        if (number == null) {
+            return null;
+        }
+        Double lessThan = statistics.lessThanSelectivity(number);
+        if (lessThan == null) {
+            return null;
+        }
+        double lessThanOrEqual = Math.min(lessThan + equals, nonNull);
+        switch (kind) {
+            case LESS_THAN:
+                return lessThan;
+            case LESS_THAN_OR_EQUAL:
+                return lessThanOrEqual;
+            case GREATER_THAN:
+                return nonNull - lessThanOrEqual;
+            case GREATER_THAN_OR_EQUAL:
+                return nonNull - lessThan;
+            default:
+                throw new IllegalArgumentException("Unexpected comparison: " + kind);
+        }
+    }
+
+    /**
+     * Estimates {@code SEARCH(column, sarg)}, which Calcite uses for {@code
+     * IN}, {@code BETWEEN} and the conjunctions and disjunctions of comparisons
+     * of a column with literals. The selectivities of the disjoint ranges of
+     * the Sarg are summed up.
+     */
+    @Nullable
+    @SuppressWarnings("UnstableApiUsage")
+    private static Double searchSelectivity(RexCall call, Table table) {
+        ColumnStatistics statistics = columnStatistics(call.getOperands().get(0), table);
+        RexNode argument = call.getOperands().get(1);
+        if (statistics == null || !(argument instanceof RexLiteral)) {
+            return null;
+        }
+        Sarg<?> sarg = ((RexLiteral) argument).getValueAs(Sarg.class);
+        if (sarg == null) {
+            return null;
+        }
+
+        double nonNull = 1 - statistics.getNullFraction();
+        double equals = Math.min(statistics.equalsSelectivity(), nonNull);
+        double result;
+        if (sarg.isPoints()) {
+            result = sarg.pointCount * equals;
+        } else if (sarg.isComplementedPoints()) {
+            // NOT IN or <>
+            result = nonNull - sarg.rangeSet.complement().asRanges().size() * equals;
+        } else {
+            result = 0;
+            for (Range<?> range : sarg.rangeSet.asRanges()) {
+                Double rangeSelectivity = rangeSelectivity(range, statistics, equals, nonNull);
+                if (rangeSelectivity == null) {
+                    return null;
+                }
+                result += rangeSelectivity;
+            }
+        }
+        result = Math.max(0, Math.min(result, nonNull));
+        if (sarg.nullAs == RexUnknownAs.TRUE) {
+            result += statistics.getNullFraction();
+        }
+        return result;
+    }
+
+    @Nullable
+    @SuppressWarnings("UnstableApiUsage")
+    private static Double rangeSelectivity(Range<?> range, ColumnStatistics statistics, double equals, double nonNull) {
+        if (range.hasLowerBound() && range.hasUpperBound() && range.lowerEndpoint().equals(range.upperEndpoint())) {
+            return range.isEmpty() ? 0 : equals;
+        }
+
+        double below = 0;
+        if (range.hasLowerBound()) {
+            Double bound = lessThanSelectivity(range.lowerEndpoint(), range.lowerBoundType() == BoundType.OPEN,
+                    statistics, equals, nonNull);
+            if (bound == null) {
+                return null;
+            }
+            below = bound;
+        }
+        double upTo = nonNull;
+        if (range.hasUpperBound()) {
+            Double bound = lessThanSelectivity(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED,
+                    statistics, equals, nonNull);
+            if (bound == null) {
+                return null;
+            }
+            upTo = bound;
+        }
+        return Math.max(0, upTo - below);
+    }
+
+    /**
+     * Selectivity of {@code column < value} or {@code column <= value}, if
+     * {@code orEqual} is set.
+     */
+    @Nullable
+    private static Double lessThanSelectivity(
+            Object value,
+            boolean orEqual,
+            ColumnStatistics statistics,
+            double equals,
+            double nonNull
+    ) {
+        if (!(value instanceof BigDecimal)) {
+            return null;
+        }
+        Double lessThan = statistics.lessThanSelectivity(((BigDecimal) value).doubleValue());
+        if (lessThan == null) {
+            return null;
+        }
+        return orEqual ? Math.min(lessThan + equals, nonNull) : lessThan;
+    }
+
+    @Nullable
+    private static ColumnStatistics columnStatistics(RexNode node, Table table) {
+        node = removeCasts(node);
+        if (!(node instanceof RexInputRef)) {
+            return null;
+        }
+        int index = ((RexInputRef) node).getIndex();
+        TableStatistics statistics = table.getStatistics();
+        if (statistics == null || index >= table.getFieldCount()) {
+            return null;
+        }
+        return statistics.getColumnStatistics(table.getField(index).getName());
+    }
+
+    @Nullable
+    private static Double numericValue(RexNode node) {
+        node = removeCasts(node);
+        if (!(node instanceof RexLiteral)) {
+            return null;
+        }
+        RexLiteral literal = (RexLiteral) node;
+        if (!SqlTypeName.NUMERIC_TYPES.contains(literal.getTypeName())) {
+            return null;
+        }
+        BigDecimal value = literal.getValueAs(BigDecimal.class);
+        return value == null ? null : value.doubleValue();
+    }
+
+    private static RexNode removeCasts(RexNode node) {
+        while (node.getKind() == SqlKind.CAST) {
+            node = ((RexCall) node).getOperands().get(0);
+        }
+        return node;
+    }
+}
@@ -51,6 +51,7 @@ import com.hazelcast.jet.sql.impl.opt.ExpressionValues;
 import com.hazelcast.jet.sql.impl.opt.WatermarkKeysAssigner;
 import com.hazelcast.jet.sql.impl.opt.WatermarkThrottlingFrameSizeCalculator;
 import com.hazelcast.jet.sql.impl.processors.LateItemsDropP;
+import com.hazelcast.jet.sql.impl.processors.SqlCalcP;
 import com.hazelcast.jet.sql.impl.processors.SqlHashJoinP;
 import com.hazelcast.jet.sql.impl.processors.StreamToStreamJoinP.StreamToStreamJoinProcessorSupplier;
 import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
@@ -85,7 +86,6 @@ import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.Vertex.LOCAL_PARALLELISM_USE_DEFAULT;
 import static com.hazelcast.jet.core.processor.Processors.flatMapUsingServiceP;
 import static com.hazelcast.jet.core.processor.Processors.mapP;
-import static com.hazelcast.jet.core.processor.Processors.mapUsingServiceP;
 import static com.hazelcast.jet.core.processor.Processors.sortP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.convenientSourceP;
 import static com.hazelcast.jet.sql.impl.connector.HazelcastRexNode.wrap;
@@ -282,22 +282,14 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
         List<Expression<?>> projection = dagBuildContext.convertProjection(wrap(rel.projection()));
 
         Vertex vertex;
-        boolean projectionsCooperative = projection.stream().allMatch(Expression::isCooperative);
         if (program.getCondition() != null) {
             Expression<Boolean> filterExpr = dagBuildContext.convertFilter(wrap(rel.filter()));
             assert filterExpr != null;
-            vertex = dag.newUniqueVertex("Calc", mapUsingServiceP(
-                    ServiceFactories.nonSharedService(ctx ->
-                                    ExpressionUtil.calcFn(projection, filterExpr, ExpressionEvalContext.from(ctx)))
-                            .setCooperative(projectionsCooperative && filterExpr.isCooperative()),
-                    (Function<JetSqlRow, JetSqlRow> calcFn, JetSqlRow row) -> calcFn.apply(row)));
+            SupplierEx<Processor> calcPSupplier = () -> new SqlCalcP(filterExpr, projection);
+            vertex = dag.newUniqueVertex("Calc", calcPSupplier);
         } else {
-            vertex = dag.newUniqueVertex("Project", mapUsingServiceP(
-                    ServiceFactories.nonSharedService(ctx ->
-                                    ExpressionUtil.projectionFn(projection, ExpressionEvalContext.from(ctx)))
-                            .setCooperative(projectionsCooperative),
-                    (Function<JetSqlRow, JetSqlRow> projectionFn, JetSqlRow row) -> projectionFn.apply(row)
-            ));
+            SupplierEx<Processor> projectPSupplier = () -> new SqlCalcP(null, projection);
+            vertex = dag.newUniqueVertex("Project", projectPSupplier);
         }
         connectInputPreserveCollation(rel, vertex);
         return vertex;
@@ -533,7 +525,8 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
                 "Hash Join",
                 SqlHashJoinP.supplier(
                         joinInfo,
-                        rel.getRight().getRowType().getFieldCount()
+                        rel.getRight().getRowType().getFieldCount(),
+                        rel.estimatedRightRowCount()
                 )
         );
         connectJoinInput(joinInfo, rel.getLeft(), rel.getRight(), joinVertex);
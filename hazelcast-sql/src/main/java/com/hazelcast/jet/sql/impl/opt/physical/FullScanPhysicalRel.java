@@ -25,6 +25,7 @@ import com.hazelcast.jet.sql.impl.aggregate.WindowUtils;
 import com.hazelcast.jet.sql.impl.opt.FullScan;
 import com.hazelcast.jet.sql.impl.opt.OptUtils;
 import com.hazelcast.jet.sql.impl.opt.cost.CostUtils;
+import com.hazelcast.jet.sql.impl.opt.cost.SelectivityEstimator;
 import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
 import com.hazelcast.jet.sql.impl.validate.types.HazelcastTypeUtils;
 import com.hazelcast.sql.impl.QueryParameterMetadata;
@@ -42,7 +43,6 @@ import org.apache.calcite.plan.RelOptTable;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
-import org.apache.calcite.rel.metadata.RelMdUtil;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rex.RexNode;
 
@@ -104,7 +104,9 @@ public class FullScanPhysicalRel extends FullScan implements HazelcastPhysicalSc
         double filterRowCount = totalRowCount;
 
         if (table.getFilter() != null) {
-            filterRowCount = CostUtils.adjustFilteredRowCount(totalRowCount, RelMdUtil.guessSelectivity(table.getFilter()));
+            filterRowCount = CostUtils.adjustFilteredRowCount(
+                    totalRowCount,
+                    SelectivityEstimator.estimate(table.getFilter(), table.getTarget()));
         }
 
         return computeSelfCost(
@@ -22,12 +22,14 @@ import com.hazelcast.jet.sql.impl.ExpressionUtil;
 import com.hazelcast.jet.sql.impl.HazelcastPhysicalScan;
 import com.hazelcast.jet.sql.impl.opt.FieldCollation;
 import com.hazelcast.jet.sql.impl.opt.cost.CostUtils;
+import com.hazelcast.jet.sql.impl.opt.cost.SelectivityEstimator;
 import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
 import com.hazelcast.jet.sql.impl.validate.types.HazelcastTypeUtils;
 import com.hazelcast.sql.impl.QueryParameterMetadata;
 import com.hazelcast.sql.impl.exec.scan.index.IndexFilter;
 import com.hazelcast.sql.impl.plan.node.PlanNodeSchema;
 import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.schema.Table;
 import com.hazelcast.sql.impl.schema.map.MapTableIndex;
 import com.hazelcast.sql.impl.type.QueryDataType;
 import org.apache.calcite.plan.RelOptCluster;
@@ -41,7 +43,6 @@ import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.core.TableScan;
-import org.apache.calcite.rel.metadata.RelMdUtil;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rex.RexNode;
 
@@ -155,13 +156,14 @@ public class IndexScanMapPhysicalRel extends TableScan implements HazelcastPhysi
     @Override
     public double estimateRowCount(RelMetadataQuery mq) {
         double rowCount = table.getRowCount();
+        Table target = getTableUnwrapped().getTarget();
 
         if (indexExp != null) {
-            rowCount = CostUtils.adjustFilteredRowCount(rowCount, RelMdUtil.guessSelectivity(indexExp));
+            rowCount = CostUtils.adjustFilteredRowCount(rowCount, SelectivityEstimator.estimate(indexExp, target));
         }
 
         if (remainderExp != null) {
-            rowCount = CostUtils.adjustFilteredRowCount(rowCount, RelMdUtil.guessSelectivity(remainderExp));
+            rowCount = CostUtils.adjustFilteredRowCount(rowCount, SelectivityEstimator.estimate(remainderExp, target));
         }
 
         return rowCount;
@@ -171,9 +173,10 @@ public class IndexScanMapPhysicalRel extends TableScan implements HazelcastPhysi
     public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
         // Get the number of rows being scanned. This is either the whole index (scan), or only part of the index (lookup)
         double scanRowCount = table.getRowCount();
+        Table target = getTableUnwrapped().getTarget();
 
         if (indexExp != null) {
-            scanRowCount = CostUtils.adjustFilteredRowCount(scanRowCount, RelMdUtil.guessSelectivity(indexExp));
+            scanRowCount = CostUtils.adjustFilteredRowCount(scanRowCount, SelectivityEstimator.estimate(indexExp, target));
         }
 
         // Get the number of rows that we expect after the remainder filter is applied.
@@ -181,7 +184,9 @@ public class IndexScanMapPhysicalRel extends TableScan implements HazelcastPhysi
         double filterRowCount = scanRowCount;
 
         if (hasFilter) {
-            filterRowCount = CostUtils.adjustFilteredRowCount(filterRowCount, RelMdUtil.guessSelectivity(remainderExp));
+            filterRowCount = CostUtils.adjustFilteredRowCount(
+                    filterRowCount,
+                    SelectivityEstimator.estimate(remainderExp, target));
         }
 
         return computeSelfCost(
@@ -58,6 +58,16 @@ public class JoinHashPhysicalRel extends JoinPhysicalRel {
         return new JoinHashPhysicalRel(getCluster(), traitSet, left, right, conditionExpr, joinType);
     }
 
+    /**
+     * Returns the estimated number of rows of the right (build) input, or -1
+     * if unknown. It's used to choose the number of partitions when the hash
+     * table is spilled.
+     */
+    public long estimatedRightRowCount() {
+        Double rowCount = getCluster().getMetadataQuery().getRowCount(getRight());
+        return rowCount == null || rowCount.isInfinite() ? -1 : rowCount.longValue();
+    }
+
     @Override
     @Nullable
     public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
@@ -16,14 +16,18 @@
 
 package com.hazelcast.jet.sql.impl.opt.prunability;
 
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
+import com.hazelcast.jet.sql.impl.HazelcastRexBuilder;
 import com.hazelcast.sql.impl.schema.Table;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexDynamicParam;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUnknownAs;
 import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.util.Sarg;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -37,16 +41,26 @@ import static java.util.Collections.emptyMap;
 
 /**
  * Extracts RexDynamicParam/RexLiterals that correspond to key components in the filter.
- * Only supports simple top level AND operators, as well as single operator filters e.g.
+ * Supports equalities combined with AND/OR operators, as well as IN lists (SEARCH with point ranges), e.g.
  * - keyComp1 = ? AND keyComp2 = ?
  * - __key = ?
+ * - __key IN (1, 2, 3)
+ * - (keyComp1 = 1 AND keyComp2 = 2) OR (keyComp1 = 3 AND keyComp2 = 4)
+ * - keyComp1 IN (1, 2) AND keyComp2 = ?
  * Since at this point of Opt all filters are normalized and coalesced into multi-operand AND/OR operators
  * we can safely assume that something like AND(b=1, AND(a=1,c=1)) will become AND(b=1,a=1,c=1) at this point.
- * Note that this class will likely change significantly with introduction of support for more complex filters.
+ * <p>
+ * The number of candidates is limited by {@link #MAX_VARIANTS}. A conjunct that would exceed it is ignored,
+ * which can only widen the set of candidates, and a disjunction exceeding it makes the filter unbounded.
  *
  */
 public class PartitionStrategyConditionExtractor {
 
+    /**
+     * Maximum number of candidates (partition keys) extracted from a single filter.
+     */
+    static final int MAX_VARIANTS = 64;
+
     /**
      * Returns a map of per-table candidates, structured as mapName -> [columnName -> RexLiteralOrDynamicParam]
      * where every innermost map represents a single candidate - a conjunction (AND) of EQUALS-based conditions.
@@ -84,29 +98,113 @@ public class PartitionStrategyConditionExtractor {
             RexCall call,
             Set<String> partitioningColumns
     ) {
-        final List<Map<String, RexNode>> result = new ArrayList<>();
         switch (call.getKind()) {
             case AND:
-                final Map<String, RexNode> variant = new HashMap<>();
-                for (final RexNode operand : call.getOperands()) {
-                    if (!(operand instanceof RexCall)) {
-                        return emptyList();
-                    }
-                    var condition = extractEqualityCondition(table, (RexCall) operand, partitioningColumns);
-                    if (condition != null) {
-                        variant.put(condition.getKey(), condition.getValue());
-                    }
-                }
-                result.add(variant);
-                break;
+                return extractConjunction(table, call, partitioningColumns);
+            case OR:
+                return extractDisjunction(table, call, partitioningColumns);
             case EQUALS:
                 var entry = extractEqualityCondition(table, call, partitioningColumns);
-                if (entry != null) {
-                    result.add(Map.ofEntries(entry));
-                }
-                break;
+                return entry != null ? List.of(Map.ofEntries(entry)) : emptyList();
+            case SEARCH:
+                return extractSearchCondition(table, call, partitioningColumns);
             default:
-                break;
+                return emptyList();
+        }
+    }
+
+    /**
+     * Every operand of the conjunction restricts all the variants, so the result
+     * is a cross product of the variants of all the operands.
+     */
+    private List<Map<String, RexNode>> extractConjunction(
+            Table table,
+            RexCall call,
+            Set<String> partitioningColumns
+    ) {
+        List<Map<String, RexNode>> result = List.of(emptyMap());
+        for (final RexNode operand : call.getOperands()) {
+            if (!(operand instanceof RexCall)) {
+                return emptyList();
+            }
+            final var operandVariants = extractSubCondition(table, (RexCall) operand, partitioningColumns);
+            if (operandVariants.isEmpty() || result.size() * operandVariants.size() > MAX_VARIANTS) {
+                // operand does not restrict the partitioning columns or is too wide to be expanded,
+                // ignoring it is safe, since it only widens the set of the partitions to scan
+                continue;
+            }
+            final List<Map<String, RexNode>> product = new ArrayList<>(result.size() * operandVariants.size());
+            for (final Map<String, RexNode> variant : result) {
+                for (final Map<String, RexNode> operandVariant : operandVariants) {
+                    final Map<String, RexNode> merged = new HashMap<>(variant);
+                    merged.putAll(operandVariant);
+                    product.add(merged);
+                }
+            }
+            result = product;
+        }
+        return result;
+    }
+
+    /**
+     * The variants of the disjunction are the union of the variants of its operands.
+     * If any of the operands is unbounded, so is the whole disjunction.
+     */
+    private List<Map<String, RexNode>> extractDisjunction(
+            Table table,
+            RexCall call,
+            Set<String> partitioningColumns
+    ) {
+        final List<Map<String, RexNode>> result = new ArrayList<>();
+        for (final RexNode operand : call.getOperands()) {
+            if (!(operand instanceof RexCall)) {
+                return emptyList();
+            }
+            final var operandVariants = extractSubCondition(table, (RexCall) operand, partitioningColumns);
+            if (operandVariants.isEmpty()) {
+                return emptyList();
+            }
+            result.addAll(operandVariants);
+            if (result.size() > MAX_VARIANTS) {
+                return emptyList();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expands {@code column IN (literal1, literal2, ...)}, which Calcite represents
+     * as SEARCH with a point-only Sarg, into a variant per point.
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    private List<Map<String, RexNode>> extractSearchCondition(
+            Table table,
+            RexCall call,
+            Set<String> partitioningColumns
+    ) {
+        assert call.getOperands().size() == 2;
+        final RexNode ref = call.getOperands().get(0);
+        final RexNode argument = call.getOperands().get(1);
+        if (!(ref instanceof RexInputRef) || !(argument instanceof RexLiteral)) {
+            return emptyList();
+        }
+
+        final String columnName = table.getField(((RexInputRef) ref).getIndex()).getName();
+        if (!partitioningColumns.contains(columnName)) {
+            return emptyList();
+        }
+
+        final RexLiteral literal = (RexLiteral) argument;
+        final Sarg<?> sarg = literal.getValueAs(Sarg.class);
+        if (sarg == null || !sarg.isPoints() || sarg.nullAs == RexUnknownAs.TRUE || sarg.pointCount > MAX_VARIANTS) {
+            return emptyList();
+        }
+
+        final List<Map<String, RexNode>> result = new ArrayList<>(sarg.pointCount);
+        for (final Range<?> point : sarg.rangeSet.asRanges()) {
+            final RexNode value = HazelcastRexBuilder.INSTANCE
+                    .makeLiteral(point.lowerEndpoint(), literal.getType(), false);
+            result.add(Map.of(columnName, value));
         }
         return result;
     }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Inbox;
+import com.hazelcast.jet.sql.impl.expression.compiler.CalcEvaluator;
+import com.hazelcast.jet.sql.impl.expression.compiler.ExpressionCompiler;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.JetSqlRowBatch;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Processor of the SQL {@code Calc} and {@code Project} operators, which
+ * evaluates the filter and the projections a batch of rows at a time.
+ * <p>
+ * Up to {@link #BATCH_SIZE} rows are taken from the inbox into a {@link
+ * JetSqlRowBatch}, the filter narrows its selection vector and then each
+ * projection is evaluated for all selected rows, see {@link
+ * CalcEvaluator#evaluate(JetSqlRowBatch, JetSqlRow[])}. The input rows stay
+ * in the inbox until all the output of the batch is emitted, so that a
+ * watermark or a snapshot barrier can't overtake it.
+ * SQL engine-specific private API.
+ */
+public class SqlCalcP extends AbstractProcessor {
+
+    static final int BATCH_SIZE = 256;
+
+    private final Expression<Boolean> predicate;
+    private final List<Expression<?>> projections;
+
+    private CalcEvaluator evaluator;
+    private JetSqlRowBatch batch;
+    private JetSqlRow[] output;
+    private int outputCount;
+    private int outputPosition;
+
+    public SqlCalcP(@Nullable Expression<Boolean> predicate, @Nonnull List<Expression<?>> projections) {
+        this.predicate = predicate;
+        this.projections = projections;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        evaluator = ExpressionCompiler.compile(predicate, projections, ExpressionEvalContext.from(context));
+        batch = new JetSqlRowBatch(BATCH_SIZE);
+        output = new JetSqlRow[BATCH_SIZE];
+        super.init(context);
+    }
+
+    @Override
+    public void process(int ordinal, @Nonnull Inbox inbox) {
+        while (true) {
+            if (batch.getRowCount() == 0) {
+                if (inbox.isEmpty()) {
+                    return;
+                }
+                fillBatch(inbox);
+                outputCount = evaluator.evaluate(batch, output);
+                outputPosition = 0;
+            }
+
+            for (; outputPosition < outputCount; outputPosition++) {
+                if (!tryEmit(output[outputPosition])) {
+                    return;
+                }
+                output[outputPosition] = null;
+            }
+
+            for (int i = 0; i < batch.getRowCount(); i++) {
+                inbox.remove();
+            }
+            batch.clear();
+        }
+    }
+
+    private void fillBatch(Inbox inbox) {
+        for (Iterator<Object> iterator = inbox.iterator(); iterator.hasNext() && !batch.isFull(); ) {
+            batch.add((JetSqlRow) iterator.next());
+        }
+    }
+
+    @Override
+    public boolean isCooperative() {
+        if (predicate != null && !predicate.isCooperative()) {
+            return false;
+        }
+        for (Expression<?> projection : projections) {
+            if (!projection.isCooperative()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean closeIsCooperative() {
+        return true;
+    }
+}
@@ -16,8 +16,9 @@
 
 package com.hazelcast.jet.sql.impl.processors;
 
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.Multimap;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.core.AbstractProcessor;
@@ -25,6 +26,8 @@ import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.SpillFileFactory;
 import com.hazelcast.jet.sql.impl.ExpressionUtil;
 import com.hazelcast.jet.sql.impl.JetJoinInfo;
 import com.hazelcast.jet.sql.impl.ObjectArrayKey;
@@ -38,36 +41,111 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+import static com.hazelcast.jet.Traversers.traverseArray;
+import static com.hazelcast.jet.Traversers.traverseItems;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILLED_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILL_COUNT;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Hash join of a bounded left (probe) input with a bounded right (build)
+ * input. The right input must be received first: its rows are put into a
+ * hash table by the join key, then the left rows are looked up in it.
+ * <p>
+ * If {@linkplain com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_ENABLED
+ * spilling} is enabled and it's an equi-join, the processor doesn't fail
+ * when the hash table reaches {@link Processor.Context#maxProcessorAccumulatedRecords()}
+ * rows, but spills to local files: the hash table is split into partitions
+ * by the hash of the join key and the largest partition is written to a
+ * spill file. The left rows of the spilled partitions are spilled too and
+ * joined in the {@code complete} phase, one partition at a time. A spilled
+ * partition that's still too large is partitioned again using a different
+ * hash. The number of partitions is chosen from the planner's estimate of
+ * the right input size.
+ * <p>
+ * Spilling and joining the spilled partitions do blocking file I/O of whole
+ * partitions, therefore the processor isn't cooperative if it can spill.
+ */
 public class SqlHashJoinP extends AbstractProcessor {
 
+    private static final int MIN_PARTITION_COUNT = 16;
+    private static final int MAX_PARTITION_COUNT = 1024;
+    // a partition spilled at this level isn't partitioned any further
+    private static final int MAX_PARTITIONING_LEVEL = 4;
+
+    @Probe(name = SPILL_COUNT)
+    private final Counter spillCount = SwCounter.newSwCounter();
+    @Probe(name = SPILLED_BYTES, unit = BYTES)
+    private final Counter spilledBytes = SwCounter.newSwCounter();
+
     private final JetJoinInfo joinInfo;
     private final int rightInputColumnCount;
+    private final long estimatedRightRowCount;
+    private final boolean spillingEnabled;
+    private final List<SpillFile> spillFiles = new ArrayList<>();
+    private final List<SpillFile.Reader> probeReaders = new ArrayList<>();
 
     private ExpressionEvalContext evalContext;
-    private Multimap<ObjectArrayKey, JetSqlRow> hashMap;
+    private HashTable hashTable;
     private FlatMapper<JetSqlRow, JetSqlRow> flatMapper;
     private long maxItemsInHashTable;
+    private SpillFileFactory spillFileFactory;
+    private Traverser<JetSqlRow> spilledResultTraverser;
 
-    public SqlHashJoinP(JetJoinInfo joinInfo, int rightInputColumnCount) {
+    /**
+     * @param estimatedRightRowCount the estimated total number of rows of the
+     *                               right input, or -1 if unknown
+     * @param spillingEnabled        whether the processor spills when the hash
+     *                               table exceeds the memory limit
+     */
+    private SqlHashJoinP(
+            JetJoinInfo joinInfo,
+            int rightInputColumnCount,
+            long estimatedRightRowCount,
+            boolean spillingEnabled
+    ) {
         this.joinInfo = joinInfo;
         this.rightInputColumnCount = rightInputColumnCount;
+        this.estimatedRightRowCount = estimatedRightRowCount;
+        this.spillingEnabled = spillingEnabled;
     }
 
     @Override
     public void init(@Nonnull Context context) throws Exception {
         this.evalContext = ExpressionEvalContext.from(context);
-        this.hashMap = LinkedListMultimap.create();
-        this.flatMapper = flatMapper(this::join);
         this.maxItemsInHashTable = context.maxProcessorAccumulatedRecords();
+        if (spillingEnabled) {
+            this.spillFileFactory = SpillFileFactory.create(context, spillCount, spilledBytes);
+        }
+        this.hashTable = new HashTable(0, spillFileFactory != null ? partitionCount(context) : 1);
+        this.flatMapper = flatMapper(hashTable::join);
     }
 
-    private Traverser<JetSqlRow> join(JetSqlRow leftRow) {
-        ObjectArrayKey joinKeys = ObjectArrayKey.project(leftRow, joinInfo.leftEquiJoinIndices());
-        Collection<JetSqlRow> matchedRows = hashMap.get(joinKeys);
+    /**
+     * Chooses the number of partitions so that each partition of the expected
+     * right rows fits into the memory limit at least twice.
+     */
+    private int partitionCount(Context context) {
+        if (estimatedRightRowCount <= 0) {
+            return MIN_PARTITION_COUNT;
+        }
+        // the right input is partitioned between all processors by the join key
+        double rowsPerProcessor = (double) estimatedRightRowCount / context.totalParallelism();
+        double partitionCount = Math.ceil(2 * rowsPerProcessor / maxItemsInHashTable);
+        return nextPowerOfTwo((int) Math.max(MIN_PARTITION_COUNT, Math.min(MAX_PARTITION_COUNT, partitionCount)));
+    }
+
+    private Traverser<JetSqlRow> join(JetSqlRow leftRow, Collection<JetSqlRow> matchedRows) {
         List<JetSqlRow> output = matchedRows.stream()
                 .map(right -> ExpressionUtil.join(
                         leftRow,
@@ -90,19 +168,33 @@ public class SqlHashJoinP extends AbstractProcessor {
 
     @Override
     protected boolean tryProcess1(@Nonnull Object item) {
-        if (hashMap.size() == maxItemsInHashTable) {
-            throw new AccumulationLimitExceededException();
-        }
         JetSqlRow rightRow = (JetSqlRow) item;
         ObjectArrayKey joinKeys = ObjectArrayKey.project(rightRow, joinInfo.rightEquiJoinIndices());
         // if there's a null in the key, then `null = null` is UNKNOWN in SQL, ignore such keys
         if (joinKeys.containsNull()) {
             return true;
         }
-        hashMap.put(joinKeys, rightRow);
+        hashTable.add(joinKeys, rightRow);
         return true;
     }
 
+    @Override
+    public boolean complete() {
+        if (spillFiles.isEmpty()) {
+            return true;
+        }
+        if (spilledResultTraverser == null) {
+            spilledResultTraverser = hashTable.joinSpilledPartitions();
+        }
+        return emitFromTraverser(spilledResultTraverser);
+    }
+
+    private SpillFile newSpillFile() {
+        SpillFile file = spillFileFactory.newFile();
+        spillFiles.add(file);
+        return file;
+    }
+
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark watermark) {
         return true;
@@ -110,24 +202,41 @@ public class SqlHashJoinP extends AbstractProcessor {
 
     @Override
     public boolean isCooperative() {
-        return joinInfo.isCooperative();
+        return joinInfo.isCooperative() && !spillingEnabled;
     }
 
     public static HashJoinProcessorSupplier supplier(JetJoinInfo joinInfo, int rightInputColumnCount) {
-        return new HashJoinProcessorSupplier(joinInfo, rightInputColumnCount);
+        return supplier(joinInfo, rightInputColumnCount, -1);
+    }
+
+    public static HashJoinProcessorSupplier supplier(
+            JetJoinInfo joinInfo,
+            int rightInputColumnCount,
+            long estimatedRightRowCount
+    ) {
+        return new HashJoinProcessorSupplier(joinInfo, rightInputColumnCount, estimatedRightRowCount);
     }
 
     private static final class HashJoinProcessorSupplier implements ProcessorSupplier, DataSerializable {
         private JetJoinInfo joinInfo;
         private int rightInputColumnCount;
+        private long estimatedRightRowCount;
+        private transient boolean spillingEnabled;
 
         @SuppressWarnings("unused") // for deserialization
         private HashJoinProcessorSupplier() {
         }
 
-        private HashJoinProcessorSupplier(JetJoinInfo joinInfo, int rightInputColumnCount) {
+        private HashJoinProcessorSupplier(JetJoinInfo joinInfo, int rightInputColumnCount, long estimatedRightRowCount) {
             this.joinInfo = joinInfo;
             this.rightInputColumnCount = rightInputColumnCount;
+            this.estimatedRightRowCount = estimatedRightRowCount;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            // without equi-join keys all rows have the same key, partitioning wouldn't help
+            spillingEnabled = joinInfo.isEquiJoin() && SpillFileFactory.isSpillingEnabled(context);
         }
 
         @Nonnull
@@ -135,7 +244,7 @@ public class SqlHashJoinP extends AbstractProcessor {
         public Collection<? extends Processor> get(int count) {
             List<SqlHashJoinP> processors = new ArrayList<>(count);
             for (int i = 0; i < count; i++) {
-                processors.add(new SqlHashJoinP(joinInfo, rightInputColumnCount));
+                processors.add(new SqlHashJoinP(joinInfo, rightInputColumnCount, estimatedRightRowCount, spillingEnabled));
             }
             return processors;
         }
@@ -144,17 +253,197 @@ public class SqlHashJoinP extends AbstractProcessor {
         public void writeData(ObjectDataOutput out) throws IOException {
             out.writeObject(joinInfo);
             out.writeInt(rightInputColumnCount);
+            out.writeLong(estimatedRightRowCount);
         }
 
         @Override
         public void readData(ObjectDataInput in) throws IOException {
             joinInfo = in.readObject();
             rightInputColumnCount = in.readInt();
+            estimatedRightRowCount = in.readLong();
         }
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return spillFiles.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        for (SpillFile.Reader reader : probeReaders) {
+            reader.close();
+        }
+        probeReaders.clear();
+        for (SpillFile file : spillFiles) {
+            file.delete();
+        }
+        spillFiles.clear();
+    }
+
+    /**
+     * The hash table of the right rows, split into partitions by the hash of
+     * the join key. Each partition is either in memory or spilled.
+     */
+    private final class HashTable {
+        private final int level;
+        private final Partition[] partitions;
+        private long rowsInMemory;
+
+        HashTable(int level, int partitionCount) {
+            this.level = level;
+            this.partitions = new Partition[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                partitions[i] = new Partition();
+            }
+        }
+
+        private Partition partition(ObjectArrayKey key) {
+            // each level uses different hash bits, so that a spilled partition is split when partitioned again
+            return partitions[MurmurHash3_fmix(key.hashCode() ^ level) & (partitions.length - 1)];
+        }
+
+        void add(ObjectArrayKey key, JetSqlRow rightRow) {
+            Partition partition = partition(key);
+            if (partition.buildFile == null && rowsInMemory == maxItemsInHashTable) {
+                if (spillFileFactory == null || level == MAX_PARTITIONING_LEVEL) {
+                    throw new AccumulationLimitExceededException();
+                }
+                spillLargestPartition();
+            }
+            if (partition.buildFile != null) {
+                partition.buildFile.write(0, rightRow);
+            } else {
+                partition.add(key, rightRow);
+                rowsInMemory++;
+            }
+        }
+
+        private void spillLargestPartition() {
+            Partition largest = null;
+            for (Partition partition : partitions) {
+                if (partition.buildFile == null && (largest == null || partition.rowCount > largest.rowCount)) {
+                    largest = partition;
+                }
+            }
+            assert largest != null && largest.rowCount > 0;
+            rowsInMemory -= largest.rowCount;
+            largest.spill(newSpillFile());
+        }
+
+        Traverser<JetSqlRow> join(JetSqlRow leftRow) {
+            ObjectArrayKey joinKeys = ObjectArrayKey.project(leftRow, joinInfo.leftEquiJoinIndices());
+            Partition partition = partition(joinKeys);
+            // a key with a null matches nothing, there's no need to spill it
+            if (partition.buildFile != null && !joinKeys.containsNull()) {
+                if (partition.probeFile == null) {
+                    partition.probeFile = newSpillFile();
+                }
+                partition.probeFile.write(0, leftRow);
+                return Traversers.empty();
+            }
+            return SqlHashJoinP.this.join(leftRow, partition.get(joinKeys));
+        }
+
+        /**
+         * Returns the result of joining the spilled partitions. Must be called
+         * after all left rows were {@linkplain #join joined}, it releases the
+         * partitions in memory. The spill files of each partition are deleted
+         * once joined.
+         */
+        Traverser<JetSqlRow> joinSpilledPartitions() {
+            for (Partition partition : partitions) {
+                partition.rows = null;
+            }
+            rowsInMemory = 0;
+            return traverseArray(partitions)
+                    .filter(partition -> partition.buildFile != null)
+                    .flatMap(this::joinSpilledPartition);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Traverser<JetSqlRow> joinSpilledPartition(Partition partition) {
+            if (partition.probeFile == null) {
+                // no left rows, the right rows have nothing to join with
+                partition.delete();
+                return Traversers.empty();
+            }
+            HashTable subTable = new HashTable(level + 1, partitions.length);
+            try (SpillFile.Reader buildReader = partition.buildFile.reader()) {
+                while (buildReader.advance()) {
+                    JetSqlRow rightRow = buildReader.item();
+                    subTable.add(ObjectArrayKey.project(rightRow, joinInfo.rightEquiJoinIndices()), rightRow);
+                }
+            }
+            SpillFile.Reader probeReader = partition.probeFile.reader();
+            probeReaders.add(probeReader);
+            Traverser<JetSqlRow> leftRows = () -> probeReader.advance() ? probeReader.item() : null;
+            return traverseItems(
+                    leftRows.flatMap(subTable::join),
+                    Traversers.lazy(subTable::joinSpilledPartitions))
+                    .flatMap(traverser -> traverser)
+                    .onFirstNull(partition::delete);
+        }
+    }
+
+    /**
+     * A partition of the {@link HashTable}. The rows of a key in memory are
+     * stored as a single {@link JetSqlRow} or, if there are more, as a list,
+     * since the keys are often unique.
+     */
+    private static final class Partition {
+        private Map<ObjectArrayKey, Object> rows = new HashMap<>();
+        private long rowCount;
+        private SpillFile buildFile;
+        private SpillFile probeFile;
+
+        @SuppressWarnings("unchecked")
+        void add(ObjectArrayKey key, JetSqlRow row) {
+            Object existing = rows.putIfAbsent(key, row);
+            if (existing instanceof JetSqlRow) {
+                List<JetSqlRow> list = new ArrayList<>(2);
+                list.add((JetSqlRow) existing);
+                list.add(row);
+                rows.put(key, list);
+            } else if (existing != null) {
+                ((List<JetSqlRow>) existing).add(row);
+            }
+            rowCount++;
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<JetSqlRow> get(ObjectArrayKey key) {
+            Object value = rows == null ? null : rows.get(key);
+            if (value == null) {
+                return emptyList();
+            }
+            return value instanceof JetSqlRow ? singletonList((JetSqlRow) value) : (List<JetSqlRow>) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        void spill(SpillFile file) {
+            for (Object value : rows.values()) {
+                if (value instanceof JetSqlRow) {
+                    file.write(0, value);
+                } else {
+                    for (JetSqlRow row : (List<JetSqlRow>) value) {
+                        file.write(0, row);
+                    }
+                }
+            }
+            buildFile = file;
+            rows = null;
+            rowCount = 0;
+        }
+
+        void delete() {
+            rows = null;
+            if (buildFile != null) {
+                buildFile.delete();
+            }
+            if (probeFile != null) {
+                probeFile.delete();
+            }
+        }
     }
 }
@@ -18,12 +18,15 @@ package com.hazelcast.jet.sql.impl.schema;
 
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.sql.impl.schema.Mapping;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
 import com.hazelcast.sql.impl.schema.type.Type;
 import com.hazelcast.sql.impl.schema.view.View;
 
 import java.util.Collection;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.sql.impl.QueryUtils.wrapStatisticsKey;
+
 public class RelationsStorage extends AbstractSchemaStorage {
 
     public RelationsStorage(NodeEngine nodeEngine) {
@@ -54,10 +57,23 @@ public class RelationsStorage extends AbstractSchemaStorage {
         return storage().putIfAbsent(name, type) == null;
     }
 
+    void put(MapTableStatistics statistics) {
+        storage().put(wrapStatisticsKey(statistics.getMappingName()), statistics);
+    }
+
+    Mapping getMapping(String name) {
+        Object obj = storage().get(name);
+        return obj instanceof Mapping ? (Mapping) obj : null;
+    }
+
     Mapping removeMapping(String name) {
         return (Mapping) storage().remove(name);
     }
 
+    void removeStatistics(String mappingName) {
+        storage().delete(wrapStatisticsKey(mappingName));
+    }
+
     public Collection<Type> getAllTypes() {
         return storage().values().stream()
                 .filter(o -> o instanceof Type)
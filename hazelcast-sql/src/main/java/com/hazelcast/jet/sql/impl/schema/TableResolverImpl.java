@@ -29,7 +29,9 @@ import com.hazelcast.jet.sql.impl.connector.infoschema.TablesTable;
 import com.hazelcast.jet.sql.impl.connector.infoschema.UDTAttributesTable;
 import com.hazelcast.jet.sql.impl.connector.infoschema.UserDefinedTypesTable;
 import com.hazelcast.jet.sql.impl.connector.infoschema.ViewsTable;
+import com.hazelcast.jet.sql.impl.connector.map.MapTableStatisticsCollector;
 import com.hazelcast.jet.sql.impl.connector.virtual.ViewTable;
+import com.hazelcast.security.permission.MapPermission;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.schema.BadTable;
@@ -39,6 +41,8 @@ import com.hazelcast.sql.impl.schema.MappingField;
 import com.hazelcast.sql.impl.schema.Table;
 import com.hazelcast.sql.impl.schema.TableResolver;
 import com.hazelcast.sql.impl.schema.dataconnection.DataConnectionCatalogEntry;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
+import com.hazelcast.sql.impl.schema.map.PartitionedMapTable;
 import com.hazelcast.sql.impl.schema.type.Type;
 import com.hazelcast.sql.impl.schema.view.View;
 import com.hazelcast.sql.impl.security.SqlSecurityContext;
@@ -47,12 +51,15 @@ import javax.annotation.Nonnull;
 import java.security.Permission;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.security.permission.ActionConstants.ACTION_CREATE;
+import static com.hazelcast.security.permission.ActionConstants.ACTION_READ;
 import static com.hazelcast.sql.impl.QueryUtils.CATALOG;
 import static com.hazelcast.sql.impl.QueryUtils.SCHEMA_NAME_INFORMATION_SCHEMA;
 import static com.hazelcast.sql.impl.QueryUtils.SCHEMA_NAME_PUBLIC;
@@ -138,6 +145,7 @@ public class TableResolverImpl implements TableResolver {
             relationsStorage.putIfAbsent(name, resolved);
         } else if (replace) {
             relationsStorage.put(name, resolved);
+            relationsStorage.removeStatistics(name);
             listeners.forEach(TableListener::onTableChanged);
         } else if (!relationsStorage.putIfAbsent(name, resolved)) {
             throw QueryException.error("Mapping or view already exists: " + name);
@@ -200,12 +208,33 @@ public class TableResolverImpl implements TableResolver {
 
     public void removeMapping(String name, boolean ifExists) {
         if (relationsStorage.removeMapping(name) != null) {
+            relationsStorage.removeStatistics(name);
             listeners.forEach(TableListener::onTableChanged);
         } else if (!ifExists) {
             throw QueryException.error("Mapping does not exist: " + name);
         }
     }
 
+    public void analyzeMapping(String name, SqlSecurityContext securityContext) {
+        Mapping mapping = relationsStorage.getMapping(name);
+        if (mapping == null) {
+            throw QueryException.error("Mapping does not exist: " + name);
+        }
+        Table table = toTable(mapping);
+        if (table instanceof BadTable) {
+            // throws the exception describing why the mapping is invalid
+            table.getFields();
+        }
+        if (!(table instanceof PartitionedMapTable)) {
+            throw QueryException.error("ANALYZE MAPPING is supported only for IMap mappings: " + name);
+        }
+
+        PartitionedMapTable mapTable = (PartitionedMapTable) table;
+        securityContext.checkPermission(new MapPermission(mapTable.getMapName(), ACTION_CREATE, ACTION_READ));
+        relationsStorage.put(MapTableStatisticsCollector.collect(nodeEngine, mapTable, securityContext));
+        listeners.forEach(TableListener::onTableChanged);
+    }
+
     @Nonnull
     public Collection<String> getMappingNames() {
         return relationsStorage.mappingNames();
@@ -285,10 +314,10 @@ public class TableResolverImpl implements TableResolver {
         List<Mapping> mappings = lastMappingsSize == 0 ? new ArrayList<>() : new ArrayList<>(lastMappingsSize);
         List<View> views = lastViewsSize == 0 ? new ArrayList<>() : new ArrayList<>(lastViewsSize);
         List<Type> types = lastTypesSize == 0 ? new ArrayList<>() : new ArrayList<>(lastTypesSize);
+        Map<String, MapTableStatistics> statistics = new HashMap<>();
 
         for (Object o : objects) {
             if (o instanceof Mapping) {
-                tables.add(toTable((Mapping) o));
                 mappings.add((Mapping) o);
             } else if (o instanceof View) {
                 tables.add(toTable((View) o));
@@ -299,11 +328,22 @@ public class TableResolverImpl implements TableResolver {
                 // Note: data connection is not a 'table' or 'relation',
                 // It's stored in a separate namespace.
                 continue;
+            } else if (o instanceof MapTableStatistics) {
+                statistics.put(((MapTableStatistics) o).getMappingName(), (MapTableStatistics) o);
             } else {
                 throw new RuntimeException("Unexpected: " + o);
             }
         }
 
+        for (Mapping mapping : mappings) {
+            Table table = toTable(mapping);
+            MapTableStatistics mappingStatistics = statistics.get(mapping.name());
+            if (mappingStatistics != null && table instanceof PartitionedMapTable) {
+                table = ((PartitionedMapTable) table).withStatistics(mappingStatistics);
+            }
+            tables.add(table);
+        }
+
         ADDITIONAL_TABLE_PRODUCERS.forEach(producer ->
                 tables.add(producer.apply(mappings, views, types, connectorCache, nodeEngine)));
 
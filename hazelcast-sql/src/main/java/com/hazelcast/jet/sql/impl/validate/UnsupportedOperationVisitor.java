@@ -17,6 +17,7 @@
 package com.hazelcast.jet.sql.impl.validate;
 
 import com.hazelcast.jet.sql.impl.parse.SqlAlterJob;
+import com.hazelcast.jet.sql.impl.parse.SqlAnalyzeMapping;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateDataConnection;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateJob;
 import com.hazelcast.jet.sql.impl.parse.SqlCreateSnapshot;
@@ -515,6 +516,7 @@ public final class UnsupportedOperationVisitor extends SqlBasicVisitor<Void> {
                 && !(call instanceof SqlDropSnapshot)
                 && !(call instanceof SqlCreateDataConnection)
                 && !(call instanceof SqlDropDataConnection)
+                && !(call instanceof SqlAnalyzeMapping)
         ) {
             throw unsupported(call, "OTHER DDL class (" + call.getClass().getSimpleName() + ")");
         }
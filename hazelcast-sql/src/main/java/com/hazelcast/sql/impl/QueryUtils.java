@@ -59,6 +59,9 @@ public final class QueryUtils {
     // This is an arbitrarily-chosen prefix so that data connection names don't clash with other object names
     private static final String DATA_CONNECTION_KEY_PREFIX = "57ae1d3a-d379-44cb-bb60-86b1d2dcd744-";
 
+    // The same for the statistics of mappings, which are stored under the mapping name
+    private static final String STATISTICS_KEY_PREFIX = "0c8f4c1e-5d8b-4a42-9d0e-3f6b2a7d1e95-";
+
     private QueryUtils() {
         // No-op.
     }
@@ -71,6 +74,10 @@ public final class QueryUtils {
         return DATA_CONNECTION_KEY_PREFIX + dataConnectionKey;
     }
 
+    public static String wrapStatisticsKey(String mappingName) {
+        return STATISTICS_KEY_PREFIX + mappingName;
+    }
+
     /**
      * Convert internal column type to a public type.
      *
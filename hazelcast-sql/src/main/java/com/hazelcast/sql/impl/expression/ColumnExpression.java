@@ -93,6 +93,10 @@ public final class ColumnExpression<T> implements Expression<T> {
         return (T) res;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     @Override
     public QueryDataType getType() {
         return type;
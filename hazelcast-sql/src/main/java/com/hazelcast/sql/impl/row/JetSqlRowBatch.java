@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.row;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * A reusable batch of {@link JetSqlRow}s with a selection vector.
+ * <p>
+ * A filter evaluated over the batch doesn't copy the matching rows, it
+ * only records their indexes in the selection vector. The following
+ * operations then iterate the selected rows only.
+ */
+public final class JetSqlRowBatch implements RowBatch {
+
+    private final JetSqlRow[] rows;
+    private final Row[] rowViews;
+    private final int[] selection;
+    private int rowCount;
+    private int selectedCount;
+
+    public JetSqlRowBatch(int capacity) {
+        checkPositive("capacity", capacity);
+        this.rows = new JetSqlRow[capacity];
+        this.rowViews = new Row[capacity];
+        this.selection = new int[capacity];
+    }
+
+    /**
+     * Appends a row to the batch. All rows are selected until {@link
+     * #clearSelection()} is called.
+     */
+    public void add(JetSqlRow row) {
+        assert !isFull();
+        selection[selectedCount++] = rowCount;
+        rowViews[rowCount] = row.getRow();
+        rows[rowCount++] = row;
+    }
+
+    public boolean isFull() {
+        return rowCount == rows.length;
+    }
+
+    public int capacity() {
+        return rows.length;
+    }
+
+    @Override
+    public Row getRow(int idx) {
+        return rowViews[idx];
+    }
+
+    public JetSqlRow getJetSqlRow(int idx) {
+        return rows[idx];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Deselects all rows, so that a filter can {@link #select} the matching
+     * ones.
+     */
+    public void clearSelection() {
+        selectedCount = 0;
+    }
+
+    /**
+     * Adds the row at the given index to the selection. The rows must be
+     * selected in ascending order.
+     */
+    public void select(int idx) {
+        assert selectedCount == 0 || selection[selectedCount - 1] < idx;
+        selection[selectedCount++] = idx;
+    }
+
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    /**
+     * Returns the index of the {@code i}-th selected row.
+     */
+    public int getSelected(int i) {
+        return selection[i];
+    }
+
+    /**
+     * Removes all rows from the batch, releasing the references to them.
+     */
+    public void clear() {
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = null;
+            rowViews[i] = null;
+        }
+        rowCount = 0;
+        selectedCount = 0;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.schema;
+
+import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Statistics of a single column collected by {@code ANALYZE MAPPING} from a
+ * sample of the rows.
+ * <p>
+ * The histogram is equi-depth: each of the {@code n - 1} buckets between the
+ * {@code n} bounds holds about the same number of non-null sampled values.
+ * It's only collected for numeric columns.
+ */
+public class ColumnStatistics implements IdentifiedDataSerializable {
+
+    private long distinctCount;
+    private double nullFraction;
+    private double[] histogram;
+
+    @SuppressWarnings("unused")
+    public ColumnStatistics() {
+    }
+
+    public ColumnStatistics(long distinctCount, double nullFraction, @Nullable double[] histogram) {
+        this.distinctCount = distinctCount;
+        this.nullFraction = nullFraction;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Estimated number of distinct non-null values in the column.
+     */
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * Fraction of the rows in which the column is null.
+     */
+    public double getNullFraction() {
+        return nullFraction;
+    }
+
+    @Nullable
+    public double[] getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Selectivity of {@code column = <value>}.
+     */
+    public double equalsSelectivity() {
+        return (1 - nullFraction) / Math.max(distinctCount, 1);
+    }
+
+    /**
+     * Selectivity of {@code column < value}, or {@code null}, if there's no
+     * histogram for the column.
+     */
+    @Nullable
+    public Double lessThanSelectivity(double value) {
+        if (histogram == null || histogram.length < 2) {
+            return null;
+        }
+
+        int buckets = histogram.length - 1;
+        double fraction;
+        if (value <= histogram[0]) {
+            fraction = 0;
+        } else if (value > histogram[buckets]) {
+            fraction = 1;
+        } else {
+            int i = Arrays.binarySearch(histogram, value);
+            // the bucket whose lower bound is the last one smaller than the value
+            int bucket = i >= 0 ? firstIndexOf(i) - 1 : -i - 2;
+            double lower = histogram[bucket];
+            double upper = histogram[bucket + 1];
+            double inBucket = upper > lower ? (value - lower) / (upper - lower) : 0;
+            fraction = (bucket + inBucket) / buckets;
+        }
+        return (1 - nullFraction) * fraction;
+    }
+
+    private int firstIndexOf(int index) {
+        while (index > 0 && histogram[index - 1] == histogram[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(distinctCount);
+        out.writeDouble(nullFraction);
+        out.writeDoubleArray(histogram);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        distinctCount = in.readLong();
+        nullFraction = in.readDouble();
+        histogram = in.readDoubleArray();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetSqlSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetSqlSerializerHook.COLUMN_STATISTICS;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{distinctCount=" + distinctCount
+                + ", nullFraction=" + nullFraction
+                + ", histogram=" + Arrays.toString(histogram)
+                + '}';
+    }
+}
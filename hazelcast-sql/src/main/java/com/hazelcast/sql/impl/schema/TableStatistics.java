@@ -16,6 +16,8 @@
 
 package com.hazelcast.sql.impl.schema;
 
+import javax.annotation.Nullable;
+
 /**
  * Statistics for the table. Must not invoke any distributed operations.
  */
@@ -28,4 +30,15 @@ public interface TableStatistics {
      * @return Estimated number of rows in the table. Never negative.
      */
     long getRowCount();
+
+    /**
+     * Gets the statistics of the given column, if they were collected.
+     *
+     * @param columnName Name of the column.
+     * @return Statistics of the column or {@code null}, if not available.
+     */
+    @Nullable
+    default ColumnStatistics getColumnStatistics(String columnName) {
+        return null;
+    }
 }
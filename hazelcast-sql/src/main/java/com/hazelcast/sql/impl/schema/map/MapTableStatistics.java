@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.schema.map;
+
+import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
+import com.hazelcast.sql.impl.schema.TableStatistics;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics of an IMap mapping collected by {@code ANALYZE MAPPING}.
+ * <p>
+ * The instances are stored in the SQL catalog, so that every member uses
+ * them when planning queries over the mapping. The row count is replaced
+ * by the current estimate when the table is resolved, only the column
+ * statistics are taken from the sample.
+ */
+public class MapTableStatistics implements TableStatistics, IdentifiedDataSerializable {
+
+    private String mappingName;
+    private long collectedAt;
+    private long rowCount;
+    private Map<String, ColumnStatistics> columns;
+
+    @SuppressWarnings("unused")
+    public MapTableStatistics() {
+    }
+
+    public MapTableStatistics(
+            String mappingName,
+            long collectedAt,
+            long rowCount,
+            Map<String, ColumnStatistics> columns
+    ) {
+        this.mappingName = mappingName;
+        this.collectedAt = collectedAt;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    public String getMappingName() {
+        return mappingName;
+    }
+
+    /**
+     * The time when the statistics were collected, in milliseconds since the
+     * epoch. Used as a version of the statistics.
+     */
+    public long getCollectedAt() {
+        return collectedAt;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Nullable
+    @Override
+    public ColumnStatistics getColumnStatistics(String columnName) {
+        return columns.get(columnName);
+    }
+
+    public Map<String, ColumnStatistics> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns a copy of these statistics with the given row count.
+     */
+    public MapTableStatistics withRowCount(long rowCount) {
+        return new MapTableStatistics(mappingName, collectedAt, rowCount, columns);
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(mappingName);
+        out.writeLong(collectedAt);
+        out.writeLong(rowCount);
+        out.writeInt(columns.size());
+        for (Map.Entry<String, ColumnStatistics> entry : columns.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        mappingName = in.readString();
+        collectedAt = in.readLong();
+        rowCount = in.readLong();
+        int size = in.readInt();
+        columns = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            columns.put(in.readString(), in.readObject());
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetSqlSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetSqlSerializerHook.MAP_TABLE_STATISTICS;
+    }
+
+    @Override
+    public String toString() {
+        return "MapTableStatistics{mappingName=" + mappingName
+                + ", collectedAt=" + collectedAt
+                + ", rowCount=" + rowCount
+                + ", columns=" + columns
+                + '}';
+    }
+}
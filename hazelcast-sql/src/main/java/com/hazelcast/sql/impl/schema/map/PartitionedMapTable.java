@@ -92,7 +92,40 @@ public class PartitionedMapTable extends AbstractMapTable {
                 getIndexes(),
                 isHd(),
                 partitioningAttributes(),
-                supportsPartitionPruning());
+                supportsPartitionPruning(),
+                statisticsVersion());
+    }
+
+    /**
+     * Returns a copy of this table using the column statistics from the
+     * given {@code ANALYZE MAPPING} result. The row count is kept from
+     * this table, because it's a current estimate while the statistics might
+     * be stale.
+     */
+    public PartitionedMapTable withStatistics(MapTableStatistics statistics) {
+        if (!isValid()) {
+            return this;
+        }
+
+        return new PartitionedMapTable(
+                getSchemaName(),
+                getSqlName(),
+                getMapName(),
+                getFields(),
+                statistics.withRowCount(getStatistics().getRowCount()),
+                getKeyDescriptor(),
+                getValueDescriptor(),
+                getKeyJetMetadata(),
+                getValueJetMetadata(),
+                indexes,
+                hd,
+                partitioningAttributes,
+                supportsPartitionPruning);
+    }
+
+    private long statisticsVersion() {
+        TableStatistics statistics = getStatistics();
+        return statistics instanceof MapTableStatistics ? ((MapTableStatistics) statistics).getCollectedAt() : 0;
     }
 
     public List<MapTableIndex> getIndexes() {
@@ -164,6 +197,7 @@ public class PartitionedMapTable extends AbstractMapTable {
         private final Set<String> conflictingSchemas;
         private final List<String> partitioningAttributes;
         private final boolean supportsPartitionPruning;
+        private final long statisticsVersion;
 
         @SuppressWarnings("checkstyle:ParameterNumber")
         PartitionedMapPlanObjectKey(
@@ -179,7 +213,8 @@ public class PartitionedMapTable extends AbstractMapTable {
                 List<MapTableIndex> indexes,
                 boolean hd,
                 final List<String> partitioningAttributes,
-                final boolean supportsPartitionPruning) {
+                final boolean supportsPartitionPruning,
+                long statisticsVersion) {
             this.schemaName = schemaName;
             this.tableName = tableName;
             this.mapName = mapName;
@@ -193,6 +228,7 @@ public class PartitionedMapTable extends AbstractMapTable {
             this.conflictingSchemas = conflictingSchemas;
             this.partitioningAttributes = partitioningAttributes;
             this.supportsPartitionPruning = supportsPartitionPruning;
+            this.statisticsVersion = statisticsVersion;
         }
 
         @Override
@@ -220,7 +256,8 @@ public class PartitionedMapTable extends AbstractMapTable {
                     && indexes.equals(that.indexes)
                     && conflictingSchemas.equals(that.conflictingSchemas)
                     && partitioningAttributes.equals(that.partitioningAttributes)
-                    && supportsPartitionPruning == that.supportsPartitionPruning;
+                    && supportsPartitionPruning == that.supportsPartitionPruning
+                    && statisticsVersion == that.statisticsVersion;
         }
 
         @Override
@@ -238,6 +275,7 @@ public class PartitionedMapTable extends AbstractMapTable {
             result = 31 * result + conflictingSchemas.hashCode();
             result = 31 * result + partitioningAttributes.hashCode();
             result = 31 * result + (supportsPartitionPruning ? 1 : 0);
+            result = 31 * result + Long.hashCode(statisticsVersion);
             return result;
         }
     }
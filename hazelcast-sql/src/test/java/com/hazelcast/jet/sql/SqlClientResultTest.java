@@ -31,8 +31,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.function.ThrowingRunnable;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -98,6 +100,43 @@ public class SqlClientResultTest extends SqlTestSupport {
         }
     }
 
+    @Test
+    public void when_iteratingMultiplePages_then_allRowsReturned() {
+        Map<Integer, Integer> map = instance().getMap(MAP_NAME);
+        for (int i = 2; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<>();
+        try (SqlResult result = execute("SELECT __key FROM " + MAP_NAME)) {
+            for (SqlRow row : result) {
+                assertTrue(keys.add(row.getObject(0)));
+            }
+        }
+        assertEquals(100, keys.size());
+
+        assertTrueEventually(() -> assertEquals(0, sqlInternalService(instance()).getClientStateRegistry().getCursorCount()));
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    @Test
+    public void when_closingResultWithPageFetchedAhead_then_fetchFails() {
+        Map<Integer, Integer> map = instance().getMap(MAP_NAME);
+        map.put(2, 2);
+
+        try (SqlResult result = execute("SELECT * FROM " + MAP_NAME)) {
+            Iterator<SqlRow> iterator = result.iterator();
+            iterator.next();
+
+            // give the page requested ahead the time to arrive
+            sleepMillis(100);
+
+            result.close();
+
+            checkSqlException(iterator::hasNext, SqlErrorCode.CANCELLED_BY_USER, "Query was cancelled by the user");
+        }
+    }
+
     @Test
     public void when_checkingHasNextWithTimeout_then_timeoutOccurs() {
         try (SqlResult result = execute("select * from table(generate_stream(1))")) {
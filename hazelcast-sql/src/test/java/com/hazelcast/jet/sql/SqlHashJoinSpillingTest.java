@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.sql;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_ENABLED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class SqlHashJoinSpillingTest extends SqlTestSupport {
+
+    private static final int MAX_PROCESSOR_ACCUMULATED_RECORDS = 10;
+    private static final int ROW_COUNT = 1000;
+
+    private static File spillDirectory;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        spillDirectory = Files.createTempDirectory("sql-hash-join-spilling-test").toFile();
+        Config config = smallInstanceConfig()
+                .setProperty(JET_SPILL_ENABLED.getName(), "true")
+                .setProperty(JET_SPILL_DIRECTORY.getName(), spillDirectory.getAbsolutePath());
+        config.getJetConfig()
+                .setCooperativeThreadCount(1)
+                .setMaxProcessorAccumulatedRecords(MAX_PROCESSOR_ACCUMULATED_RECORDS);
+
+        initialize(1, config);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        delete(spillDirectory);
+    }
+
+    @Test
+    public void when_buildSideExceedsLimit_then_innerJoinSpills() {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            expected.add(new Row(i, i * 2));
+            expected.add(new Row(i, i * 2 + 1));
+        }
+
+        assertRowsAnyOrder(
+                "SELECT l.v, r.v "
+                        + "FROM TABLE(generate_series(1, " + ROW_COUNT + ")) l "
+                        + "JOIN TABLE(generate_series(2, " + (2 * ROW_COUNT + 1) + ")) r ON l.v = r.v / 2",
+                expected);
+
+        assertSpillFilesDeleted();
+    }
+
+    @Test
+    public void when_buildSideExceedsLimit_then_leftJoinSpills() {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            expected.add(new Row(i, i % 2 == 0 ? i : null));
+        }
+
+        assertRowsAnyOrder(
+                "SELECT l.v, r.v "
+                        + "FROM TABLE(generate_series(1, " + ROW_COUNT + ")) l "
+                        + "LEFT JOIN (SELECT v FROM TABLE(generate_series(1, " + ROW_COUNT + ")) WHERE MOD(v, 2) = 0) r "
+                        + "ON l.v = r.v",
+                expected);
+
+        assertSpillFilesDeleted();
+    }
+
+    @Test
+    public void when_nonEquiJoinExceedsLimit_then_fails() {
+        assertThatThrownBy(() -> instance().getSql().execute(
+                "SELECT l.v, r.v "
+                        + "FROM TABLE(generate_series(1, " + ROW_COUNT + ")) l "
+                        + "JOIN TABLE(generate_series(1, " + ROW_COUNT + ")) r ON l.v < r.v").iterator().next())
+                .hasMessageContaining("Exception thrown to prevent an OutOfMemoryError on this Hazelcast instance");
+    }
+
+    private static void assertSpillFilesDeleted() {
+        // the result can be fully received before the processors are closed
+        assertTrueEventually(() -> assertThat(spillDirectory.list()).isEmpty());
+    }
+}
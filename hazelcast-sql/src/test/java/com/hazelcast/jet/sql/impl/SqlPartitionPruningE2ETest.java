@@ -274,6 +274,68 @@ public class SqlPartitionPruningE2ETest extends SqlEndToEndTestSupport {
         assertPrunability(c.length, partitionsToUse);
     }
 
+    @Test
+    public void when_scanWithInPredicateOnSimplePruningKey_then_prunable() {
+        // Given
+        final int[] c = new int[]{2, 3}; // constants
+        final String query = "SELECT * FROM " + mapName + " WHERE f0 IN (" + c[0] + ", " + c[1] + ")";
+
+        preparePrunableMap(singletonList("f0"), mapName, c);
+
+        SqlPlanImpl.SelectPlan selectPlan = assertQueryPlan(query);
+
+        // When
+        assertQueryResult(selectPlan, asList(
+                new Row(c[0], c[0], c[0], "" + c[0]),
+                new Row(c[1], c[1], c[1], "" + c[1])));
+
+        // Then
+        var partitionsToUse = planExecutor.tryUsePrunability(selectPlan, eec);
+        assertPrunability(c.length, partitionsToUse);
+    }
+
+    @Test
+    public void when_scanWithOrPredicateOnSimplePruningKey_then_prunable() {
+        // Given
+        final int[] c = new int[]{2, 3}; // constants
+        final String query = "SELECT * FROM " + mapName + " WHERE f0 = " + c[0] + " OR f0 = " + c[1];
+
+        preparePrunableMap(singletonList("f0"), mapName, c);
+
+        SqlPlanImpl.SelectPlan selectPlan = assertQueryPlan(query);
+
+        // When
+        assertQueryResult(selectPlan, asList(
+                new Row(c[0], c[0], c[0], "" + c[0]),
+                new Row(c[1], c[1], c[1], "" + c[1])));
+
+        // Then
+        var partitionsToUse = planExecutor.tryUsePrunability(selectPlan, eec);
+        assertPrunability(c.length, partitionsToUse);
+    }
+
+    @Test
+    public void when_scanWithOrPredicateOnCompoundPruningKey_then_prunable() {
+        // Given
+        final int[] c = new int[]{2, 3}; // constants
+        final String query = "SELECT * FROM " + mapName
+                + " WHERE (f0 = " + c[0] + " AND f1 = " + c[0] + ")"
+                + " OR (f0 = " + c[1] + " AND f1 = " + c[1] + ")";
+
+        preparePrunableMap(asList("f0", "f1"), mapName, c);
+
+        SqlPlanImpl.SelectPlan selectPlan = assertQueryPlan(query);
+
+        // When
+        assertQueryResult(selectPlan, asList(
+                new Row(c[0], c[0], c[0], "" + c[0]),
+                new Row(c[1], c[1], c[1], "" + c[1])));
+
+        // Then
+        var partitionsToUse = planExecutor.tryUsePrunability(selectPlan, eec);
+        assertPrunability(c.length, partitionsToUse);
+    }
+
     @Test
     public void when_unionAllTwoMapsWithCompoundPruningKey_then_prunable() {
         final String secondMapName = randomName();
@@ -365,7 +427,8 @@ public class SqlPartitionPruningE2ETest extends SqlEndToEndTestSupport {
 
         assertNotNull(expectedMemberAddresses);
         assertNotNull(actualMemberAddresses);
-        assertContainsAll(expectedMemberAddresses, actualMemberAddresses);
+        // the job must be deployed only to the owners of the required partitions and the coordinator
+        assertEquals(expectedMemberAddresses, actualMemberAddresses);
     }
 
     // endregion
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.expression.compiler;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.expression.CastExpression;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.MockExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.string.UpperFunction;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static com.hazelcast.jet.sql.impl.expression.compiler.ExpressionCompilationMode.ENABLED;
+import static com.hazelcast.jet.sql.impl.expression.compiler.ExpressionCompilationMode.VERIFY;
+import static com.hazelcast.sql.impl.type.QueryDataType.BIGINT;
+import static com.hazelcast.sql.impl.type.QueryDataType.BOOLEAN;
+import static com.hazelcast.sql.impl.type.QueryDataType.DOUBLE;
+import static com.hazelcast.sql.impl.type.QueryDataType.INT;
+import static com.hazelcast.sql.impl.type.QueryDataType.VARCHAR;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpressionCompilerTest {
+
+    private final ExpressionEvalContext context = new MockExpressionEvalContext();
+
+    @Test
+    public void test_filterAndArithmetic() {
+        Expression<?> a = ColumnExpression.create(0, BIGINT);
+        Expression<?> b = ColumnExpression.create(1, INT);
+        CalcEvaluator evaluator = ExpressionCompiler.compile(
+                ComparisonPredicate.create(a, b, ComparisonMode.GREATER_THAN),
+                asList(
+                        PlusFunction.create(a, CastExpression.create(b, BIGINT), BIGINT),
+                        MultiplyFunction.create(
+                                CastExpression.create(b, DOUBLE), ConstantExpression.create(0.5d, DOUBLE), DOUBLE),
+                        CastExpression.create(b, BIGINT)),
+                context,
+                VERIFY);
+
+        assertThat(evaluate(evaluator, 3L, 2)).containsExactly(5L, 1.0d, 2L);
+        assertThat(evaluate(evaluator, 2L, 2)).isNull();
+    }
+
+    @Test
+    public void test_nulls() {
+        Expression<?> a = ColumnExpression.create(0, BIGINT);
+        Expression<?> b = ColumnExpression.create(1, INT);
+        Expression<Boolean> comparison = ComparisonPredicate.create(a, CastExpression.create(b, BIGINT), ComparisonMode.EQUALS);
+        CalcEvaluator evaluator = ExpressionCompiler.compile(
+                null,
+                asList(
+                        PlusFunction.create(a, CastExpression.create(b, BIGINT), BIGINT),
+                        comparison,
+                        IsNotTruePredicate.create(comparison),
+                        IsNullPredicate.create(b),
+                        AndPredicate.create(comparison, ConstantExpression.create(false, BOOLEAN))),
+                context,
+                VERIFY);
+
+        assertThat(evaluate(evaluator, 1L, null)).containsExactly(null, null, true, true, false);
+        assertThat(evaluate(evaluator, 1L, 1)).containsExactly(2L, true, false, false, false);
+    }
+
+    @Test
+    public void test_interpretedFallback() {
+        Expression<?> s = ColumnExpression.create(0, VARCHAR);
+        CalcEvaluator evaluator = ExpressionCompiler.compile(
+                IsNullPredicate.create(UpperFunction.create(s)),
+                singletonList(s),
+                context,
+                VERIFY);
+
+        assertThat(evaluate(evaluator, new Object[]{null})).containsExactly((Object) null);
+        assertThat(evaluate(evaluator, "a")).isNull();
+    }
+
+    @Test
+    public void test_bigintOverflow() {
+        CalcEvaluator evaluator = ExpressionCompiler.compile(
+                null,
+                singletonList(PlusFunction.create(
+                        ColumnExpression.create(0, BIGINT), ConstantExpression.create(1L, BIGINT), BIGINT)),
+                context,
+                ENABLED);
+
+        assertThatThrownBy(() -> evaluate(evaluator, Long.MAX_VALUE))
+                .isInstanceOf(QueryException.class)
+                .hasMessageContaining("BIGINT overflow in '+' operator");
+    }
+
+    @Test
+    public void test_divisionByZero() {
+        List<Expression<?>> divisions = asList(
+                DivideFunction.create(ColumnExpression.create(0, BIGINT), ColumnExpression.create(1, BIGINT), BIGINT),
+                DivideFunction.create(ColumnExpression.create(2, DOUBLE), ColumnExpression.create(3, DOUBLE), DOUBLE));
+
+        for (Expression<?> division : divisions) {
+            CalcEvaluator evaluator = ExpressionCompiler.compile(null, singletonList(division), context, ENABLED);
+            assertThatThrownBy(() -> evaluate(evaluator, 1L, 0L, 1d, 0d))
+                    .isInstanceOf(QueryException.class)
+                    .hasMessageContaining("Division by zero");
+        }
+    }
+
+    private Object[] evaluate(CalcEvaluator evaluator, Object... values) {
+        JetSqlRow result = evaluator.evaluate(new JetSqlRow(context.getSerializationService(), values).getRow());
+        return result == null ? null : result.getValues();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.sql.impl.opt.cost;
+
+import com.hazelcast.jet.sql.impl.opt.OptimizerTestSupport;
+import com.hazelcast.jet.sql.impl.opt.physical.PhysicalRel;
+import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
+import com.hazelcast.jet.sql.impl.schema.HazelcastTableStatistic;
+import com.hazelcast.sql.impl.extract.QueryPath;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
+import com.hazelcast.sql.impl.schema.map.PartitionedMapTable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.sql.impl.extract.QueryPath.KEY;
+import static com.hazelcast.sql.impl.extract.QueryPath.VALUE;
+import static com.hazelcast.sql.impl.type.QueryDataType.INT;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SelectivityEstimatorTest extends OptimizerTestSupport {
+
+    private static final long ROW_COUNT = 1000;
+    private static final double DELTA = 1e-6;
+
+    @Test
+    public void test_between() {
+        // [100, 300]: 30% of the rows are less than 300, 10% less than 100, plus the rows equal to 300
+        assertThat(rowCount("SELECT * FROM m WHERE __key BETWEEN 100 AND 300")).isCloseTo(201, within(DELTA));
+    }
+
+    @Test
+    public void test_rangeConjunction() {
+        // (100, 300): minus the rows equal to 100
+        assertThat(rowCount("SELECT * FROM m WHERE __key > 100 AND __key < 300")).isCloseTo(199, within(DELTA));
+    }
+
+    @Test
+    public void test_in() {
+        assertThat(rowCount("SELECT * FROM m WHERE __key IN (1, 2, 3)")).isCloseTo(3, within(DELTA));
+    }
+
+    @Test
+    public void test_notIn() {
+        assertThat(rowCount("SELECT * FROM m WHERE __key NOT IN (1, 2, 3)")).isCloseTo(997, within(DELTA));
+    }
+
+    @Test
+    public void test_disjointRanges() {
+        assertThat(rowCount("SELECT * FROM m WHERE __key < 100 OR __key >= 900")).isCloseTo(200, within(DELTA));
+    }
+
+    private double rowCount(String sql) {
+        PhysicalRel rel = optimizePhysical(sql, emptyList(), table()).getPhysical();
+        return rel.getCluster().getMetadataQuery().getRowCount(rel);
+    }
+
+    private static HazelcastTable table() {
+        PartitionedMapTable target = partitionedTable(
+                "m",
+                asList(mapField(KEY, INT, QueryPath.KEY_PATH), mapField(VALUE, INT, QueryPath.VALUE_PATH)),
+                ROW_COUNT
+        ).getTarget();
+        // uniformly distributed unique keys from 0 to 1000
+        ColumnStatistics keyStatistics = new ColumnStatistics(ROW_COUNT, 0, new double[]{0, 250, 500, 750, 1000});
+        MapTableStatistics statistics = new MapTableStatistics("m", 1, ROW_COUNT, Map.of(KEY, keyStatistics));
+        return new HazelcastTable(target.withStatistics(statistics), new HazelcastTableStatistic(ROW_COUNT));
+    }
+}
@@ -25,16 +25,20 @@ import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
 import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.type.SqlTypeName;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.sql.impl.validate.HazelcastSqlOperatorTable.AND;
 import static com.hazelcast.jet.sql.impl.validate.HazelcastSqlOperatorTable.EQUALS;
@@ -48,7 +52,9 @@ import static com.hazelcast.sql.impl.type.QueryDataType.VARCHAR;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 import static org.apache.calcite.sql.type.SqlTypeName.INTEGER;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -174,4 +180,139 @@ public class PSConditionExtractorTest extends OptimizerTestSupport {
         var decomposedConds = extractor.extractCondition(table, filter, Set.of("comp1", "comp2"));
         assertEquals(0, decomposedConds.size());
     }
+
+    @Test
+    public void whenOrOfKeyEqualities_thenReturnVariantPerEquality() {
+        var table = partitionedTable(
+                "m",
+                asList(
+                        mapField(KEY, BIGINT, QueryPath.KEY_PATH),
+                        mapField(VALUE, VARCHAR, QueryPath.VALUE_PATH)),
+                emptyList(),
+                10, emptyList(), true).getTarget();
+
+        // __key = ?0 OR __key = ?1
+        var b = new RexBuilder(typeFactory);
+        var param0 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var param1 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 1);
+        var key = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+
+        var filter = (RexCall) b.makeCall(OR,
+                b.makeCall(EQUALS, key, param0),
+                b.makeCall(EQUALS, key, param1)
+        );
+
+        var decomposedConds = extractor.extractCondition(table, filter, Set.of(KEY));
+        assertEquals(Map.of("m", asList(Map.of(KEY, param0), Map.of(KEY, param1))), decomposedConds);
+    }
+
+    @Test
+    public void whenKeyInList_thenReturnVariantPerPoint() {
+        var table = partitionedTable(
+                "m",
+                asList(
+                        mapField(KEY, BIGINT, QueryPath.KEY_PATH),
+                        mapField(VALUE, VARCHAR, QueryPath.VALUE_PATH)),
+                emptyList(),
+                10, emptyList(), true).getTarget();
+
+        // __key IN (1, 2, 3)
+        var b = new RexBuilder(typeFactory);
+        var type = typeFactory.createSqlType(SqlTypeName.BIGINT);
+        var key = b.makeInputRef(type, 0);
+        var filter = (RexCall) b.makeIn(key, asList(literal(b, 1), literal(b, 2), literal(b, 3)));
+
+        var decomposedConds = extractor.extractCondition(table, filter, Set.of(KEY));
+        assertThat(decomposedConds).containsOnlyKeys("m");
+        assertThat(decomposedConds.get("m")).containsExactlyInAnyOrder(
+                Map.of(KEY, literal(b, 1)),
+                Map.of(KEY, literal(b, 2)),
+                Map.of(KEY, literal(b, 3))
+        );
+    }
+
+    @Test
+    public void whenAttributeInListAndEquality_thenReturnCrossProduct() {
+        final PartitionedMapTable table = partitionedTable(
+                "m",
+                asList(
+                        mapField("comp0", BIGINT, QueryPath.create(QueryPath.KEY_PREFIX + "comp1")),
+                        mapField("comp1", BIGINT, QueryPath.create(QueryPath.KEY_PREFIX + "comp2")),
+                        mapField("comp2", BIGINT, QueryPath.create(QueryPath.KEY_PREFIX + "comp3")),
+                        mapField(KEY, OBJECT, QueryPath.KEY_PATH),
+                        mapField(VALUE, VARCHAR, QueryPath.VALUE_PATH)),
+                Collections.emptyList(), 10, Arrays.asList("comp1", "comp2"), true).getTarget();
+
+        // comp1 IN (1, 2) AND comp2 = ?0 AND comp0 = ?1
+        var b = new RexBuilder(typeFactory);
+        var param0 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var param1 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 1);
+        var col0 = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var col1 = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 1);
+        var col2 = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 2);
+
+        var filter = (RexCall) b.makeCall(AND,
+                b.makeIn(col1, asList(literal(b, 1), literal(b, 2))),
+                b.makeCall(EQUALS, col2, param0),
+                b.makeCall(EQUALS, col0, param1)
+        );
+
+        var decomposedConds = extractor.extractCondition(table, filter, Set.of("comp1", "comp2"));
+        assertThat(decomposedConds).containsOnlyKeys("m");
+        assertThat(decomposedConds.get("m")).containsExactlyInAnyOrder(
+                Map.of("comp1", literal(b, 1), "comp2", param0),
+                Map.of("comp1", literal(b, 2), "comp2", param0)
+        );
+    }
+
+    @Test
+    public void whenOrContainsUnboundedOperand_thenReturnNoVariants() {
+        var table = partitionedTable(
+                "m",
+                asList(
+                        mapField(KEY, BIGINT, QueryPath.KEY_PATH),
+                        mapField(VALUE, BIGINT, QueryPath.VALUE_PATH)),
+                emptyList(),
+                10, emptyList(), true).getTarget();
+
+        // __key = ?0 OR this = ?1
+        var b = new RexBuilder(typeFactory);
+        var param0 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var param1 = b.makeDynamicParam(typeFactory.createSqlType(SqlTypeName.BIGINT), 1);
+        var key = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var value = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 1);
+
+        var filter = (RexCall) b.makeCall(OR,
+                b.makeCall(EQUALS, key, param0),
+                b.makeCall(EQUALS, value, param1)
+        );
+
+        var decomposedConds = extractor.extractCondition(table, filter, Set.of(KEY));
+        assertEquals(0, decomposedConds.size());
+    }
+
+    @Test
+    public void whenInListExceedsLimit_thenReturnNoVariants() {
+        var table = partitionedTable(
+                "m",
+                asList(
+                        mapField(KEY, BIGINT, QueryPath.KEY_PATH),
+                        mapField(VALUE, VARCHAR, QueryPath.VALUE_PATH)),
+                emptyList(),
+                10, emptyList(), true).getTarget();
+
+        var b = new RexBuilder(typeFactory);
+        var key = b.makeInputRef(typeFactory.createSqlType(SqlTypeName.BIGINT), 0);
+        var points = IntStream.rangeClosed(0, PartitionStrategyConditionExtractor.MAX_VARIANTS)
+                .mapToObj(i -> (RexNode) literal(b, i))
+                .collect(toList());
+        var filter = (RexCall) b.makeIn(key, points);
+
+        var decomposedConds = extractor.extractCondition(table, filter, Set.of(KEY));
+        assertEquals(0, decomposedConds.size());
+    }
+
+    private RexLiteral literal(RexBuilder b, long value) {
+        return b.makeExactLiteral(BigDecimal.valueOf(value), typeFactory.createSqlType(SqlTypeName.BIGINT));
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.jet.sql.SqlTestSupport;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.TestContextSupport.adaptSupplier;
+import static com.hazelcast.jet.impl.JetServiceBackend.SQL_ARGUMENTS_KEY_NAME;
+import static com.hazelcast.sql.impl.expression.ColumnExpression.create;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+@Category({QuickTest.class, ParallelJVMTest.class})
+@RunWith(HazelcastSerialClassRunner.class)
+public class SqlCalcPTest extends SqlTestSupport {
+
+    private static final Expression<Boolean> FILTER = ComparisonPredicate.create(
+            create(0, QueryDataType.BIGINT),
+            ConstantExpression.create(2L, QueryDataType.BIGINT),
+            ComparisonMode.GREATER_THAN
+    );
+
+    @BeforeClass
+    public static void beforeClass() {
+        initialize(1, null);
+    }
+
+    @Test
+    public void when_filter_then_matchingRowsProjected() {
+        SupplierEx<Processor> supplier = () -> new SqlCalcP(FILTER, projections());
+
+        TestSupport.verifyProcessor(adaptSupplier(ProcessorSupplier.of(supplier)))
+                .hazelcastInstance(instance())
+                .jobConfig(new JobConfig().setArgument(SQL_ARGUMENTS_KEY_NAME, emptyList()))
+                .outputChecker(SqlTestSupport::compareRowLists)
+                .input(asList(
+                        jetRow(1L, "a"),
+                        jetRow(3L, "b"),
+                        wm(3L),
+                        jetRow(2L, "c"),
+                        jetRow(4L, "d")
+                ))
+                .expectOutput(asList(
+                        jetRow("b", 3L),
+                        wm(3L),
+                        jetRow("d", 4L)
+                ));
+    }
+
+    @Test
+    public void when_noFilter_then_allRowsProjected() {
+        SupplierEx<Processor> supplier = () -> new SqlCalcP(null, projections());
+
+        TestSupport.verifyProcessor(adaptSupplier(ProcessorSupplier.of(supplier)))
+                .hazelcastInstance(instance())
+                .jobConfig(new JobConfig().setArgument(SQL_ARGUMENTS_KEY_NAME, emptyList()))
+                .outputChecker(SqlTestSupport::compareRowLists)
+                .input(asList(jetRow(1L, "a"), jetRow(null, "b")))
+                .expectOutput(asList(jetRow("a", 1L), jetRow("b", null)));
+    }
+
+    @Test
+    public void when_moreRowsThanBatchSize_then_orderPreserved() {
+        List<Object> input = new ArrayList<>();
+        List<Object> output = new ArrayList<>();
+        for (long i = 0; i < SqlCalcP.BATCH_SIZE * 3 + 1; i++) {
+            input.add(jetRow(i, "v" + i));
+            if (i > 2) {
+                output.add(jetRow("v" + i, i));
+            }
+        }
+        SupplierEx<Processor> supplier = () -> new SqlCalcP(FILTER, projections());
+
+        TestSupport.verifyProcessor(adaptSupplier(ProcessorSupplier.of(supplier)))
+                .hazelcastInstance(instance())
+                .jobConfig(new JobConfig().setArgument(SQL_ARGUMENTS_KEY_NAME, emptyList()))
+                .outputChecker(SqlTestSupport::compareRowLists)
+                .input(input)
+                .expectOutput(output);
+    }
+
+    private static List<Expression<?>> projections() {
+        return asList(create(1, QueryDataType.VARCHAR), create(0, QueryDataType.BIGINT));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.schema;
+
+import com.hazelcast.jet.sql.SqlTestSupport;
+import com.hazelcast.map.IMap;
+import com.hazelcast.sql.HazelcastSqlException;
+import com.hazelcast.sql.SqlResult;
+import com.hazelcast.sql.impl.schema.ColumnStatistics;
+import com.hazelcast.sql.impl.schema.map.MapTableStatistics;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.jet.impl.JetServiceBackend.SQL_CATALOG_MAP_NAME;
+import static com.hazelcast.sql.impl.QueryUtils.wrapStatisticsKey;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SqlAnalyzeMappingTest extends SqlTestSupport {
+
+    @BeforeClass
+    public static void beforeClass() {
+        initialize(1, null);
+    }
+
+    @Test
+    public void test_analyze() {
+        String name = randomName();
+        createMapping(name, int.class, int.class);
+        IMap<Integer, Integer> map = instance().getMap(name);
+        Map<Integer, Integer> entries = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.put(i, i % 10);
+        }
+        map.putAll(entries);
+
+        try (SqlResult result = instance().getSql().execute("ANALYZE MAPPING " + name)) {
+            assertThat(result.updateCount()).isZero();
+        }
+
+        MapTableStatistics statistics = statistics(name);
+        assertThat(statistics).isNotNull();
+        assertThat(statistics.getRowCount()).isEqualTo(1000);
+
+        ColumnStatistics key = statistics.getColumnStatistics("__key");
+        assertThat(key.getDistinctCount()).isEqualTo(1000);
+        assertThat(key.getNullFraction()).isZero();
+        assertThat(key.getHistogram()).isNotNull();
+
+        ColumnStatistics value = statistics.getColumnStatistics("this");
+        assertThat(value.getDistinctCount()).isEqualTo(10);
+        assertThat(value.getNullFraction()).isZero();
+
+        assertRowsAnyOrder("SELECT __key FROM " + name + " WHERE __key < 2 AND this = 1", singletonList(new Row(1)));
+    }
+
+    @Test
+    public void when_mappingIsDropped_then_statisticsAreRemoved() {
+        String name = randomName();
+        createMapping(name, int.class, int.class);
+        instance().getMap(name).put(1, 1);
+        instance().getSql().execute("ANALYZE MAPPING " + name);
+        assertThat(statistics(name)).isNotNull();
+
+        instance().getSql().execute("DROP MAPPING " + name);
+
+        assertThat(statistics(name)).isNull();
+    }
+
+    @Test
+    public void when_mappingIsReplaced_then_statisticsAreRemoved() {
+        String name = randomName();
+        createMapping(name, int.class, int.class);
+        instance().getSql().execute("ANALYZE MAPPING " + name);
+        assertThat(statistics(name)).isNotNull();
+
+        createMapping(name, int.class, String.class);
+
+        assertThat(statistics(name)).isNull();
+    }
+
+    @Test
+    public void when_mappingDoesNotExist_then_fail() {
+        assertThatThrownBy(() -> instance().getSql().execute("ANALYZE MAPPING foo"))
+                .isInstanceOf(HazelcastSqlException.class)
+                .hasMessageContaining("Mapping does not exist: foo");
+    }
+
+    private static MapTableStatistics statistics(String mappingName) {
+        return (MapTableStatistics) instance().getMap(SQL_CATALOG_MAP_NAME).get(wrapStatisticsKey(mappingName));
+    }
+}
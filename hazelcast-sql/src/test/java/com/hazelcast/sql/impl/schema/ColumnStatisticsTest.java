@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.schema;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnStatisticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void test_equalsSelectivity() {
+        ColumnStatistics statistics = new ColumnStatistics(4, 0.2, null);
+
+        assertThat(statistics.equalsSelectivity()).isCloseTo(0.2, within(DELTA));
+    }
+
+    @Test
+    public void test_equalsSelectivity_noDistinctValues() {
+        ColumnStatistics statistics = new ColumnStatistics(0, 1, null);
+
+        assertThat(statistics.equalsSelectivity()).isCloseTo(0, within(DELTA));
+    }
+
+    @Test
+    public void when_noHistogram_then_lessThanSelectivityUnknown() {
+        ColumnStatistics statistics = new ColumnStatistics(4, 0.2, null);
+
+        assertThat(statistics.lessThanSelectivity(1)).isNull();
+    }
+
+    @Test
+    public void test_lessThanSelectivity() {
+        ColumnStatistics statistics = new ColumnStatistics(40, 0.2, new double[]{0, 10, 20, 30, 40});
+
+        assertThat(statistics.lessThanSelectivity(-5)).isCloseTo(0, within(DELTA));
+        assertThat(statistics.lessThanSelectivity(0)).isCloseTo(0, within(DELTA));
+        assertThat(statistics.lessThanSelectivity(15)).isCloseTo(0.8 * 1.5 / 4, within(DELTA));
+        assertThat(statistics.lessThanSelectivity(20)).isCloseTo(0.8 * 2 / 4, within(DELTA));
+        assertThat(statistics.lessThanSelectivity(40)).isCloseTo(0.8, within(DELTA));
+        assertThat(statistics.lessThanSelectivity(50)).isCloseTo(0.8, within(DELTA));
+    }
+
+    @Test
+    public void when_boundRepeats_then_lessThanSelectivityUsesFirstBucket() {
+        // the value 10 covers two whole buckets
+        ColumnStatistics statistics = new ColumnStatistics(3, 0, new double[]{0, 10, 10, 10, 20});
+
+        assertThat(statistics.lessThanSelectivity(10)).isCloseTo(0.25, within(DELTA));
+    }
+}
@@ -169,6 +169,11 @@ public class CacheClearExpiredRecordsTask
         container.setRunningCleanupOperation(true);
     }
 
+    @Override
+    protected int getPartitionId(CachePartitionSegment container) {
+        return container.getPartitionId();
+    }
+
     @Override
     protected boolean isContainerEmpty(CachePartitionSegment container) {
         Iterator<ICacheRecordStore> iterator = container.recordStoreIterator();
@@ -603,6 +603,7 @@ public final class ClientConfigXmlGenerator {
         gen.open("near-cache", "name", name)
                 .node("in-memory-format", nearCache.getInMemoryFormat())
                 .node("serialize-keys", nearCache.isSerializeKeys())
+                .node("off-heap-storage-enabled", nearCache.isOffHeapStorageEnabled())
                 .node("invalidate-on-change", nearCache.isInvalidateOnChange())
                 .node("time-to-live-seconds", nearCache.getTimeToLiveSeconds())
                 .node("max-idle-seconds", nearCache.getMaxIdleSeconds())
@@ -21,7 +21,11 @@ import com.hazelcast.client.impl.protocol.codec.ClientFetchSchemaCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientSendAllSchemasCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientSendSchemaCodec;
 import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
 import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.compact.Schema;
 import com.hazelcast.internal.serialization.impl.compact.SchemaService;
 import com.hazelcast.logging.ILogger;
@@ -29,7 +33,11 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
 import javax.annotation.Nullable;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -74,6 +82,71 @@ public class ClientSchemaService implements SchemaService {
         return schema;
     }
 
+    /**
+     * Fetches the schemas of the given Compact serialized objects which are
+     * not yet known locally. Unlike {@link #get(long)}, which fetches one
+     * schema at a time when an object is read, the unknown schemas are
+     * fetched from the cluster in parallel, so reading a batch of results
+     * with many new schemas costs a single round trip.
+     * <p>
+     * Only the schemas of the top-level objects are prefetched, the schemas
+     * of the nested objects are fetched when the objects are read. Failures
+     * are ignored, the schemas are then fetched when needed.
+     *
+     * @param results the {@link Data} results or entries of them
+     */
+    public void prefetch(Collection<?> results) {
+        Set<Long> schemaIds = null;
+        for (Object result : results) {
+            if (result instanceof Map.Entry) {
+                Map.Entry entry = (Map.Entry) result;
+                schemaIds = addUnknownSchemaId(schemaIds, entry.getKey());
+                schemaIds = addUnknownSchemaId(schemaIds, entry.getValue());
+            } else {
+                schemaIds = addUnknownSchemaId(schemaIds, result);
+            }
+        }
+        if (schemaIds == null) {
+            return;
+        }
+
+        if (logger.isFinestEnabled()) {
+            logger.finest("Prefetching schemas with ids " + schemaIds + " from the cluster");
+        }
+        List<ClientInvocationFuture> futures = new ArrayList<>(schemaIds.size());
+        for (long schemaId : schemaIds) {
+            ClientMessage request = ClientFetchSchemaCodec.encodeRequest(schemaId);
+            futures.add(new ClientInvocation(client, request, SERVICE_NAME).invoke());
+        }
+        for (ClientInvocationFuture future : futures) {
+            try {
+                Schema schema = ClientFetchSchemaCodec.decodeResponse(future.joinInternal());
+                if (schema != null) {
+                    schemas.putIfAbsent(schema.getSchemaId(), schema);
+                }
+            } catch (Exception e) {
+                logger.finest("Could not prefetch a schema", e);
+            }
+        }
+    }
+
+    private Set<Long> addUnknownSchemaId(Set<Long> schemaIds, Object result) {
+        if (!(result instanceof Data) || !((Data) result).isCompact()) {
+            return schemaIds;
+        }
+        // the schema id is the first field of the payload
+        boolean bigEndian = client.getSerializationService().getByteOrder() == ByteOrder.BIG_ENDIAN;
+        long schemaId = Bits.readLong(((Data) result).toByteArray(), HeapData.DATA_OFFSET, bigEndian);
+        if (schemas.containsKey(schemaId)) {
+            return schemaIds;
+        }
+        if (schemaIds == null) {
+            schemaIds = new HashSet<>();
+        }
+        schemaIds.add(schemaId);
+        return schemaIds;
+    }
+
     @Override
     public void put(Schema schema) {
         long schemaId = schema.getSchemaId();
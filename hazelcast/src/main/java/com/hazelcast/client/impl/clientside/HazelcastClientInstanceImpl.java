@@ -103,7 +103,6 @@ import com.hazelcast.internal.metrics.metricsets.ThreadMetricSet;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.nio.Disposable;
 import com.hazelcast.internal.serialization.InternalSerializationService;
-import com.hazelcast.internal.serialization.impl.compact.SchemaService;
 import com.hazelcast.internal.util.ConcurrencyDetection;
 import com.hazelcast.internal.util.ServiceLoader;
 import com.hazelcast.jet.JetService;
@@ -959,7 +958,7 @@ public class HazelcastClientInstanceImpl implements HazelcastInstance, Serializa
                 .forEach(connectionManager::addClientConnectionProcessListener);
     }
 
-    public SchemaService getSchemaService() {
+    public ClientSchemaService getSchemaService() {
         return schemaService;
     }
 }
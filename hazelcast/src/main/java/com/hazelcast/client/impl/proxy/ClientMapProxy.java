@@ -1189,6 +1189,16 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 throw rethrow(e);
             }
         }
+        prefetchSchemas(resultingKeyValuePairs);
+    }
+
+    /**
+     * Fetches the unknown schemas of the given Compact serialized results in
+     * bulk, before they are deserialized one by one.
+     */
+    private <T extends Collection<?>> T prefetchSchemas(T results) {
+        getClient().getSchemaService().prefetch(results);
+        return results;
     }
 
     protected void fillPartitionToKeyData(Set<K> keys,
@@ -1219,7 +1229,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     public Collection<V> values() {
         ClientMessage request = MapValuesCodec.encodeRequest(name);
         ClientMessage response = invoke(request);
-        return new UnmodifiableLazyList(MapValuesCodec.decodeResponse(response), getSerializationService());
+        return new UnmodifiableLazyList(prefetchSchemas(MapValuesCodec.decodeResponse(response)), getSerializationService());
     }
 
     @Nonnull
@@ -1241,7 +1251,8 @@ public class ClientMapProxy<K, V> extends ClientProxy
         ClientMessage request = MapKeySetWithPredicateCodec.encodeRequest(name, toData(predicate));
         ClientMessage response = invokeWithPredicate(request, predicate);
 
-        return (Set<K>) new UnmodifiableLazySet(MapKeySetWithPredicateCodec.decodeResponse(response), getSerializationService());
+        return (Set<K>) new UnmodifiableLazySet(prefetchSchemas(MapKeySetWithPredicateCodec.decodeResponse(response)),
+                getSerializationService());
     }
 
     @Override
@@ -1269,7 +1280,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         pagingPredicate.setAnchorList(resultParameters.anchorDataList.asAnchorList(serializationService));
 
-        return new UnmodifiableLazySet(resultParameters.response, serializationService);
+        return new UnmodifiableLazySet(prefetchSchemas(resultParameters.response), serializationService);
     }
 
     @SuppressWarnings("unchecked")
@@ -1287,7 +1298,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     }
 
     private Set getEntriesAsImmutableLazySet(List<Entry<Data, Data>> entryDataList) {
-        return new UnmodifiableLazySet(entryDataList, getSerializationService());
+        return new UnmodifiableLazySet(prefetchSchemas(entryDataList), getSerializationService());
     }
 
     private Set entrySetWithPagingPredicate(Predicate predicate) {
@@ -1316,7 +1327,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         ClientMessage request = MapValuesWithPredicateCodec.encodeRequest(name, toData(predicate));
         ClientMessage response = invokeWithPredicate(request, predicate);
         List<Data> dataList = MapValuesWithPredicateCodec.decodeResponse(response);
-        return (Collection<V>) new UnmodifiableLazyList(dataList, getSerializationService());
+        return (Collection<V>) new UnmodifiableLazyList(prefetchSchemas(dataList), getSerializationService());
     }
 
     private ClientMessage invokeWithPredicate(ClientMessage request, Predicate predicate) {
@@ -1346,7 +1357,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         pagingPredicate.setAnchorList(resultParameters.anchorDataList.asAnchorList(serializationService));
 
-        return (Collection<V>) new UnmodifiableLazyList(resultParameters.response, serializationService);
+        return (Collection<V>) new UnmodifiableLazyList(prefetchSchemas(resultParameters.response), serializationService);
     }
 
     @Override
@@ -1489,7 +1500,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         ClientMessage request = MapProjectCodec.encodeRequest(name, toData(projection));
         ClientMessage response = invoke(request);
 
-        return new UnmodifiableLazyList(MapProjectCodec.decodeResponse(response), getSerializationService());
+        return new UnmodifiableLazyList(prefetchSchemas(MapProjectCodec.decodeResponse(response)), getSerializationService());
     }
 
     @Override
@@ -1502,7 +1513,8 @@ public class ClientMapProxy<K, V> extends ClientProxy
         ClientMessage request = MapProjectWithPredicateCodec.encodeRequest(name, toData(projection), toData(predicate));
         ClientMessage response = invokeWithPredicate(request, predicate);
 
-        return new UnmodifiableLazyList(MapProjectWithPredicateCodec.decodeResponse(response), getSerializationService());
+        return new UnmodifiableLazyList(prefetchSchemas(MapProjectWithPredicateCodec.decodeResponse(response)),
+                getSerializationService());
     }
 
     @Override
@@ -328,6 +328,19 @@ public final class ClientProperty {
     public static final HazelcastProperty PARTITION_ARGUMENT_CACHE_SIZE
             = new HazelcastProperty("hazelcast.client.sql.partition.argument.cache.size", 1024);
 
+    /**
+     * When enabled, the client requests the next page of a bounded SQL result
+     * as soon as the current page is received, so that the member prepares it
+     * while the application iterates the current one. At most one page is
+     * requested ahead for each cursor, so the client never holds more than two
+     * pages of a result and the member pulls rows from the query only when the
+     * client asks for them.
+     * <p>
+     * Results of streaming queries are never fetched ahead.
+     */
+    public static final HazelcastProperty SQL_PREFETCH_ENABLED
+            = new HazelcastProperty("hazelcast.client.sql.prefetch.enabled", true);
+
     /**
      * Class name implementing {@link com.hazelcast.partition.PartitioningStrategy}, which
      * defines key to partition mapping. Client-side equivalent of member property
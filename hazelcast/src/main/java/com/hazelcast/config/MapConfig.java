@@ -98,6 +98,10 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
      * Default value of whether per entry statistics are enabled or not
      */
     public static final boolean DEFAULT_ENTRY_STATS_ENABLED = false;
+    /**
+     * Default value of whether the off-heap storage is enabled or not
+     */
+    public static final boolean DEFAULT_OFF_HEAP_STORAGE_ENABLED = false;
     /**
      * Default max size.
      */
@@ -116,6 +120,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
     private boolean readBackupData;
     private boolean statisticsEnabled = DEFAULT_STATISTICS_ENABLED;
     private boolean perEntryStatsEnabled = DEFAULT_ENTRY_STATS_ENABLED;
+    private boolean offHeapStorageEnabled = DEFAULT_OFF_HEAP_STORAGE_ENABLED;
     private int backupCount = DEFAULT_BACKUP_COUNT;
     private int asyncBackupCount = MIN_BACKUP_COUNT;
     private int timeToLiveSeconds = DEFAULT_TTL_SECONDS;
@@ -169,6 +174,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         this.cacheDeserializedValues = config.cacheDeserializedValues;
         this.statisticsEnabled = config.statisticsEnabled;
         this.perEntryStatsEnabled = config.perEntryStatsEnabled;
+        this.offHeapStorageEnabled = config.offHeapStorageEnabled;
         this.mergePolicyConfig = new MergePolicyConfig(config.mergePolicyConfig);
         this.wanReplicationRef = config.wanReplicationRef != null ? new WanReplicationRef(config.wanReplicationRef) : null;
         this.entryListenerConfigs = new ArrayList<>(config.getEntryListenerConfigs());
@@ -484,6 +490,40 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         return this;
     }
 
+    /**
+     * Checks if the off-heap storage is enabled for this map.
+     *
+     * @return {@code true} if entries of this map are
+     * kept in off-heap memory, {@code false} otherwise
+     * @since 5.4
+     */
+    public boolean isOffHeapStorageEnabled() {
+        return offHeapStorageEnabled;
+    }
+
+    /**
+     * Set to enable/disable the off-heap storage.
+     * Its default value is {@code false}.
+     *
+     * When enabled, keys, values and per-entry metadata of the
+     * map are kept in off-heap memory instead of the Java heap,
+     * which reduces old-gen footprint and GC pauses for maps with
+     * a large number of small entries. This setting is only
+     * applicable to maps with {@link InMemoryFormat#BINARY}
+     * in-memory format. The off-heap storage always maintains
+     * entry level statistics.
+     *
+     * @param offHeapStorageEnabled {@code true} to keep entries
+     *                              in off-heap memory, {@code false} to keep
+     *                              them on the Java heap
+     * @return the current map config instance
+     * @since 5.4
+     */
+    public MapConfig setOffHeapStorageEnabled(boolean offHeapStorageEnabled) {
+        this.offHeapStorageEnabled = offHeapStorageEnabled;
+        return this;
+    }
+
     /**
      * Checks if read-backup-data (reading local backup entries) is enabled for this map.
      *
@@ -868,6 +908,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         if (perEntryStatsEnabled != that.perEntryStatsEnabled) {
             return false;
         }
+        if (offHeapStorageEnabled != that.offHeapStorageEnabled) {
+            return false;
+        }
         if (!name.equals(that.name)) {
             return false;
         }
@@ -958,6 +1001,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         result = 31 * result + getPartitionLostListenerConfigs().hashCode();
         result = 31 * result + (statisticsEnabled ? 1 : 0);
         result = 31 * result + (perEntryStatsEnabled ? 1 : 0);
+        result = 31 * result + (offHeapStorageEnabled ? 1 : 0);
         result = 31 * result + (partitioningStrategyConfig != null ? partitioningStrategyConfig.hashCode() : 0);
         result = 31 * result + (splitBrainProtectionName != null ? splitBrainProtectionName.hashCode() : 0);
         result = 31 * result + merkleTreeConfig.hashCode();
@@ -997,6 +1041,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
                 + ", cacheDeserializedValues=" + cacheDeserializedValues
                 + ", statisticsEnabled=" + statisticsEnabled
                 + ", entryStatsEnabled=" + perEntryStatsEnabled
+                + ", offHeapStorageEnabled=" + offHeapStorageEnabled
                 + ", tieredStoreConfig=" + tieredStoreConfig
                 + ", partitioningAttributeConfigs=" + partitioningAttributeConfigs
                 + '}';
@@ -1045,6 +1090,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         if (out.getVersion().isGreaterOrEqual(Versions.V5_3)) {
             writeNullableList(partitioningAttributeConfigs, out);
         }
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            out.writeBoolean(offHeapStorageEnabled);
+        }
     }
 
     @Override
@@ -1080,5 +1128,8 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versi
         if (in.getVersion().isGreaterOrEqual(Versions.V5_3)) {
             partitioningAttributeConfigs = readNullableList(in);
         }
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            offHeapStorageEnabled = in.readBoolean();
+        }
     }
 }
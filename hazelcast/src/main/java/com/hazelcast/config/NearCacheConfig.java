@@ -45,6 +45,11 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
      */
     public static final boolean DEFAULT_SERIALIZE_KEYS = false;
 
+    /**
+     * Default value of whether the off-heap storage is enabled or not
+     */
+    public static final boolean DEFAULT_OFF_HEAP_STORAGE_ENABLED = false;
+
     /**
      * @see LocalUpdatePolicy#INVALIDATE
      */
@@ -89,6 +94,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
 
     private boolean cacheLocalEntries;
     private boolean serializeKeys = DEFAULT_SERIALIZE_KEYS;
+    private boolean offHeapStorageEnabled = DEFAULT_OFF_HEAP_STORAGE_ENABLED;
     private boolean invalidateOnChange = DEFAULT_INVALIDATE_ON_CHANGE;
     private int timeToLiveSeconds = DEFAULT_TTL_SECONDS;
     private int maxIdleSeconds = DEFAULT_MAX_IDLE_SECONDS;
@@ -109,6 +115,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         this.name = config.name;
         this.inMemoryFormat = config.inMemoryFormat;
         this.serializeKeys = config.serializeKeys;
+        this.offHeapStorageEnabled = config.offHeapStorageEnabled;
         this.invalidateOnChange = config.invalidateOnChange;
         this.timeToLiveSeconds = config.timeToLiveSeconds;
         this.maxIdleSeconds = config.maxIdleSeconds;
@@ -208,6 +215,41 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         return this;
     }
 
+    /**
+     * Checks if the off-heap storage is enabled for this Near Cache.
+     *
+     * @return {@code true} if the serialized keys and values of
+     * this Near Cache are kept in off-heap memory, {@code false} otherwise
+     * @since 5.4
+     */
+    public boolean isOffHeapStorageEnabled() {
+        return offHeapStorageEnabled;
+    }
+
+    /**
+     * Enables or disables the off-heap storage for this Near Cache.
+     * <p>
+     * When enabled, the serialized keys and values of the Near Cache are
+     * kept in native memory allocated outside of the Java heap, which
+     * reduces the GC pressure of large Near Caches. Every read copies the
+     * value back to the heap before it is deserialized. This setting is
+     * only applicable to Near Caches with {@link InMemoryFormat#BINARY}
+     * in-memory format. The keys are always stored in serialized format
+     * in off-heap memory, regardless of {@link #isSerializeKeys()}.
+     * Supports the {@link MaxSizePolicy#ENTRY_COUNT} and
+     * {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE} max-size policies.
+     *
+     * @param offHeapStorageEnabled {@code true} to keep keys and values
+     *                              in off-heap memory, {@code false} to keep
+     *                              them on the Java heap
+     * @return this Near Cache config instance
+     * @since 5.4
+     */
+    public NearCacheConfig setOffHeapStorageEnabled(boolean offHeapStorageEnabled) {
+        this.offHeapStorageEnabled = offHeapStorageEnabled;
+        return this;
+    }
+
     /**
      * Checks if Near Cache entries are invalidated when the entries in the backing data structure are changed
      * (updated or removed).
@@ -423,6 +465,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         return "NearCacheConfig{"
                 + "name=" + name
                 + ", inMemoryFormat=" + inMemoryFormat
+                + ", offHeapStorageEnabled=" + offHeapStorageEnabled
                 + ", invalidateOnChange=" + invalidateOnChange
                 + ", timeToLiveSeconds=" + timeToLiveSeconds
                 + ", maxIdleSeconds=" + maxIdleSeconds
@@ -448,6 +491,9 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         if (serializeKeys != that.serializeKeys) {
             return false;
         }
+        if (offHeapStorageEnabled != that.offHeapStorageEnabled) {
+            return false;
+        }
         if (invalidateOnChange != that.invalidateOnChange) {
             return false;
         }
@@ -481,6 +527,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         int result = name.hashCode();
         result = 31 * result + inMemoryFormat.hashCode();
         result = 31 * result + (serializeKeys ? 1 : 0);
+        result = 31 * result + (offHeapStorageEnabled ? 1 : 0);
         result = 31 * result + (invalidateOnChange ? 1 : 0);
         result = 31 * result + timeToLiveSeconds;
         result = 31 * result + maxIdleSeconds;
@@ -46,6 +46,10 @@ import static com.hazelcast.internal.util.ThreadAffinity.newSystemThreadAffinity
 import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_PACKET_BUFFER_POOL_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_PACKET_BUFFER_POOL_MAX_BUFFER_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_COALESCING_LATENCY_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_COALESCING_MAX_BYTES;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_THROUGH_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
@@ -177,6 +181,10 @@ public class DefaultNodeContext implements NodeContext {
                         .outputThreadAffinity(newSystemThreadAffinity("hazelcast.io.output.thread.affinity"))
                         .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
                         .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                        .packetBufferPoolEnabled(props.getBoolean(IO_PACKET_BUFFER_POOL_ENABLED))
+                        .packetBufferPoolMaxBufferSize(props.getInteger(IO_PACKET_BUFFER_POOL_MAX_BUFFER_SIZE))
+                        .writeCoalescingLatencyNanos(props.getNanos(IO_WRITE_COALESCING_LATENCY_MICROS))
+                        .writeCoalescingMaxBytes(props.getInteger(IO_WRITE_COALESCING_MAX_BYTES))
                         .concurrencyDetection(node.nodeEngine.getConcurrencyDetection())
         );
     }
@@ -86,6 +86,7 @@ import com.hazelcast.internal.serialization.impl.compact.schema.MemberSchemaServ
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.internal.server.tcp.ChannelInitializerFunction;
+import com.hazelcast.internal.server.tcp.GatheringPacketEncoder;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
 import com.hazelcast.internal.util.ConstructorFunction;
@@ -472,6 +473,9 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
+        if (node.getProperties().getBoolean(ClusterProperty.IO_GATHERING_WRITE_ENABLED)) {
+            return new OutboundHandler[]{new GatheringPacketEncoder()};
+        }
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
@@ -64,6 +64,7 @@ import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
 import static com.hazelcast.config.EvictionPolicy.NONE;
 import static com.hazelcast.config.EvictionPolicy.RANDOM;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.MaxSizePolicy.ENTRY_COUNT;
 import static com.hazelcast.config.MaxSizePolicy.FREE_HEAP_PERCENTAGE;
@@ -82,6 +83,7 @@ import static com.hazelcast.instance.ProtocolType.MEMBER;
 import static com.hazelcast.instance.ProtocolType.WAN;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMapMergePolicy;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMergeTypeProviderHasRequiredTypes;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
@@ -98,6 +100,9 @@ public final class ConfigValidator {
     private static final Set<MaxSizePolicy> NEAR_CACHE_SUPPORTED_ON_HEAP_MAX_SIZE_POLICIES
             = EnumSet.of(MaxSizePolicy.ENTRY_COUNT);
 
+    private static final Set<MaxSizePolicy> NEAR_CACHE_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES
+            = EnumSet.of(MaxSizePolicy.ENTRY_COUNT, USED_NATIVE_MEMORY_SIZE);
+
     private static final Set<EvictionPolicy> MAP_SUPPORTED_EVICTION_POLICIES
             = EnumSet.of(LRU, LFU, RANDOM, NONE);
 
@@ -132,6 +137,7 @@ public final class ConfigValidator {
         checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
         checkNotBitmapIndexWhenNativeMemory(mapConfig.getInMemoryFormat(), mapConfig.getIndexConfigs());
         checkNotTieredStoreWhenOpenSource(mapConfig.getTieredStoreConfig());
+        checkMapOffHeapStorageConfig(mapConfig);
 
         if (getBuildInfo().isEnterprise()) {
             checkMapNativeConfig(mapConfig, nativeMemoryConfig);
@@ -143,6 +149,21 @@ public final class ConfigValidator {
                 mapConfig.getMergePolicyConfig().getPolicy(), mergePolicyProvider);
     }
 
+    static void checkMapOffHeapStorageConfig(MapConfig mapConfig) {
+        if (!mapConfig.isOffHeapStorageEnabled()) {
+            return;
+        }
+        if (mapConfig.getInMemoryFormat() != BINARY) {
+            throw new InvalidConfigurationException(format("Off-heap storage can only be used with"
+                    + " BINARY in-memory-format, but the map [%s] uses %s",
+                    mapConfig.getName(), mapConfig.getInMemoryFormat()));
+        }
+        if (!MEM_AVAILABLE) {
+            throw new InvalidConfigurationException(format("Off-heap storage of the map [%s] requires"
+                    + " native memory access, which is not available on this platform", mapConfig.getName()));
+        }
+    }
+
     static void checkMapMaxSizePolicyPerInMemoryFormat(MapConfig mapConfig) {
         MaxSizePolicy maxSizePolicy = mapConfig.getEvictionConfig().getMaxSizePolicy();
         InMemoryFormat inMemoryFormat = mapConfig.getInMemoryFormat();
@@ -318,6 +339,7 @@ public final class ConfigValidator {
         EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
         checkNearCacheEvictionConfig(evictionConfig.getEvictionPolicy(),
                 evictionConfig.getComparatorClassName(), evictionConfig.getComparator());
+        checkNearCacheOffHeapStorageConfig(mapName, nearCacheConfig);
         checkOnHeapNearCacheMaxSizePolicy(nearCacheConfig);
         checkNearCacheNativeMemoryConfig(nearCacheConfig.getInMemoryFormat(),
                 nativeMemoryConfig, getBuildInfo().isEnterprise());
@@ -371,9 +393,30 @@ public final class ConfigValidator {
                 comparator, supportedEvictionPolicies);
     }
 
+    static void checkNearCacheOffHeapStorageConfig(String mapName, NearCacheConfig nearCacheConfig) {
+        if (!nearCacheConfig.isOffHeapStorageEnabled()) {
+            return;
+        }
+        if (nearCacheConfig.getInMemoryFormat() != BINARY) {
+            throw new InvalidConfigurationException(format("Off-heap storage can only be used with"
+                    + " BINARY in-memory-format, but the Near Cache of the map [%s] uses %s",
+                    mapName, nearCacheConfig.getInMemoryFormat()));
+        }
+        if (!MEM_AVAILABLE) {
+            throw new InvalidConfigurationException(format("Off-heap storage of the Near Cache of the map [%s]"
+                    + " requires native memory access, which is not available on this platform", mapName));
+        }
+        MaxSizePolicy maxSizePolicy = nearCacheConfig.getEvictionConfig().getMaxSizePolicy();
+        if (!NEAR_CACHE_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES.contains(maxSizePolicy)) {
+            throw new InvalidConfigurationException(format("Near Cache maximum size policy %s cannot be used with"
+                            + " off-heap storage. Supported maximum size policies are: %s",
+                    maxSizePolicy, NEAR_CACHE_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES));
+        }
+    }
+
     private static void checkOnHeapNearCacheMaxSizePolicy(NearCacheConfig nearCacheConfig) {
         InMemoryFormat inMemoryFormat = nearCacheConfig.getInMemoryFormat();
-        if (inMemoryFormat == NATIVE) {
+        if (inMemoryFormat == NATIVE || nearCacheConfig.isOffHeapStorageEnabled()) {
             return;
         }
 
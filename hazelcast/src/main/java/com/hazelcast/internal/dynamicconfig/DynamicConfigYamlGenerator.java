@@ -185,6 +185,8 @@ public class DynamicConfigYamlGenerator {
                     subConfigAsObject.isStatisticsEnabled());
             addNonNullToMap(subConfigAsMap, "per-entry-stats-enabled",
                     subConfigAsObject.isPerEntryStatsEnabled());
+            addNonNullToMap(subConfigAsMap, "off-heap-storage-enabled",
+                    subConfigAsObject.isOffHeapStorageEnabled());
             addNonNullToMap(subConfigAsMap, "cache-deserialized-values",
                     cacheDeserializedValues);
             addNonNullToMap(subConfigAsMap, "backup-count",
@@ -1411,6 +1413,8 @@ public class DynamicConfigYamlGenerator {
                 nearCacheConfig.getMaxIdleSeconds());
         addNonNullToMap(nearCacheConfigAsMap, "serialize-keys",
                 nearCacheConfig.isSerializeKeys());
+        addNonNullToMap(nearCacheConfigAsMap, "off-heap-storage-enabled",
+                nearCacheConfig.isOffHeapStorageEnabled());
         addNonNullToMap(nearCacheConfigAsMap, "cache-local-entries",
                 nearCacheConfig.isCacheLocalEntries());
         addNonNullToMap(nearCacheConfigAsMap, "eviction",
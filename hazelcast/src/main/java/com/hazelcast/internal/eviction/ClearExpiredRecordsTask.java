@@ -23,6 +23,7 @@ import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.partition.PartitionLostEvent;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -61,6 +62,7 @@ public abstract class ClearExpiredRecordsTask<T, S> implements Runnable {
     private final int taskPeriodSeconds;
     private final int cleanupPercentage;
     private final int cleanupOperationCount;
+    private final int cleanupOperationCountPerThread;
 
     private final Address thisAddress;
     private final OperationServiceImpl operationService;
@@ -90,6 +92,8 @@ public abstract class ClearExpiredRecordsTask<T, S> implements Runnable {
         this.cleanupOperationCount = calculateCleanupOperationCount(properties, cleanupOpProperty, partitionCount,
                 operationService.getPartitionThreadCount());
         checkPositive(cleanupOperationCount, "cleanupOperationCount should be a positive number");
+        int partitionThreadCount = operationService.getPartitionThreadCount();
+        this.cleanupOperationCountPerThread = (cleanupOperationCount + partitionThreadCount - 1) / partitionThreadCount;
         this.cleanupPercentage = properties.getInteger(cleanupPercentageProperty);
 
         checkTrue(cleanupPercentage > 0 && cleanupPercentage <= 100,
@@ -267,14 +271,28 @@ public abstract class ClearExpiredRecordsTask<T, S> implements Runnable {
         return containersToProcess;
     }
 
+    /**
+     * Sends up to {@code cleanupOperationCount} cleanup operations, at most
+     * {@code cleanupOperationCountPerThread} of them to the same partition
+     * thread. The partition thread is looked up on every run, because the
+     * partitions can be moved between the partition threads (see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED}).
+     */
     private void sendCleanupOperations(List<T> partitionContainers) {
-        final int start = 0;
-        int end = cleanupOperationCount;
-        if (end > partitionContainers.size()) {
-            end = partitionContainers.size();
-        }
-        List<T> partitionIds = partitionContainers.subList(start, end);
-        for (T container : partitionIds) {
+        OperationExecutor operationExecutor = operationService.getOperationExecutor();
+        int[] operationCountPerThread = new int[operationExecutor.getPartitionThreadCount()];
+        int operationCount = 0;
+        for (T container : partitionContainers) {
+            if (operationCount == cleanupOperationCount) {
+                break;
+            }
+            int threadIndex = operationExecutor.toPartitionThreadIndex(getPartitionId(container));
+            if (operationCountPerThread[threadIndex] == cleanupOperationCountPerThread) {
+                continue;
+            }
+            operationCountPerThread[threadIndex]++;
+            operationCount++;
+
             // mark partition container as has on going expiration operation.
             setHasRunningCleanup(container);
             Operation operation = newPrimaryExpiryOp(cleanupPercentage, container);
@@ -306,6 +324,8 @@ public abstract class ClearExpiredRecordsTask<T, S> implements Runnable {
         return cleanupOperationCount;
     }
 
+    protected abstract int getPartitionId(T container);
+
     protected abstract boolean isContainerEmpty(T container);
 
     protected abstract boolean hasRunningCleanup(T container);
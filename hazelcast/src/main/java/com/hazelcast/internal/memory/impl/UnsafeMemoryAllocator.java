@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+
+/**
+ * {@link MemoryAllocator} which allocates blocks of native memory directly
+ * with {@code Unsafe.allocateMemory()} and keeps track of the number of
+ * bytes currently allocated through it.
+ * <p>
+ * The allocator doesn't remember individual blocks, so the owner is
+ * responsible for freeing every block it allocated before the allocator is
+ * disposed. Unless it's created as {@link #UnsafeMemoryAllocator(boolean)
+ * concurrent}, it is meant to be used by a single thread at a time; {@link
+ * #getUsedMemory()} can be read from any thread.
+ */
+public final class UnsafeMemoryAllocator implements MemoryAllocator {
+
+    private final Counter usedMemory;
+
+    public UnsafeMemoryAllocator() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent {@code true} if the allocator can be used by
+     *                   multiple threads concurrently
+     */
+    public UnsafeMemoryAllocator(boolean concurrent) {
+        this.usedMemory = concurrent ? newMwCounter() : newSwCounter();
+    }
+
+    /**
+     * @return the number of bytes currently allocated by this allocator
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    @Override
+    public long allocate(long size) {
+        long address = allocate0(size);
+        UNSAFE.setMemory(address, size, (byte) 0);
+        usedMemory.inc(size);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long newAddress = allocate0(newSize);
+        UNSAFE.copyMemory(address, newAddress, Math.min(currentSize, newSize));
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+        }
+        UNSAFE.freeMemory(address);
+        usedMemory.inc(newSize - currentSize);
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        assert address != NULL_ADDRESS : "Attempt to free NULL_ADDRESS";
+        UNSAFE.freeMemory(address);
+        usedMemory.inc(-size);
+    }
+
+    @Override
+    public void dispose() {
+        // blocks are owned and freed by the users of this allocator
+    }
+
+    private static long allocate0(long size) {
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UnsafeMemoryAllocator{usedMemory=" + usedMemory.get() + '}';
+    }
+}
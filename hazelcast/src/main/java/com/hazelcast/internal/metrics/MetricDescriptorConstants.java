@@ -334,6 +334,9 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES = "writes";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE = "framesPerWrite";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FLUSHES = "coalescedFlushes";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
@@ -351,6 +354,10 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_THREAD_COMPLETED_TASK_COUNT = "completedTaskCount";
     public static final String NETWORKING_METRIC_NIO_THREAD_SELECTOR_REBUILD_COUNT = "selectorRebuildCount";
     public static final String NETWORKING_METRIC_NIO_THREAD_IDLE_TIME_MILLIS = "idleTimeMillis";
+    public static final String NETWORKING_METRIC_PACKET_BUFFER_POOL_HITS = "packetBufferPoolHits";
+    public static final String NETWORKING_METRIC_PACKET_BUFFER_POOL_MISSES = "packetBufferPoolMisses";
+    public static final String NETWORKING_METRIC_PACKET_BUFFER_POOL_RELEASED = "packetBufferPoolReleased";
+    public static final String NETWORKING_METRIC_PACKET_BUFFER_POOL_LEAKED = "packetBufferPoolLeaked";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_IMBALANCE_DETECTED_COUNT = "imbalanceDetectedCount";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_MIGRATION_COMPLETED_COUNT = "migrationCompletedCount";
     // ===[/NETWORKING]=================================================
@@ -376,6 +383,7 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT = "completedCount";
     public static final String OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT = "partitionThreadCount";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT = "genericThreadCount";
+    public static final String OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT = "partitionStealCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_TOTAL_COUNT = "completedTotalCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_PACKET_COUNT = "completedPacketCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_COUNT = "completedOperationCount";
@@ -386,6 +394,10 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_BATCH_COUNT = "completedOperationBatchCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT = "normalPendingCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT = "priorityPendingCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT = "ownedPartitionCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT = "stolenPartitionCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_SURRENDERED_PARTITION_COUNT =
+            "surrenderedPartitionCount";
     public static final String OPERATION_METRIC_PARKER_PARK_QUEUE_COUNT = "parkQueueCount";
     public static final String OPERATION_METRIC_PARKER_TOTAL_PARKED_OPERATION_COUNT = "totalParkedOperationCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSE_QUEUE_SIZE = "responseQueueSize";
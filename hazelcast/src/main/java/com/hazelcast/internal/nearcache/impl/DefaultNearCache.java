@@ -23,6 +23,7 @@ import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheOffHeapRecordStore;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.nearcache.NearCacheStats;
@@ -91,6 +92,9 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         }
         switch (inMemoryFormat) {
             case BINARY:
+                if (nearCacheConfig.isOffHeapStorageEnabled()) {
+                    return new NearCacheOffHeapRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                }
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.maxsize;
+
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Near Cache max-size policy implementation for {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE}
+ * of off-heap Near Caches.
+ * <p>
+ * Checks if the native memory used by the keys and values of the Near Cache
+ * reached the configured size in megabytes.
+ *
+ * @see EvictionChecker
+ */
+public class UsedNativeMemorySizeNearCacheEvictionChecker
+        implements EvictionChecker {
+
+    private final UnsafeMemoryAllocator allocator;
+    private final long maxSizeInBytes;
+
+    public UsedNativeMemorySizeNearCacheEvictionChecker(int sizeInMegabytes, UnsafeMemoryAllocator allocator) {
+        this.maxSizeInBytes = MEGABYTES.toBytes(sizeInMegabytes);
+        this.allocator = allocator;
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        return allocator.getUsedMemory() >= maxSizeInBytes;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.record;
+
+import com.hazelcast.internal.memory.GlobalMemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x64_64_direct;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * A {@link Data} whose serialized bytes are kept in a block of native memory,
+ * used for the keys and values of off-heap Near Caches.
+ * <p>
+ * The block is reference counted: the owner holds one reference, which it
+ * gives up by {@link #release()}, and every read of the native memory holds
+ * another one for its duration. The block is freed when the last reference
+ * is released, so a reader racing with the removal of the key or value from
+ * the Near Cache never sees freed memory. A read after the block has been
+ * released by its owner fails softly: {@link #toHeapData()} returns {@code
+ * null}, {@link #toByteArray()} an empty array and {@link #equals(Object)}
+ * {@code false}.
+ * <p>
+ * Hash code, type and partition hash are kept on-heap, so they can be read
+ * without touching the native memory.
+ */
+public final class NearCacheOffHeapData implements Data {
+
+    // object header, references to the allocator and
+    // the primitive fields: address, size, type, partition hash,
+    // hash code and reference count
+    private static final int HEAP_COST = OBJECT_HEADER_SIZE + REFERENCE_COST_IN_BYTES
+            + Long.BYTES + 5 * Integer.BYTES;
+
+    private static final AtomicIntegerFieldUpdater<NearCacheOffHeapData> REFERENCES
+            = AtomicIntegerFieldUpdater.newUpdater(NearCacheOffHeapData.class, "references");
+
+    private static final GlobalMemoryAccessor MEMORY = MEM;
+
+    private final MemoryAllocator allocator;
+    private final long address;
+    private final int size;
+    private final int type;
+    private final int partitionHash;
+    private final int hashCode;
+
+    private volatile int references = 1;
+
+    private NearCacheOffHeapData(MemoryAllocator allocator, long address, Data data) {
+        this.allocator = allocator;
+        this.address = address;
+        this.size = data.totalSize();
+        this.type = data.getType();
+        this.partitionHash = data.hasPartitionHash() ? data.getPartitionHash() : 0;
+        this.hashCode = data.hashCode();
+    }
+
+    /**
+     * Copies the given serialized data to a newly allocated block of native
+     * memory.
+     *
+     * @param data      the data to copy, must not be empty
+     * @param allocator the allocator of the native memory
+     * @return the off-heap copy of the data, owned by the caller
+     */
+    public static NearCacheOffHeapData copyOf(Data data, MemoryAllocator allocator) {
+        int size = data.totalSize();
+        if (size < DATA_OFFSET) {
+            throw new IllegalArgumentException("Cannot store empty data off-heap");
+        }
+        long address = allocator.allocate(size);
+        MEMORY.copyFromByteArray(data.toByteArray(), 0, address, size);
+        return new NearCacheOffHeapData(allocator, address, data);
+    }
+
+    /**
+     * Gives up the reference of the owner. The native memory is freed as
+     * soon as no read is in progress.
+     */
+    public void release() {
+        if (REFERENCES.decrementAndGet(this) == 0) {
+            allocator.free(address, size);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of native memory occupied by this data.
+     */
+    public int getNativeMemoryCost() {
+        return size;
+    }
+
+    /**
+     * Copies the serialized bytes to the heap.
+     *
+     * @return the on-heap copy or {@code null} if the data has been released
+     */
+    @Nullable
+    public HeapData toHeapData() {
+        byte[] bytes = copyBytes();
+        return bytes == null ? null : new HeapData(bytes);
+    }
+
+    private boolean acquire() {
+        for (; ; ) {
+            int current = references;
+            if (current == 0) {
+                return false;
+            }
+            if (REFERENCES.compareAndSet(this, current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Nullable
+    private byte[] copyBytes() {
+        if (!acquire()) {
+            return null;
+        }
+        try {
+            byte[] bytes = new byte[size];
+            MEMORY.copyToByteArray(address, bytes, 0, size);
+            return bytes;
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] bytes = copyBytes();
+        return bytes == null ? new byte[0] : bytes;
+    }
+
+    @Override
+    public int getType() {
+        return type;
+    }
+
+    @Override
+    public int totalSize() {
+        return size;
+    }
+
+    @Override
+    public void copyTo(byte[] dest, int destPos) {
+        if (!acquire()) {
+            throw new IllegalStateException("Off-heap data has already been released");
+        }
+        try {
+            MEMORY.copyToByteArray(address, dest, destPos, size);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int dataSize() {
+        return size - DATA_OFFSET;
+    }
+
+    @Override
+    public int getHeapCost() {
+        return HEAP_COST;
+    }
+
+    @Override
+    public int getPartitionHash() {
+        return hasPartitionHash() ? partitionHash : hashCode;
+    }
+
+    @Override
+    public boolean hasPartitionHash() {
+        return partitionHash != 0;
+    }
+
+    @Override
+    public long hash64() {
+        if (!acquire()) {
+            throw new IllegalStateException("Off-heap data has already been released");
+        }
+        try {
+            return MurmurHash3_x64_64_direct(MEMORY, address, DATA_OFFSET, dataSize());
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public boolean isPortable() {
+        return SerializationConstants.CONSTANT_TYPE_PORTABLE == type;
+    }
+
+    @Override
+    public boolean isJson() {
+        return SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE == type;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return SerializationConstants.TYPE_COMPACT == type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Data)) {
+            return false;
+        }
+        Data that = (Data) o;
+        if (type != that.getType() || size != that.totalSize()) {
+            return false;
+        }
+        if (that instanceof NearCacheOffHeapData) {
+            return contentEquals((NearCacheOffHeapData) that);
+        }
+        return contentEquals(that.toByteArray());
+    }
+
+    // compares the bytes after the header, as HeapData does
+    private boolean contentEquals(byte[] bytes) {
+        if (bytes.length < size || !acquire()) {
+            return false;
+        }
+        try {
+            for (int i = size - 1; i >= DATA_OFFSET; i--) {
+                if (MEMORY.getByte(address + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            release();
+        }
+    }
+
+    private boolean contentEquals(NearCacheOffHeapData that) {
+        if (!acquire()) {
+            return false;
+        }
+        try {
+            if (!that.acquire()) {
+                return false;
+            }
+            try {
+                for (int i = size - 1; i >= DATA_OFFSET; i--) {
+                    if (MEMORY.getByte(address + i) != MEMORY.getByte(that.address + i)) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                that.release();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "NearCacheOffHeapData{"
+                + "type=" + type
+                + ", hashCode=" + hashCode
+                + ", totalSize=" + size
+                + ", address=" + address
+                + '}';
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Implementation of {@link com.hazelcast.internal.nearcache.NearCacheRecord} for off-heap Near Caches.
+ * <p>
+ * Both the key and the value of the record are kept in native memory as
+ * {@link NearCacheOffHeapData}. The record owns them and frees them on
+ * {@link #release()}, which has to be called once the record has been
+ * removed from the Near Cache.
+ */
+public class NearCacheOffHeapRecord extends AbstractNearCacheRecord<Data> {
+
+    private static final AtomicIntegerFieldUpdater<NearCacheOffHeapRecord> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(NearCacheOffHeapRecord.class, "released");
+
+    private NearCacheOffHeapData key;
+    private volatile int released;
+
+    public NearCacheOffHeapRecord(NearCacheOffHeapData value, long creationTime, long expiryTime) {
+        super(value, creationTime, expiryTime);
+    }
+
+    /**
+     * Returns the off-heap key of this record, or {@code null} if the record
+     * hasn't been attached to a key yet.
+     */
+    public NearCacheOffHeapData getKey() {
+        return key;
+    }
+
+    /**
+     * Attaches the record to its key. Has to be called before the record is
+     * published to other threads.
+     */
+    public void setKey(NearCacheOffHeapData key) {
+        this.key = key;
+    }
+
+    /**
+     * Sets the new value and releases the previous one.
+     *
+     * @param value the new value, either {@code null} or a {@link NearCacheOffHeapData}
+     */
+    @Override
+    public void setValue(Data value) {
+        assert value == null || value instanceof NearCacheOffHeapData : "Only off-heap values can be stored";
+
+        Data oldValue = this.value;
+        this.value = value;
+        if (oldValue != null) {
+            ((NearCacheOffHeapData) oldValue).release();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of native memory occupied by the key and
+     * the value of this record.
+     */
+    public long getNativeMemoryCost() {
+        Data value = this.value;
+        return (key != null ? key.getNativeMemoryCost() : 0)
+                + (value != null ? ((NearCacheOffHeapData) value).getNativeMemoryCost() : 0);
+    }
+
+    /**
+     * Releases the native memory of the key and the value. Subsequent calls
+     * have no effect.
+     */
+    public void release() {
+        if (!RELEASED.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        Data value = this.value;
+        if (value != null) {
+            ((NearCacheOffHeapData) value).release();
+        }
+        if (key != null) {
+            key.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NearCacheOffHeapRecord{" + super.toString() + '}';
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapData;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializableByConvention;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.SampleableConcurrentHashMap;
+
+/**
+ * {@link SampleableNearCacheRecordMap} implementation for off-heap Near Caches.
+ * <p>
+ * The keys of the map are the {@link NearCacheOffHeapData} keys of the
+ * records, so both keys and values live in native memory and only the
+ * records themselves are on-heap. The map can be queried with any
+ * {@link Data} key. Records removed by eviction are released here, every
+ * other removal is done by {@link NearCacheOffHeapRecordStore} which
+ * releases the removed records itself.
+ */
+@SerializableByConvention
+public class NearCacheOffHeapRecordMap
+        extends SampleableConcurrentHashMap<Data, NearCacheOffHeapRecord>
+        implements SampleableNearCacheRecordMap<Data, NearCacheOffHeapRecord> {
+
+    private final SerializationService serializationService;
+
+    NearCacheOffHeapRecordMap(SerializationService serializationService, int initialCapacity) {
+        super(initialCapacity);
+        this.serializationService = serializationService;
+    }
+
+    public class NearCacheOffHeapEvictableSamplingEntry
+            extends SamplingEntry<Data, NearCacheOffHeapRecord>
+            implements EvictionCandidate<Data, NearCacheOffHeapRecord> {
+
+        NearCacheOffHeapEvictableSamplingEntry(Data key, NearCacheOffHeapRecord value) {
+            super(key, value);
+        }
+
+        @Override
+        public Data getAccessor() {
+            return key;
+        }
+
+        @Override
+        public NearCacheOffHeapRecord getEvictable() {
+            return value;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(toHeapData(key));
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(toHeapData(value.getValue()));
+        }
+
+        @Override
+        public long getCreationTime() {
+            return value.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return value.getLastAccessTime();
+        }
+
+        @Override
+        public long getHits() {
+            return value.getHits();
+        }
+    }
+
+    private static Data toHeapData(Data data) {
+        return data instanceof NearCacheOffHeapData ? ((NearCacheOffHeapData) data).toHeapData() : data;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <E extends SamplingEntry> E createSamplingEntry(Data key, NearCacheOffHeapRecord value) {
+        return (E) new NearCacheOffHeapEvictableSamplingEntry(key, value);
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, NearCacheOffHeapRecord>> boolean tryEvict(
+            C evictionCandidate, EvictionListener<Data, NearCacheOffHeapRecord> evictionListener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        NearCacheOffHeapRecord removedRecord = remove(evictionCandidate.getAccessor());
+        if (removedRecord == null) {
+            return false;
+        }
+        try {
+            if (removedRecord.getReservationId() != NearCacheRecord.READ_PERMITTED) {
+                // the record was a placeholder marked for update
+                return false;
+            }
+            if (evictionListener != null) {
+                evictionListener.onEvict(evictionCandidate.getAccessor(), removedRecord, false);
+            }
+            return true;
+        } finally {
+            removedRecord.release();
+        }
+    }
+
+    @Override
+    public Iterable<NearCacheOffHeapEvictableSamplingEntry> sample(int sampleCount) {
+        return super.getRandomSamples(sampleCount);
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.maxsize.UsedNativeMemorySizeNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapData;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static com.hazelcast.internal.util.IterableUtil.map;
+import static java.lang.String.format;
+
+/**
+ * {@link com.hazelcast.internal.nearcache.NearCacheRecordStore} implementation for Near Caches
+ * with {@link NearCacheConfig#isOffHeapStorageEnabled() off-heap storage} enabled.
+ * <p>
+ * The serialized keys and values are kept in native memory, so a large Near
+ * Cache doesn't add to the live set of the garbage collector. Only the
+ * records and the map referencing them stay on-heap. Every read copies the
+ * value back to the heap before it is deserialized.
+ * <p>
+ * Records removed from the store are released right away. Their native
+ * memory is freed as soon as no concurrent read is in progress, see
+ * {@link NearCacheOffHeapData}. A read racing with the removal of its
+ * record is reported as a miss.
+ * <p>
+ * The owned entry memory cost reported by the Near Cache statistics is the
+ * native memory used by the keys and values.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+public class NearCacheOffHeapRecordStore<K, V>
+        extends AbstractNearCacheRecordStore<K, V, Data, NearCacheOffHeapRecord, NearCacheOffHeapRecordMap> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+
+    private final UnsafeMemoryAllocator allocator = new UnsafeMemoryAllocator(true);
+    private final NearCachePreloader<Data> nearCachePreloader;
+    private final BiFunction<Data, NearCacheOffHeapRecord, NearCacheOffHeapRecord> invalidatorFunction
+            = createInvalidatorFunction();
+
+    public NearCacheOffHeapRecordStore(String name,
+                                       NearCacheConfig nearCacheConfig,
+                                       SerializationService serializationService,
+                                       ClassLoader classLoader) {
+        super(nearCacheConfig, serializationService, classLoader);
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled()
+                ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+    }
+
+    /**
+     * Returns the number of bytes of native memory currently used by the
+     * keys and values of this store.
+     */
+    public long getUsedNativeMemory() {
+        return allocator.getUsedMemory();
+    }
+
+    @Override
+    protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig,
+                                                             NearCacheConfig nearCacheConfig) {
+        MaxSizePolicy maxSizePolicy = evictionConfig.getMaxSizePolicy();
+        if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
+            return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
+        }
+        if (maxSizePolicy == MaxSizePolicy.USED_NATIVE_MEMORY_SIZE) {
+            return new UsedNativeMemorySizeNearCacheEvictionChecker(evictionConfig.getSize(), allocator);
+        }
+
+        throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s and %s are supported.",
+                maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT, MaxSizePolicy.USED_NATIVE_MEMORY_SIZE));
+    }
+
+    @Override
+    protected NearCacheOffHeapRecordMap createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
+        return new NearCacheOffHeapRecordMap(serializationService, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    protected long getKeyStorageMemoryCost(K key) {
+        // the native memory of the key is accounted for by its record
+        return 0L;
+    }
+
+    @Override
+    protected long getRecordStorageMemoryCost(NearCacheOffHeapRecord record) {
+        return record == null ? 0L : record.getNativeMemoryCost();
+    }
+
+    @Override
+    protected NearCacheOffHeapRecord createRecord(V value) {
+        NearCacheOffHeapData offHeapValue = toOffHeapData(value);
+        long creationTime = currentTimeMillis();
+        if (timeToLiveMillis > 0) {
+            return new NearCacheOffHeapRecord(offHeapValue, creationTime, creationTime + timeToLiveMillis);
+        } else {
+            return new NearCacheOffHeapRecord(offHeapValue, creationTime, TIME_NOT_SET);
+        }
+    }
+
+    @Override
+    protected void updateRecordValue(NearCacheOffHeapRecord record, V value) {
+        record.setValue(toOffHeapData(value));
+    }
+
+    private NearCacheOffHeapData toOffHeapData(Object value) {
+        Data data = toData(value);
+        return data == null ? null : NearCacheOffHeapData.copyOf(data, allocator);
+    }
+
+    @Override
+    protected V recordToValue(NearCacheOffHeapRecord record) {
+        Data value = record.getValue();
+        if (value == null) {
+            return (V) CACHED_AS_NULL;
+        }
+        Data heapValue = ((NearCacheOffHeapData) value).toHeapData();
+        // the record has been removed concurrently, report a miss
+        return heapValue == null ? null : toValue(heapValue);
+    }
+
+    @Override
+    public NearCacheOffHeapRecord getRecord(K key) {
+        return records.get(toData(key));
+    }
+
+    @Override
+    protected NearCacheOffHeapRecord putRecord(K key, NearCacheOffHeapRecord record) {
+        throw new UnsupportedOperationException("Records can only be added by reservation");
+    }
+
+    @Override
+    protected boolean containsRecordKey(K key) {
+        return records.containsKey(toData(key));
+    }
+
+    @Override
+    public void onEvict(Data key, NearCacheOffHeapRecord record, boolean wasExpired) {
+        if (!canUpdateStats(record)) {
+            return;
+        }
+        super.onEvict(key, record, wasExpired);
+        nearCacheStats.decrementOwnedEntryMemoryCost(getRecordStorageMemoryCost(record));
+    }
+
+    @Override
+    protected NearCacheOffHeapRecord reserveForReadUpdate(K key, Data keyData, long reservationId) {
+        Data heapKey = keyData != null ? keyData : toData(key);
+        NearCacheOffHeapData offHeapKey = NearCacheOffHeapData.copyOf(heapKey, allocator);
+        NearCacheOffHeapRecord record = null;
+        try {
+            record = records.applyIfAbsent(offHeapKey, k -> {
+                NearCacheOffHeapRecord newRecord = newReservationRecord(key, heapKey, reservationId);
+                newRecord.setKey(offHeapKey);
+                return newRecord;
+            });
+        } finally {
+            releaseKeyIfUnused(offHeapKey, record);
+        }
+        return record;
+    }
+
+    @Override
+    protected NearCacheOffHeapRecord reserveForWriteUpdate(K key, Data keyData, long reservationId) {
+        Data heapKey = keyData != null ? keyData : toData(key);
+        NearCacheOffHeapData offHeapKey = NearCacheOffHeapData.copyOf(heapKey, allocator);
+        NearCacheOffHeapRecord record = null;
+        try {
+            record = records.apply(offHeapKey, (k, existingRecord) -> {
+                NearCacheOffHeapRecord newRecord = reserveForWriteUpdate(key, heapKey, existingRecord, reservationId);
+                if (newRecord == null) {
+                    // the previously reserved record is removed from the map
+                    existingRecord.release();
+                } else if (newRecord != existingRecord) {
+                    newRecord.setKey(offHeapKey);
+                }
+                return newRecord;
+            });
+        } finally {
+            releaseKeyIfUnused(offHeapKey, record);
+        }
+        return record;
+    }
+
+    private static void releaseKeyIfUnused(NearCacheOffHeapData offHeapKey, NearCacheOffHeapRecord record) {
+        // the map only stores the key along with a newly created record
+        if (record == null || record.getKey() != offHeapKey) {
+            offHeapKey.release();
+        }
+    }
+
+    @Nullable
+    @Override
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        NearCacheOffHeapRecord existingRecord = records.applyIfPresent(toData(key),
+                (key1, reservedRecord) -> publishReservedRecord(key, value, reservedRecord, reservationId));
+
+        if (existingRecord == null || !deserialize) {
+            return null;
+        }
+        Data cachedValue = existingRecord.getValue();
+        return cachedValue == null ? null : toValue(((NearCacheOffHeapData) cachedValue).toHeapData());
+    }
+
+    @Override
+    public void invalidate(K key) {
+        invalidateInternal(toData(key));
+    }
+
+    private void invalidateInternal(Data key) {
+        records.applyIfPresent(key, invalidatorFunction);
+
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    private BiFunction<Data, NearCacheOffHeapRecord, NearCacheOffHeapRecord> createInvalidatorFunction() {
+        return (key, record) -> {
+            if (canUpdateStats(record)) {
+                nearCacheStats.decrementOwnedEntryCount();
+                nearCacheStats.decrementOwnedEntryMemoryCost(getRecordStorageMemoryCost(record));
+                nearCacheStats.incrementInvalidations();
+            }
+            record.release();
+            return null;
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void doExpiration() {
+        for (Map.Entry<Data, NearCacheOffHeapRecord> entry : records.entrySet()) {
+            Data key = entry.getKey();
+            NearCacheOffHeapRecord value = entry.getValue();
+            if (isRecordExpired(value)) {
+                invalidateInternal(key);
+                onExpire((K) key, value);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        checkAvailable();
+
+        int size = 0;
+        for (Map.Entry<Data, NearCacheOffHeapRecord> entry : records.entrySet()) {
+            NearCacheOffHeapRecord record = entry.getValue();
+            if (records.remove(entry.getKey(), record)) {
+                record.release();
+                size++;
+            }
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            // keys of concurrently removed records are copied as null and skipped
+            nearCachePreloader.storeKeys(map(records.keySet().iterator(),
+                    key -> ((NearCacheOffHeapData) key).toHeapData()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * A bounded sequence of {@link ByteBuffer}s, all in reading mode, that is
+ * written to a channel using a single gathering write.
+ * <p>
+ * It can be used as the destination of the last {@link OutboundHandler} in
+ * the pipeline instead of a single ByteBuffer; this way the handler doesn't
+ * need to copy everything it writes into one buffer.
+ * <p>
+ * The buffers are consumed in order; once a buffer has been completely
+ * written, it's removed from the vector. This class is not thread-safe.
+ */
+public final class ByteBufferVector {
+
+    private final ByteBuffer[] buffers;
+    private int offset;
+    private int count;
+    private long remaining;
+
+    /**
+     * @param capacity the maximum number of buffers in the vector
+     */
+    public ByteBufferVector(int capacity) {
+        this.buffers = new ByteBuffer[checkPositive("capacity", capacity)];
+    }
+
+    /**
+     * Appends a buffer to the vector.
+     *
+     * @param buffer the buffer in reading mode
+     * @return {@code true} if the buffer got added, {@code false} if the
+     * vector is full.
+     */
+    public boolean add(ByteBuffer buffer) {
+        if (count == buffers.length) {
+            return false;
+        }
+        buffers[count++] = buffer;
+        remaining += buffer.remaining();
+        return true;
+    }
+
+    /**
+     * Returns the last buffer in the vector or {@code null} if it's empty.
+     */
+    public ByteBuffer last() {
+        return count == offset ? null : buffers[count - 1];
+    }
+
+    /**
+     * Extends the limit of the {@link #last() last} buffer by the given number
+     * of bytes, e.g. after more bytes got written behind it into the same
+     * underlying memory.
+     */
+    public void extendLast(int bytes) {
+        ByteBuffer last = buffers[count - 1];
+        last.limit(last.limit() + bytes);
+        remaining += bytes;
+    }
+
+    /**
+     * Returns the number of buffers that can still be added.
+     */
+    public int available() {
+        return buffers.length - count;
+    }
+
+    public boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    /**
+     * Returns the number of bytes which haven't been written yet.
+     */
+    public long remaining() {
+        return remaining;
+    }
+
+    /**
+     * Writes as many bytes as the channel accepts. The buffers which got
+     * completely written are removed from the vector.
+     *
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if the write fails
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        if (remaining == 0) {
+            clear();
+            return 0;
+        }
+
+        long written = channel.write(buffers, offset, count - offset);
+        remaining -= written;
+        while (offset < count && !buffers[offset].hasRemaining()) {
+            buffers[offset++] = null;
+        }
+        if (offset == count) {
+            clear();
+        }
+        return written;
+    }
+
+    /**
+     * Removes all buffers from the vector.
+     */
+    public void clear() {
+        for (int i = offset; i < count; i++) {
+            buffers[i] = null;
+        }
+        offset = 0;
+        count = 0;
+        remaining = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferVector{"
+                + "buffers=" + (count - offset)
+                + ", remaining=" + remaining
+                + '}';
+    }
+}
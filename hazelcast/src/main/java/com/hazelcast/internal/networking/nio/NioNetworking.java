@@ -30,6 +30,7 @@ import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.Networking;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
+import com.hazelcast.internal.nio.PacketBufferPool;
 import com.hazelcast.internal.util.ConcurrencyDetection;
 import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
@@ -121,6 +122,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile ExecutorService closeListenerExecutor;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
+    private final boolean packetBufferPoolEnabled;
+    private final int packetBufferPoolMaxBufferSize;
+    private final long writeCoalescingLatencyNanos;
+    private final int writeCoalescingMaxBytes;
     private final ThreadAffinity inputThreadAffinity;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
@@ -153,6 +158,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
         this.concurrencyDetection = ctx.concurrencyDetection;
+        this.packetBufferPoolEnabled = ctx.packetBufferPoolEnabled;
+        this.packetBufferPoolMaxBufferSize = ctx.packetBufferPoolMaxBufferSize;
+        this.writeCoalescingLatencyNanos = ctx.writeCoalescingLatencyNanos;
+        this.writeCoalescingMaxBytes = ctx.writeCoalescingMaxBytes;
         // selector mode SELECT_WITH_FIX requires that a single thread
         // accesses a selector & its selectionKeys. Selection key wake-up
         // and write through break this requirement, therefore must be
@@ -222,6 +231,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
             thread.setThreadAffinity(inputThreadAffinity);
+            if (packetBufferPoolEnabled) {
+                thread.setPacketBufferPool(new PacketBufferPool(packetBufferPoolMaxBufferSize));
+            }
             inThreads[i] = thread;
             thread.start();
         }
@@ -334,7 +346,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                 ioBalancer,
                 concurrencyDetection,
                 writeThroughEnabled,
-                selectionKeyWakeupEnabled);
+                selectionKeyWakeupEnabled,
+                writeCoalescingLatencyNanos,
+                writeCoalescingMaxBytes);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -379,6 +393,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                         .withPrefix(TCP_PREFIX_INPUTTHREAD)
                         .withDiscriminator(TCP_DISCRIMINATOR_THREAD, nioThread.getName());
                 context.collect(descriptorInThread, nioThread);
+                PacketBufferPool packetBufferPool = nioThread.getPacketBufferPool();
+                if (packetBufferPool != null) {
+                    context.collect(descriptorInThread.copy(), packetBufferPool);
+                }
             }
         }
 
@@ -504,6 +522,14 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         // this is an optimization that can speed up low threaded setups
         private boolean writeThroughEnabled;
 
+        // if the input threads read the payloads of operation packets into pooled buffers
+        private boolean packetBufferPoolEnabled;
+        private int packetBufferPoolMaxBufferSize = PacketBufferPool.DEFAULT_MAX_BUFFER_SIZE;
+
+        // how long the output threads may delay a small socket write to coalesce it with the following frames
+        private long writeCoalescingLatencyNanos;
+        private int writeCoalescingMaxBytes;
+
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
             if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")) {
@@ -521,6 +547,26 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        public Context packetBufferPoolEnabled(boolean packetBufferPoolEnabled) {
+            this.packetBufferPoolEnabled = packetBufferPoolEnabled;
+            return this;
+        }
+
+        public Context packetBufferPoolMaxBufferSize(int packetBufferPoolMaxBufferSize) {
+            this.packetBufferPoolMaxBufferSize = packetBufferPoolMaxBufferSize;
+            return this;
+        }
+
+        public Context writeCoalescingLatencyNanos(long writeCoalescingLatencyNanos) {
+            this.writeCoalescingLatencyNanos = writeCoalescingLatencyNanos;
+            return this;
+        }
+
+        public Context writeCoalescingMaxBytes(int writeCoalescingMaxBytes) {
+            this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+            return this;
+        }
+
         public Context concurrencyDetection(ConcurrencyDetection concurrencyDetection) {
             this.concurrencyDetection = concurrencyDetection;
             return this;
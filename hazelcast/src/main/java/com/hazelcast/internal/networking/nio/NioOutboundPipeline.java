@@ -17,6 +17,7 @@
 package com.hazelcast.internal.networking.nio;
 
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.ByteBufferVector;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
@@ -39,12 +40,15 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FLUSHES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_NORMAL_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
@@ -59,7 +63,9 @@ import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 
@@ -114,8 +120,13 @@ public final class NioOutboundPipeline
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE, level = DEBUG)
     public final Queue<OutboundFrame> priorityWriteQueue = new ConcurrentLinkedQueue<>();
 
+    // the maximum number of flushes done without coalescing after a coalescing window turned out to be useless
+    private static final int MAX_COALESCING_BACKOFF = 64;
+
     private OutboundHandler[] handlers = new OutboundHandler[0];
+    // the destination of the last handler; either a ByteBuffer or a ByteBufferVector
     private ByteBuffer sendBuffer;
+    private ByteBufferVector sendVector;
 
     private final AtomicReference<State> scheduled = new AtomicReference<>(State.SCHEDULED);
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN, unit = BYTES, level = DEBUG)
@@ -124,6 +135,10 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN, level = DEBUG)
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES, level = DEBUG)
+    private final SwCounter writes = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FLUSHES, level = DEBUG)
+    private final SwCounter coalescedFlushes = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -134,6 +149,14 @@ public final class NioOutboundPipeline
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
     private final boolean selectionKeyWakeupEnabled;
+    private final long coalescingLatencyNanos;
+    private final int coalescingMaxBytes;
+
+    // the state of the write coalescing; only accessed by the thread processing the pipeline
+    private long coalescingDeadlineNanos;
+    private long coalescingStartFrames;
+    private int coalescingBackoff;
+    private int coalescingSkips;
 
     NioOutboundPipeline(NioChannel channel,
                         NioThread owner,
@@ -143,10 +166,27 @@ public final class NioOutboundPipeline
                         ConcurrencyDetection concurrencyDetection,
                         boolean writeThroughEnabled,
                         boolean selectionKeyWakeupEnabled) {
+        this(channel, owner, errorHandler, logger, balancer, concurrencyDetection, writeThroughEnabled,
+                selectionKeyWakeupEnabled, 0, 0);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    NioOutboundPipeline(NioChannel channel,
+                        NioThread owner,
+                        ChannelErrorHandler errorHandler,
+                        ILogger logger,
+                        IOBalancer balancer,
+                        ConcurrencyDetection concurrencyDetection,
+                        boolean writeThroughEnabled,
+                        boolean selectionKeyWakeupEnabled,
+                        long coalescingLatencyNanos,
+                        int coalescingMaxBytes) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.concurrencyDetection = concurrencyDetection;
         this.writeThroughEnabled = writeThroughEnabled;
         this.selectionKeyWakeupEnabled = selectionKeyWakeupEnabled;
+        this.coalescingLatencyNanos = coalescingLatencyNanos;
+        this.coalescingMaxBytes = coalescingMaxBytes;
     }
 
     @Override
@@ -199,6 +239,16 @@ public final class NioOutboundPipeline
         return scheduled.get().ordinal();
     }
 
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE, level = DEBUG)
+    private double framesPerWrite() {
+        long writeCount = writes.get();
+        return writeCount == 0 ? 0 : (double) framesTaken() / writeCount;
+    }
+
+    private long framesTaken() {
+        return normalFramesWritten.get() + priorityFramesWritten.get();
+    }
+
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
@@ -322,6 +372,16 @@ public final class NioOutboundPipeline
             }
         }
 
+        boolean coalescing = coalescingDeadlineNanos != 0;
+        if (pipelineStatus == CLEAN && deferFlush()) {
+            // more frames are expected soon; the pipeline remains scheduled and is processed
+            // again when the window expires, the frames written meanwhile are picked up then
+            if (!coalescing) {
+                owner.scheduleTask(this, coalescingDeadlineNanos);
+            }
+            return;
+        }
+
         flushToSocket();
 
         if (migrationRequested()) {
@@ -331,7 +391,7 @@ public final class NioOutboundPipeline
             return;
         }
 
-        if (sendBuffer.remaining() > 0) {
+        if (bytesPendingInSendBuffer() > 0) {
             pipelineStatus = DIRTY;
         }
 
@@ -435,9 +495,69 @@ public final class NioOutboundPipeline
         }
     }
 
+    private long bytesPendingInSendBuffer() {
+        return sendVector != null ? sendVector.remaining() : sendBuffer.remaining();
+    }
+
+    /**
+     * Decides if the flush of the already encoded frames should be delayed
+     * so that the frames written in the meantime end up in the same socket
+     * write. A flush is delayed only on the owning thread, until either the
+     * {@code coalescingMaxBytes} are pending or the
+     * {@code coalescingLatencyNanos} have passed. The thread doesn't spin
+     * meanwhile, it schedules a single wake-up of the pipeline for the end of
+     * the window and serves the other pipelines until then.
+     * <p>
+     * Delaying is adaptive: if no frames arrive during a coalescing window,
+     * the following flushes are done immediately, backing off exponentially
+     * up to {@link #MAX_COALESCING_BACKOFF} flushes.
+     */
+    private boolean deferFlush() {
+        if (coalescingLatencyNanos <= 0 || currentThread() != owner || migrationRequested()) {
+            return false;
+        }
+
+        long pending = bytesPendingInSendBuffer();
+        if (pending == 0 || pending >= coalescingMaxBytes) {
+            if (coalescingDeadlineNanos != 0) {
+                // the window got filled up
+                coalescingDeadlineNanos = 0;
+                coalescingBackoff = 0;
+                coalescedFlushes.inc();
+            }
+            return false;
+        }
+
+        long now = nanoTime();
+        if (coalescingDeadlineNanos == 0) {
+            if (coalescingSkips > 0) {
+                coalescingSkips--;
+                return false;
+            }
+            coalescingDeadlineNanos = now + coalescingLatencyNanos;
+            coalescingStartFrames = framesTaken();
+            return true;
+        } else if (now - coalescingDeadlineNanos < 0) {
+            // woken up before the deadline, e.g. by a TLS handler; the wake-up is still scheduled
+            return true;
+        }
+
+        // the window has expired
+        coalescingDeadlineNanos = 0;
+        if (framesTaken() > coalescingStartFrames) {
+            coalescingBackoff = 0;
+            coalescedFlushes.inc();
+        } else {
+            coalescingBackoff = min(max(1, coalescingBackoff * 2), MAX_COALESCING_BACKOFF);
+            coalescingSkips = coalescingBackoff;
+        }
+        return false;
+    }
+
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        long written = sendVector != null ? sendVector.writeTo(socketChannel) : socketChannel.write(sendBuffer);
+        writes.inc();
         bytesWritten.inc(written);
         //System.out.println(channel + " bytes written:" + written);
     }
@@ -513,7 +633,9 @@ public final class NioOutboundPipeline
 
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
-        this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        Object dst = newHandlers.length == 0 ? null : newHandlers[newHandlers.length - 1].dst();
+        this.sendVector = dst instanceof ByteBufferVector ? (ByteBufferVector) dst : null;
+        this.sendBuffer = sendVector == null ? (ByteBuffer) dst : null;
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
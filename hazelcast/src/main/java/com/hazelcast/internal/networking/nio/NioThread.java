@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.ExcludedMetricTargets;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.nio.PacketBufferPool;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.internal.util.executor.HazelcastManagedThread;
@@ -31,6 +32,7 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -55,6 +57,8 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @ExcludedMetricTargets(MANAGEMENT_CENTER)
 public class NioThread extends HazelcastManagedThread implements OperationHostileThread {
@@ -89,6 +93,8 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
 
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE)
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
+    // tasks this thread scheduled for itself, ordered by their deadline
+    private final Queue<ScheduledTask> scheduledTasks = new PriorityQueue<>();
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_EVENT_COUNT)
     private final SwCounter eventCount = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_SELECTOR_IO_EXCEPTION_COUNT)
@@ -117,6 +123,9 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
     // set to true while testing
     private boolean selectorWorkaroundTest;
 
+    // only input threads may have a pool, set before the thread is started
+    private PacketBufferPool packetBufferPool;
+
     public NioThread(String threadName,
                      ILogger logger,
                      ChannelErrorHandler errorHandler) {
@@ -150,6 +159,19 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
         this.selectorWorkaroundTest = selectorWorkaroundTest;
     }
 
+    void setPacketBufferPool(PacketBufferPool packetBufferPool) {
+        this.packetBufferPool = packetBufferPool;
+    }
+
+    /**
+     * Returns the pool for the payloads of the packets read by this thread.
+     *
+     * @return the pool or {@code null} if the payloads are not pooled.
+     */
+    public PacketBufferPool getPacketBufferPool() {
+        return packetBufferPool;
+    }
+
     public long bytesTransceived() {
         return bytesTransceived;
     }
@@ -226,6 +248,22 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
         }
     }
 
+    /**
+     * Schedules a task to be executed by this NioThread once the deadline
+     * has passed. The thread doesn't busy-wait for the deadline, it blocks
+     * in the select for at most the remaining time; the select timeout has
+     * millisecond granularity, so the task can run up to a millisecond late.
+     * <p>
+     * Can only be called by this NioThread.
+     *
+     * @param task          the task to schedule
+     * @param deadlineNanos the {@link System#nanoTime()} after which the task is executed
+     */
+    public void scheduleTask(Runnable task, long deadlineNanos) {
+        assert currentThread() == this : "Tasks can only be scheduled by the NioThread itself";
+        scheduledTasks.add(new ScheduledTask(task, deadlineNanos));
+    }
+
     @Override
     public void executeRun() {
         // This outer loop is a bit complex but it takes care of a lot of stuff:
@@ -289,7 +327,7 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
         while (!stop) {
             processTaskQueue();
 
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = selector.select(selectTimeoutMillis());
             if (selectedKeys > 0) {
                 processSelectionKeys();
             }
@@ -302,7 +340,8 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
             processTaskQueue();
 
             long before = currentTimeMillis();
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            long timeoutMillis = selectTimeoutMillis();
+            int selectedKeys = selector.select(timeoutMillis);
             if (selectedKeys > 0) {
                 idleCount = 0;
                 processSelectionKeys();
@@ -311,7 +350,7 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
             } else {
                 // no keys were selected, not interrupted by wakeup therefore we hit an issue with JDK/network stack
                 long selectTimeTaken = currentTimeMillis() - before;
-                idleCount = selectTimeTaken < SELECT_WAIT_TIME_MILLIS ? idleCount + 1 : 0;
+                idleCount = selectTimeTaken < timeoutMillis ? idleCount + 1 : 0;
 
                 if (selectorBugDetected(idleCount)) {
                     rebuildSelector();
@@ -345,8 +384,36 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
         }
     }
 
-    private boolean processTaskQueue() {
+    /**
+     * Returns the select timeout, shortened so that the thread wakes up
+     * for the earliest scheduled task. Never returns 0, which would
+     * mean blocking without a timeout.
+     */
+    private long selectTimeoutMillis() {
+        ScheduledTask first = scheduledTasks.peek();
+        if (first == null) {
+            return SELECT_WAIT_TIME_MILLIS;
+        }
+        long remainingNanos = first.deadlineNanos - nanoTime();
+        long remainingMillis = (remainingNanos + MILLISECONDS.toNanos(1) - 1) / MILLISECONDS.toNanos(1);
+        return Math.min(max(remainingMillis, 1), SELECT_WAIT_TIME_MILLIS);
+    }
+
+    private boolean processScheduledTasks() {
         boolean tasksProcessed = false;
+        long now = nanoTime();
+        ScheduledTask first;
+        while (!stop && (first = scheduledTasks.peek()) != null && first.deadlineNanos - now <= 0) {
+            scheduledTasks.poll();
+            first.task.run();
+            completedTaskCount.inc();
+            tasksProcessed = true;
+        }
+        return tasksProcessed;
+    }
+
+    private boolean processTaskQueue() {
+        boolean tasksProcessed = processScheduledTasks();
         while (!stop) {
             Runnable task = taskQueue.poll();
             if (task == null) {
@@ -404,6 +471,21 @@ public class NioThread extends HazelcastManagedThread implements OperationHostil
         interrupt();
     }
 
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        ScheduledTask(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            return Long.compare(deadlineNanos - other.deadlineNanos, 0);
+        }
+    }
+
     // this method is always invoked in this thread
     // after we have blocked for selector.select in #runSelectLoopWithSelectorFix
     private void rebuildSelector() {
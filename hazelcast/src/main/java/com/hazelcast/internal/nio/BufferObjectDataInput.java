@@ -64,6 +64,16 @@ public interface BufferObjectDataInput extends ObjectDataInput, DataReader, Seri
 
     short readShort(int position, ByteOrder byteOrder) throws IOException;
 
+    /**
+     * Checks if the string written at the given position is equal to the
+     * string with the given UTF-8 encoding, without decoding it. The position
+     * of the input is not changed.
+     *
+     * @return {@code true} if the strings are equal, {@code false} otherwise
+     * or if the string at the given position is {@code null}
+     */
+    boolean utf8Equals(int position, byte[] utf8) throws IOException;
+
     int position();
 
     void position(int newPos);
@@ -73,4 +83,10 @@ public interface BufferObjectDataInput extends ObjectDataInput, DataReader, Seri
     void clear();
 
     void init(byte[] data, int offset);
+
+    /**
+     * Same as {@link #init(byte[], int)}, but only the first {@code size}
+     * bytes of the array are read, the rest of it is ignored.
+     */
+    void init(byte[] data, int offset, int size);
 }
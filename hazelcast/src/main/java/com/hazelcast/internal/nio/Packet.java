@@ -20,6 +20,8 @@ import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
 
 /**
@@ -30,6 +32,12 @@ import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
  * would mean more object litter.
  * <p>
  * Since the Packet isn't used throughout the system, this design choice is visible locally.
+ * <p>
+ * An inbound Packet may hold its payload in a buffer borrowed from a {@link PacketBufferPool}. Such a
+ * packet is reference counted: it starts with a single reference, which must be {@link #release() released}
+ * by the consumer of the packet once the payload isn't needed anymore. The payload must not be accessed after
+ * the last reference is released. For packets which are not pooled, {@link #retain()} and {@link #release()}
+ * do nothing.
  */
 // Declaration order suppressed due to private static int FLAG_TYPEx declarations
 @SuppressWarnings({"checkstyle:declarationorder", "checkstyle:magicnumber"})
@@ -110,6 +118,14 @@ public final class Packet extends HeapData implements OutboundFrame {
     private int partitionId;
     private transient ServerConnection conn;
 
+    private static final AtomicIntegerFieldUpdater<Packet> REF_COUNT
+            = AtomicIntegerFieldUpdater.newUpdater(Packet.class, "refCount");
+
+    private transient volatile int refCount;
+    private transient PacketBufferPool bufferPool;
+    private transient Object leakTracker;
+    private transient int pooledSize;
+
     public Packet() {
         raiseFlags(FLAG_4_0);
     }
@@ -124,6 +140,79 @@ public final class Packet extends HeapData implements OutboundFrame {
         raiseFlags(FLAG_4_0);
     }
 
+    /**
+     * Creates a packet whose payload is the first {@code size} bytes of the
+     * given buffer borrowed from the given pool.
+     */
+    Packet(PacketBufferPool bufferPool, byte[] buffer, int size, int partitionId) {
+        this(buffer, partitionId);
+        this.bufferPool = bufferPool;
+        this.pooledSize = size;
+        this.refCount = 1;
+        this.leakTracker = bufferPool.track(this);
+    }
+
+    /**
+     * Checks if the payload of this packet is borrowed from a {@link PacketBufferPool}
+     * and has not been released yet.
+     */
+    public boolean isPooled() {
+        return bufferPool != null;
+    }
+
+    /**
+     * Acquires an additional reference to the payload of a pooled packet.
+     *
+     * @return {@code this} (for fluent interface)
+     * @throws IllegalStateException if the payload has already been released
+     */
+    public Packet retain() {
+        if (bufferPool == null) {
+            return this;
+        }
+        for (;;) {
+            int current = refCount;
+            if (current <= 0) {
+                throw new IllegalStateException("Payload of " + this + " has already been released");
+            }
+            if (REF_COUNT.compareAndSet(this, current, current + 1)) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Releases a reference to the payload of a pooled packet. When the last
+     * reference is released, the payload is returned to the pool.
+     *
+     * @return {@code true} if the payload has been returned to the pool,
+     * {@code false} otherwise.
+     */
+    public boolean release() {
+        PacketBufferPool pool = bufferPool;
+        if (pool == null) {
+            return false;
+        }
+        int remaining = REF_COUNT.decrementAndGet(this);
+        if (remaining > 0) {
+            return false;
+        }
+        if (remaining < 0) {
+            throw new IllegalStateException("Payload of " + this + " has already been released");
+        }
+        byte[] buffer = payload;
+        payload = null;
+        bufferPool = null;
+        pool.release(buffer, leakTracker);
+        leakTracker = null;
+        return true;
+    }
+
+    @Override
+    public int totalSize() {
+        return bufferPool != null ? pooledSize : super.totalSize();
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
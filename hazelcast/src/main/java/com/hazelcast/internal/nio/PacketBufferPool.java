@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_PACKET_BUFFER_POOL_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_PACKET_BUFFER_POOL_LEAKED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_PACKET_BUFFER_POOL_MISSES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_PACKET_BUFFER_POOL_RELEASED;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * A pool of byte arrays used as payloads of inbound {@link Packet}s.
+ * <p>
+ * The buffers are grouped into power-of-two size classes, so a buffer is
+ * usually larger than the payload it holds; the packet keeps track of the
+ * actual payload size. A pooled packet is reference counted and returns its
+ * buffer to the pool once it's {@link Packet#release() released} for the
+ * last time.
+ * <p>
+ * Only a single thread, the IO thread reading the packets, is allowed to
+ * acquire buffers; any thread can release them. If a size class is full, the
+ * released buffer is simply left for the garbage collector, and if it's
+ * empty, a new buffer is allocated.
+ * <p>
+ * Packets which are never released don't break anything, their buffers are
+ * garbage collected as usual, but they defeat the purpose of the pool. To
+ * make such leaks visible, a sample of the acquired buffers is tracked and
+ * the ones whose packets are garbage collected without being released are
+ * counted.
+ */
+public final class PacketBufferPool {
+
+    /**
+     * The default maximum size of a pooled packet payload.
+     */
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1 << 16;
+
+    private static final int MIN_BUFFER_SIZE_SHIFT = 6;
+    private static final int BYTES_PER_SIZE_CLASS = 1 << 18;
+    private static final int MIN_BUFFERS_PER_SIZE_CLASS = 16;
+    private static final int MAX_BUFFERS_PER_SIZE_CLASS = 1024;
+    private static final int LEAK_SAMPLING_MASK = 127;
+
+    @Probe(name = NETWORKING_METRIC_PACKET_BUFFER_POOL_HITS)
+    private final SwCounter hits = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_PACKET_BUFFER_POOL_MISSES)
+    private final SwCounter misses = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_PACKET_BUFFER_POOL_RELEASED)
+    private final MwCounter released = newMwCounter();
+    @Probe(name = NETWORKING_METRIC_PACKET_BUFFER_POOL_LEAKED)
+    private final SwCounter leaked = newSwCounter();
+
+    private final int maxBufferSize;
+    private final ManyToOneConcurrentArrayQueue<byte[]>[] sizeClasses;
+    private final ReferenceQueue<Packet> collectedPackets = new ReferenceQueue<>();
+    private final Set<LeakTracker> leakTrackers = newSetFromMap(new ConcurrentHashMap<>());
+    private int acquiredCount;
+
+    public PacketBufferPool() {
+        this(DEFAULT_MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * @param maxBufferSize the maximum size of a pooled payload, larger
+     *                      payloads are not pooled
+     */
+    @SuppressWarnings("unchecked")
+    public PacketBufferPool(int maxBufferSize) {
+        checkTrue(maxBufferSize >= HEAP_DATA_OVERHEAD, "maxBufferSize must be at least " + HEAP_DATA_OVERHEAD);
+        this.maxBufferSize = maxBufferSize;
+        this.sizeClasses = new ManyToOneConcurrentArrayQueue[sizeClass(maxBufferSize) + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            int buffers = BYTES_PER_SIZE_CLASS / bufferSize(i);
+            buffers = Math.max(MIN_BUFFERS_PER_SIZE_CLASS, Math.min(MAX_BUFFERS_PER_SIZE_CLASS, buffers));
+            sizeClasses[i] = new ManyToOneConcurrentArrayQueue<>(buffers);
+        }
+    }
+
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long released() {
+        return released.get();
+    }
+
+    public long leaked() {
+        return leaked.get();
+    }
+
+    /**
+     * Checks if a payload of the given size can be pooled.
+     */
+    boolean canPool(int size) {
+        return size >= HEAP_DATA_OVERHEAD && size <= maxBufferSize;
+    }
+
+    /**
+     * Returns a buffer with at least the given number of bytes. Must only be
+     * called by the owning thread.
+     */
+    byte[] acquire(int size) {
+        assert canPool(size);
+        int sizeClass = sizeClass(size);
+        byte[] buffer = sizeClasses[sizeClass].poll();
+        if (buffer != null) {
+            hits.inc();
+        } else {
+            misses.inc();
+            buffer = new byte[bufferSize(sizeClass)];
+        }
+        return buffer;
+    }
+
+    /**
+     * Starts leak tracking of the given packet, if it's sampled. Must only be
+     * called by the owning thread.
+     *
+     * @return the leak tracker to pass to {@link #release} or {@code null} if
+     * the packet is not tracked.
+     */
+    Object track(Packet packet) {
+        countLeaks();
+        if ((++acquiredCount & LEAK_SAMPLING_MASK) != 0) {
+            return null;
+        }
+        LeakTracker tracker = new LeakTracker(packet, collectedPackets);
+        leakTrackers.add(tracker);
+        return tracker;
+    }
+
+    /**
+     * Returns the given buffer acquired from this pool. Can be called by any
+     * thread.
+     */
+    void release(byte[] buffer, Object leakTracker) {
+        if (leakTracker != null) {
+            LeakTracker tracker = (LeakTracker) leakTracker;
+            tracker.clear();
+            leakTrackers.remove(tracker);
+        }
+        released.inc();
+        sizeClasses[sizeClass(buffer.length)].offer(buffer);
+    }
+
+    private void countLeaks() {
+        Reference<? extends Packet> reference;
+        while ((reference = collectedPackets.poll()) != null) {
+            if (leakTrackers.remove(reference)) {
+                leaked.inc();
+            }
+        }
+    }
+
+    private static int sizeClass(int size) {
+        return Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - MIN_BUFFER_SIZE_SHIFT);
+    }
+
+    private static int bufferSize(int sizeClass) {
+        return 1 << (sizeClass + MIN_BUFFER_SIZE_SHIFT);
+    }
+
+    @Override
+    public String toString() {
+        return "PacketBufferPool{"
+                + "maxBufferSize=" + maxBufferSize
+                + ", hits=" + hits
+                + ", misses=" + misses
+                + ", released=" + released
+                + ", leaked=" + leaked
+                + '}';
+    }
+
+    private static final class LeakTracker extends WeakReference<Packet> {
+        LeakTracker(Packet packet, ReferenceQueue<Packet> queue) {
+            super(packet, queue);
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.nio.ByteBuffer;
 import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.VERSION;
 
 /**
@@ -36,7 +38,7 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
  * A {@link PacketIOHelper} is designed to be reused.
  */
 public class PacketIOHelper {
-    static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+    public static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
     private int valueOffset;
     private int size;
@@ -44,6 +46,7 @@ public class PacketIOHelper {
     private char flags;
     private int partitionId;
     private byte[] payload;
+    private PacketBufferPool payloadPool;
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -58,11 +61,8 @@ public class PacketIOHelper {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putChar(packet.getFlags());
-            dst.putInt(packet.getPartitionId());
+            writeHeader(packet, dst);
             size = packet.totalSize();
-            dst.putInt(size);
             headerComplete = true;
         }
 
@@ -74,6 +74,20 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Writes the {@link #HEADER_SIZE header} of the packet to the given {@code ByteBuffer}.
+     * The payload is expected to follow the header on the wire.
+     *
+     * @param packet the packet to write
+     * @param dst    the destination byte buffer, must have at least {@link #HEADER_SIZE} bytes remaining
+     */
+    public static void writeHeader(Packet packet, ByteBuffer dst) {
+        dst.put(VERSION);
+        dst.putChar(packet.getFlags());
+        dst.putInt(packet.getPartitionId());
+        dst.putInt(packet.totalSize());
+    }
+
     private boolean writeValue(Packet packet, ByteBuffer dst) {
         if (size > 0) {
             // the number of bytes that can be written to the bb.
@@ -113,6 +127,19 @@ public class PacketIOHelper {
      * @return the read Packet if all the packet's data is now read; {@code null} otherwise.
      */
     public Packet readFrom(ByteBuffer src) {
+        return readFrom(src, null);
+    }
+
+    /**
+     * Reads the packet data from the supplied {@code ByteBuffer} like {@link #readFrom(ByteBuffer)} does, but
+     * the payloads of operation packets are read into buffers borrowed from the given pool. The consumer of such
+     * a packet must {@link Packet#release() release} it once its payload is not needed anymore.
+     *
+     * @param src        the source byte buffer
+     * @param bufferPool the pool to borrow the payload buffers from, if {@code null} the payloads are not pooled
+     * @return the read Packet if all the packet's data is now read; {@code null} otherwise.
+     */
+    public Packet readFrom(ByteBuffer src, PacketBufferPool bufferPool) {
         if (!headerComplete) {
             if (src.remaining() < HEADER_SIZE) {
                 return null;
@@ -128,10 +155,17 @@ public class PacketIOHelper {
             partitionId = src.getInt();
             size = src.getInt();
             headerComplete = true;
+            if (bufferPool != null && bufferPool.canPool(size) && isPoolable(flags)) {
+                payloadPool = bufferPool;
+                payload = bufferPool.acquire(size);
+            }
         }
 
         if (readValue(src)) {
-            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            Packet packet = payloadPool != null
+                    ? new Packet(payloadPool, payload, size, partitionId)
+                    : new Packet(payload, partitionId);
+            packet.resetFlagsTo(flags);
             reset();
             return packet;
         } else {
@@ -139,9 +173,19 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Only operations are pooled: they are consumed by the operation threads right after they are read,
+     * while responses, events and other packets may be held on to by various parts of the system.
+     */
+    private static boolean isPoolable(char flags) {
+        return Packet.Type.fromFlags(flags) == Packet.Type.OPERATION
+                && (flags & (FLAG_OP_RESPONSE | FLAG_OP_CONTROL)) == 0;
+    }
+
     private void reset() {
         headerComplete = false;
         payload = null;
+        payloadPool = null;
         valueOffset = 0;
     }
 
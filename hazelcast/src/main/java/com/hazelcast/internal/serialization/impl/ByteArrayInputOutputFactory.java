@@ -36,7 +36,9 @@ final class ByteArrayInputOutputFactory implements InputOutputFactory {
     public BufferObjectDataInput createInput(Data data,
                                              InternalSerializationService service,
                                              boolean isCompatibility) {
-        return new ByteArrayObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service, byteOrder, isCompatibility);
+        BufferObjectDataInput in = new ByteArrayObjectDataInput(null, service, byteOrder, isCompatibility);
+        in.init(HeapData.bufferOf(data), HeapData.DATA_OFFSET, data.totalSize());
+        return in;
     }
 
     @Override
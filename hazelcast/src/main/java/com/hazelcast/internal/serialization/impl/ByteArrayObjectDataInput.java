@@ -77,8 +77,13 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
 
     @Override
     public void init(byte[] data, int offset) {
+        init(data, offset, data != null ? data.length : 0);
+    }
+
+    @Override
+    public void init(byte[] data, int offset, int size) {
         this.data = data;
-        this.size = data != null ? data.length : 0;
+        this.size = size;
         this.pos = offset;
     }
 
@@ -594,6 +599,34 @@ class ByteArrayObjectDataInput extends VersionedObjectDataInput implements Buffe
         return isCompatibility ? readUTFInternalCompatibility() : readUTFInternal();
     }
 
+    @Override
+    public boolean utf8Equals(int position, byte[] utf8) throws IOException {
+        if (isCompatibility) {
+            // the compatibility format isn't UTF-8, the string has to be decoded
+            int currentPos = pos;
+            pos = position;
+            try {
+                String string = readUTFInternalCompatibility();
+                return string != null && string.equals(new String(utf8, StandardCharsets.UTF_8));
+            } finally {
+                pos = currentPos;
+            }
+        }
+
+        int numberOfBytes = readInt(position);
+        if (numberOfBytes != utf8.length) {
+            return false;
+        }
+        int start = position + INT_SIZE_IN_BYTES;
+        checkAvailable(start, numberOfBytes);
+        for (int i = 0; i < numberOfBytes; i++) {
+            if (data[start + i] != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     @Nullable
     public final Object readObject() throws EOFException {
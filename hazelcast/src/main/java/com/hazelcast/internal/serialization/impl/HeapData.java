@@ -68,7 +68,7 @@ public class HeapData implements Data {
     @Override
     public void copyTo(byte[] dest, int destPos) {
         if (totalSize() > 0) {
-            System.arraycopy(payload, 0, dest, destPos, payload.length);
+            System.arraycopy(payload, 0, dest, destPos, totalSize());
         }
     }
 
@@ -82,12 +82,31 @@ public class HeapData implements Data {
 
     @Override
     public boolean hasPartitionHash() {
-        return payload != null && payload.length >= HEAP_DATA_OVERHEAD && Bits.readIntB(payload, PARTITION_HASH_OFFSET) != 0;
+        return payload != null && totalSize() >= HEAP_DATA_OVERHEAD && Bits.readIntB(payload, PARTITION_HASH_OFFSET) != 0;
     }
 
+    /**
+     * Returns a copy of the payload if the payload array is longer than
+     * {@link #totalSize()}, which is the case for subclasses backed by a
+     * pooled buffer, so that the returned array never exposes stale bytes
+     * past the end of the data.
+     */
     @Override
     public byte[] toByteArray() {
-        return payload;
+        if (payload == null || payload.length == totalSize()) {
+            return payload;
+        }
+        return Arrays.copyOf(payload, totalSize());
+    }
+
+    /**
+     * Returns the array holding the bytes of the given data, avoiding the
+     * copy done by {@link #toByteArray()} if possible. The array may be
+     * longer than {@link Data#totalSize()}, the caller must not read beyond
+     * that size.
+     */
+    public static byte[] bufferOf(Data data) {
+        return data instanceof HeapData ? ((HeapData) data).payload : data.toByteArray();
     }
 
     @Override
@@ -127,19 +146,19 @@ public class HeapData implements Data {
             return false;
         }
 
-        return dataSize == 0 || equals(this.payload, data.toByteArray());
+        return dataSize == 0 || equals(this.payload, bufferOf(data), totalSize());
     }
 
-    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed.
-    private static boolean equals(byte[] data1, byte[] data2) {
+    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed and
+    // only the first length bytes are compared, the arrays may be longer.
+    private static boolean equals(byte[] data1, byte[] data2, int length) {
         if (data1 == data2) {
             return true;
         }
         if (data1 == null || data2 == null) {
             return false;
         }
-        final int length = data1.length;
-        if (data2.length != length) {
+        if (data1.length < length || data2.length < length) {
             return false;
         }
         for (int i = length - 1; i >= DATA_OFFSET; i--) {
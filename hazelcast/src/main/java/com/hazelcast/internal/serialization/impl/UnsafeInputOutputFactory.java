@@ -30,7 +30,9 @@ final class UnsafeInputOutputFactory implements InputOutputFactory {
     public BufferObjectDataInput createInput(Data data,
                                              InternalSerializationService service,
                                              boolean isCompatibility) {
-        return new UnsafeObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service, isCompatibility);
+        BufferObjectDataInput in = new UnsafeObjectDataInput(null, service, isCompatibility);
+        in.init(HeapData.bufferOf(data), HeapData.DATA_OFFSET, data.totalSize());
+        return in;
     }
 
     @Override
@@ -339,6 +339,29 @@ public class CompactInternalGenericRecord extends CompactGenericRecord implement
         return getVariableSize(fieldName, STRING, BufferObjectDataInput::readString);
     }
 
+    /**
+     * Checks if the value of the given string field is equal to the string
+     * with the given UTF-8 encoding. The serialized bytes are compared in
+     * place, the field value is not deserialized.
+     *
+     * @param fieldName the name of the string field
+     * @param utf8      the UTF-8 encoded string to compare with
+     * @return {@code true} if the field value is equal to the given string,
+     * {@code false} otherwise or if the field value is {@code null}
+     */
+    public boolean isStringEqual(@Nonnull String fieldName, @Nonnull byte[] utf8) {
+        FieldDescriptor fd = getFieldDescriptor(fieldName, STRING);
+        int pos = readVariableSizeFieldPosition(fd);
+        if (pos == NULL_OFFSET) {
+            return false;
+        }
+        try {
+            return in.utf8Equals(pos, utf8);
+        } catch (IOException e) {
+            throw illegalStateException(e);
+        }
+    }
+
     private <T> T getVariableSize(FieldDescriptor fieldDescriptor,
                                   Reader<T> reader) {
         int currentPos = in.position();
@@ -62,6 +62,7 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
     private final ReflectiveCompactSerializer reflectiveSerializer = new ReflectiveCompactSerializer(this);
     private final JavaRecordSerializer javaRecordSerializer = new JavaRecordSerializer(this);
     private final SchemaService schemaService;
+    private final SchemaCache schemaCache;
     private final ManagedContext managedContext;
     private final ClassLoader classLoader;
     private final AbstractSerializationService serializationService;
@@ -73,6 +74,7 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
         this.serializationService = serializationService;
         this.managedContext = managedContext;
         this.schemaService = schemaService;
+        this.schemaCache = new SchemaCache(schemaService);
         this.classLoader = classLoader;
         registerSerializers(compactSerializationConfig);
         registerDeclarativeConfigSerializers(compactSerializationConfig);
@@ -192,7 +194,7 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
 
     private Schema getOrReadSchema(ObjectDataInput input, boolean schemaIncludedInBinary) throws IOException {
         long schemaId = input.readLong();
-        Schema schema = schemaService.get(schemaId);
+        Schema schema = schemaCache.get(schemaId);
         if (schema != null) {
             if (schemaIncludedInBinary) {
                 int sizeOfSchema = input.readInt();
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import javax.annotation.Nullable;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A lock-free cache of schemas in front of a {@link SchemaService}.
+ * <p>
+ * Every thread has its own small direct-mapped table of the schemas it used
+ * recently. A hit costs a thread-local lookup and an array access; it
+ * neither boxes the schema id nor touches the shared registry of the schema
+ * service. A miss is delegated to the schema service and the result replaces
+ * whatever was cached in the same slot.
+ * <p>
+ * Since a schema id is a fingerprint of the schema itself, a cached schema
+ * never becomes stale and the cache doesn't need any invalidation.
+ * <p>
+ * The thread-local is not static, so the cached schemas of a thread are tied
+ * to the serializer they were looked up for. The tables only reference
+ * schemas, never the serializer or the serialization service, so they don't
+ * keep a disposed serialization service alive.
+ */
+final class SchemaCache {
+
+    /**
+     * The default number of schemas cached per thread.
+     */
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final SchemaService schemaService;
+    private final ThreadLocal<Schema[]> tables;
+
+    SchemaCache(SchemaService schemaService) {
+        this(schemaService, DEFAULT_CAPACITY);
+    }
+
+    SchemaCache(SchemaService schemaService, int capacity) {
+        checkPositive("capacity", capacity);
+        int tableSize = nextPowerOfTwo(capacity);
+        this.schemaService = schemaService;
+        this.tables = ThreadLocal.withInitial(() -> new Schema[tableSize]);
+    }
+
+    /**
+     * Returns the schema with the given id, either from the table of the
+     * current thread or from the schema service.
+     *
+     * @see SchemaService#get(long)
+     */
+    @Nullable
+    Schema get(long schemaId) {
+        Schema[] table = tables.get();
+        int index = index(schemaId, table.length);
+        Schema schema = table[index];
+        if (schema != null && schema.getSchemaId() == schemaId) {
+            return schema;
+        }
+
+        schema = schemaService.get(schemaId);
+        if (schema != null) {
+            table[index] = schema;
+        }
+        return schema;
+    }
+
+    private static int index(long schemaId, int tableSize) {
+        return (int) (schemaId ^ (schemaId >>> Integer.SIZE)) & (tableSize - 1);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.ByteBufferVector;
+import com.hazelcast.internal.networking.ChannelOptions;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
+import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
+
+/**
+ * A {@link OutboundHandler} for member to member communication that, unlike
+ * the {@link PacketEncoder}, doesn't copy every {@link Packet} into a single
+ * destination buffer. Instead it encodes the packets into a
+ * {@link ByteBufferVector} which the pipeline writes to the socket using a
+ * single gathering write.
+ *
+ * The headers and the small payloads are copied into a staging buffer;
+ * consecutive packets end up in the same region of the staging buffer, so
+ * many small packets still need only a single entry in the vector. Payloads
+ * larger than {@link #COPY_THRESHOLD} are not copied, they are added to the
+ * vector as they are.
+ *
+ * The amount of data collected for a single write is bounded by the size of
+ * the staging buffer, which is the send buffer size of the channel.
+ *
+ * This handler has to be the last one in the pipeline since the following
+ * handlers expect a ByteBuffer as their source.
+ *
+ * @see PacketEncoder
+ */
+public class GatheringPacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBufferVector> {
+
+    /**
+     * Payloads up to this size in bytes are copied into the staging buffer.
+     */
+    static final int COPY_THRESHOLD = 1024;
+
+    // the JDK uses at most IOV_MAX buffers in a single gathering write
+    private static final int MAX_BUFFERS = 256;
+
+    private ByteBuffer staging;
+    private ByteBuffer lastStaged;
+    private int copyThreshold;
+    private int maxBytes;
+    private Packet packet;
+
+    @Override
+    public void handlerAdded() {
+        ChannelOptions options = channel.options();
+        initBuffers(options.getOption(SO_SNDBUF), options.getOption(DIRECT_BUF));
+    }
+
+    void initBuffers(int sizeBytes, boolean direct) {
+        staging = newByteBuffer(sizeBytes, direct);
+        copyThreshold = Math.min(COPY_THRESHOLD, sizeBytes - HEADER_SIZE);
+        maxBytes = sizeBytes;
+        dst = new ByteBufferVector(MAX_BUFFERS);
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        if (dst.isEmpty()) {
+            // everything got written, so the staging buffer can be reused from the start
+            dst.clear();
+            upcast(staging).clear();
+            lastStaged = null;
+        }
+
+        for (; ; ) {
+            if (packet == null) {
+                packet = src.get();
+
+                if (packet == null) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+            }
+
+            if (append(packet)) {
+                packet = null;
+            } else {
+                // there is no space left for the packet, it is appended after the vector is written out
+                return DIRTY;
+            }
+        }
+    }
+
+    private boolean append(Packet packet) {
+        int payloadSize = packet.totalSize();
+        boolean copyPayload = payloadSize <= copyThreshold;
+        int stagedBytes = copyPayload ? HEADER_SIZE + payloadSize : HEADER_SIZE;
+
+        if (staging.remaining() < stagedBytes || dst.available() < 2) {
+            return false;
+        }
+        if (!dst.isEmpty() && dst.remaining() + HEADER_SIZE + payloadSize > maxBytes) {
+            return false;
+        }
+
+        int start = staging.position();
+        PacketIOHelper.writeHeader(packet, staging);
+        if (copyPayload && payloadSize > 0) {
+            staging.put(packet.toByteArray(), 0, payloadSize);
+        }
+        appendStaged(start, stagedBytes);
+
+        if (!copyPayload) {
+            // the wrapper has its own position, so the packet can still be shared between connections
+            dst.add(ByteBuffer.wrap(packet.toByteArray(), 0, payloadSize));
+        }
+        return true;
+    }
+
+    private void appendStaged(int start, int length) {
+        ByteBuffer last = dst.last();
+        if (last != null && last == lastStaged && last.limit() == start) {
+            // the bytes directly follow the previous staged region
+            dst.extendLast(length);
+            return;
+        }
+
+        ByteBuffer region = staging.duplicate();
+        upcast(region).limit(start + length);
+        upcast(region).position(start);
+        dst.add(region);
+        lastStaged = region;
+    }
+}
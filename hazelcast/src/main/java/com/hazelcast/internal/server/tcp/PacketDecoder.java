@@ -19,7 +19,9 @@ package com.hazelcast.internal.server.tcp;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
+import com.hazelcast.internal.networking.nio.NioThread;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketBufferPool;
 import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.server.ServerConnection;
 
@@ -37,6 +39,10 @@ import static com.hazelcast.internal.util.JVMUtil.upcast;
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
  * each of the Packets is send to the destination.
  *
+ * If the reading {@link NioThread} has a {@link PacketBufferPool}, the payloads
+ * of operation packets are read into pooled buffers and the operation threads
+ * release them once the operations have run.
+ *
  * @see Consumer
  * @see PacketEncoder
  */
@@ -59,8 +65,9 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
     public HandlerStatus onRead() throws Exception {
         upcast(src).flip();
         try {
+            PacketBufferPool bufferPool = currentThreadBufferPool();
             while (src.hasRemaining()) {
-                Packet packet = packetReader.readFrom(src);
+                Packet packet = packetReader.readFrom(src, bufferPool);
                 if (packet == null) {
                     break;
                 }
@@ -73,6 +80,11 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
         }
     }
 
+    private static PacketBufferPool currentThreadBufferPool() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof NioThread ? ((NioThread) thread).getPacketBufferPool() : null;
+    }
+
     protected void onPacketComplete(Packet packet) {
         if (packet.isFlagRaised(FLAG_URGENT)) {
             priorityPacketsRead.inc();
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * Sorted map specialised for {@code long} keys.
+ * <p>
+ * The map is a two-level B+-tree: keys and values are kept in packed leaf
+ * arrays of a fixed capacity, and a sorted directory holds the lowest key of
+ * every leaf. Lookups are two binary searches over primitive arrays, range
+ * scans walk the leaves sequentially, and no key is ever boxed.
+ * <p>
+ * Range scans are exposed as bulk copies into caller-provided arrays, see
+ * {@link #copyAscending} and {@link #copyDescending}, so that callers can
+ * iterate in batches and resume from the last seen key even if the map has
+ * been modified in the meantime.
+ * <p>
+ * NOTE: This map doesn't support {@code null} values and is not thread-safe.
+ *
+ * @param <V> values stored in the map
+ */
+public final class Long2ObjectSortedMap<V> {
+
+    /** The default number of entries per leaf */
+    public static final int DEFAULT_LEAF_CAPACITY = 128;
+
+    private static final int INITIAL_DIRECTORY_CAPACITY = 4;
+
+    private final int leafCapacity;
+
+    private long[] lowKeys;
+    private Leaf[] leaves;
+    private int leafCount;
+    private int size;
+
+    public Long2ObjectSortedMap() {
+        this(DEFAULT_LEAF_CAPACITY);
+    }
+
+    /**
+     * @param leafCapacity the maximum number of entries stored in a single leaf
+     */
+    public Long2ObjectSortedMap(int leafCapacity) {
+        checkTrue(leafCapacity > 1, "leafCapacity must be greater than 1");
+        this.leafCapacity = leafCapacity;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the value associated with the given key or {@code null} if
+     * there is no such value.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Leaf leaf = leaves[leafIndexFor(key)];
+        int pos = leaf.indexOf(key);
+        return pos >= 0 ? (V) leaf.values[pos] : null;
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @return the previous value associated with the key or {@code null} if
+     * there was no such value.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkNotNull(value, "value cannot be null");
+        int leafIndex = leafIndexFor(key);
+        Leaf leaf = leaves[leafIndex];
+        int pos = leaf.indexOf(key);
+        if (pos >= 0) {
+            V oldValue = (V) leaf.values[pos];
+            leaf.values[pos] = value;
+            return oldValue;
+        }
+
+        pos = -(pos + 1);
+        if (leaf.size == leafCapacity) {
+            Leaf right = split(leafIndex);
+            if (pos > leaf.size) {
+                pos -= leaf.size;
+                leaf = right;
+                leafIndex++;
+            }
+        }
+        leaf.insert(pos, key, value);
+        if (pos == 0) {
+            lowKeys[leafIndex] = key;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the value associated with the given key.
+     *
+     * @return the removed value or {@code null} if there was no such value.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int leafIndex = leafIndexFor(key);
+        Leaf leaf = leaves[leafIndex];
+        int pos = leaf.indexOf(key);
+        if (pos < 0) {
+            return null;
+        }
+
+        V oldValue = (V) leaf.values[pos];
+        leaf.remove(pos);
+        size--;
+        if (leaf.size == 0) {
+            if (leafCount > 1) {
+                removeLeaf(leafIndex);
+            }
+        } else {
+            if (pos == 0) {
+                lowKeys[leafIndex] = leaf.keys[0];
+            }
+            mergeIfUnderflow(leafIndex);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Removes all entries from this map.
+     */
+    public void clear() {
+        lowKeys = new long[INITIAL_DIRECTORY_CAPACITY];
+        leaves = new Leaf[INITIAL_DIRECTORY_CAPACITY];
+        leaves[0] = new Leaf(leafCapacity);
+        leafCount = 1;
+        size = 0;
+    }
+
+    /**
+     * Copies entries with keys in the inclusive range [{@code from}, {@code
+     * to}] into the given arrays in ascending key order, starting from the
+     * lowest key.
+     *
+     * @return the number of copied entries, at most {@code keys.length}.
+     */
+    public int copyAscending(long from, long to, long[] keys, Object[] values) {
+        assert keys.length == values.length;
+        if (from > to || size == 0) {
+            return 0;
+        }
+
+        int leafIndex = leafIndexFor(from);
+        int pos = leaves[leafIndex].indexOf(from);
+        if (pos < 0) {
+            pos = -(pos + 1);
+        }
+
+        int count = 0;
+        while (count < keys.length && leafIndex < leafCount) {
+            Leaf leaf = leaves[leafIndex];
+            int n = Math.min(leaf.size - pos, keys.length - count);
+            for (int i = 0; i < n; i++) {
+                long key = leaf.keys[pos + i];
+                if (key > to) {
+                    return count;
+                }
+                keys[count] = key;
+                values[count] = leaf.values[pos + i];
+                count++;
+            }
+            leafIndex++;
+            pos = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Copies entries with keys in the inclusive range [{@code from}, {@code
+     * to}] into the given arrays in descending key order, starting from the
+     * highest key.
+     *
+     * @return the number of copied entries, at most {@code keys.length}.
+     */
+    public int copyDescending(long from, long to, long[] keys, Object[] values) {
+        assert keys.length == values.length;
+        if (from > to || size == 0) {
+            return 0;
+        }
+
+        int leafIndex = leafIndexFor(to);
+        int pos = leaves[leafIndex].indexOf(to);
+        if (pos < 0) {
+            pos = -(pos + 1) - 1;
+        }
+
+        int count = 0;
+        while (count < keys.length && leafIndex >= 0) {
+            Leaf leaf = leaves[leafIndex];
+            for (; pos >= 0 && count < keys.length; pos--) {
+                long key = leaf.keys[pos];
+                if (key < from) {
+                    return count;
+                }
+                keys[count] = key;
+                values[count] = leaf.values[pos];
+                count++;
+            }
+            leafIndex--;
+            pos = leafIndex >= 0 ? leaves[leafIndex].size - 1 : -1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the leaf which the given key belongs to: the last
+     * leaf whose lowest key is less or equal to the given one, or the first
+     * leaf if there is no such leaf.
+     */
+    private int leafIndexFor(long key) {
+        int low = 1;
+        int high = leafCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (lowKeys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Moves the upper half of the given full leaf into a new leaf inserted
+     * right after it.
+     */
+    private Leaf split(int leafIndex) {
+        Leaf leaf = leaves[leafIndex];
+        Leaf right = new Leaf(leafCapacity);
+        int half = leafCapacity >>> 1;
+        int moved = leaf.size - half;
+        System.arraycopy(leaf.keys, half, right.keys, 0, moved);
+        System.arraycopy(leaf.values, half, right.values, 0, moved);
+        Arrays.fill(leaf.values, half, leaf.size, null);
+        right.size = moved;
+        leaf.size = half;
+        insertLeaf(leafIndex + 1, right);
+        return right;
+    }
+
+    /**
+     * Merges the given leaf with its right neighbour if both are sparse
+     * enough, so deletions don't leave lots of almost empty leaves behind.
+     */
+    private void mergeIfUnderflow(int leafIndex) {
+        Leaf leaf = leaves[leafIndex];
+        if (leaf.size >= leafCapacity >>> 2 || leafIndex + 1 >= leafCount) {
+            return;
+        }
+        Leaf right = leaves[leafIndex + 1];
+        if (leaf.size + right.size > leafCapacity >>> 1) {
+            return;
+        }
+        System.arraycopy(right.keys, 0, leaf.keys, leaf.size, right.size);
+        System.arraycopy(right.values, 0, leaf.values, leaf.size, right.size);
+        leaf.size += right.size;
+        removeLeaf(leafIndex + 1);
+    }
+
+    private void insertLeaf(int leafIndex, Leaf leaf) {
+        if (leafCount == leaves.length) {
+            int newCapacity = leaves.length << 1;
+            lowKeys = Arrays.copyOf(lowKeys, newCapacity);
+            leaves = Arrays.copyOf(leaves, newCapacity);
+        }
+        System.arraycopy(lowKeys, leafIndex, lowKeys, leafIndex + 1, leafCount - leafIndex);
+        System.arraycopy(leaves, leafIndex, leaves, leafIndex + 1, leafCount - leafIndex);
+        lowKeys[leafIndex] = leaf.keys[0];
+        leaves[leafIndex] = leaf;
+        leafCount++;
+    }
+
+    private void removeLeaf(int leafIndex) {
+        int moved = leafCount - leafIndex - 1;
+        System.arraycopy(lowKeys, leafIndex + 1, lowKeys, leafIndex, moved);
+        System.arraycopy(leaves, leafIndex + 1, leaves, leafIndex, moved);
+        leafCount--;
+        leaves[leafCount] = null;
+        if (leafIndex == 0) {
+            lowKeys[0] = leaves[0].keys[0];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Long2ObjectSortedMap{"
+                + "size=" + size
+                + ", leafCount=" + leafCount
+                + '}';
+    }
+
+    private static final class Leaf {
+        private final long[] keys;
+        private final Object[] values;
+        private int size;
+
+        Leaf(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        int indexOf(long key) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        void insert(int pos, long key, Object value) {
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            keys[pos] = key;
+            values[pos] = value;
+            size++;
+        }
+
+        void remove(int pos) {
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            values[size] = null;
+        }
+    }
+}
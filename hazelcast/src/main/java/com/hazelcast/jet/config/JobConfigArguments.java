@@ -40,6 +40,22 @@ public final class JobConfigArguments {
      */
     public static final String KEY_REQUIRED_PARTITIONS = "__sql.requiredPartitions";
 
+    /**
+     * The key under which the user can request the non-cooperative processors
+     * of a job to run on virtual threads instead of dedicated platform
+     * threads. Contains a {@code Boolean} value, the default is {@code false}.
+     * <p>
+     * Virtual threads are only available on Java 21 and later, on older
+     * versions the setting is ignored. They reduce the number of platform
+     * threads when a job has many blocking processors, such as JDBC or JMS
+     * sources and sinks. A processor that blocks while holding a monitor
+     * (in a {@code synchronized} block) pins the carrier thread though,
+     * which can limit the throughput of the job.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_USE_VIRTUAL_THREADS = "jet.useVirtualThreads";
+
     private JobConfigArguments() {
     }
 }
@@ -135,6 +135,93 @@ public final class MetricNames {
      */
     public static final String SNAPSHOT_KEYS = "snapshotKeys";
 
+    /**
+     * Tracks the number of snapshot bytes a processor restoring the state
+     * of a job has read, after decompression. Reported by the internal
+     * vertex that reads the snapshot, together with {@link
+     * #SNAPSHOT_RESTORE_ENTRIES} and {@link #SNAPSHOT_RESTORE_TIME}; the
+     * restore throughput of a member is the sum of the bytes of its
+     * processors divided by their longest restore time.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_RESTORE_BYTES = "snapshotRestoreBytes";
+
+    /**
+     * Tracks the number of state entries a processor restoring the state
+     * of a job has emitted to the vertices of the job, see {@link
+     * #SNAPSHOT_RESTORE_BYTES}.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_RESTORE_ENTRIES = "snapshotRestoreEntries";
+
+    /**
+     * Tracks the time in milliseconds a processor restoring the state of a
+     * job has spent since its initialization. It stops growing when the
+     * processor is done, see {@link #SNAPSHOT_RESTORE_BYTES}.
+     *
+     * @since 5.4
+     */
+    public static final String SNAPSHOT_RESTORE_TIME = "snapshotRestoreTime";
+
+    /**
+     * Counts the files a processor spilled its state to, because it
+     * accumulated more records than allowed. Only reported by the
+     * processors that support spilling, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_ENABLED}.
+     *
+     * @since 5.4
+     */
+    public static final String SPILL_COUNT = "spillCount";
+
+    /**
+     * Tracks the total number of bytes a processor spilled to disk, see
+     * {@link #SPILL_COUNT}.
+     *
+     * @since 5.4
+     */
+    public static final String SPILLED_BYTES = "spilledBytes";
+
+    /**
+     * The current size of the batches an asynchronous batched mapping
+     * stage sends to its service, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_ASYNC_BATCH_TARGET_LATENCY}.
+     * Equal to the configured maximum batch size unless the adaptive batch
+     * sizing is enabled.
+     *
+     * @since 5.4
+     */
+    public static final String ASYNC_BATCH_SIZE = "asyncBatchSize";
+
+    /**
+     * Counts the batches sent by an asynchronous batched mapping stage to
+     * its service whose latency fell into the range given by the {@link
+     * MetricTags#BUCKET} tag of the metric. The latency is measured from
+     * sending the batch until its result is emitted.
+     *
+     * @since 5.4
+     */
+    public static final String ASYNC_BATCH_LATENCY_BUCKET = "asyncBatchLatencyBucket";
+
+    /**
+     * The average latency of the batches sent by an asynchronous batched
+     * mapping stage to its service, in microseconds, see {@link
+     * #ASYNC_BATCH_LATENCY_BUCKET}.
+     *
+     * @since 5.4
+     */
+    public static final String ASYNC_BATCH_LATENCY_AVG = "asyncBatchLatencyAvg";
+
+    /**
+     * The maximum latency of the batches sent by an asynchronous batched
+     * mapping stage to its service, in microseconds, see {@link
+     * #ASYNC_BATCH_LATENCY_BUCKET}.
+     *
+     * @since 5.4
+     */
+    public static final String ASYNC_BATCH_LATENCY_MAX = "asyncBatchLatencyMax";
+
     /**
      * Tracks the start time of a given execution of a specific job.
      * The execution and the job can be identified based on the
@@ -193,6 +280,39 @@ public final class MetricNames {
      */
     public static final String DISTRIBUTED_BYTES_OUT = "distributedBytesOut";
 
+    /**
+     * The average size in bytes of the items coming in over the network for
+     * DISTRIBUTED input {@link Edge}s, including the packet headers. It's
+     * {@link #DISTRIBUTED_BYTES_IN} divided by {@link #DISTRIBUTED_ITEMS_IN}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_BYTES_PER_ITEM_IN = "distributedBytesPerItemIn";
+
+    /**
+     * The average size in bytes of the items going out over the network for
+     * DISTRIBUTED output {@link Edge}s, including the packet headers. It's
+     * {@link #DISTRIBUTED_BYTES_OUT} divided by {@link
+     * #DISTRIBUTED_ITEMS_OUT}. Comparing it with the batched encoding enabled
+     * and disabled (see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_DISTRIBUTED_EDGE_BATCHING_ENABLED})
+     * shows the effect of the encoding on a particular edge.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_BYTES_PER_ITEM_OUT = "distributedBytesPerItemOut";
+
+    /**
+     * Counts the items going out over the network for DISTRIBUTED output
+     * {@link Edge}s that were column-encoded, that is written without the
+     * per-item serialization header. Only items of some types in homogeneous
+     * runs are column-encoded, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_DISTRIBUTED_EDGE_BATCHING_ENABLED}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_COLUMN_ENCODED_ITEMS_OUT = "distributedColumnEncodedItemsOut";
+
     /**
      * Number of jobs submitted to the Jet cluster.
      * <p>
@@ -123,6 +123,14 @@ public final class MetricTags {
      */
     public static final String SOURCE_ADDRESS = "sourceAddress";
 
+    /**
+     * The range of values a histogram metric counts, for example {@code
+     * 64..127us} for a latency histogram.
+     *
+     * @since 5.4
+     */
+    public static final String BUCKET = "bucket";
+
     /**
      * Boolean flag which is true if the metric is user-defined (as opposed to
      * built-in).
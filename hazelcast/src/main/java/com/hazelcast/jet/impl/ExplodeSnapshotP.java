@@ -16,41 +16,119 @@
 
 package com.hazelcast.jet.impl;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.impl.execution.BroadcastEntry;
+import com.hazelcast.jet.impl.execution.KeyGroupEntry;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.CompressedSnapshotChunk;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataTombstone;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.IntStream;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_RESTORE_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_RESTORE_ENTRIES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_RESTORE_TIME;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.entryHash;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+/**
+ * Deserializes the snapshot chunks read from the snapshot map and emits the
+ * state entries to the ordinals of the vertices they belong to. Each
+ * instance is connected to its own reader of a share of the local partitions
+ * of the snapshot map, see {@link
+ * com.hazelcast.spi.properties.ClusterProperty#JET_SNAPSHOT_RESTORE_PARALLELISM}.
+ * <p>
+ * A chunk is stored in the partition its keys belong to, that is in their
+ * key group. The keyed entries are emitted as {@link KeyGroupEntry} so that
+ * the restore edge routes them to the processor owning the key group without
+ * serializing the keys again.
+ */
 public class ExplodeSnapshotP extends AbstractProcessor {
 
-    private final Map<String, FlatMapper<byte[], Object>> vertexToFlatMapper = new HashMap<>();
-    private final long expectedSnapshotId;
+    @Probe(name = SNAPSHOT_RESTORE_BYTES, unit = BYTES)
+    private final Counter restoredBytes = SwCounter.newSwCounter();
+    @Probe(name = SNAPSHOT_RESTORE_ENTRIES)
+    private final Counter restoredEntries = SwCounter.newSwCounter();
+
+    private final Map<String, FlatMapper<Entry<SnapshotDataKey, Object>, Object>> vertexToFlatMapper = new HashMap<>();
+    private final Map<String, Integer> vertexToOrdinal;
+    private final long[] snapshotChain;
+    private final Set<Long> unexpectedSnapshotIds = new HashSet<>();
     private InternalSerializationService serializationService;
+    private IPartitionService partitionService;
+
+    // When restoring a chain of incremental snapshots, we buffer the chunks
+    // until the input is complete, then apply them in the order of the chain
+    // and emit the remaining entries.
+    private Map<Long, List<Entry<SnapshotDataKey, Object>>> chunksBySnapshotId;
+    private Iterator<Entry<SnapshotDataKey, Object>> chunksToApply;
+    private Map<String, Long2ObjectHashMap<ChainEntry>> chainEntries;
+    private Iterator<Entry<String, Long2ObjectHashMap<ChainEntry>>> vertexIterator;
+    private Traverser<Object> vertexTraverser;
+    private int vertexOrdinal;
+    // written by the processor, read by the metrics collection
+    private volatile long restoreStartNanos;
+    private volatile long restoreTimeNanos = -1;
 
-    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId) {
-        this.expectedSnapshotId = expectedSnapshotId;
+    /**
+     * @param snapshotChain IDs of the snapshots to restore: a full snapshot
+     *                      followed by the incremental snapshots to apply to it
+     */
+    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long[] snapshotChain) {
+        this.vertexToOrdinal = vertexToOrdinal;
+        this.snapshotChain = snapshotChain;
         for (Entry<String, Integer> en : vertexToOrdinal.entrySet()) {
-            Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(), this::traverser));
+            Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(),
+                    (Entry<SnapshotDataKey, Object> chunk) -> traverser(chunk.getValue(), keyGroup(chunk.getKey()))));
             assert oldValue == null : "Duplicate ordinal: " + en.getValue();
         }
+        if (snapshotChain.length > 1) {
+            chunksBySnapshotId = new HashMap<>();
+        }
     }
 
     @Override
     protected void init(@Nonnull Context context) {
         serializationService = ((ProcCtx) context).serializationService();
+        partitionService = ((ProcCtx) context).nodeEngine().getPartitionService();
+        restoreStartNanos = System.nanoTime();
+    }
+
+    @Probe(name = SNAPSHOT_RESTORE_TIME, unit = MS)
+    private long restoreTime() {
+        long timeNanos = restoreTimeNanos;
+        if (timeNanos < 0) {
+            timeNanos = System.nanoTime() - restoreStartNanos;
+        }
+        return NANOSECONDS.toMillis(timeNanos);
     }
 
     /* We can't close the BufferObjectDataInput cleanly. We close it when the returned traverser is fully iterated,
@@ -58,8 +136,8 @@ public class ExplodeSnapshotP extends AbstractProcessor {
     On the other hand, the returned object doesn't hold any resources, so relying on the GC is sufficient.
     See #19799 */
     @SuppressWarnings("squid:S2095")
-    private Traverser<Object> traverser(byte[] data) {
-        BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+    private Traverser<Object> traverser(Object chunk, int keyGroup) {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(chunkBytes(chunk));
 
         return () -> uncheckCall(() -> {
             Object key = serializationService.readObject(in, true);
@@ -67,21 +145,42 @@ public class ExplodeSnapshotP extends AbstractProcessor {
                 return null;
             }
             Object value = serializationService.readObject(in, true);
-            return key instanceof BroadcastKey
-                    ? new BroadcastEntry(key, value)
-                    : entry(key, value);
+            restoredEntries.inc();
+            return toItem(key, value, keyGroup);
         });
     }
 
+    private static Object toItem(Object key, Object value, int keyGroup) {
+        return key instanceof BroadcastKey
+                ? new BroadcastEntry(key, value)
+                : new KeyGroupEntry<>(key, value, keyGroup);
+    }
+
+    /**
+     * Returns the key group of the entries in the chunk stored under the
+     * given key, it's the partition the writer put the chunk in.
+     */
+    private int keyGroup(SnapshotDataKey key) {
+        return partitionService.getPartitionId(key);
+    }
+
+    private byte[] chunkBytes(Object chunk) {
+        byte[] bytes = chunk instanceof CompressedSnapshotChunk
+                ? ((CompressedSnapshotChunk) chunk).decompress()
+                : (byte[]) chunk;
+        restoredBytes.inc(bytes.length);
+        return bytes;
+    }
+
     @Override
     protected boolean tryProcess0(@Nonnull Object item) {
         if (((Entry) item).getKey() instanceof SnapshotValidationRecord.SnapshotValidationKey) {
             // ignore the validation record
             return true;
         }
-        Entry<SnapshotDataKey, byte[]> castItem = (Entry<SnapshotDataKey, byte[]>) item;
+        Entry<SnapshotDataKey, Object> castItem = (Entry<SnapshotDataKey, Object>) item;
         String vertexName = castItem.getKey().vertexName();
-        FlatMapper<byte[], Object> flatMapper = vertexToFlatMapper.get(vertexName);
+        FlatMapper<Entry<SnapshotDataKey, Object>, Object> flatMapper = vertexToFlatMapper.get(vertexName);
         if (flatMapper == null) {
             if (!vertexToFlatMapper.containsKey(vertexName)) {
                 // log only once
@@ -91,16 +190,144 @@ public class ExplodeSnapshotP extends AbstractProcessor {
             return true;
         }
         long snapshotId = castItem.getKey().snapshotId();
-        if (snapshotId != expectedSnapshotId) {
-            getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
-                    + expectedSnapshotId + ", found=" + snapshotId);
+        if (Arrays.stream(snapshotChain).noneMatch(id -> id == snapshotId)) {
+            if (unexpectedSnapshotIds.add(snapshotId)) {
+                // log only once for each snapshot ID
+                getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
+                        + (snapshotChain.length == 1 ? snapshotChain[0] : Arrays.toString(snapshotChain))
+                        + ", found=" + snapshotId);
+            }
             return true;
         }
-        return flatMapper.tryProcess(castItem.getValue());
+        if (chunksBySnapshotId == null) {
+            return flatMapper.tryProcess(castItem);
+        }
+        chunksBySnapshotId.computeIfAbsent(snapshotId, x -> new ArrayList<>())
+                          .add(entry(castItem.getKey(), castItem.getValue()));
+        return true;
+    }
+
+    @Override
+    public boolean complete() {
+        if (snapshotChain.length == 1) {
+            return restoreDone();
+        }
+        if (chunksToApply == null) {
+            List<Entry<SnapshotDataKey, Object>> chunks = new ArrayList<>();
+            for (long snapshotId : snapshotChain) {
+                chunks.addAll(chunksBySnapshotId.getOrDefault(snapshotId, Collections.emptyList()));
+            }
+            chunksBySnapshotId = null;
+            chunksToApply = chunks.iterator();
+            chainEntries = new HashMap<>();
+        }
+        // apply one chunk per call to not block the cooperative thread for too long
+        if (chunksToApply.hasNext()) {
+            Entry<SnapshotDataKey, Object> chunk = chunksToApply.next();
+            applyChunk(chainEntries.computeIfAbsent(chunk.getKey().vertexName(), x -> new Long2ObjectHashMap<>()),
+                    chunkBytes(chunk.getValue()), keyGroup(chunk.getKey()));
+            return false;
+        }
+        if (vertexIterator == null) {
+            vertexIterator = chainEntries.entrySet().iterator();
+        }
+        for (;;) {
+            if (vertexTraverser == null) {
+                if (!vertexIterator.hasNext()) {
+                    chainEntries = null;
+                    return restoreDone();
+                }
+                Entry<String, Long2ObjectHashMap<ChainEntry>> vertexEntries = vertexIterator.next();
+                vertexOrdinal = vertexToOrdinal.get(vertexEntries.getKey());
+                vertexTraverser = traverseIterable(vertexEntries.getValue().values())
+                        .flatMap(e -> traverseStream(IntStream.range(0, e.count).mapToObj(i -> readItem(e))));
+            }
+            if (!emitFromTraverser(vertexOrdinal, vertexTraverser)) {
+                return false;
+            }
+            vertexTraverser = null;
+        }
+    }
+
+    /**
+     * Adds the entries of the chunk to the entries of the vertex and removes
+     * the entries the tombstones in the chunk refer to. The entries are
+     * identified by their {@linkplain
+     * com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl#entryHash entry
+     * hash}, only their position in the chunk is kept.
+     */
+    @SuppressWarnings("squid:S2095")
+    private void applyChunk(Long2ObjectHashMap<ChainEntry> entries, byte[] chunk, int keyGroup) {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(chunk);
+        uncheckCall(() -> {
+            for (;;) {
+                int keyOffset = in.position();
+                Object key = serializationService.readObject(in, true);
+                if (key == SnapshotDataValueTerminator.INSTANCE) {
+                    return null;
+                }
+                int valueOffset = in.position();
+                Object value = serializationService.readObject(in, true);
+                if (key instanceof SnapshotDataTombstone) {
+                    long entryHash = ((SnapshotDataTombstone) key).entryHash();
+                    ChainEntry chainEntry = entries.get(entryHash);
+                    if (chainEntry != null) {
+                        chainEntry.count -= (Integer) value;
+                        if (chainEntry.count <= 0) {
+                            entries.remove(entryHash);
+                        }
+                    }
+                } else {
+                    long entryHash = entryHash(chunk, keyOffset, valueOffset - keyOffset,
+                            chunk, valueOffset, in.position() - valueOffset);
+                    ChainEntry chainEntry = entries.get(entryHash);
+                    if (chainEntry == null) {
+                        entries.put(entryHash, new ChainEntry(chunk, keyOffset, keyGroup));
+                    } else {
+                        chainEntry.count++;
+                    }
+                }
+            }
+        });
+    }
+
+    private boolean restoreDone() {
+        restoreTimeNanos = System.nanoTime() - restoreStartNanos;
+        if (getLogger().isFineEnabled()) {
+            getLogger().fine("Restored " + restoredEntries.get() + " entries (" + restoredBytes.get()
+                    + " bytes) in " + restoreTime() + " ms");
+        }
+        return true;
+    }
+
+    @SuppressWarnings("squid:S2095")
+    private Object readItem(ChainEntry chainEntry) {
+        BufferObjectDataInput in = serializationService.createObjectDataInput(chainEntry.chunk);
+        in.position(chainEntry.offset);
+        restoredEntries.inc();
+        return uncheckCall(() -> toItem(serializationService.readObject(in, true),
+                serializationService.readObject(in, true), chainEntry.keyGroup));
     }
 
     @Override
     public boolean closeIsCooperative() {
         return true;
     }
+
+    /**
+     * An entry of a chain of snapshots: the position of its first occurrence,
+     * its key group and the number of occurrences.
+     */
+    private static final class ChainEntry {
+        final byte[] chunk;
+        final int offset;
+        final int keyGroup;
+        int count = 1;
+
+        ChainEntry(byte[] chunk, int offset, int keyGroup) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.keyGroup = keyGroup;
+        }
+    }
 }
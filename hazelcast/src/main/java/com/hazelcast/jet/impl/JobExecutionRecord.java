@@ -26,6 +26,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -81,6 +82,21 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
      */
     private transient volatile String ongoingExportedSnapshotName;
 
+    /**
+     * True, if the ongoing snapshot is incremental. Transient for the same
+     * reason as {@link #ongoingExportedSnapshotName}.
+     */
+    private transient volatile boolean ongoingSnapshotIncremental;
+
+    /**
+     * IDs of the snapshots stored in the data map with {@link #dataMapIndex}:
+     * a full snapshot followed by the incremental snapshots applied on top of
+     * it, see {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_SNAPSHOT_INCREMENTAL_ENABLED}.
+     * Empty, if there's no successful automatic snapshot.
+     */
+    private volatile long[] snapshotChain = new long[0];
+
     private volatile String exportedSnapshotName;
     @Nullable
     private volatile String lastSnapshotFailure;
@@ -154,10 +170,12 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
     @SuppressWarnings("NonAtomicOperationOnVolatileField")
     @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
             justification = "all updates to ongoingSnapshotId are synchronized")
-    public void startNewSnapshot(String exportedSnapshotName) {
+    public void startNewSnapshot(String exportedSnapshotName, boolean incremental) {
+        assert !(incremental && exportedSnapshotName != null) : "exported snapshot can't be incremental";
         ongoingSnapshotId++;
         ongoingSnapshotStartTime = Clock.currentTimeMillis();
         this.ongoingExportedSnapshotName = exportedSnapshotName;
+        this.ongoingSnapshotIncremental = incremental;
     }
 
     public SnapshotStats ongoingSnapshotDone(
@@ -172,9 +190,15 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             boolean isExport = ongoingExportedSnapshotName != null;
             boolean isExportOnly = isExport && !isTerminal;
 
-            if (!isExport) {
+            if (ongoingSnapshotIncremental) {
+                // an incremental snapshot is written to the map of the previous one
+                long[] newChain = Arrays.copyOf(snapshotChain, snapshotChain.length + 1);
+                newChain[newChain.length - 1] = ongoingSnapshotId;
+                snapshotChain = newChain;
+            } else if (!isExport) {
                 // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one
                 dataMapIndex = ongoingDataMapIndex();
+                snapshotChain = new long[] {ongoingSnapshotId};
             }
 
             // for snapshots other than export-only remember the map to which the snapshot has been written
@@ -186,6 +210,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             }
         }
         ongoingExportedSnapshotName = null;
+        ongoingSnapshotIncremental = false;
         ongoingSnapshotStartTime = Long.MIN_VALUE;
         return res;
     }
@@ -206,6 +231,33 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         return dataMapIndex;
     }
 
+    /**
+     * IDs of the snapshots in the data map with {@link #dataMapIndex()}, in
+     * the order they were taken. The first one is a full snapshot, the rest
+     * are incremental. Empty, if there's no successful automatic snapshot.
+     */
+    public long[] snapshotChain() {
+        return snapshotChain;
+    }
+
+    /**
+     * Returns the IDs of the snapshots to restore the last successful
+     * snapshot from, in the order they have to be applied. It's the {@link
+     * #snapshotChain()} for an automatic snapshot, or just the {@link
+     * #snapshotId()} for an exported one.
+     *
+     * @throws IllegalStateException when there was no successful snapshot
+     */
+    long[] successfulSnapshotChain() {
+        if (snapshotId() < 0) {
+            throw new IllegalStateException("No successful snapshot");
+        }
+        long[] chain = snapshotChain;
+        return exportedSnapshotName() == null && chain.length > 0 && chain[chain.length - 1] == snapshotId()
+                ? chain
+                : new long[] {snapshotId()};
+    }
+
     /**
      * Returns the index of the data map into which the new snapshot will be
      * written.
@@ -316,6 +368,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         out.writeObject(suspensionCause);
         out.writeBoolean(executed);
         out.writeLong(timestamp.get());
+        out.writeLongArray(snapshotChain);
     }
 
     @Override
@@ -332,6 +385,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         suspensionCause = in.readObject();
         executed = in.readBoolean();
         timestamp.set(in.readLong());
+        snapshotChain = in.readLongArray();
     }
 
     @Override
@@ -344,6 +398,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
                 ", executed=" + executed +
                 ", dataMapIndex=" + dataMapIndex +
                 ", snapshotId=" + snapshotId +
+                ", snapshotChain=" + Arrays.toString(snapshotChain) +
                 ", ongoingSnapshotId=" + ongoingSnapshotId +
                 ", ongoingSnapshotStartTime=" + toLocalTime(ongoingSnapshotStartTime) +
                 ", snapshotStats=" + snapshotStats +
@@ -25,8 +25,10 @@ import com.hazelcast.internal.util.Clock;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Job;
 import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.DefaultPartitionStrategy;
 import com.hazelcast.jet.core.Edge;
 import com.hazelcast.jet.core.JobStatus;
+import com.hazelcast.jet.core.Partitioner;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.core.Vertex;
@@ -42,8 +44,10 @@ import com.hazelcast.jet.impl.exception.ExecutionNotFoundException;
 import com.hazelcast.jet.impl.exception.JetDisabledException;
 import com.hazelcast.jet.impl.exception.JobTerminateRequestedException;
 import com.hazelcast.jet.impl.exception.TerminatedWithSnapshotException;
+import com.hazelcast.jet.impl.execution.KeyGroupEntry;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlanBuilder;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.jet.impl.metrics.RawJobMetrics;
 import com.hazelcast.jet.impl.operation.GetLocalJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.InitExecutionOperation;
@@ -55,6 +59,9 @@ import com.hazelcast.jet.impl.util.NonCompletableFuture;
 import com.hazelcast.jet.impl.util.Util;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.version.Version;
@@ -62,6 +69,7 @@ import com.hazelcast.version.Version;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -83,7 +91,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static com.hazelcast.function.Functions.entryKey;
+import static com.hazelcast.function.Functions.wholeItem;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.Util.entry;
@@ -102,6 +110,7 @@ import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.impl.JobClassLoaderService.JobPhase.COORDINATOR;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
 import static com.hazelcast.jet.impl.SnapshotValidator.validateSnapshot;
+import static com.hazelcast.jet.impl.SnapshotValidator.validateSnapshotChain;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.RESTART;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.SUSPEND;
 import static com.hazelcast.jet.impl.TerminationMode.CANCEL_FORCEFUL;
@@ -118,6 +127,7 @@ import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.formatJobDuration;
 import static com.hazelcast.jet.impl.util.Util.toList;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.JOB_OFFLOADABLE_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_RESTORE_PARALLELISM;
 import static java.util.Collections.emptyList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.runAsync;
@@ -256,6 +266,7 @@ public class MasterJobContext {
                   // name without internal prefix
                   final String snapshotName;
                   final String snapshotMapName;
+                  final long[] snapshotChain;
 
                   // Check if there is a snapshot to restore. We use snapshots in this order:
                   // 1. exported terminal snapshot when the job is restarted due to failure during it
@@ -268,16 +279,18 @@ public class MasterJobContext {
                       // its own snapshots.
                       snapshotName = jobExecRec.exportedSnapshotName();
                       snapshotMapName = jobExecRec.successfulSnapshotDataMapName();
+                      snapshotChain = jobExecRec.successfulSnapshotChain();
                   } else {
                       // there was no snapshot performed before restart or this is a new job
                       snapshotName = mc.jobConfig().getInitialSnapshotName();
                       snapshotMapName = snapshotName != null
                               ? exportedSnapshotMapName(snapshotName)
                               : null;
+                      snapshotChain = null;
                   }
 
                   if (snapshotMapName != null) {
-                      rewriteDagWithSnapshotRestore(dag, snapshotId, snapshotMapName, snapshotName);
+                      rewriteDagWithSnapshotRestore(dag, snapshotId, snapshotChain, snapshotMapName, snapshotName);
                   } else {
                       logger.info("Didn't find any snapshot to restore for " + mc.jobIdString());
                   }
@@ -481,22 +494,46 @@ public class MasterJobContext {
         return result;
     }
 
-    private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId, String mapName, String snapshotName) {
+    /**
+     * @param snapshotChain the IDs of the full snapshot and the incremental
+     *     snapshots to restore, or null for an exported snapshot with unknown ID
+     */
+    private void rewriteDagWithSnapshotRestore(
+            DAG dag, long snapshotId, @Nullable long[] snapshotChain, String mapName, String snapshotName
+    ) {
         // snapshot map is not updated here, so it does not need to be
         // configured with failOnIndeterminateOperationState
         IMap<Object, Object> snapshotMap = mc.nodeEngine().getHazelcastInstance().getMap(mapName);
-        long resolvedSnapshotId = validateSnapshot(
-                snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+        long[] resolvedSnapshotChain;
+        if (snapshotChain != null && snapshotChain.length > 1) {
+            validateSnapshotChain(snapshotChain, snapshotMap, mc.jobIdString());
+            resolvedSnapshotChain = snapshotChain;
+        } else {
+            resolvedSnapshotChain = new long[] {validateSnapshot(snapshotId, snapshotMap, mc.jobIdString(), snapshotName)};
+        }
         logger.info(String.format(
-                "About to restore the state of %s from snapshot %d, mapName = %s",
-                mc.jobIdString(), resolvedSnapshotId, mapName));
+                "About to restore the state of %s from snapshot %s, mapName = %s",
+                mc.jobIdString(), resolvedSnapshotChain.length == 1
+                        ? String.valueOf(resolvedSnapshotChain[0])
+                        : "chain " + Arrays.toString(resolvedSnapshotChain),
+                mapName));
         List<Vertex> originalVertices = new ArrayList<>();
         dag.iterator().forEachRemaining(originalVertices::add);
 
+        // Each reader reads a share of the local partitions of the snapshot map
+        // and passes them to its own exploding processor. The chunks of one
+        // partition are therefore merged by a single processor, which is
+        // required to apply a chain of incremental snapshots.
+        int restoreParallelism = mc.nodeEngine().getProperties().getInteger(JET_SNAPSHOT_RESTORE_PARALLELISM);
+        if (restoreParallelism <= 0) {
+            restoreParallelism = defaultParallelism;
+        }
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName))
+                                       .localParallelism(restoreParallelism);
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
-                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
+                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotChain))
+                                  .localParallelism(restoreParallelism);
         dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
 
         int index = 0;
@@ -1056,7 +1093,7 @@ public class MasterJobContext {
         SnapshotRestoreEdge(Vertex source, int sourceOrdinal, Vertex destination, int destOrdinal) {
             super(source, sourceOrdinal, destination, destOrdinal);
             distributed();
-            partitioned(entryKey());
+            partitioned(wholeItem(), new KeyGroupPartitioner());
         }
 
         @Override
@@ -1065,6 +1102,52 @@ public class MasterJobContext {
         }
     }
 
+    /**
+     * Routes a {@link KeyGroupEntry} to the partition of its key group and
+     * any other entry to the partition of its key. The key group of a
+     * restored entry is the partition of its snapshot chunk, which the
+     * snapshot writer chose by the same default partitioning, so both ways
+     * route an entry to the same processor. The routing is therefore the
+     * same as with the default partitioning, only the key doesn't have to
+     * be serialized again to compute its partition.
+     */
+    public static final class KeyGroupPartitioner implements Partitioner<Object>, IdentifiedDataSerializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient DefaultPartitionStrategy defaultPartitioning;
+
+        @Override
+        public void init(@Nonnull DefaultPartitionStrategy strat) {
+            defaultPartitioning = strat;
+        }
+
+        @Override
+        public int getPartition(@Nonnull Object item, int partitionCount) {
+            return item instanceof KeyGroupEntry
+                    ? ((KeyGroupEntry<?, ?>) item).keyGroup()
+                    : defaultPartitioning.getPartition(((Entry<?, ?>) item).getKey());
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.SNAPSHOT_RESTORE_KEY_GROUP_PARTITIONER;
+        }
+    }
+
     public static class TerminationRequest {
         /**
          * Requested termination mode
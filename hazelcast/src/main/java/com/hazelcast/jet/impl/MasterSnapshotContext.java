@@ -26,10 +26,13 @@ import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
 import com.hazelcast.jet.impl.operation.SnapshotPhase2Operation;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -53,6 +56,8 @@ import static com.hazelcast.jet.impl.JobRepository.snapshotDataMapName;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.Util.jobNameAndExecutionId;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_INCREMENTAL_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_INCREMENTAL_MAX_CHAIN_LENGTH;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
@@ -93,6 +98,11 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot only contains the changes since the previous
+         * snapshot. Decided when the snapshot begins.
+         */
+        boolean isIncremental;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -112,12 +122,18 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return SnapshotFlags.create(isTerminal, isExport(), isIncremental);
         }
 
         public String mapName() {
-            return isExport() ? exportedSnapshotMapName(snapshotName)
-                    : snapshotDataMapName(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
+            if (isExport()) {
+                return exportedSnapshotMapName(snapshotName);
+            }
+            // an incremental snapshot is added to the chain in the map of the previous snapshot
+            JobExecutionRecord jobExecutionRecord = mc.jobExecutionRecord();
+            return snapshotDataMapName(mc.jobId(), isIncremental
+                    ? jobExecutionRecord.dataMapIndex()
+                    : jobExecutionRecord.ongoingDataMapIndex());
         }
 
         /**
@@ -143,6 +159,14 @@ class MasterSnapshotContext {
      */
     private final Queue<SnapshotRequest> snapshotQueue = new LinkedList<>();
 
+    /**
+     * The execution ID in which the last successful automatic snapshot was
+     * taken. The members only remember the entries of the snapshots of their
+     * own execution, so an incremental snapshot can only follow a snapshot of
+     * the same execution.
+     */
+    private long lastSnapshotExecutionId;
+
     MasterSnapshotContext(MasterContext masterContext, ILogger logger) {
         mc = masterContext;
         this.logger = logger;
@@ -202,8 +226,9 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
-                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
                 localExecutionId = mc.executionId();
+                requestedSnapshot.isIncremental = canTakeIncrementalSnapshot(requestedSnapshot, localExecutionId);
+                mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName, requestedSnapshot.isIncremental);
             } finally {
                 mc.unlock();
             }
@@ -214,7 +239,9 @@ class MasterSnapshotContext {
 
             try {
                 mc.writeJobExecutionRecordSafe(false);
-                mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                if (!requestedSnapshot.isIncremental) {
+                    mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                }
             } catch (Exception e) {
                 logger.warning(String.format("Failed to start snapshot %d for %s",
                         newSnapshotId, jobNameAndExecutionId(mc.jobName(), localExecutionId)),
@@ -239,6 +266,29 @@ class MasterSnapshotContext {
         });
     }
 
+    /**
+     * An automatic snapshot can be incremental, if the previous snapshot
+     * attempt was a successful automatic snapshot in the same execution and
+     * the chain of snapshots isn't too long.
+     */
+    private boolean canTakeIncrementalSnapshot(SnapshotRequest requestedSnapshot, long executionId) {
+        HazelcastProperties properties = mc.nodeEngine().getProperties();
+        if (requestedSnapshot.isExport() || !properties.getBoolean(JET_SNAPSHOT_INCREMENTAL_ENABLED)) {
+            return false;
+        }
+        JobExecutionRecord jobExecutionRecord = mc.jobExecutionRecord();
+        long[] chain = jobExecutionRecord.snapshotChain();
+        return lastSnapshotExecutionId == executionId
+                && jobExecutionRecord.exportedSnapshotName() == null
+                && chain.length > 0
+                && chain.length < properties.getInteger(JET_SNAPSHOT_INCREMENTAL_MAX_CHAIN_LENGTH)
+                && chain[chain.length - 1] == jobExecutionRecord.ongoingSnapshotId();
+    }
+
+    private static Predicate<Object, Object> snapshotDataPredicate(long snapshotId) {
+        return e -> e.getKey() instanceof SnapshotDataKey && ((SnapshotDataKey) e.getKey()).snapshotId() == snapshotId;
+    }
+
     /**
      * @param responses collected responses from the members
      */
@@ -348,14 +398,19 @@ class MasterSnapshotContext {
                     // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
                     // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
                     // and the job will not be cancelled but restarted.
-                    Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
+                    //
+                    // A failed incremental snapshot keeps the validation record of the previous snapshot
+                    // of its chain.
+                    Object oldValue = requestedSnapshot.isIncremental && mergedResult.getError() != null
+                            ? null
+                            : snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
 
                     if (requestedSnapshot.isExport()) {
                         assert requestedSnapshot.snapshotName != null;
                         // update also for failed snapshots because the map may have contained different snapshot before
                         mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
                     }
-                    if (oldValue != null) {
+                    if (oldValue != null && !requestedSnapshot.isIncremental) {
                         logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
                                 + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
                     }
@@ -416,8 +471,13 @@ class MasterSnapshotContext {
                     try {
                         // Clear data of failed snapshot (automatic or exported) to decrease memory usage.
                         // This can be done regardless of skipPhase2 because failed snapshot
-                        // can never be used for restore.
-                        snapshotMap.clear();
+                        // can never be used for restore. A failed incremental snapshot shares the
+                        // map with the previous snapshots of the chain, we remove only its own data.
+                        if (requestedSnapshot.isIncremental) {
+                            snapshotMap.removeAll(snapshotDataPredicate(snapshotId));
+                        } else {
+                            snapshotMap.clear();
+                        }
                     } catch (Exception e) {
                         logger.warning(mc.jobIdString() + ": failed to clear snapshot map '" + mapName
                                 + "' after a failure", e);
@@ -426,7 +486,10 @@ class MasterSnapshotContext {
 
                 // Do not clear snapshot data when JobExecutionRecord update was indeterminate.
                 // It may turn out that this will be a correct snapshot after all.
-                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport()) {
+                if (isSuccess && !requestedSnapshot.isExport()) {
+                    lastSnapshotExecutionId = executionId;
+                }
+                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport() && !requestedSnapshot.isIncremental) {
                     // clear IMap for next automatic snapshot early to decrease memory usage
                     mc.jobRepository().clearSnapshotData(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
                 }
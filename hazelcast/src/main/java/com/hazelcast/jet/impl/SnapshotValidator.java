@@ -69,4 +69,45 @@ final class SnapshotValidator {
         }
         return validationRecord.snapshotId();
     }
+
+    /**
+     * Validates a chain of a full snapshot followed by incremental snapshots,
+     * all stored in the same map. Only the last snapshot of the chain has a
+     * validation record, the previous ones were validated when they were
+     * taken.
+     *
+     * @param snapshotChain IDs of the snapshots of the chain, see {@link
+     *                      JobExecutionRecord#snapshotChain()}
+     * @param snapshotMap snapshot map to validate
+     * @param jobIdString name and ID of the job, for debug output
+     */
+    static void validateSnapshotChain(long[] snapshotChain, IMap<Object, Object> snapshotMap, String jobIdString) {
+        long lastSnapshotId = snapshotChain[snapshotChain.length - 1];
+        SnapshotValidationRecord validationRecord =
+                (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
+        if (validationRecord == null) {
+            throw new JetException(String.format(
+                    "snapshot with ID %d in IMap %s (%d entries) is damaged. Unable to restore the state for %s.",
+                    lastSnapshotId, snapshotMap.getName(), snapshotMap.size(), jobIdString));
+        }
+        if (validationRecord.snapshotId() < lastSnapshotId) {
+            throw new JetException(String.format(
+                    "%s: IMap '%s' was supposed to contain snapshotId %d, but it contains snapshotId %d",
+                    jobIdString, snapshotMap.getName(), lastSnapshotId, validationRecord.snapshotId()));
+        }
+        if (validationRecord.snapshotId() > lastSnapshotId) {
+            // The next incremental snapshot was written, but the JobExecutionRecord wasn't updated
+            // with it. Its data is ignored when restoring, and we can't validate the last snapshot.
+            return;
+        }
+        long count = snapshotMap.aggregate(
+                Aggregators.count(),
+                e -> e.getKey() instanceof SnapshotDataKey
+                        && ((SnapshotDataKey) e.getKey()).snapshotId() == lastSnapshotId);
+        if (validationRecord.numChunks() != count) {
+            throw new JetException(String.format(
+                    "State for %s in IMap '%s' is corrupted: snapshot %d should have %,d entries, but has %,d",
+                    jobIdString, snapshotMap.getName(), lastSnapshotId, validationRecord.numChunks(), count));
+        }
+    }
 }
@@ -66,6 +66,7 @@ import java.util.function.Function;
 
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_USE_VIRTUAL_THREADS;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_COMPLETION_TIME;
 import static com.hazelcast.jet.core.metrics.MetricNames.EXECUTION_START_TIME;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
@@ -231,7 +232,8 @@ public class ExecutionContext implements DynamicMetricsProvider {
                 }
                 startTime.set(System.currentTimeMillis());
                 executionFuture = taskletExecService
-                        .beginExecute(tasklets, cancellationFuture, cl)
+                        .beginExecute(tasklets, cancellationFuture, cl,
+                                Boolean.TRUE.equals(jobConfig.getArgument(KEY_USE_VIRTUAL_THREADS)))
                         .whenComplete(withTryCatch(logger, (r, t) -> setCompletionTime()))
                         .thenApply(res -> {
                             // There's a race here: a snapshot could be requested after the job just completed
@@ -134,6 +134,41 @@ class ExecutionSerializerHooks {
         }
     }
 
+    public static final class KeyGroupEntryHook implements SerializerHook<KeyGroupEntry> {
+
+        @Override
+        public Class<KeyGroupEntry> getSerializationType() {
+            return KeyGroupEntry.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<KeyGroupEntry<?, ?>>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.KEY_GROUP_ENTRY;
+                }
+
+                @Override
+                public void write(ObjectDataOutput out, KeyGroupEntry<?, ?> object) throws IOException {
+                    out.writeObject(object.getKey());
+                    out.writeObject(object.getValue());
+                    out.writeInt(object.keyGroup());
+                }
+
+                @Override
+                public KeyGroupEntry<?, ?> read(ObjectDataInput in) throws IOException {
+                    return new KeyGroupEntry<>(in.readObject(), in.readObject(), in.readInt());
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
+
     public static final class BroadcastKeyHook implements SerializerHook<BroadcastKey> {
 
         @Override
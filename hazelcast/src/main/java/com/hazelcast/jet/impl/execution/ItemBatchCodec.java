@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.jet.datamodel.Tuple2;
+import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.TYPE_COMPACT;
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+
+/**
+ * The batched encoding of the items sent through a distributed edge.
+ * <p>
+ * The sender groups consecutive items into <em>runs</em> of at most {@link
+ * #MAX_RUN_LENGTH} items. A run is encoded as:
+ * <pre>
+ *     int itemCount
+ *     partition IDs: byte PARTITIONS_SAME followed by one int, or
+ *                    byte PARTITIONS_EACH followed by itemCount ints
+ *     column of the items
+ * </pre>
+ * A column is a type tag shared by all its values followed by the values.
+ * The values of a {@code Long}, {@code Integer}, {@code Double} or {@code
+ * String} column are written without the per-item serialization header, a
+ * {@link Tuple2} column is written as a column of the {@code f0} fields
+ * followed by a column of the {@code f1} fields and a column of Compact
+ * records with the same schema shares the schema ID. Any other items are
+ * written one by one as before.
+ * <p>
+ * An instance holds the scratch state of a single tasklet and isn't
+ * thread-safe.
+ */
+final class ItemBatchCodec {
+
+    /**
+     * The maximum number of items in a run.
+     */
+    static final int MAX_RUN_LENGTH = 256;
+
+    private static final byte PARTITIONS_SAME = 0;
+    private static final byte PARTITIONS_EACH = 1;
+
+    private static final byte COLUMN_OBJECT = 0;
+    private static final byte COLUMN_LONG = 1;
+    private static final byte COLUMN_INT = 2;
+    private static final byte COLUMN_DOUBLE = 3;
+    private static final byte COLUMN_STRING = 4;
+    private static final byte COLUMN_TUPLE2 = 5;
+    private static final byte COLUMN_COMPACT = 6;
+    private static final byte COLUMN_DATA = 7;
+
+    private static final int SCHEMA_ID_SIZE = Long.BYTES;
+
+    private final InternalSerializationService serializationService;
+    // classes of the items that aren't encoded by the codec itself, mapped
+    // to whether they are Compact-serialized
+    private final Map<Class<?>, Boolean> isCompactClass = new HashMap<>();
+
+    private Object[] items = new Object[MAX_RUN_LENGTH];
+    private int[] partitionIds = new int[MAX_RUN_LENGTH];
+    private int runLength;
+
+    ItemBatchCodec(InternalSerializationService serializationService) {
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Removes a run of items from the head of the queue and writes it to the
+     * output. The queue must not be empty. The elements of the queue are
+     * either {@link ObjectWithPartitionId} or items with no partition.
+     *
+     * @param columnEncodedCounter incremented by the number of the items
+     *                             written in a column of a known type, that
+     *                             is without the per-item serialization header
+     * @return the number of items written
+     */
+    int writeRun(Queue<Object> queue, BufferObjectDataOutput out, Counter columnEncodedCounter) throws IOException {
+        Class<?> runClass = null;
+        int n = 0;
+        for (Object element; n < MAX_RUN_LENGTH && (element = queue.peek()) != null; n++) {
+            Object item;
+            int partitionId;
+            if (element instanceof ObjectWithPartitionId) {
+                item = ((ObjectWithPartitionId) element).getItem();
+                partitionId = ((ObjectWithPartitionId) element).getPartitionId();
+            } else {
+                item = element;
+                partitionId = -1;
+            }
+            Class<?> itemRunClass = runClass(item);
+            if (n == 0) {
+                runClass = itemRunClass;
+            } else if (itemRunClass != runClass) {
+                break;
+            }
+            queue.poll();
+            items[n] = item;
+            partitionIds[n] = partitionId;
+        }
+        assert n > 0 : "empty queue";
+
+        out.writeInt(n);
+        writePartitionIds(out, n);
+        byte columnType = writeColumn(out, items, n);
+        if (columnType != COLUMN_OBJECT && columnType != COLUMN_DATA) {
+            columnEncodedCounter.inc(n);
+        }
+        Arrays.fill(items, 0, n, null);
+        return n;
+    }
+
+    /**
+     * Reads a run written by {@link #writeRun}. The items and their partition
+     * IDs are then available through {@link #item(int)} and {@link
+     * #partitionId(int)} until the next call.
+     *
+     * @return the number of items read
+     */
+    int readRun(BufferObjectDataInput in) throws IOException {
+        Arrays.fill(items, 0, runLength, null);
+        int n = in.readInt();
+        if (n > items.length) {
+            items = new Object[n];
+            partitionIds = new int[n];
+        }
+        if (in.readByte() == PARTITIONS_SAME) {
+            Arrays.fill(partitionIds, 0, n, in.readInt());
+        } else {
+            for (int i = 0; i < n; i++) {
+                partitionIds[i] = in.readInt();
+            }
+        }
+        readColumn(in, items, n);
+        runLength = n;
+        return n;
+    }
+
+    Object item(int index) {
+        return items[index];
+    }
+
+    int partitionId(int index) {
+        return partitionIds[index];
+    }
+
+    /**
+     * Returns the size attributed to the item at {@code index} out of
+     * {@code runLength} items of a run encoded in {@code runSize} bytes. The
+     * sizes of the items of a run add up to the size of the run.
+     */
+    static int itemSize(int runSize, int runLength, int index) {
+        int size = runSize / runLength;
+        return index == 0 ? size + runSize % runLength : size;
+    }
+
+    private Class<?> runClass(Object item) {
+        Class<?> clazz = item.getClass();
+        if (clazz == Long.class || clazz == Integer.class || clazz == Double.class || clazz == String.class
+                || clazz == Tuple2.class || isCompact(item)) {
+            return clazz;
+        }
+        // items of other classes are written one by one, they can share a run
+        return Object.class;
+    }
+
+    private boolean isCompact(Object item) {
+        Boolean compact = isCompactClass.get(item.getClass());
+        if (compact == null) {
+            compact = serializationService.toData(item).getType() == TYPE_COMPACT;
+            isCompactClass.put(item.getClass(), compact);
+        }
+        return compact;
+    }
+
+    private void writePartitionIds(BufferObjectDataOutput out, int n) throws IOException {
+        int first = partitionIds[0];
+        int i = 1;
+        while (i < n && partitionIds[i] == first) {
+            i++;
+        }
+        if (i == n) {
+            out.writeByte(PARTITIONS_SAME);
+            out.writeInt(first);
+            return;
+        }
+        out.writeByte(PARTITIONS_EACH);
+        for (i = 0; i < n; i++) {
+            out.writeInt(partitionIds[i]);
+        }
+    }
+
+    private byte columnType(Object[] values, int n) {
+        Object first = values[0];
+        if (first == null) {
+            return COLUMN_OBJECT;
+        }
+        Class<?> clazz = first.getClass();
+        for (int i = 1; i < n; i++) {
+            if (values[i] == null || values[i].getClass() != clazz) {
+                return COLUMN_OBJECT;
+            }
+        }
+        if (clazz == Long.class) {
+            return COLUMN_LONG;
+        } else if (clazz == Integer.class) {
+            return COLUMN_INT;
+        } else if (clazz == Double.class) {
+            return COLUMN_DOUBLE;
+        } else if (clazz == String.class) {
+            return COLUMN_STRING;
+        } else if (clazz == Tuple2.class) {
+            return COLUMN_TUPLE2;
+        } else if (isCompact(first)) {
+            return COLUMN_COMPACT;
+        }
+        return COLUMN_OBJECT;
+    }
+
+    /**
+     * Writes the values and returns the type of the column.
+     */
+    private byte writeColumn(BufferObjectDataOutput out, Object[] values, int n) throws IOException {
+        byte type = columnType(values, n);
+        if (type == COLUMN_COMPACT) {
+            return writeCompactColumn(out, values, n);
+        }
+        out.writeByte(type);
+        switch (type) {
+            case COLUMN_LONG:
+                for (int i = 0; i < n; i++) {
+                    out.writeLong((Long) values[i]);
+                }
+                break;
+            case COLUMN_INT:
+                for (int i = 0; i < n; i++) {
+                    out.writeInt((Integer) values[i]);
+                }
+                break;
+            case COLUMN_DOUBLE:
+                for (int i = 0; i < n; i++) {
+                    out.writeDouble((Double) values[i]);
+                }
+                break;
+            case COLUMN_STRING:
+                for (int i = 0; i < n; i++) {
+                    out.writeString((String) values[i]);
+                }
+                break;
+            case COLUMN_TUPLE2:
+                Object[] fields = new Object[n];
+                for (int i = 0; i < n; i++) {
+                    fields[i] = ((Tuple2<?, ?>) values[i]).f0();
+                }
+                writeColumn(out, fields, n);
+                for (int i = 0; i < n; i++) {
+                    fields[i] = ((Tuple2<?, ?>) values[i]).f1();
+                }
+                writeColumn(out, fields, n);
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    out.writeObject(values[i]);
+                }
+        }
+        return type;
+    }
+
+    private byte writeCompactColumn(BufferObjectDataOutput out, Object[] values, int n) throws IOException {
+        Data[] datas = new Data[n];
+        for (int i = 0; i < n; i++) {
+            datas[i] = serializationService.toData(values[i]);
+        }
+        byte[] firstBytes = datas[0].toByteArray();
+        for (int i = 1; i < n; i++) {
+            // a GenericRecord class is used for records of different schemas
+            if (!Arrays.equals(datas[i].toByteArray(), DATA_OFFSET, DATA_OFFSET + SCHEMA_ID_SIZE,
+                    firstBytes, DATA_OFFSET, DATA_OFFSET + SCHEMA_ID_SIZE)) {
+                out.writeByte(COLUMN_DATA);
+                for (Data data : datas) {
+                    out.writeData(data);
+                }
+                return COLUMN_DATA;
+            }
+        }
+        out.writeByte(COLUMN_COMPACT);
+        out.write(firstBytes, DATA_OFFSET, SCHEMA_ID_SIZE);
+        for (Data data : datas) {
+            byte[] bytes = data.toByteArray();
+            int bodyOffset = DATA_OFFSET + SCHEMA_ID_SIZE;
+            out.writeInt(bytes.length - bodyOffset);
+            out.write(bytes, bodyOffset, bytes.length - bodyOffset);
+        }
+        return COLUMN_COMPACT;
+    }
+
+    private void readColumn(BufferObjectDataInput in, Object[] values, int n) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case COLUMN_LONG:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readLong();
+                }
+                break;
+            case COLUMN_INT:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readInt();
+                }
+                break;
+            case COLUMN_DOUBLE:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readDouble();
+                }
+                break;
+            case COLUMN_STRING:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readString();
+                }
+                break;
+            case COLUMN_TUPLE2:
+                Object[] f0 = new Object[n];
+                Object[] f1 = new Object[n];
+                readColumn(in, f0, n);
+                readColumn(in, f1, n);
+                for (int i = 0; i < n; i++) {
+                    values[i] = tuple2(f0[i], f1[i]);
+                }
+                break;
+            case COLUMN_COMPACT:
+                readCompactColumn(in, values, n);
+                break;
+            case COLUMN_DATA:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readDataAsObject();
+                }
+                break;
+            case COLUMN_OBJECT:
+                for (int i = 0; i < n; i++) {
+                    values[i] = in.readObject();
+                }
+                break;
+            default:
+                throw new IOException("Unknown column type: " + type);
+        }
+    }
+
+    private void readCompactColumn(BufferObjectDataInput in, Object[] values, int n) throws IOException {
+        // the partition hash isn't needed to deserialize, it's left zero
+        byte[] header = new byte[DATA_OFFSET + SCHEMA_ID_SIZE];
+        writeIntB(header, TYPE_OFFSET, TYPE_COMPACT);
+        in.readFully(header, DATA_OFFSET, SCHEMA_ID_SIZE);
+        for (int i = 0; i < n; i++) {
+            int bodySize = in.readInt();
+            byte[] bytes = Arrays.copyOf(header, header.length + bodySize);
+            in.readFully(bytes, header.length, bodySize);
+            values[i] = serializationService.toObject(new HeapData(bytes));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+
+/**
+ * A Map.Entry implementation restored from a snapshot which carries its key
+ * group: the ID of the partition its key belongs to. The snapshot restore
+ * edge routes it by the key group instead of serializing the key again.
+ *
+ * @param <K> type of key
+ * @param <V> type of value
+ */
+public final class KeyGroupEntry<K, V> extends SimpleImmutableEntry<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int keyGroup;
+
+    public KeyGroupEntry(K key, V value, int keyGroup) {
+        super(key, value);
+        this.keyGroup = keyGroup;
+    }
+
+    public int keyGroup() {
+        return keyGroup;
+    }
+
+    @Override
+    public String toString() {
+        return getKey() + "=" + getValue();
+    }
+}
@@ -97,6 +97,7 @@ public class ReceiverTasklet implements Tasklet {
     private final ArrayDeque<ObjWithPtionIdAndSize> inbox = new ArrayDeque<>();
     private final OutboundCollector collector;
     private final InternalSerializationService serializationService;
+    private final ItemBatchCodec batchCodec;
 
     private boolean receptionDone;
 
@@ -129,6 +130,7 @@ public class ReceiverTasklet implements Tasklet {
     ) {
         this.collector = collector;
         this.serializationService = serializationService;
+        this.batchCodec = new ItemBatchCodec(serializationService);
         this.rwinMultiplier = rwinMultiplier;
         this.flowControlPeriodNs = (double) MILLISECONDS.toNanos(flowControlPeriodMs);
         this.sourceAddressString = sourceAddress.toString();
@@ -303,6 +305,14 @@ public class ReceiverTasklet implements Tasklet {
             for (byte[] payload; (payload = incoming.poll()) != null; ) {
                 BufferObjectDataInput input = serializationService.createObjectDataInput(payload, PACKET_HEADER_SIZE);
                 final int itemCount = input.readInt();
+                if (itemCount < 0) {
+                    // a negative count marks the batched encoding
+                    readBatchedItems(input, ~itemCount);
+                    totalItems += ~itemCount;
+                    totalBytes += input.position();
+                    tracker.madeProgress();
+                    continue;
+                }
                 for (int i = 0; i < itemCount; i++) {
                     final int mark = input.position();
                     final Object item = input.readObject();
@@ -321,6 +331,25 @@ public class ReceiverTasklet implements Tasklet {
         }
     }
 
+    private void readBatchedItems(BufferObjectDataInput input, int itemCount) throws IOException {
+        for (int readCount = 0; readCount < itemCount; ) {
+            final int mark = input.position();
+            final int runLength = batchCodec.readRun(input);
+            final int runSize = input.position() - mark;
+            for (int i = 0; i < runLength; i++) {
+                inbox.add(new ObjWithPtionIdAndSize(batchCodec.item(i), batchCodec.partitionId(i),
+                        ItemBatchCodec.itemSize(runSize, runLength, i)));
+            }
+            readCount += runLength;
+        }
+    }
+
+    @Probe(name = MetricNames.DISTRIBUTED_BYTES_PER_ITEM_IN, unit = ProbeUnit.BYTES)
+    private long bytesPerItemIn() {
+        long itemsIn = itemsInCounter.get();
+        return itemsIn == 0 ? 0 : bytesInCounter.get() / itemsIn;
+    }
+
     public void initIncomingQueue(Queue<byte[]> incomingQueue) {
         incoming = incomingQueue;
     }
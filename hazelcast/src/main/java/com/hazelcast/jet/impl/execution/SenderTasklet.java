@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.metrics.Probe;
@@ -48,6 +49,7 @@ import static com.hazelcast.jet.impl.execution.ReceiverTasklet.compressSeq;
 import static com.hazelcast.jet.impl.execution.ReceiverTasklet.estimatedMemoryFootprint;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_DISTRIBUTED_EDGE_BATCHING_ENABLED;
 
 /**
  * The tasklet that sends the data associated with a single edge through network.
@@ -75,6 +77,12 @@ public class SenderTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_OUT, unit = ProbeUnit.BYTES)
     private final Counter bytesOutCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_COLUMN_ENCODED_ITEMS_OUT)
+    private final Counter columnEncodedItemsOutCounter = SwCounter.newSwCounter();
+
+    // null if the batched encoding is disabled
+    private final ItemBatchCodec batchCodec;
+
     private boolean instreamExhausted;
     // read and written by Jet thread
     private long sentSeq;
@@ -103,6 +111,13 @@ public class SenderTasklet implements Tasklet {
         uncheckRun(() -> outputBuffer.write(createStreamPacketHeader(nodeEngine,
                 executionId, destinationVertexId, inboundEdgeStream.ordinal())));
         bufPosPastHeader = outputBuffer.position();
+        this.batchCodec = isBatchingEnabled(nodeEngine) ? new ItemBatchCodec(serializationService) : null;
+    }
+
+    private static boolean isBatchingEnabled(NodeEngine nodeEngine) {
+        // members of older versions can't read the batched encoding
+        return nodeEngine.getProperties().getBoolean(JET_DISTRIBUTED_EDGE_BATCHING_ENABLED)
+                && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4);
     }
 
     @Nonnull @Override
@@ -139,6 +154,9 @@ public class SenderTasklet implements Tasklet {
     }
 
     private boolean tryFillOutputBuffer() {
+        if (batchCodec != null) {
+            return tryFillOutputBufferBatched();
+        }
         try {
             // header size + slot for writtenCount
             outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
@@ -165,6 +183,32 @@ public class SenderTasklet implements Tasklet {
         }
     }
 
+    private boolean tryFillOutputBufferBatched() {
+        try {
+            // header size + slot for writtenCount
+            outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
+            int writtenCount = 0;
+            while (outputBuffer.position() < packetSizeLimit
+                    && isWithinLimit(sentSeq, sendSeqLimitCompressed)
+                    && !inbox.isEmpty()
+            ) {
+                final int mark = outputBuffer.position();
+                int runLength = batchCodec.writeRun(inbox, outputBuffer, columnEncodedItemsOutCounter);
+                // the same footprint as the receiver attributes to the items of the run
+                sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark)
+                        + (runLength - 1) * estimatedMemoryFootprint(0);
+                writtenCount += runLength;
+            }
+            // a negative count marks the batched encoding
+            outputBuffer.writeInt(bufPosPastHeader, ~writtenCount);
+            bytesOutCounter.inc(outputBuffer.position());
+            itemsOutCounter.inc(writtenCount);
+            return writtenCount > 0;
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
     /**
      * Updates the upper limit on {@link #sentSeq}, which constrains how much more data this tasklet can send.
      *
@@ -186,6 +230,12 @@ public class SenderTasklet implements Tasklet {
                 '}';
     }
 
+    @Probe(name = MetricNames.DISTRIBUTED_BYTES_PER_ITEM_OUT, unit = ProbeUnit.BYTES)
+    private long bytesPerItemOut() {
+        long itemsOut = itemsOutCounter.get();
+        return itemsOut == 0 ? 0 : bytesOutCounter.get() / itemsOut;
+    }
+
     /**
      * Given an uncompressed {@code sentSeq} and a compressed {@code sendSeqLimitCompressed}, tells
      * whether the {@code sentSeq} is within the limit specified by the compressed seq.
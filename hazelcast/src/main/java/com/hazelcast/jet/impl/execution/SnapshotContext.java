@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
@@ -125,6 +126,14 @@ public class SnapshotContext {
      */
     private volatile CompletableFuture<Void> phase2Future;
 
+    /**
+     * True, if a {@link StoreSnapshotTasklet} completed while it had
+     * entries in the previous snapshot. The next snapshot can't be
+     * incremental, because the completed tasklet can no longer write the
+     * tombstones for its entries.
+     */
+    private boolean incrementalBaselineLost;
+
     private final AtomicLong totalBytes = new AtomicLong();
     private final AtomicLong totalKeys = new AtomicLong();
     private final AtomicLong totalChunks = new AtomicLong();
@@ -173,6 +182,10 @@ public class SnapshotContext {
         return SnapshotFlags.isExportOnly(snapshotFlags);
     }
 
+    public boolean isIncrementalSnapshot() {
+        return SnapshotFlags.isIncremental(snapshotFlags);
+    }
+
     boolean isLastPhase1Successful() {
         return lastPhase1Successful;
     }
@@ -222,6 +235,14 @@ public class SnapshotContext {
             throw new CancellationException("execution cancelled");
         }
         this.snapshotFlags = flags;
+        JetException incrementalError = null;
+        if (SnapshotFlags.isIncremental(flags) && incrementalBaselineLost) {
+            incrementalError = new JetException("Incremental snapshot " + snapshotId + " for " + jobNameAndExecutionId
+                    + " isn't possible, a vertex with state in the previous snapshot completed");
+            reportError(incrementalError);
+        } else if (!SnapshotFlags.isIncremental(flags)) {
+            incrementalBaselineLost = false;
+        }
 
         boolean success = numRemainingTasklets.compareAndSet(0, numSsTasklets);
         assert success : "numRemainingTasklets wasn't 0, but " + numRemainingTasklets.get();
@@ -241,7 +262,8 @@ public class SnapshotContext {
         }
         if (numSsTasklets == 0) {
             // member is already done with the job and master didn't know it yet - we are immediately successful
-            return completedFuture(new SnapshotPhase1Result(0, 0, 0, null));
+            snapshotError.set(null);
+            return completedFuture(new SnapshotPhase1Result(0, 0, 0, incrementalError));
         }
         phase1Future = new CompletableFuture<>();
         return phase1Future;
@@ -329,6 +351,21 @@ public class SnapshotContext {
         }
     }
 
+    /**
+     * Called by a {@link StoreSnapshotTasklet} that is about to complete while
+     * it had entries in the last snapshot it wrote.
+     *
+     * @param lastCompletedSnapshotId id of the last snapshot completed by the
+     *                                tasklet
+     */
+    synchronized void incrementalBaselineLost(long lastCompletedSnapshotId) {
+        incrementalBaselineLost = true;
+        if (phase1Future != null && isIncrementalSnapshot() && lastCompletedSnapshotId < currentSnapshotId) {
+            reportError(new JetException("Incremental snapshot " + currentSnapshotId + " for " + jobNameAndExecutionId
+                    + " failed, a vertex with state in the previous snapshot completed"));
+        }
+    }
+
     /**
      * This method is called when a processor tasklet completes.
      *
@@ -99,6 +99,9 @@ public class StoreSnapshotTasklet implements Tasklet {
                 ProgressState result = inboundEdgeStream.drainTo(addToInboxFunction);
                 if (result.isDone()) {
                     assert ssWriter.isEmpty() : "input is done, but we had some entries and not the barrier";
+                    if (ssWriter.hasIncrementalBaseline()) {
+                        snapshotContext.incrementalBaselineLost(pendingSnapshotId - 1);
+                    }
                     snapshotContext.storeSnapshotTaskletDone(pendingSnapshotId - 1, isHigherPrioritySource);
                     state = DONE;
                     progTracker.reset();
@@ -19,6 +19,8 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.internal.util.JavaVersion;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
@@ -50,6 +52,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
@@ -66,6 +69,7 @@ import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
@@ -73,6 +77,7 @@ import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATI
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.emptyList;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
@@ -82,6 +87,8 @@ public class TaskletExecutionService {
     public static final String TASKLET_INIT_CLOSE_EXECUTOR_NAME = "jet:tasklet_initClose";
 
     private final ExecutorService blockingTaskletExecutor = newCachedThreadPool(new BlockingTaskThreadFactory());
+    // null if virtual threads aren't supported by the JVM
+    private final ExecutorService virtualThreadTaskletExecutor;
     private final ExecutionService hzExecutionService;
     private final CooperativeWorker[] cooperativeWorkers;
     private final Thread[] cooperativeThreadPool;
@@ -90,16 +97,21 @@ public class TaskletExecutionService {
     private int cooperativeThreadIndex;
     @Probe(name = "blockingWorkerCount")
     private final Counter blockingWorkerCount = MwCounter.newMwCounter();
+    @Probe(name = "virtualThreadBlockingWorkerCount")
+    private final Counter virtualThreadBlockingWorkerCount = MwCounter.newMwCounter();
     private volatile boolean isShutdown;
     private final Object lock = new Object();
     private final IdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final boolean workStealingEnabled;
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
         hzExecutionService.register(TASKLET_INIT_CLOSE_EXECUTOR_NAME,
                 RuntimeAvailableProcessors.get(), Integer.MAX_VALUE, CACHED);
         this.hzInstanceName = nodeEngine.getHazelcastInstance().getName();
+        this.virtualThreadTaskletExecutor = createVirtualThreadExecutor(
+                String.format("hz.%s.jet.blocking.virtual-thread-", hzInstanceName));
         this.cooperativeWorkers = new CooperativeWorker[threadCount];
         this.cooperativeThreadPool = new Thread[threadCount];
         this.logger = nodeEngine.getLoggingService().getLogger(TaskletExecutionService.class);
@@ -111,6 +123,8 @@ public class TaskletExecutionService {
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
 
+        workStealingEnabled = properties.getBoolean(JET_COOPERATIVE_WORK_STEALING_ENABLED);
+
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new CooperativeWorkerThread(cooperativeWorkers[i],
                 String.format("hz.%s.jet.cooperative.thread-%d", hzInstanceName, i)));
@@ -145,6 +159,23 @@ public class TaskletExecutionService {
             @Nonnull List<? extends Tasklet> tasklets,
             @Nonnull CompletableFuture<Void> cancellationFuture,
             @Nonnull ClassLoader jobClassLoader
+    ) {
+        return beginExecute(tasklets, cancellationFuture, jobClassLoader, false);
+    }
+
+    /**
+     * Submits the tasklets for execution, see {@link #beginExecute(List,
+     * CompletableFuture, ClassLoader)}.
+     *
+     * @param useVirtualThreads if the non-cooperative tasklets should run on
+     *                          virtual threads. Ignored if the JVM doesn't
+     *                          support them.
+     */
+    CompletableFuture<Void> beginExecute(
+            @Nonnull List<? extends Tasklet> tasklets,
+            @Nonnull CompletableFuture<Void> cancellationFuture,
+            @Nonnull ClassLoader jobClassLoader,
+            boolean useVirtualThreads
     ) {
         final ExecutionTracker executionTracker = new ExecutionTracker(tasklets.size(), cancellationFuture);
         try {
@@ -153,7 +184,7 @@ public class TaskletExecutionService {
                             tasklet -> doWithClassLoader(jobClassLoader, tasklet::isCooperative)
                     ));
             submitCooperativeTasklets(executionTracker, jobClassLoader, byCooperation.get(true));
-            submitBlockingTasklets(executionTracker, jobClassLoader, byCooperation.get(false));
+            submitBlockingTasklets(executionTracker, jobClassLoader, byCooperation.get(false), useVirtualThreads);
         } catch (Throwable t) {
             executionTracker.future.internalCompleteExceptionally(t);
         }
@@ -164,16 +195,35 @@ public class TaskletExecutionService {
         isShutdown = true;
         Arrays.stream(cooperativeWorkers).forEach(thread -> thread.newTaskletSemaphore.release());
         blockingTaskletExecutor.shutdownNow();
+        if (virtualThreadTaskletExecutor != null) {
+            virtualThreadTaskletExecutor.shutdownNow();
+        }
         hzExecutionService.shutdownExecutor(TASKLET_INIT_CLOSE_EXECUTOR_NAME);
     }
 
     private void submitBlockingTasklets(ExecutionTracker executionTracker, ClassLoader jobClassLoader,
-                                        List<Tasklet> tasklets) {
+                                        List<Tasklet> tasklets, boolean useVirtualThreads) {
+        if (tasklets.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = blockingTaskletExecutor;
+        Counter workerCount = blockingWorkerCount;
+        if (useVirtualThreads) {
+            if (virtualThreadTaskletExecutor != null) {
+                executor = virtualThreadTaskletExecutor;
+                workerCount = virtualThreadBlockingWorkerCount;
+            } else {
+                logger.warning("Virtual threads were requested for the non-cooperative tasklets, but they are not "
+                        + "supported by this JVM, Java 21 or later is needed. Using platform threads instead.");
+            }
+        }
+        Counter workerCountFinal = workerCount;
         CountDownLatch startedLatch = new CountDownLatch(tasklets.size());
         executionTracker.blockingFutures = tasklets
                 .stream()
-                .map(t -> new BlockingWorker(new TaskletTracker(t, executionTracker, jobClassLoader), startedLatch))
-                .map(blockingTaskletExecutor::submit)
+                .map(t -> new BlockingWorker(new TaskletTracker(t, executionTracker, jobClassLoader), startedLatch,
+                        workerCountFinal))
+                .map(executor::submit)
                 .collect(toList());
 
         // Do not return from this method until all workers have started. Otherwise
@@ -246,6 +296,10 @@ public class TaskletExecutionService {
             while (!blockingTaskletExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
                 logger.warning("Blocking tasklet executor did not terminate in 1 minute");
             }
+            while (virtualThreadTaskletExecutor != null
+                    && !virtualThreadTaskletExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warning("Virtual thread tasklet executor did not terminate in 1 minute");
+            }
             for (Thread t : cooperativeThreadPool) {
                 t.join();
             }
@@ -291,13 +345,37 @@ public class TaskletExecutionService {
         }
     }
 
+    /**
+     * Returns an executor starting a new virtual thread for each task, or
+     * {@code null} if the JVM doesn't support virtual threads. Uses
+     * reflection, virtual threads are available since Java 21 and we compile
+     * for an older version.
+     */
+    private static ExecutorService createVirtualThreadExecutor(String threadNamePrefix) {
+        if (!JavaVersion.isAtLeast(JavaVersion.JAVA_21)) {
+            return null;
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                                                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     private final class BlockingWorker implements Runnable {
         private final TaskletTracker tracker;
         private final CountDownLatch startedLatch;
+        private final Counter workerCount;
 
-        private BlockingWorker(TaskletTracker tracker, CountDownLatch startedLatch) {
+        private BlockingWorker(TaskletTracker tracker, CountDownLatch startedLatch, Counter workerCount) {
             this.tracker = tracker;
             this.startedLatch = startedLatch;
+            this.workerCount = workerCount;
         }
 
         @Override
@@ -309,7 +387,7 @@ public class TaskletExecutionService {
             Contexts.Container contextContainer = Contexts.container();
 
             try {
-                blockingWorkerCount.inc();
+                workerCount.inc();
                 contextContainer.setContext(t.getProcessorContext());
                 startedLatch.countDown();
                 t.init();
@@ -328,7 +406,7 @@ public class TaskletExecutionService {
             } catch (Throwable e) {
                 handleTaskletExecutionError(tracker, e);
             } finally {
-                blockingWorkerCount.inc(-1L);
+                workerCount.inc(-1L);
                 contextContainer.setContext(null);
                 currentThread().setContextClassLoader(clBackup);
                 tracker.executionTracker.taskletDone();
@@ -338,11 +416,31 @@ public class TaskletExecutionService {
 
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
+        private static final long UTILIZATION_WINDOW_NANOS = MILLISECONDS.toNanos(100);
+        private static final long STEAL_CHECK_INTERVAL_MILLIS = 100;
 
         @Probe(name = "taskletCount")
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        // incremented by the worker the tasklet was stolen from
+        @Probe(name = "stolenTaskletCount")
+        private final Counter stolenTaskletCount = MwCounter.newMwCounter();
+        @Probe(name = "givenAwayTaskletCount")
+        private final Counter givenAwayTaskletCount = SwCounter.newSwCounter();
+        // the percentage of the time spent in iterations that made progress
+        @Probe(name = "utilizationPercent", unit = ProbeUnit.PERCENT)
+        private volatile long utilizationPercent;
+
+        // the worker that asked this worker to give away a tasklet
+        private final AtomicReference<CooperativeWorker> stealRequest = new AtomicReference<>();
+        // the number of tasklets that made progress in the last iteration
+        private volatile int busyTaskletCount;
+        // set when the worker left its loop and no longer runs new tasklets
+        private volatile boolean stopped;
+        private int iterationBusyTaskletCount;
+        private long utilizationWindowStart = System.nanoTime();
+        private long utilizationWindowBusyNanos;
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
@@ -369,20 +467,30 @@ public class TaskletExecutionService {
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
                 progressTracker.reset();
+                iterationBusyTaskletCount = 0;
+                long iterationStart = System.nanoTime();
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
+                updateUtilization(iterationStart, progressTracker.isMadeProgress());
+                busyTaskletCount = iterationBusyTaskletCount;
+                if (workStealingEnabled) {
+                    handOverTasklet();
+                }
                 if (!progressTracker.isMadeProgress() && newTaskletSemaphore.drainPermits() > 0) {
                     progressTracker.madeProgress();
                 }
                 if (progressTracker.isMadeProgress()) {
                     idleCount = 0;
                 } else {
+                    if (workStealingEnabled) {
+                        requestSteal();
+                    }
                     if (trackers.isEmpty()) {
                         newTaskletSemaphore.drainPermits();
                         if (trackers.isEmpty() && !isShutdown) {
                             try {
-                                newTaskletSemaphore.acquire();
+                                awaitNewTasklet();
                             } catch (InterruptedException e) {
                                 logger.severe("Cooperative worker interrupted", e);
                                 return;
@@ -393,8 +501,90 @@ public class TaskletExecutionService {
                     }
                 }
             }
-            trackers.forEach(t -> t.executionTracker.taskletDone());
-            trackers.clear();
+            stopped = true;
+            // a tasklet handed over concurrently is completed by whichever worker removes it
+            for (TaskletTracker t : trackers) {
+                if (trackers.remove(t)) {
+                    t.executionTracker.taskletDone();
+                }
+            }
+        }
+
+        private void awaitNewTasklet() throws InterruptedException {
+            utilizationPercent = 0;
+            if (workStealingEnabled) {
+                // wake up periodically to look for a tasklet to steal
+                newTaskletSemaphore.tryAcquire(STEAL_CHECK_INTERVAL_MILLIS, MILLISECONDS);
+            } else {
+                newTaskletSemaphore.acquire();
+            }
+        }
+
+        private void updateUtilization(long iterationStart, boolean madeProgress) {
+            long now = System.nanoTime();
+            if (madeProgress) {
+                utilizationWindowBusyNanos += now - iterationStart;
+            }
+            long windowLength = now - utilizationWindowStart;
+            if (windowLength >= UTILIZATION_WINDOW_NANOS) {
+                utilizationPercent = 100 * utilizationWindowBusyNanos / windowLength;
+                utilizationWindowStart = now;
+                utilizationWindowBusyNanos = 0;
+            }
+        }
+
+        /**
+         * Asks the worker with the most busy tasklets to give one of them to
+         * this worker. Called when no tasklet of this worker made progress.
+         * The tasklet can only be handed over by its current worker between
+         * two calls, see {@link #handOverTasklet()}.
+         */
+        private void requestSteal() {
+            CooperativeWorker victim = null;
+            int victimBusyCount = 1;
+            for (CooperativeWorker worker : cooperativeWorkers) {
+                int workerBusyCount = worker.busyTaskletCount;
+                if (worker != this && workerBusyCount > victimBusyCount) {
+                    victim = worker;
+                    victimBusyCount = workerBusyCount;
+                }
+            }
+            if (victim != null) {
+                victim.stealRequest.compareAndSet(null, this);
+            }
+        }
+
+        /**
+         * Gives a tasklet that made progress in the last iteration to the
+         * worker that requested it. Keeps at least one busy tasklet, moving
+         * the only busy tasklet wouldn't improve the balance.
+         */
+        private void handOverTasklet() {
+            CooperativeWorker thief = stealRequest.getAndSet(null);
+            if (thief == null || busyTaskletCount < 2 || isShutdown) {
+                return;
+            }
+            TaskletTracker stolen = null;
+            for (TaskletTracker t : trackers) {
+                if (t.madeProgress) {
+                    stolen = t;
+                }
+            }
+            if (stolen == null || !trackers.remove(stolen)) {
+                return;
+            }
+            logFinest(logger, "Tasklet %s moved to another cooperative worker", stolen.tasklet);
+            busyTaskletCount--;
+            givenAwayTaskletCount.inc();
+            thief.stolenTaskletCount.inc();
+            thief.trackers.add(stolen);
+            if (thief.stopped && thief.trackers.remove(stolen)) {
+                // the thief is shutting down and might have missed the tasklet
+                stolen.executionTracker.taskletDone();
+                return;
+            }
+            thief.newTaskletSemaphore.release();
+            LockSupport.unpark(thief.myThread);
         }
 
         private void runTasklet(TaskletTracker t) {
@@ -408,6 +598,11 @@ public class TaskletExecutionService {
                 final ProgressState result = t.tasklet.call();
                 if (result.isDone()) {
                     dismissTasklet(t);
+                } else {
+                    t.madeProgress = result.isMadeProgress();
+                    if (t.madeProgress) {
+                        iterationBusyTaskletCount++;
+                    }
                 }
                 progressTracker.mergeWith(result);
             } catch (Throwable e) {
@@ -439,6 +634,8 @@ public class TaskletExecutionService {
         final Tasklet tasklet;
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
+        // whether the last call made progress, only accessed by the worker running the tasklet
+        boolean madeProgress;
 
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
             this.tasklet = tasklet;
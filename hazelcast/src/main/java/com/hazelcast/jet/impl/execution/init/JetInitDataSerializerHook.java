@@ -27,6 +27,7 @@ import com.hazelcast.jet.impl.JobRepository.UpdateJobExecutionRecordEntryProcess
 import com.hazelcast.jet.impl.JobResult;
 import com.hazelcast.jet.impl.JobSummary;
 import com.hazelcast.jet.impl.JobSuspensionCauseImpl;
+import com.hazelcast.jet.impl.MasterJobContext;
 import com.hazelcast.jet.impl.SnapshotValidationRecord;
 import com.hazelcast.jet.impl.connector.WriteFileP;
 import com.hazelcast.jet.impl.operation.AddJobStatusListenerOperation;
@@ -122,6 +123,9 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int UPLOAD_JOB_METADATA_OP = 52;
     public static final int UPLOAD_JOB_MULTIPART_OP = 53;
     public static final int UPDATE_JOB_CONFIG_OP = 54;
+    public static final int ASYNC_SNAPSHOT_WRITER_COMPRESSED_SNAPSHOT_CHUNK = 55;
+    public static final int ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_TOMBSTONE = 56;
+    public static final int SNAPSHOT_RESTORE_KEY_GROUP_PARTITIONER = 57;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -190,6 +194,12 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                     return new AsyncSnapshotWriterImpl.SnapshotDataKey();
                 case ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_VALUE_TERMINATOR:
                     return AsyncSnapshotWriterImpl.SnapshotDataValueTerminator.INSTANCE;
+                case ASYNC_SNAPSHOT_WRITER_COMPRESSED_SNAPSHOT_CHUNK:
+                    return new AsyncSnapshotWriterImpl.CompressedSnapshotChunk();
+                case ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_TOMBSTONE:
+                    return new AsyncSnapshotWriterImpl.SnapshotDataTombstone();
+                case SNAPSHOT_RESTORE_KEY_GROUP_PARTITIONER:
+                    return new MasterJobContext.KeyGroupPartitioner();
                 case SNAPSHOT_PHASE1_RESULT:
                     return new SnapshotPhase1Result();
                 case RESUME_JOB_OP:
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.jet.JetException;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+
+/**
+ * A temporary file a processor spills its records to. The records are
+ * written sequentially, each one as an {@code int} tag chosen by the
+ * processor followed by the serialized item, and read back in the same
+ * order once writing has finished.
+ * <p>
+ * Not thread-safe, a spill file is only used by the processor which created
+ * it. I/O errors are reported as {@link JetException}.
+ */
+public final class SpillFile {
+
+    private static final int BUFFER_SIZE = 1 << 14;
+    // the tag and the size of the serialized item
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final File file;
+    private final InternalSerializationService serializationService;
+    private final Counter spilledBytes;
+
+    private DataOutputStream out;
+    private long recordCount;
+
+    SpillFile(File file, InternalSerializationService serializationService, Counter spilledBytes) throws IOException {
+        this.file = file;
+        this.serializationService = serializationService;
+        this.spilledBytes = spilledBytes;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Appends a record to the file.
+     */
+    public void write(int tag, @Nonnull Object item) {
+        assert out != null : "writing already finished";
+        Data data = serializationService.toData(item);
+        int size = data.totalSize();
+        try {
+            out.writeInt(tag);
+            out.writeInt(size);
+            out.write(data.toByteArray(), 0, size);
+        } catch (IOException e) {
+            throw new JetException("Failed to write to spill file " + file, e);
+        }
+        recordCount++;
+        spilledBytes.inc(RECORD_HEADER_SIZE + size);
+    }
+
+    /**
+     * Returns the number of records written to the file.
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes and closes the file for writing. It's a no-op if writing has
+     * already finished.
+     */
+    public void finishWriting() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new JetException("Failed to write to spill file " + file, e);
+        } finally {
+            out = null;
+        }
+    }
+
+    /**
+     * Returns a reader of the records of the file. Finishes writing if not
+     * finished yet.
+     */
+    @Nonnull
+    public Reader reader() {
+        finishWriting();
+        try {
+            return new Reader(new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)));
+        } catch (IOException e) {
+            throw new JetException("Failed to read spill file " + file, e);
+        }
+    }
+
+    /**
+     * Closes the file and deletes it. Must not be called while a reader is
+     * still in use.
+     */
+    public void delete() {
+        closeResource(out);
+        out = null;
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            throw new JetException("Failed to delete spill file " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{file=" + file + ", recordCount=" + recordCount + '}';
+    }
+
+    /**
+     * Reads the records of a spill file in the order they were written.
+     */
+    public final class Reader implements AutoCloseable {
+
+        private final DataInputStream in;
+        private int tag;
+        private Object item;
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next record. Closes the reader when the end of the file is
+         * reached.
+         *
+         * @return {@code true} if a record was read, {@code false} if there
+         * are no more records
+         */
+        public boolean advance() {
+            try {
+                int nextTag;
+                try {
+                    nextTag = in.readInt();
+                } catch (EOFException e) {
+                    close();
+                    item = null;
+                    return false;
+                }
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                tag = nextTag;
+                item = serializationService.toObject(new HeapData(bytes));
+                return true;
+            } catch (IOException e) {
+                throw new JetException("Failed to read spill file " + file, e);
+            }
+        }
+
+        /**
+         * Returns the tag of the current record.
+         */
+        public int tag() {
+            return tag;
+        }
+
+        /**
+         * Returns the item of the current record, or {@code null} if the end
+         * of the file has been reached.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T item() {
+            return (T) item;
+        }
+
+        @Override
+        public void close() {
+            closeResource(in);
+        }
+    }
+}
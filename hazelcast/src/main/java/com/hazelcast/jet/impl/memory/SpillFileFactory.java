@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.impl.execution.init.Contexts.InternalProcSupplierCtx;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_ENABLED;
+
+/**
+ * Creates the {@link SpillFile spill files} of a processor and counts them.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_ENABLED
+ */
+public final class SpillFileFactory {
+
+    private static final String FILE_PREFIX = "hz-jet-spill-";
+
+    private final File directory;
+    private final String filePrefix;
+    private final InternalSerializationService serializationService;
+    private final Counter spillCount;
+    private final Counter spilledBytes;
+
+    SpillFileFactory(File directory, String filePrefix, InternalSerializationService serializationService,
+                     Counter spillCount, Counter spilledBytes) {
+        this.directory = directory;
+        this.filePrefix = filePrefix;
+        this.serializationService = serializationService;
+        this.spillCount = spillCount;
+        this.spilledBytes = spilledBytes;
+    }
+
+    /**
+     * Returns the factory for the given processor, or {@code null} if
+     * spilling is disabled.
+     *
+     * @param context      the context of the processor
+     * @param spillCount   the counter incremented for each new spill file
+     * @param spilledBytes the counter of the bytes written to the spill files
+     */
+    @Nullable
+    public static SpillFileFactory create(@Nonnull Processor.Context context,
+                                          @Nonnull Counter spillCount,
+                                          @Nonnull Counter spilledBytes) {
+        if (!isSpillingEnabled(context)) {
+            return null;
+        }
+        HazelcastProperties properties = getNodeEngine(context.hazelcastInstance()).getProperties();
+        File directory = new File(properties.getString(JET_SPILL_DIRECTORY));
+        String filePrefix = FILE_PREFIX + context.jobId() + '-' + context.globalProcessorIndex() + '-';
+        return new SpillFileFactory(directory, filePrefix, ((InternalProcSupplierCtx) context).serializationService(),
+                spillCount, spilledBytes);
+    }
+
+    /**
+     * Returns whether spilling is enabled on the member. A processor which
+     * does blocking I/O when spilling can use it to decide in its supplier
+     * whether it's {@linkplain Processor#isCooperative() cooperative}, since
+     * that's queried before the processor is initialized.
+     */
+    public static boolean isSpillingEnabled(@Nonnull ProcessorSupplier.Context context) {
+        return getNodeEngine(context.hazelcastInstance()).getProperties().getBoolean(JET_SPILL_ENABLED);
+    }
+
+    /**
+     * Creates a new, empty spill file open for writing.
+     */
+    @Nonnull
+    public SpillFile newFile() {
+        try {
+            File file = File.createTempFile(filePrefix, ".bin", directory);
+            SpillFile spillFile = new SpillFile(file, serializationService, spilledBytes);
+            spillCount.inc();
+            return spillFile;
+        } catch (IOException e) {
+            throw new JetException("Failed to create a spill file in " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Adapts the size of the batches an {@link AsyncTransformUsingServiceBatchedP}
+ * sends to its service to the latency of the service.
+ * <p>
+ * The latency of the completed batches is smoothed using an exponentially
+ * weighted moving average. When it exceeds the target, the batch size is
+ * decreased by a quarter. When it's well below the target and there are
+ * more items waiting than a batch takes, the batch size is increased by an
+ * eighth. The slower growth avoids oscillating around the target.
+ * <p>
+ * Not thread-safe, it's only used by the processor thread.
+ */
+final class AdaptiveBatchSize {
+
+    private static final double LATENCY_SMOOTHING = 0.3;
+    private static final double GROW_BELOW_TARGET_RATIO = 0.8;
+    private static final int INITIAL_SIZE_DIVISOR = 16;
+    private static final int SHRINK_DIVISOR = 4;
+    private static final int GROW_DIVISOR = 8;
+
+    private final int maxBatchSize;
+    private final long targetLatencyNanos;
+
+    private int batchSize;
+    private double avgLatencyNanos = -1;
+
+    /**
+     * @param maxBatchSize       the upper limit of the batch size
+     * @param targetLatencyNanos the latency target, or 0 to always use the
+     *                           maximum batch size
+     */
+    AdaptiveBatchSize(int maxBatchSize, long targetLatencyNanos) {
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.batchSize = targetLatencyNanos > 0 ? max(1, maxBatchSize / INITIAL_SIZE_DIVISOR) : maxBatchSize;
+    }
+
+    /**
+     * Returns the number of items to put into the next batch.
+     */
+    int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Updates the batch size after a batch completed.
+     *
+     * @param latencyNanos the latency of the batch
+     * @param backlogged   whether more items were waiting when the batch was
+     *                     taken, that is whether a larger batch would have
+     *                     taken more items
+     */
+    void batchCompleted(long latencyNanos, boolean backlogged) {
+        if (targetLatencyNanos <= 0) {
+            return;
+        }
+        avgLatencyNanos = avgLatencyNanos < 0
+                ? latencyNanos
+                : avgLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - avgLatencyNanos);
+        if (avgLatencyNanos > targetLatencyNanos) {
+            batchSize = max(1, batchSize - max(1, batchSize / SHRINK_DIVISOR));
+        } else if (backlogged && avgLatencyNanos < GROW_BELOW_TARGET_RATIO * targetLatencyNanos) {
+            batchSize = min(maxBatchSize, batchSize + max(1, batchSize / GROW_DIVISOR));
+        }
+    }
+}
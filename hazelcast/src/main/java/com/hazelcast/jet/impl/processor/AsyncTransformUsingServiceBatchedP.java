@@ -17,19 +17,36 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.function.BiFunctionEx;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.internal.util.LatencyDistribution;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.Inbox;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.ResettableSingletonTraverser;
+import com.hazelcast.jet.core.metrics.MetricTags;
 import com.hazelcast.jet.pipeline.ServiceFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 
+import static com.hazelcast.internal.util.LatencyDistribution.LATENCY_KEYS;
+import static com.hazelcast.jet.core.metrics.MetricNames.ASYNC_BATCH_LATENCY_AVG;
+import static com.hazelcast.jet.core.metrics.MetricNames.ASYNC_BATCH_LATENCY_BUCKET;
+import static com.hazelcast.jet.core.metrics.MetricNames.ASYNC_BATCH_LATENCY_MAX;
+import static com.hazelcast.jet.core.metrics.MetricNames.ASYNC_BATCH_SIZE;
 import static com.hazelcast.jet.impl.processor.ProcessorSupplierWithService.supplierWithService;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_ASYNC_BATCH_TARGET_LATENCY;
 
 /**
  * Processor which, for each received item, emits all the items from the
@@ -38,15 +55,24 @@ import static com.hazelcast.jet.impl.processor.ProcessorSupplierWithService.supp
  * <p>
  * This processor keeps the order of input items: a stalling call for one item
  * will stall all subsequent items.
+ * <p>
+ * The batches take up to {@code maxBatchSize} items, or fewer if the
+ * adaptive batch sizing is enabled using {@link
+ * com.hazelcast.spi.properties.ClusterProperty#JET_ASYNC_BATCH_TARGET_LATENCY}.
  *
  * @param <S> context object type
  * @param <T> received item type
  * @param <R> emitted item type
  */
 public final class AsyncTransformUsingServiceBatchedP<C, S, T, R>
-        extends AsyncTransformUsingServiceOrderedP<C, S, List<T>, Traverser<R>, R> {
+        extends AsyncTransformUsingServiceOrderedP<C, S, List<T>, Traverser<R>, R>
+        implements DynamicMetricsProvider {
 
     private final int maxBatchSize;
+    private final LatencyDistribution batchLatency = new LatencyDistribution();
+    // the batches passed to the service, in the order of submission
+    private final Queue<BatchStart> batchStarts;
+    private AdaptiveBatchSize adaptiveBatchSize;
 
     /**
      * Constructs a processor with the given mapping function.
@@ -58,8 +84,30 @@ public final class AsyncTransformUsingServiceBatchedP<C, S, T, R>
             int maxBatchSize,
             @Nonnull BiFunctionEx<? super S, ? super List<T>, ? extends CompletableFuture<Traverser<R>>> callAsyncFn
     ) {
-        super(serviceFactory, serviceContext, maxConcurrentOps, callAsyncFn, (i, r) -> r);
+        this(serviceFactory, serviceContext, maxConcurrentOps, maxBatchSize, callAsyncFn, new ArrayDeque<>());
+    }
+
+    private AsyncTransformUsingServiceBatchedP(
+            @Nonnull ServiceFactory<C, S> serviceFactory,
+            @Nullable C serviceContext,
+            int maxConcurrentOps,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super S, ? super List<T>, ? extends CompletableFuture<Traverser<R>>> callAsyncFn,
+            @Nonnull Queue<BatchStart> batchStarts
+    ) {
+        super(serviceFactory, serviceContext, maxConcurrentOps, callAsyncFn,
+                (batch, result) -> batchCompleted(batchStarts, batch, result));
+        this.batchStarts = batchStarts;
         this.maxBatchSize = maxBatchSize;
+        this.adaptiveBatchSize = new AdaptiveBatchSize(maxBatchSize, 0);
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        super.init(context);
+        long targetLatencyNanos = getNodeEngine(context.hazelcastInstance()).getProperties()
+                                                                             .getNanos(JET_ASYNC_BATCH_TARGET_LATENCY);
+        adaptiveBatchSize = new AdaptiveBatchSize(maxBatchSize, targetLatencyNanos);
     }
 
     @Override
@@ -68,12 +116,53 @@ public final class AsyncTransformUsingServiceBatchedP<C, S, T, R>
             return;
         }
         // put the inbox items into a list and pass to the superclass as a single item
-        List<T> batch = new ArrayList<>(Math.min(inbox.size(), maxBatchSize));
-        inbox.drainTo(batch, maxBatchSize);
+        int batchSize = adaptiveBatchSize.batchSize();
+        // a plain list, the user function may pass it to Hazelcast which serializes it
+        List<T> batch = new ArrayList<>(Math.min(inbox.size(), batchSize));
+        inbox.drainTo(batch, batchSize);
+        batchStarts.add(new BatchStart(this, batch, !inbox.isEmpty()));
         boolean res = super.tryProcessInt(batch);
         assert res;
     }
 
+    /**
+     * Called on the processor thread when the result of the batch is
+     * emitted, in the order of the batches.
+     */
+    private void onBatchCompleted(long startNanos, boolean backlogged) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        batchLatency.recordNanos(latencyNanos);
+        adaptiveBatchSize.batchCompleted(latencyNanos, backlogged);
+    }
+
+    @Probe(name = ASYNC_BATCH_SIZE)
+    private long batchSize() {
+        return adaptiveBatchSize.batchSize();
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (int i = 0; i < LatencyDistribution.BUCKET_COUNT; i++) {
+            long count = batchLatency.bucket(i);
+            if (count > 0) {
+                context.collect(descriptor.copy().withTag(MetricTags.BUCKET, LATENCY_KEYS[i]),
+                        ASYNC_BATCH_LATENCY_BUCKET, ProbeLevel.INFO, ProbeUnit.COUNT, count);
+            }
+        }
+        context.collect(descriptor, ASYNC_BATCH_LATENCY_AVG, ProbeLevel.INFO, ProbeUnit.US, batchLatency.avgMicros());
+        context.collect(descriptor, ASYNC_BATCH_LATENCY_MAX, ProbeLevel.INFO, ProbeUnit.US, batchLatency.maxMicros());
+    }
+
+    private static <T, R> Traverser<R> batchCompleted(Queue<BatchStart> batchStarts, List<T> batch, Traverser<R> result) {
+        // the batches for which the service returned no future are never completed, skip them
+        BatchStart start;
+        do {
+            start = batchStarts.remove();
+        } while (start.batch != batch);
+        start.processor.onBatchCompleted(start.startNanos, start.backlogged);
+        return result;
+    }
+
     /**
      * The {@link ResettableSingletonTraverser} is passed as a first argument to
      * {@code callAsyncFn}, it can be used if needed.
@@ -87,4 +176,21 @@ public final class AsyncTransformUsingServiceBatchedP<C, S, T, R>
         return supplierWithService(serviceFactory, (factory, context) ->
                 new AsyncTransformUsingServiceBatchedP<>(factory, context, maxConcurrentOps, maxBatchSize, callAsyncFn));
     }
+
+    /**
+     * Remembers when a batch was passed to the service for the latency
+     * metrics.
+     */
+    private static final class BatchStart {
+        private final AsyncTransformUsingServiceBatchedP<?, ?, ?, ?> processor;
+        private final List<?> batch;
+        private final long startNanos = System.nanoTime();
+        private final boolean backlogged;
+
+        BatchStart(AsyncTransformUsingServiceBatchedP<?, ?, ?, ?> processor, List<?> batch, boolean backlogged) {
+            this.processor = processor;
+            this.batch = batch;
+            this.backlogged = backlogged;
+        }
+    }
 }
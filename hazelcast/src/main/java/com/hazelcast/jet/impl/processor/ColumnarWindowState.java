@@ -0,0 +1,809 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongDoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongLongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.core.SlidingWindowPolicy;
+import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.processor.SlidingWindowP.SnapshotKey;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static com.hazelcast.function.ComparatorEx.naturalOrder;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.jet.Util.entry;
+
+/**
+ * The frames and the sliding window of a {@link SlidingWindowP} whose
+ * aggregate operation uses one of the primitive accumulators: {@link
+ * LongAccumulator}, {@link DoubleAccumulator}, {@link LongLongAccumulator}
+ * or {@link LongDoubleAccumulator}. This covers {@code counting()}, {@code
+ * summingLong()}, {@code summingDouble()}, {@code averagingLong()} and
+ * {@code averagingDouble()}.
+ * <p>
+ * Instead of a map with an accumulator object for each key in each frame,
+ * the keys are assigned integer slots in a dictionary shared by all frames.
+ * A frame is a primitive open-addressing table from the slot to the two
+ * {@code long} values that hold the accumulator state, and the sliding window
+ * is a set of arrays indexed by the slot. The functions of the aggregate
+ * operation are applied to a few reused accumulator instances, loaded from
+ * and stored back to the arrays, so the results are the same as with the
+ * accumulator objects, but accumulating and combining frames doesn't
+ * allocate. Evicted frames are reused.
+ * <p>
+ * Only the accumulators passed to the export and finish functions and those
+ * saved to the snapshot are allocated, so the functions may retain them.
+ * The accumulate, combine and deduct functions must not retain the
+ * accumulators they get.
+ *
+ * @param <K> type of the grouping key
+ * @param <A> type of the accumulator
+ */
+final class ColumnarWindowState<K, A> {
+
+    private static final long MISSING_SLOT = -1;
+    private static final int INITIAL_SLOT_CAPACITY = 64;
+    private static final int INITIAL_FRAME_CAPACITY = 16;
+    private static final int MAX_POOLED_FRAMES = 2;
+    // a stand-in for the null key, Object2LongHashMap doesn't allow it
+    private static final Object NULL_KEY = new Object();
+
+    private final SlidingWindowPolicy winPolicy;
+    private final AggregateOperation<A, ?> aggrOp;
+    private final AccumulatorCodec<A> codec;
+    private final A emptyAcc;
+    private final long emptyValue1;
+    private final long emptyValue2;
+    // reused accumulators the functions of aggrOp are applied to
+    private final A scratchAcc1;
+    private final A scratchAcc2;
+
+    private final Counter totalFrames;
+    private final Counter totalKeysInFrames;
+    private final long maxEntries;
+
+    // the key dictionary
+    private final Object2LongHashMap<Object> keyToSlot = new Object2LongHashMap<>(MISSING_SLOT);
+    private Object[] slotKeys = new Object[INITIAL_SLOT_CAPACITY];
+    // the number of frames and windows the key of the slot is in
+    private int[] slotRefCounts = new int[INITIAL_SLOT_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_SLOT_CAPACITY];
+    private int freeSlotCount;
+    private int slotLimit;
+
+    private final Long2ObjectHashMap<Frame> tsToFrame = new Long2ObjectHashMap<>();
+    private final ArrayDeque<Frame> framePool = new ArrayDeque<>(MAX_POOLED_FRAMES);
+
+    // used if the aggregate operation has the deduct function
+    private Window slidingWindow;
+    private Window slidingWindowBackup;
+    // used for windows recomputed from the frames each time
+    private Window recomputedWindow;
+    private Window spareWindow;
+
+    private ColumnarWindowState(
+            SlidingWindowPolicy winPolicy,
+            AggregateOperation<A, ?> aggrOp,
+            AccumulatorCodec<A> codec,
+            Counter totalFrames,
+            Counter totalKeysInFrames,
+            long maxEntries
+    ) {
+        this.winPolicy = winPolicy;
+        this.aggrOp = aggrOp;
+        this.codec = codec;
+        this.emptyAcc = aggrOp.createFn().get();
+        this.emptyValue1 = codec.value1(emptyAcc);
+        this.emptyValue2 = codec.value2(emptyAcc);
+        this.scratchAcc1 = codec.newAcc(emptyValue1, emptyValue2);
+        this.scratchAcc2 = codec.newAcc(emptyValue1, emptyValue2);
+        this.totalFrames = totalFrames;
+        this.totalKeysInFrames = totalKeysInFrames;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the columnar state for the given aggregate operation, or {@code
+     * null} if its accumulator isn't one of the supported primitive
+     * accumulators.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <K, A> ColumnarWindowState<K, A> create(
+            @Nonnull SlidingWindowPolicy winPolicy,
+            @Nonnull AggregateOperation<A, ?> aggrOp,
+            @Nonnull Counter totalFrames,
+            @Nonnull Counter totalKeysInFrames,
+            long maxEntries
+    ) {
+        AccumulatorCodec<A> codec = (AccumulatorCodec<A>) AccumulatorCodec.forAccumulator(aggrOp.createFn().get());
+        if (codec == null) {
+            return null;
+        }
+        return new ColumnarWindowState<>(winPolicy, aggrOp, codec, totalFrames, totalKeysInFrames, maxEntries);
+    }
+
+    /**
+     * Accumulates the item to the accumulator of the key in the frame.
+     */
+    void accumulate(long frameTs, K key, int ordinal, Object item) {
+        Frame frame = frame(frameTs);
+        int slot = slot(key);
+        int index = frame.find(slot);
+        if (index < 0) {
+            if (totalKeysInFrames.inc() == maxEntries) {
+                throw new AccumulationLimitExceededException();
+            }
+            index = frame.insert(~index, slot, emptyValue1, emptyValue2);
+            retainSlot(slot);
+        }
+        codec.load(scratchAcc1, frame.values1[index], frame.values2[index]);
+        aggrOp.accumulateFn(ordinal).accept(scratchAcc1, item);
+        frame.values1[index] = codec.value1(scratchAcc1);
+        frame.values2[index] = codec.value2(scratchAcc1);
+    }
+
+    /**
+     * Adds the accumulator restored from the snapshot to the frame. Combines
+     * it with the accumulator already in the frame if {@code allowMerge} is
+     * {@code true}, fails otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    void restore(long frameTs, SnapshotKey snapshotKey, A acc, boolean allowMerge) {
+        Frame frame = frame(frameTs);
+        int slot = slot((K) snapshotKey.key);
+        int index = frame.find(slot);
+        if (index < 0) {
+            frame.insert(~index, slot, codec.value1(acc), codec.value2(acc));
+            retainSlot(slot);
+            totalKeysInFrames.inc();
+            return;
+        }
+        if (!allowMerge) {
+            throw new JetException("Duplicate key in snapshot: " + snapshotKey);
+        }
+        BiConsumer<? super A, ? super A> combineFn = aggrOp.combineFn();
+        if (combineFn == null) {
+            throw new JetException("AggregateOperation.combineFn required for merging restored frames");
+        }
+        codec.load(scratchAcc1, frame.values1[index], frame.values2[index]);
+        combineFn.accept(scratchAcc1, acc);
+        frame.values1[index] = codec.value1(scratchAcc1);
+        frame.values2[index] = codec.value2(scratchAcc1);
+    }
+
+    /**
+     * Returns {@code true} if there are no frames.
+     */
+    boolean isEmpty() {
+        return tsToFrame.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if the sliding window has no keys.
+     */
+    boolean isSlidingWindowEmpty() {
+        return slidingWindow == null || slidingWindow.size == 0;
+    }
+
+    /**
+     * Returns the lowest frame timestamp. Must not be called if there are no
+     * frames.
+     */
+    long bottomFrameTs() {
+        return tsToFrame
+                .keySet().stream()
+                .min(naturalOrder())
+                .orElseThrow(() -> new AssertionError("Failed to find the min key in a non-empty map"));
+    }
+
+    /**
+     * Removes the frame without deducting it from the sliding window.
+     */
+    void removeFrame(long frameTs) {
+        Frame frame = tsToFrame.remove(frameTs);
+        if (frame != null) {
+            releaseFrame(frame);
+        }
+    }
+
+    /**
+     * Traverses the accumulators of all frames as they are saved to the
+     * snapshot.
+     */
+    @Nonnull
+    Traverser<Entry> snapshotTraverser() {
+        return new SnapshotTraverser();
+    }
+
+    /**
+     * Computes the window ending at the given frame and traverses its
+     * results, mapped from the key and a new accumulator by {@code
+     * mapToOutputFn}.
+     */
+    @Nonnull
+    <OUT> Traverser<OUT> traverseWindow(long frameTs, @Nonnull BiFunction<? super K, ? super A, OUT> mapToOutputFn) {
+        if (winPolicy.isTumbling()) {
+            Frame frame = tsToFrame.get(frameTs);
+            return frame != null ? new FrameTraverser<>(frame, mapToOutputFn) : () -> null;
+        }
+        Window window;
+        if (aggrOp.deductFn() == null) {
+            window = recomputeWindow(frameTs, recomputedWindow);
+            recomputedWindow = window;
+        } else if (slidingWindow == null) {
+            window = recomputeWindow(frameTs, null);
+            slidingWindow = window;
+        } else {
+            // add leading-edge frame
+            window = slidingWindow;
+            patchWindow(window, aggrOp.combineFn(), tsToFrame.get(frameTs));
+        }
+        return new WindowTraverser<>(window, mapToOutputFn);
+    }
+
+    /**
+     * Evicts the trailing-edge frame of the window after it was emitted.
+     */
+    void completeWindow(long frameTs) {
+        clearRecomputedWindow();
+        Frame evictedFrame = tsToFrame.remove(frameTs - winPolicy.windowSize() + winPolicy.frameSize());
+        if (evictedFrame != null) {
+            if (!winPolicy.isTumbling() && aggrOp.deductFn() != null) {
+                // deduct trailing-edge frame
+                patchWindow(slidingWindow, aggrOp.deductFn(), evictedFrame);
+            }
+            releaseFrame(evictedFrame);
+        }
+        assert totalKeysInFrames() == totalKeysInFrames.get()
+                : "totalKeysInFrames mismatch, expected=" + totalKeysInFrames() + ", actual=" + totalKeysInFrames.get();
+    }
+
+    /**
+     * Deducts the trailing-edge frame of the window after its early results
+     * were emitted.
+     */
+    void completeEarlyWindow(long frameTs) {
+        clearRecomputedWindow();
+        if (winPolicy.isTumbling() || aggrOp.deductFn() == null) {
+            return;
+        }
+        Frame frameToDeduct = tsToFrame.get(frameTs - winPolicy.windowSize() + winPolicy.frameSize());
+        if (frameToDeduct != null) {
+            patchWindow(slidingWindow, aggrOp.deductFn(), frameToDeduct);
+        }
+    }
+
+    /**
+     * Keeps the sliding window aside while the early results are computed in
+     * a new one.
+     */
+    void startEarlyWindows() {
+        slidingWindowBackup = slidingWindow;
+        slidingWindow = null;
+    }
+
+    /**
+     * Discards the window used for the early results and brings back the one
+     * kept aside.
+     */
+    void finishEarlyWindows() {
+        if (slidingWindow != null) {
+            releaseWindow(slidingWindow);
+        }
+        slidingWindow = slidingWindowBackup;
+        slidingWindowBackup = null;
+    }
+
+    private Window recomputeWindow(long frameTs, @Nullable Window reused) {
+        BiConsumer<? super A, ? super A> combineFn = aggrOp.combineFn();
+        assert combineFn != null : "combineFn == null";
+        Window window = reused;
+        if (window == null) {
+            window = spareWindow != null ? spareWindow : new Window();
+            spareWindow = null;
+        }
+        clearWindow(window);
+        for (long ts = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
+             ts <= frameTs;
+             ts += winPolicy.frameSize()
+        ) {
+            Frame frame = tsToFrame.get(ts);
+            if (frame == null) {
+                continue;
+            }
+            for (int i = 0; i < frame.slots.length; i++) {
+                int slot = frame.slots[i] - 1;
+                if (slot < 0) {
+                    continue;
+                }
+                if (!window.contains(slot)) {
+                    window.add(slot, emptyValue1, emptyValue2, slotKeys.length);
+                    retainSlot(slot);
+                }
+                codec.load(scratchAcc1, window.values1[slot], window.values2[slot]);
+                codec.load(scratchAcc2, frame.values1[i], frame.values2[i]);
+                combineFn.accept(scratchAcc1, scratchAcc2);
+                window.values1[slot] = codec.value1(scratchAcc1);
+                window.values2[slot] = codec.value2(scratchAcc1);
+            }
+        }
+        return window;
+    }
+
+    private void patchWindow(Window window, BiConsumer<? super A, ? super A> patchOp, @Nullable Frame patchingFrame) {
+        if (patchingFrame == null) {
+            return;
+        }
+        for (int i = 0; i < patchingFrame.slots.length; i++) {
+            int slot = patchingFrame.slots[i] - 1;
+            if (slot < 0) {
+                continue;
+            }
+            if (window.contains(slot)) {
+                codec.load(scratchAcc1, window.values1[slot], window.values2[slot]);
+            } else {
+                codec.load(scratchAcc1, emptyValue1, emptyValue2);
+            }
+            codec.load(scratchAcc2, patchingFrame.values1[i], patchingFrame.values2[i]);
+            patchOp.accept(scratchAcc1, scratchAcc2);
+            boolean isEmpty = scratchAcc1.equals(emptyAcc);
+            if (window.contains(slot)) {
+                if (isEmpty) {
+                    window.remove(slot);
+                    releaseSlot(slot);
+                    continue;
+                }
+            } else {
+                if (isEmpty) {
+                    continue;
+                }
+                window.add(slot, 0, 0, slotKeys.length);
+                retainSlot(slot);
+            }
+            window.values1[slot] = codec.value1(scratchAcc1);
+            window.values2[slot] = codec.value2(scratchAcc1);
+        }
+    }
+
+    private void clearRecomputedWindow() {
+        if (recomputedWindow != null) {
+            clearWindow(recomputedWindow);
+        }
+    }
+
+    private void clearWindow(Window window) {
+        if (window.size == 0) {
+            return;
+        }
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (window.contains(slot)) {
+                window.remove(slot);
+                releaseSlot(slot);
+            }
+        }
+    }
+
+    private void releaseWindow(Window window) {
+        clearWindow(window);
+        spareWindow = window;
+    }
+
+    private Frame frame(long frameTs) {
+        Frame frame = tsToFrame.get(frameTs);
+        if (frame == null) {
+            frame = framePool.isEmpty() ? new Frame() : framePool.poll();
+            tsToFrame.put(frameTs, frame);
+            totalFrames.inc();
+        }
+        return frame;
+    }
+
+    private void releaseFrame(Frame frame) {
+        totalFrames.inc(-1);
+        totalKeysInFrames.inc(-frame.size);
+        for (int slot : frame.slots) {
+            if (slot != 0) {
+                releaseSlot(slot - 1);
+            }
+        }
+        if (framePool.size() < MAX_POOLED_FRAMES) {
+            frame.clear();
+            framePool.add(frame);
+        }
+    }
+
+    private long totalKeysInFrames() {
+        long count = 0;
+        for (Frame frame : tsToFrame.values()) {
+            count += frame.size;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the slot of the key, assigning a free one if the key isn't in
+     * the dictionary.
+     */
+    private int slot(K key) {
+        Object dictKey = key == null ? NULL_KEY : key;
+        long slot = keyToSlot.getValue(dictKey);
+        if (slot != MISSING_SLOT) {
+            return (int) slot;
+        }
+        int newSlot;
+        if (freeSlotCount > 0) {
+            newSlot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotLimit == slotKeys.length) {
+                int newCapacity = slotKeys.length * 2;
+                slotKeys = Arrays.copyOf(slotKeys, newCapacity);
+                slotRefCounts = Arrays.copyOf(slotRefCounts, newCapacity);
+                freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+            }
+            newSlot = slotLimit++;
+        }
+        slotKeys[newSlot] = dictKey;
+        keyToSlot.put(dictKey, newSlot);
+        return newSlot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyOf(int slot) {
+        Object key = slotKeys[slot];
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    private void retainSlot(int slot) {
+        slotRefCounts[slot]++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (--slotRefCounts[slot] == 0) {
+            keyToSlot.removeKey(slotKeys[slot]);
+            slotKeys[slot] = null;
+            freeSlots[freeSlotCount++] = slot;
+        }
+    }
+
+    /**
+     * Traverses the accumulators of all frames as snapshot entries.
+     */
+    private final class SnapshotTraverser implements Traverser<Entry> {
+        private final Iterator<Entry<Long, Frame>> frameIterator = tsToFrame.entrySet().iterator();
+        private long frameTs;
+        private Frame frame;
+        private int index;
+
+        @Override
+        public Entry next() {
+            for (;;) {
+                while (frame != null && index < frame.slots.length) {
+                    int i = index++;
+                    if (frame.slots[i] != 0) {
+                        return entry(new SnapshotKey(frameTs, keyOf(frame.slots[i] - 1)),
+                                codec.newAcc(frame.values1[i], frame.values2[i]));
+                    }
+                }
+                if (!frameIterator.hasNext()) {
+                    return null;
+                }
+                Entry<Long, Frame> e = frameIterator.next();
+                frameTs = e.getKey();
+                frame = e.getValue();
+                index = 0;
+            }
+        }
+    }
+
+    /**
+     * Traverses the keys of a tumbling window, which is a single frame.
+     */
+    private final class FrameTraverser<OUT> implements Traverser<OUT> {
+        private final Frame frame;
+        private final BiFunction<? super K, ? super A, OUT> mapToOutputFn;
+        private int index;
+
+        FrameTraverser(Frame frame, BiFunction<? super K, ? super A, OUT> mapToOutputFn) {
+            this.frame = frame;
+            this.mapToOutputFn = mapToOutputFn;
+        }
+
+        @Override
+        public OUT next() {
+            while (index < frame.slots.length) {
+                int i = index++;
+                if (frame.slots[i] != 0) {
+                    OUT result = mapToOutputFn.apply(keyOf(frame.slots[i] - 1),
+                            codec.newAcc(frame.values1[i], frame.values2[i]));
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Traverses the keys of a sliding window.
+     */
+    private final class WindowTraverser<OUT> implements Traverser<OUT> {
+        private final Window window;
+        private final BiFunction<? super K, ? super A, OUT> mapToOutputFn;
+        private int slot;
+
+        WindowTraverser(Window window, BiFunction<? super K, ? super A, OUT> mapToOutputFn) {
+            this.window = window;
+            this.mapToOutputFn = mapToOutputFn;
+        }
+
+        @Override
+        public OUT next() {
+            while (slot < slotLimit) {
+                int s = slot++;
+                if (window.contains(s)) {
+                    OUT result = mapToOutputFn.apply(keyOf(s), codec.newAcc(window.values1[s], window.values2[s]));
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The accumulators of one frame: an open-addressing table from the slot
+     * of the key to the accumulator state. Slots are stored incremented by
+     * one so that zero marks an empty entry.
+     */
+    private static final class Frame {
+        private static final float LOAD_FACTOR = 0.6f;
+
+        int[] slots;
+        long[] values1;
+        long[] values2;
+        int size;
+
+        Frame() {
+            allocate(INITIAL_FRAME_CAPACITY);
+        }
+
+        /**
+         * Returns the index of the slot, or the complement of the index it
+         * would be inserted at.
+         */
+        int find(int slot) {
+            int mask = slots.length - 1;
+            for (int i = fastIntMix(slot) & mask; ; i = (i + 1) & mask) {
+                int s = slots[i];
+                if (s == 0) {
+                    return ~i;
+                }
+                if (s == slot + 1) {
+                    return i;
+                }
+            }
+        }
+
+        int insert(int index, int slot, long value1, long value2) {
+            if (size + 1 > slots.length * LOAD_FACTOR) {
+                grow();
+                index = ~find(slot);
+            }
+            slots[index] = slot + 1;
+            values1[index] = value1;
+            values2[index] = value2;
+            size++;
+            return index;
+        }
+
+        void clear() {
+            Arrays.fill(slots, 0);
+            size = 0;
+        }
+
+        private void grow() {
+            int[] oldSlots = slots;
+            long[] oldValues1 = values1;
+            long[] oldValues2 = values2;
+            allocate(oldSlots.length * 2);
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) {
+                    int index = ~find(oldSlots[i] - 1);
+                    slots[index] = oldSlots[i];
+                    values1[index] = oldValues1[i];
+                    values2[index] = oldValues2[i];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            slots = new int[capacity];
+            values1 = new long[capacity];
+            values2 = new long[capacity];
+        }
+    }
+
+    /**
+     * The accumulators of a window, indexed by the slot of the key.
+     */
+    private static final class Window {
+        long[] values1 = new long[INITIAL_SLOT_CAPACITY];
+        long[] values2 = new long[INITIAL_SLOT_CAPACITY];
+        boolean[] present = new boolean[INITIAL_SLOT_CAPACITY];
+        int size;
+
+        boolean contains(int slot) {
+            return slot < present.length && present[slot];
+        }
+
+        void add(int slot, long value1, long value2, int slotCapacity) {
+            if (slot >= present.length) {
+                values1 = Arrays.copyOf(values1, slotCapacity);
+                values2 = Arrays.copyOf(values2, slotCapacity);
+                present = Arrays.copyOf(present, slotCapacity);
+            }
+            present[slot] = true;
+            values1[slot] = value1;
+            values2[slot] = value2;
+            size++;
+        }
+
+        void remove(int slot) {
+            present[slot] = false;
+            size--;
+        }
+    }
+
+    /**
+     * Stores the state of a primitive accumulator as two {@code long} values.
+     */
+    private abstract static class AccumulatorCodec<A> {
+
+        @Nullable
+        static AccumulatorCodec<?> forAccumulator(Object acc) {
+            // exact classes only, a subclass may have more state
+            Class<?> accClass = acc.getClass();
+            if (accClass == LongAccumulator.class) {
+                return new LongCodec();
+            } else if (accClass == DoubleAccumulator.class) {
+                return new DoubleCodec();
+            } else if (accClass == LongLongAccumulator.class) {
+                return new LongLongCodec();
+            } else if (accClass == LongDoubleAccumulator.class) {
+                return new LongDoubleCodec();
+            }
+            return null;
+        }
+
+        abstract A newAcc(long value1, long value2);
+
+        abstract void load(A acc, long value1, long value2);
+
+        abstract long value1(A acc);
+
+        abstract long value2(A acc);
+    }
+
+    private static final class LongCodec extends AccumulatorCodec<LongAccumulator> {
+        @Override
+        LongAccumulator newAcc(long value1, long value2) {
+            return new LongAccumulator(value1);
+        }
+
+        @Override
+        void load(LongAccumulator acc, long value1, long value2) {
+            acc.set(value1);
+        }
+
+        @Override
+        long value1(LongAccumulator acc) {
+            return acc.get();
+        }
+
+        @Override
+        long value2(LongAccumulator acc) {
+            return 0;
+        }
+    }
+
+    private static final class DoubleCodec extends AccumulatorCodec<DoubleAccumulator> {
+        @Override
+        DoubleAccumulator newAcc(long value1, long value2) {
+            return new DoubleAccumulator(Double.longBitsToDouble(value1));
+        }
+
+        @Override
+        void load(DoubleAccumulator acc, long value1, long value2) {
+            acc.set(Double.longBitsToDouble(value1));
+        }
+
+        @Override
+        long value1(DoubleAccumulator acc) {
+            return Double.doubleToRawLongBits(acc.export());
+        }
+
+        @Override
+        long value2(DoubleAccumulator acc) {
+            return 0;
+        }
+    }
+
+    private static final class LongLongCodec extends AccumulatorCodec<LongLongAccumulator> {
+        @Override
+        LongLongAccumulator newAcc(long value1, long value2) {
+            return new LongLongAccumulator(value1, value2);
+        }
+
+        @Override
+        void load(LongLongAccumulator acc, long value1, long value2) {
+            acc.set1(value1);
+            acc.set2(value2);
+        }
+
+        @Override
+        long value1(LongLongAccumulator acc) {
+            return acc.get1();
+        }
+
+        @Override
+        long value2(LongLongAccumulator acc) {
+            return acc.get2();
+        }
+    }
+
+    private static final class LongDoubleCodec extends AccumulatorCodec<LongDoubleAccumulator> {
+        @Override
+        LongDoubleAccumulator newAcc(long value1, long value2) {
+            return new LongDoubleAccumulator(value1, Double.longBitsToDouble(value2));
+        }
+
+        @Override
+        void load(LongDoubleAccumulator acc, long value1, long value2) {
+            acc.setLong(value1);
+            acc.setDouble(Double.longBitsToDouble(value2));
+        }
+
+        @Override
+        long value1(LongDoubleAccumulator acc) {
+            return acc.getLong();
+        }
+
+        @Override
+        long value2(LongDoubleAccumulator acc) {
+            return Double.doubleToRawLongBits(acc.getDouble());
+        }
+    }
+}
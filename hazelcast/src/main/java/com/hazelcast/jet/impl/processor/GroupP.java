@@ -17,23 +17,35 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.function.FunctionEx;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.SpillFileFactory;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILLED_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILL_COUNT;
 import static java.util.Collections.singletonList;
 
 /**
@@ -41,11 +53,31 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If {@linkplain com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_ENABLED
+ * spilling} is enabled, the processor doesn't fail when it accumulates
+ * {@link Processor.Context#maxProcessorAccumulatedRecords()} groups. The
+ * items of the groups that don't fit are written to spill files, hash
+ * partitioned by the key. In the {@code complete} phase, after emitting the
+ * groups kept in memory, the partitions are aggregated one by one. If a
+ * partition still doesn't fit, it's partitioned again using the next bits
+ * of the hash.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
+    private static final int PARTITION_BITS = 4;
+    private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+    private static final int MAX_PARTITION_LEVEL = Integer.SIZE / PARTITION_BITS;
+    // the number of spilled items accumulated in one call to complete()
+    private static final int RELOAD_BATCH_SIZE = 1024;
+
     protected final Map<K, A> keyToAcc = new HashMap<>();
 
+    @Probe(name = SPILL_COUNT)
+    private final Counter spillCount = SwCounter.newSwCounter();
+    @Probe(name = SPILLED_BYTES, unit = BYTES)
+    private final Counter spilledBytes = SwCounter.newSwCounter();
+
     private final List<FunctionEx<?, ? extends K>> groupKeyFns;
     private final AggregateOperation<A, R> aggrOp;
     private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
@@ -53,6 +85,15 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     private long maxEntries;
     private Traverser<OUT> resultTraverser;
 
+    private SpillFileFactory spillFileFactory;
+    // the files the overflowing items are currently spilled to, by partition
+    private final SpillFile[] partitionFiles = new SpillFile[PARTITION_COUNT];
+    private final Queue<SpilledPartition> spilledPartitions = new ArrayDeque<>();
+    // the number of times the currently accumulated items were partitioned
+    private int partitionLevel;
+    private SpilledPartition reloadedPartition;
+    private SpillFile.Reader reloadReader;
+
     public GroupP(
             @Nonnull List<FunctionEx<?, ? extends K>> groupKeyFns,
             @Nonnull AggregateOperation<A, R> aggrOp,
@@ -76,37 +117,134 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        spillFileFactory = SpillFileFactory.create(context, spillCount, spilledBytes);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        accumulate(ordinal, item);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accumulate(int ordinal, Object item) {
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> {
+        A acc = keyToAcc.get(key);
+        if (acc == null) {
             if (keyToAcc.size() == maxEntries) {
-                throw new AccumulationLimitExceededException();
+                if (spillFileFactory == null || partitionLevel == MAX_PARTITION_LEVEL) {
+                    // spilling is disabled or all bits of the hash were used
+                    // and the partition can't be split further
+                    throw new AccumulationLimitExceededException();
+                }
+                spill(ordinal, key, item);
+                return;
             }
-
-            return aggrOp.createFn().get();
-        });
+            acc = aggrOp.createFn().get();
+            keyToAcc.put(key, acc);
+        }
         aggrOp.accumulateFn(ordinal).accept(acc, item);
-        return true;
+    }
+
+    private void spill(int ordinal, K key, Object item) {
+        int partition = (fastIntMix(Objects.hashCode(key)) >>> (partitionLevel * PARTITION_BITS)) & (PARTITION_COUNT - 1);
+        SpillFile file = partitionFiles[partition];
+        if (file == null) {
+            file = spillFileFactory.newFile();
+            partitionFiles[partition] = file;
+        }
+        file.write(ordinal, item);
     }
 
     @Override
     public boolean complete() {
-        if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
-                    // reuse null filtering done by map()
-                    .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+        for (;;) {
+            if (reloadReader != null && !reloadPartition()) {
+                return false;
+            }
+            if (resultTraverser == null) {
+                resultTraverser = new ResultTraverser()
+                        // reuse null filtering done by map()
+                        .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+            }
+            if (!emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            if (!startReloadingPartition()) {
+                return true;
+            }
+            resultTraverser = null;
+        }
+    }
+
+    /**
+     * Queues the partitions spilled so far and starts accumulating the next
+     * one. Returns {@code false} if there's no spilled partition left.
+     */
+    private boolean startReloadingPartition() {
+        if (spillFileFactory == null) {
+            return false;
         }
-        return emitFromTraverser(resultTraverser);
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            SpillFile file = partitionFiles[i];
+            if (file != null) {
+                file.finishWriting();
+                spilledPartitions.add(new SpilledPartition(file, partitionLevel));
+                partitionFiles[i] = null;
+            }
+        }
+        reloadedPartition = spilledPartitions.poll();
+        if (reloadedPartition == null) {
+            return false;
+        }
+        partitionLevel = reloadedPartition.level + 1;
+        reloadReader = reloadedPartition.file.reader();
+        return true;
+    }
+
+    /**
+     * Accumulates the next batch of the items of the reloaded partition.
+     * Returns {@code true} when the whole partition was accumulated.
+     */
+    private boolean reloadPartition() {
+        for (int i = 0; i < RELOAD_BATCH_SIZE; i++) {
+            if (!reloadReader.advance()) {
+                reloadReader = null;
+                reloadedPartition.file.delete();
+                reloadedPartition = null;
+                return true;
+            }
+            accumulate(reloadReader.tag(), reloadReader.item());
+        }
+        return false;
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return spillCount.get() == 0;
+    }
+
+    @Override
+    public void close() {
+        if (reloadReader != null) {
+            reloadReader.close();
+            reloadReader = null;
+        }
+        if (reloadedPartition != null) {
+            reloadedPartition.file.delete();
+            reloadedPartition = null;
+        }
+        for (SpilledPartition partition : spilledPartitions) {
+            partition.file.delete();
+        }
+        spilledPartitions.clear();
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            if (partitionFiles[i] != null) {
+                partitionFiles[i].delete();
+                partitionFiles[i] = null;
+            }
+        }
     }
 
     private class ResultTraverser implements Traverser<Entry<K, A>> {
@@ -124,4 +262,15 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
             }
         }
     }
+
+    private static final class SpilledPartition {
+        final SpillFile file;
+        // the partition level the file was written at
+        final int level;
+
+        SpilledPartition(SpillFile file, int level) {
+            this.file = file;
+            this.level = level;
+        }
+    }
 }
@@ -73,6 +73,10 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 /**
  * Handles various setups of sliding and tumbling window aggregation.
  * See {@link Processors} for more documentation.
+ * <p>
+ * If the aggregate operation uses a primitive accumulator, the frames and
+ * the sliding window are kept in a {@link ColumnarWindowState} instead of
+ * maps of accumulator objects.
  *
  * @param <A> type of the frame accumulator object
  * @param <R> type of the finished result
@@ -85,6 +89,8 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // Holds the sliding window while emitting early window results. We reuse the
     // slidingWindow field for early results so the code can be simpler.
     Map<K, A> slidingWindowBackup;
+    // Replaces tsToKeyToAcc and slidingWindow if the accumulator is primitive
+    ColumnarWindowState<K, A> columnarState;
     long nextWinToEmit = Long.MIN_VALUE;
 
     @Nonnull
@@ -121,7 +127,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // Fields for early results emission
     private final long earlyResultsPeriod;
     private long lastTimeEarlyResultsEmitted;
-    private Traverser<? extends OUT> earlyWinTraverser;
+    private Traverser<Object> earlyWinTraverser;
     private long maxEntries;
 
     private Traverser<Object> flushTraverser;
@@ -186,6 +192,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         processingGuarantee = context.processingGuarantee();
         lastTimeEarlyResultsEmitted = NANOSECONDS.toMillis(System.nanoTime());
         maxEntries = context.maxProcessorAccumulatedRecords();
+        columnarState = ColumnarWindowState.create(winPolicy, aggrOp, totalFrames, totalKeysInFrames, maxEntries);
     }
 
     @Override
@@ -208,23 +215,23 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         lastTimeEarlyResultsEmitted = now;
         slidingWindowBackup = slidingWindow;
         slidingWindow = null;
+        if (columnarState != null) {
+            columnarState.startEarlyWindows();
+        }
         Stream<Long> earlyWinRange = range(
                 rangeStart,
                 topTs + winPolicy.windowSize() - winPolicy.frameSize(),
                 winPolicy.frameSize())
             .boxed();
         earlyWinTraverser = traverseStream(earlyWinRange)
-                .flatMap(winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
-                        .map(e -> mapToOutputFn.apply(
-                                winEnd - winPolicy.windowSize(),
-                                winEnd,
-                                e.getKey(),
-                                aggrOp.exportFn().apply(e.getValue()),
-                                true))
+                .flatMap(winEnd -> windowResults(winEnd, true)
                         .onFirstNull(() -> completeEarlyWindow(winEnd)))
                 .onFirstNull(() -> {
                     slidingWindow = slidingWindowBackup;
                     slidingWindowBackup = null;
+                    if (columnarState != null) {
+                        columnarState.finishEarlyWindows();
+                    }
                     earlyWinTraverser = null;
                 });
         return emitFromTraverser(earlyWinTraverser);
@@ -246,10 +253,14 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, createMapPerTsFunction)
-                .computeIfAbsent(key, createAccFunction);
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        if (columnarState != null) {
+            columnarState.accumulate(frameTs, key, ordinal, item);
+        } else {
+            A acc = tsToKeyToAcc
+                    .computeIfAbsent(frameTs, createMapPerTsFunction)
+                    .computeIfAbsent(key, createAccFunction);
+            aggrOp.accumulateFn(ordinal).accept(acc, item);
+        }
         topTs = max(topTs, frameTs);
         return true;
     }
@@ -274,10 +285,13 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return flushBuffers();
         }
         if (snapshotTraverser == null) {
-            snapshotTraverser = traverseIterable(tsToKeyToAcc.entrySet())
-                    .<Entry>flatMap(e -> traverseIterable(e.getValue().entrySet())
-                            .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
-                    )
+            Traverser<Entry> frameTraverser = columnarState != null
+                    ? columnarState.snapshotTraverser()
+                    : traverseIterable(tsToKeyToAcc.entrySet())
+                            .flatMap(e -> traverseIterable(e.getValue().entrySet())
+                                    .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
+                            );
+            snapshotTraverser = frameTraverser
                     .append(entry(broadcastKey(Keys.NEXT_WIN_TO_EMIT), nextWinToEmit))
                     .onFirstNull(() -> {
                         logFinest(getLogger(), "Saved nextWinToEmit: %s", nextWinToEmit);
@@ -317,6 +331,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             }
         }
         minRestoredFrameTs = Math.min(higherFrameTs, minRestoredFrameTs);
+        if (columnarState != null) {
+            columnarState.restore(higherFrameTs, k, (A) value, badFrameRestored);
+            topTs = max(topTs, higherFrameTs);
+            return;
+        }
         tsToKeyToAcc
                 .computeIfAbsent(higherFrameTs, createMapPerTsFunction)
                 .merge((K) k.key, (A) value, (o, n) -> {
@@ -351,6 +370,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             if (nextWinToEmit > Long.MIN_VALUE + winPolicy.windowSize()) {
                 for (long ts = minRestoredFrameTs; ts <= nextWinToEmit - winPolicy.windowSize();
                         ts += winPolicy.frameSize()) {
+                    if (columnarState != null) {
+                        columnarState.removeFrame(ts);
+                        continue;
+                    }
                     Map<K, A> removed = tsToKeyToAcc.remove(ts);
                     if (removed != null) {
                         totalFrames.inc(-1);
@@ -375,19 +398,30 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return Traversers.empty();
         }
         return traverseStream(range(rangeStart, wm, winPolicy.frameSize()).boxed())
-                .flatMap(winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
-                        .<Object>map(e -> mapToOutputFn.apply(
-                                winEnd - winPolicy.windowSize(), winEnd,
-                                e.getKey(), aggrOp.finishFn().apply(e.getValue()),
-                                false))
+                .flatMap(winEnd -> windowResults(winEnd, false)
                         .onFirstNull(() -> completeWindow(winEnd)));
     }
 
+    private Traverser<Object> windowResults(long winEnd, boolean isEarly) {
+        long winStart = winEnd - winPolicy.windowSize();
+        Function<? super A, ? extends R> resultFn = isEarly ? aggrOp.exportFn() : aggrOp.finishFn();
+        if (columnarState != null) {
+            return columnarState.traverseWindow(winEnd,
+                    (key, acc) -> mapToOutputFn.apply(winStart, winEnd, key, resultFn.apply(acc), isEarly));
+        }
+        return traverseIterable(computeWindow(winEnd).entrySet())
+                .map(e -> mapToOutputFn.apply(winStart, winEnd, e.getKey(), resultFn.apply(e.getValue()), isEarly));
+    }
+
+    private boolean hasNoFrames() {
+        return columnarState != null ? columnarState.isEmpty() : tsToKeyToAcc.isEmpty();
+    }
+
     private long startingWindowTs(long wm) {
         if (nextWinToEmit != Long.MIN_VALUE) {
             return nextWinToEmit;
         }
-        if (tsToKeyToAcc.isEmpty()) {
+        if (hasNoFrames()) {
             return Long.MIN_VALUE;
         }
         // We haven't yet processed a watermark so nextWinToEmit is not initialized.
@@ -397,10 +431,12 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         // be correctly initialized using the "add leading/deduct trailing" approach
         // because we start from a window that covers at most one existing frame --
         // the lowest one on record.
-        long bottomTs = tsToKeyToAcc
-                .keySet().stream()
-                .min(naturalOrder())
-                .orElseThrow(() -> new AssertionError("Failed to find the min key in a non-empty map"));
+        long bottomTs = columnarState != null
+                ? columnarState.bottomFrameTs()
+                : tsToKeyToAcc
+                        .keySet().stream()
+                        .min(naturalOrder())
+                        .orElseThrow(() -> new AssertionError("Failed to find the min key in a non-empty map"));
         return min(bottomTs, winPolicy.floorFrameTs(wm));
     }
 
@@ -450,6 +486,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private void completeWindow(long frameTs) {
+        if (columnarState != null) {
+            columnarState.completeWindow(frameTs);
+            return;
+        }
         long tsOfFrameToEvict = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
         Map<K, A> evictedFrame = tsToKeyToAcc.remove(tsOfFrameToEvict);
         if (evictedFrame != null) {
@@ -466,6 +506,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private void completeEarlyWindow(long frameTs) {
+        if (columnarState != null) {
+            columnarState.completeEarlyWindow(frameTs);
+            return;
+        }
         if (winPolicy.isTumbling() || aggrOp.deductFn() == null) {
             return;
         }
@@ -477,7 +521,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     private boolean flushBuffers() {
         if (flushTraverser == null) {
-            if (tsToKeyToAcc.isEmpty()) {
+            if (hasNoFrames()) {
                 return true;
             }
             flushTraverser = windowTraverserAndEvictor(topTs + winPolicy.windowSize() - winPolicy.frameSize())
@@ -16,51 +16,211 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.memory.SpillFileFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILLED_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SPILL_COUNT;
+
+/**
+ * Batch processor that sorts its input and emits it in the {@code
+ * complete} phase.
+ * <p>
+ * If {@linkplain com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_ENABLED
+ * spilling} is enabled, the processor doesn't fail when it accumulates
+ * {@link Processor.Context#maxProcessorAccumulatedRecords()} items, but
+ * writes them as a sorted run to a spill file. In the {@code complete}
+ * phase, the runs and the items still in memory are merged. Both the
+ * spilling and the merging are done in batches of bounded size so that the
+ * processor doesn't block the cooperative thread for too long.
+ */
 public class SortP<T> extends AbstractProcessor {
 
+    // the number of items spilled or merged in one call
+    private static final int BATCH_SIZE = 1024;
+
+    @Probe(name = SPILL_COUNT)
+    private final Counter spillCount = SwCounter.newSwCounter();
+    @Probe(name = SPILLED_BYTES, unit = BYTES)
+    private final Counter spilledBytes = SwCounter.newSwCounter();
+
+    private final Comparator<T> comparator;
     private final PriorityQueue<T> priorityQueue;
-    private final Traverser<T> resultTraverser;
+    private final List<SpillFile> runs = new ArrayList<>();
+    private final List<SpillFile.Reader> runReaders = new ArrayList<>();
 
     private long maxItems;
+    private SpillFileFactory spillFileFactory;
+    private Traverser<T> resultTraverser;
+    // the run being written, until the priority queue is drained into it
+    private SpillFile spillingRun;
+    private MergingTraverser merger;
+    private T pendingItem;
 
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
         this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        spillFileFactory = SpillFileFactory.create(context, spillCount, spilledBytes);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
+        if (spillingRun != null && !spillRun()) {
+            return false;
+        }
         if (priorityQueue.size() == maxItems) {
-            throw new AccumulationLimitExceededException();
+            if (spillFileFactory == null) {
+                throw new AccumulationLimitExceededException();
+            }
+            spillingRun = spillFileFactory.newFile();
+            runs.add(spillingRun);
+            if (!spillRun()) {
+                return false;
+            }
         }
 
         priorityQueue.add((T) item);
         return true;
     }
 
+    /**
+     * Writes the next batch of the items in the priority queue to the
+     * current run. Returns {@code true} when the queue was drained.
+     */
+    private boolean spillRun() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            T item = priorityQueue.poll();
+            if (item == null) {
+                spillingRun.finishWriting();
+                spillingRun = null;
+                return true;
+            }
+            spillingRun.write(0, item);
+        }
+        return false;
+    }
+
     @Override
     public boolean complete() {
-        return emitFromTraverser(resultTraverser);
+        assert spillingRun == null : "run not fully spilled";
+        if (runs.isEmpty()) {
+            if (resultTraverser == null) {
+                resultTraverser = priorityQueue::poll;
+            }
+            return emitFromTraverser(resultTraverser);
+        }
+        if (merger == null) {
+            merger = new MergingTraverser();
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (pendingItem == null && (pendingItem = merger.next()) == null) {
+                return true;
+            }
+            if (!tryEmit(pendingItem)) {
+                return false;
+            }
+            pendingItem = null;
+        }
+        return false;
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return runs.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        for (SpillFile.Reader reader : runReaders) {
+            reader.close();
+        }
+        runReaders.clear();
+        for (SpillFile run : runs) {
+            run.delete();
+        }
+        runs.clear();
+    }
+
+    /**
+     * Merges the sorted runs and the items in the priority queue.
+     */
+    private final class MergingTraverser implements Traverser<T> {
+
+        // the heads of the sources, ordered by their current item
+        private final PriorityQueue<Source> heads =
+                new PriorityQueue<>((s1, s2) -> comparator.compare(s1.item, s2.item));
+
+        MergingTraverser() {
+            addIfNotEmpty(new Source(null));
+            for (SpillFile run : runs) {
+                SpillFile.Reader reader = run.reader();
+                runReaders.add(reader);
+                addIfNotEmpty(new Source(reader));
+            }
+        }
+
+        private void addIfNotEmpty(Source source) {
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+
+        @Override
+        public T next() {
+            Source head = heads.poll();
+            if (head == null) {
+                return null;
+            }
+            T item = head.item;
+            addIfNotEmpty(head);
+            return item;
+        }
+    }
+
+    /**
+     * A sorted source of items, either a spilled run or, if the reader is
+     * {@code null}, the priority queue.
+     */
+    private final class Source {
+        private final SpillFile.Reader reader;
+        private T item;
+
+        Source(@Nullable SpillFile.Reader reader) {
+            this.reader = reader;
+        }
+
+        boolean advance() {
+            if (reader == null) {
+                item = priorityQueue.poll();
+                return item != null;
+            }
+            if (!reader.advance()) {
+                return false;
+            }
+            item = reader.item();
+            return true;
+        }
     }
 }
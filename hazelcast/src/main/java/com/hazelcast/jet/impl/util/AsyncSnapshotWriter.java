@@ -40,6 +40,12 @@ public interface AsyncSnapshotWriter {
 
     boolean isEmpty();
 
+    /**
+     * @return true, if the writer remembers entries of the last snapshot it
+     * wrote to compute the next incremental snapshot
+     */
+    boolean hasIncrementalBaseline();
+
     long getTotalPayloadBytes();
     long getTotalKeys();
     long getTotalChunks();
@@ -23,6 +23,9 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.internal.util.collection.Long2LongHashMap;
+import com.hazelcast.internal.util.collection.Long2LongHashMap.LongLongCursor;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
@@ -33,12 +36,14 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.partition.PartitionAware;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -48,7 +53,12 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x64_64;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_INCREMENTAL_ENABLED;
 
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
@@ -74,6 +84,19 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private long currentSnapshotId;
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
+    private final InternalSerializationService serializationService;
+    private final boolean compressionEnabled;
+    private byte[] compressionBuffer = {};
+
+    // Incremental snapshots: we remember the hash of each entry of the last
+    // written snapshot. The value is the number of occurrences of the entry in
+    // the upper half and its partition ID in the lower half.
+    private final boolean trackEntries;
+    private Long2LongHashMap previousEntries;
+    private Long2LongHashMap currentEntries;
+    private long previousSnapshotId = NO_SNAPSHOT;
+    private boolean writingDelta;
+    private ArrayDeque<ObjectWithPartitionId> pendingTombstones;
 
     // stats
     private long totalKeys;
@@ -103,6 +126,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             throw new IllegalArgumentException("chunkSize must be a power of two, but is " + chunkSize);
         }
         this.nodeEngine = nodeEngine;
+        this.serializationService = serializationService;
         this.partitionService = nodeEngine.getPartitionService();
         this.logger = nodeEngine.getLogger(getClass());
         this.snapshotContext = snapshotContext;
@@ -131,6 +155,14 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         if (usableChunkCapacity <= 0) {
             throw new IllegalArgumentException("too small chunk size: " + chunkSize);
         }
+
+        HazelcastProperties properties = nodeEngine.getProperties();
+        compressionEnabled = properties.getBoolean(JET_SNAPSHOT_COMPRESSION_ENABLED);
+        trackEntries = properties.getBoolean(JET_SNAPSHOT_INCREMENTAL_ENABLED);
+        if (trackEntries) {
+            previousEntries = new Long2LongHashMap(0L);
+            currentEntries = new Long2LongHashMap(0L);
+        }
     }
 
     private static CustomByteArrayOutputStream[] createAndInitBuffers(
@@ -163,8 +195,29 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     @Override
     @CheckReturnValue
     public boolean offer(Entry<? extends Data, ? extends Data> entry) {
+        // we need to know whether the snapshot is incremental before we accept the entry
+        if (trackEntries && !initCurrentMap()) {
+            return false;
+        }
         int partitionId = partitionService.getPartitionId(entry.getKey());
-        int length = entry.getKey().totalSize() + entry.getValue().totalSize() - 2 * HeapData.TYPE_OFFSET;
+        if (!trackEntries) {
+            return offer(partitionId, entry.getKey(), entry.getValue());
+        }
+
+        long entryHash = entryHash(entry.getKey(), entry.getValue());
+        long packed = currentEntries.get(entryHash);
+        // in an incremental snapshot we skip the entries that were in the previous snapshot
+        boolean unchanged = writingDelta && occurrences(packed) < occurrences(previousEntries.get(entryHash));
+        if (!unchanged && !offer(partitionId, entry.getKey(), entry.getValue())) {
+            return false;
+        }
+        currentEntries.put(entryHash, packed == 0 ? 1L << Integer.SIZE | partitionId : packed + (1L << Integer.SIZE));
+        return true;
+    }
+
+    @CheckReturnValue
+    private boolean offer(int partitionId, Data key, Data value) {
+        int length = key.totalSize() + value.totalSize() - 2 * HeapData.TYPE_OFFSET;
 
         // if the entry is larger than usableChunkSize, send it in its own chunk. We avoid adding it to the
         // ByteArrayOutputStream since it would expand it beyond its maximum capacity.
@@ -179,11 +232,11 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                 Bits.writeInt(data, offset, length + valueTerminator.length, useBigEndian);
                 offset += Bits.INT_SIZE_IN_BYTES;
 
-                copyWithoutHeader(entry.getKey(), data, offset);
-                offset += entry.getKey().totalSize() - HeapData.TYPE_OFFSET;
+                copyWithoutHeader(key, data, offset);
+                offset += key.totalSize() - HeapData.TYPE_OFFSET;
 
-                copyWithoutHeader(entry.getValue(), data, offset);
-                offset += entry.getValue().totalSize() - HeapData.TYPE_OFFSET;
+                copyWithoutHeader(value, data, offset);
+                offset += value.totalSize() - HeapData.TYPE_OFFSET;
 
                 System.arraycopy(valueTerminator, 0, data, offset, valueTerminator.length);
 
@@ -198,12 +251,32 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
 
         // append to buffer
-        writeWithoutHeader(entry.getKey(), buffer);
-        writeWithoutHeader(entry.getValue(), buffer);
+        writeWithoutHeader(key, buffer);
+        writeWithoutHeader(value, buffer);
         totalKeys++;
         return true;
     }
 
+    /**
+     * Returns the hash identifying an entry of an incremental snapshot. It's
+     * computed from the key and value bytes as they are stored in a chunk,
+     * that is without the {@link HeapData} header.
+     */
+    public static long entryHash(byte[] keyBytes, int keyOffset, int keyLength,
+                                 byte[] valueBytes, int valueOffset, int valueLength) {
+        return 31 * MurmurHash3_x64_64(keyBytes, keyOffset, keyLength)
+                + MurmurHash3_x64_64(valueBytes, valueOffset, valueLength);
+    }
+
+    private static long entryHash(Data key, Data value) {
+        return entryHash(key.toByteArray(), HeapData.TYPE_OFFSET, key.totalSize() - HeapData.TYPE_OFFSET,
+                value.toByteArray(), HeapData.TYPE_OFFSET, value.totalSize() - HeapData.TYPE_OFFSET);
+    }
+
+    private static long occurrences(long packedEntry) {
+        return packedEntry >>> Integer.SIZE;
+    }
+
     private void copyWithoutHeader(Data src, byte[] dst, int dstOffset) {
         byte[] bytes = src.toByteArray();
         System.arraycopy(bytes, HeapData.TYPE_OFFSET, dst, dstOffset, bytes.length - HeapData.TYPE_OFFSET);
@@ -254,7 +327,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
         try {
             // we put a Data instance to the map directly to avoid the serialization of the byte array
-            Data data = dataSupplier.get();
+            Data data = compressionEnabled ? compress(dataSupplier.get()) : dataSupplier.get();
             totalPayloadBytes += data.dataSize();
             totalChunks++;
             CompletableFuture<Object> future = currentMap.putAsync(
@@ -269,6 +342,26 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return true;
     }
 
+    /**
+     * Returns the chunk with the serialized byte array replaced with a {@link
+     * CompressedSnapshotChunk}, if it makes the chunk smaller.
+     */
+    private Data compress(Data chunk) {
+        byte[] bytes = chunk.toByteArray();
+        int offset = serializedByteArrayHeader.length;
+        int length = bytes.length - offset;
+        int maxCompressedLength = Lz4BlockCodec.maxCompressedLength(length);
+        if (compressionBuffer.length < maxCompressedLength) {
+            compressionBuffer = new byte[maxCompressedLength];
+        }
+        int compressedLength = Lz4BlockCodec.compress(bytes, offset, length, compressionBuffer, 0);
+        if (compressedLength >= length) {
+            return chunk;
+        }
+        return serializationService.toData(
+                new CompressedSnapshotChunk(length, Arrays.copyOf(compressionBuffer, compressedLength)));
+    }
+
     private boolean initCurrentMap() {
         if (currentMap == null) {
             String mapName = snapshotContext.currentMapName();
@@ -279,6 +372,46 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             // to have failOnIndeterminateOperationState enabled.
             currentMap = safeImap(nodeEngine.getHazelcastInstance().getMap(mapName));
             this.currentSnapshotId = snapshotContext.currentSnapshotId();
+            if (trackEntries) {
+                writingDelta = snapshotContext.isIncrementalSnapshot();
+                if (writingDelta && previousSnapshotId != currentSnapshotId - 1) {
+                    // the master only requests an incremental snapshot after a successful one
+                    firstError.compareAndSet(null, new JetException("Can't write incremental snapshot "
+                            + currentSnapshotId + " for " + vertexName + ", the previous snapshot written was "
+                            + previousSnapshotId));
+                    writingDelta = false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the tombstones for the entries of the previous snapshot that
+     * aren't in the current one. A tombstone is the {@link
+     * SnapshotDataTombstone} key with the number of removed occurrences as the
+     * value, it's stored in the partition of the removed entry.
+     */
+    @CheckReturnValue
+    private boolean writeTombstones() {
+        if (pendingTombstones == null) {
+            pendingTombstones = new ArrayDeque<>();
+            for (LongLongCursor cursor = previousEntries.cursor(); cursor.advance(); ) {
+                long removed = occurrences(cursor.value()) - occurrences(currentEntries.get(cursor.key()));
+                if (removed > 0) {
+                    Entry<Data, Data> tombstone = entry(
+                            serializationService.toData(new SnapshotDataTombstone(cursor.key())),
+                            serializationService.toData((int) removed));
+                    pendingTombstones.add(new ObjectWithPartitionId(tombstone, (int) cursor.value()));
+                }
+            }
+        }
+        for (ObjectWithPartitionId pending; (pending = pendingTombstones.peek()) != null; pendingTombstones.poll()) {
+            @SuppressWarnings("unchecked")
+            Entry<Data, Data> tombstone = (Entry<Data, Data>) pending.getItem();
+            if (!offer(pending.getPartitionId(), tombstone.getKey(), tombstone.getValue())) {
+                return false;
+            }
         }
         return true;
     }
@@ -296,6 +429,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         if (!initCurrentMap()) {
             return false;
         }
+        if (writingDelta && !writeTombstones()) {
+            return false;
+        }
 
         for (int i = 0; i < buffers.length; i++) {
             if (!flushPartition(i)) {
@@ -305,6 +441,15 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         // we're done
         currentMap = null;
+        if (trackEntries) {
+            Long2LongHashMap tmp = previousEntries;
+            previousEntries = currentEntries;
+            currentEntries = tmp;
+            currentEntries.clear();
+            previousSnapshotId = currentSnapshotId;
+            writingDelta = false;
+            pendingTombstones = null;
+        }
         if (logger.isFineEnabled()) {
             logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d",
                     vertexName, totalKeys, totalChunks, totalPayloadBytes));
@@ -332,10 +477,23 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return numActiveFlushes.get() == 0 && Arrays.stream(buffers).allMatch(this::containsOnlyHeader);
     }
 
+    @Override
+    public boolean hasIncrementalBaseline() {
+        return trackEntries && !previousEntries.isEmpty();
+    }
+
     int partitionKey(int partitionId) {
         return partitionKeys[partitionId];
     }
 
+    /**
+     * The key of a snapshot chunk. The writer buffers the entries by the
+     * partition of their key and stores each chunk with a partition key that
+     * maps to that partition. The partition of the chunk is therefore the key
+     * group of all its entries, which lets the restore route them without
+     * computing their partitions again, see {@link
+     * com.hazelcast.jet.impl.execution.KeyGroupEntry}.
+     */
     public static final class SnapshotDataKey implements IdentifiedDataSerializable, PartitionAware {
         private int partitionKey;
         private long snapshotId;
@@ -449,6 +607,112 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
     }
 
+    /**
+     * A chunk compressed with {@link Lz4BlockCodec}. It's stored in the
+     * snapshot map instead of the chunk's byte array, if {@link
+     * com.hazelcast.spi.properties.ClusterProperty#JET_SNAPSHOT_COMPRESSION_ENABLED
+     * compression} is enabled.
+     */
+    public static final class CompressedSnapshotChunk implements IdentifiedDataSerializable {
+        private int uncompressedLength;
+        private byte[] compressedData;
+
+        // for deserialization
+        public CompressedSnapshotChunk() {
+        }
+
+        CompressedSnapshotChunk(int uncompressedLength, byte[] compressedData) {
+            this.uncompressedLength = uncompressedLength;
+            this.compressedData = compressedData;
+        }
+
+        /**
+         * Returns the byte array of the chunk.
+         */
+        public byte[] decompress() {
+            byte[] result = new byte[uncompressedLength];
+            Lz4BlockCodec.decompress(compressedData, 0, compressedData.length, result, 0, uncompressedLength);
+            return result;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.ASYNC_SNAPSHOT_WRITER_COMPRESSED_SNAPSHOT_CHUNK;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(uncompressedLength);
+            out.writeByteArray(compressedData);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            uncompressedLength = in.readInt();
+            compressedData = in.readByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return "CompressedSnapshotChunk{" +
+                    "uncompressedLength=" + uncompressedLength +
+                    ", compressedLength=" + compressedData.length +
+                    '}';
+        }
+    }
+
+    /**
+     * The key of an entry of an incremental snapshot that removes the entry
+     * with the given {@linkplain #entryHash entry hash} written in one of the
+     * previous snapshots of the chain. The value is the number of removed
+     * occurrences.
+     */
+    public static final class SnapshotDataTombstone implements IdentifiedDataSerializable {
+        private long entryHash;
+
+        // for deserialization
+        public SnapshotDataTombstone() {
+        }
+
+        SnapshotDataTombstone(long entryHash) {
+            this.entryHash = entryHash;
+        }
+
+        public long entryHash() {
+            return entryHash;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_TOMBSTONE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(entryHash);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            entryHash = in.readLong();
+        }
+
+        @Override
+        public String toString() {
+            return "SnapshotDataTombstone{entryHash=" + entryHash + '}';
+        }
+    }
+
     /**
      * Non-synchronized variant of {@code java.io.ByteArrayOutputStream} with capacity limit.
      */
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import java.util.Arrays;
+
+/**
+ * A compressor and decompressor of the <a
+ * href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4
+ * block format</a>. It trades compression ratio for speed: matches are
+ * found with a single hash table lookup and aren't optimized any further.
+ * <p>
+ * The block doesn't contain the length of the uncompressed data, the caller
+ * has to store it and pass it to {@link #decompress}.
+ */
+@SuppressWarnings("checkstyle:magicnumber")
+public final class Lz4BlockCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    // the last match must start at least 12 bytes before the end of the block
+    private static final int MF_LIMIT = 12;
+    // and the last 5 bytes of the block are always literals
+    private static final int LAST_LITERALS = 5;
+    private static final int HASH_LOG = 12;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 0xF;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MAX_LENGTH_BYTE = 0xFF;
+
+    private Lz4BlockCodec() {
+    }
+
+    /**
+     * Returns the maximum size of the compressed form of {@code length}
+     * bytes.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / MAX_LENGTH_BYTE + 16;
+    }
+
+    /**
+     * Compresses the given range of {@code src} into {@code dst}, which must
+     * have at least {@link #maxCompressedLength} bytes of space after {@code
+     * dstOffset}.
+     *
+     * @return the length of the compressed data
+     */
+    public static int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int srcEnd = srcOffset + length;
+        int matchLimit = srcEnd - LAST_LITERALS;
+        int mfLimit = srcEnd - MF_LIMIT;
+        int anchor = srcOffset;
+        int dp = dstOffset;
+        if (length > MF_LIMIT) {
+            int[] hashTable = new int[1 << HASH_LOG];
+            Arrays.fill(hashTable, -1);
+            int sp = srcOffset;
+            while (sp < mfLimit) {
+                int sequence = readInt(src, sp);
+                int h = hash(sequence);
+                int ref = hashTable[h];
+                hashTable[h] = sp;
+                if (ref < 0 || sp - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    // skip faster over data that doesn't compress
+                    sp += 1 + ((sp - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+                while (sp > anchor && ref > srcOffset && src[sp - 1] == src[ref - 1]) {
+                    sp--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                dp = writeSequence(src, anchor, sp - anchor, dst, dp, sp - ref, matchLength);
+                sp += matchLength;
+                anchor = sp;
+            }
+        }
+        return writeLastLiterals(src, anchor, srcEnd - anchor, dst, dp) - dstOffset;
+    }
+
+    /**
+     * Decompresses the given range of {@code src} into {@code dst}.
+     *
+     * @param decompressedLength the exact length of the decompressed data
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static void decompress(byte[] src, int srcOffset, int length,
+                                  byte[] dst, int dstOffset, int decompressedLength) {
+        int srcEnd = srcOffset + length;
+        int dstEnd = dstOffset + decompressedLength;
+        int sp = srcOffset;
+        int dp = dstOffset;
+        while (true) {
+            checkAvailable(sp, 1, srcEnd);
+            int token = src[sp++] & BYTE_MASK;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    checkAvailable(sp, 1, srcEnd);
+                    b = src[sp++] & BYTE_MASK;
+                    literalLength += b;
+                } while (b == MAX_LENGTH_BYTE);
+            }
+            checkAvailable(sp, literalLength, srcEnd);
+            checkAvailable(dp, literalLength, dstEnd);
+            System.arraycopy(src, sp, dst, dp, literalLength);
+            sp += literalLength;
+            dp += literalLength;
+            if (sp == srcEnd) {
+                // the last sequence has no match
+                break;
+            }
+
+            checkAvailable(sp, 2, srcEnd);
+            int distance = (src[sp] & BYTE_MASK) | (src[sp + 1] & BYTE_MASK) << Byte.SIZE;
+            sp += 2;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    checkAvailable(sp, 1, srcEnd);
+                    b = src[sp++] & BYTE_MASK;
+                    matchLength += b;
+                } while (b == MAX_LENGTH_BYTE);
+            }
+            matchLength += MIN_MATCH;
+            int ref = dp - distance;
+            if (distance == 0 || ref < dstOffset) {
+                throw new IllegalArgumentException("Malformed LZ4 block: invalid match distance " + distance);
+            }
+            checkAvailable(dp, matchLength, dstEnd);
+            if (distance >= matchLength) {
+                System.arraycopy(dst, ref, dst, dp, matchLength);
+            } else {
+                // the match overlaps the bytes it produces, copy byte by byte
+                for (int i = 0; i < matchLength; i++) {
+                    dst[dp + i] = dst[ref + i];
+                }
+            }
+            dp += matchLength;
+        }
+        if (dp != dstEnd) {
+            throw new IllegalArgumentException("Malformed LZ4 block: decompressed " + (dp - dstOffset)
+                    + " bytes, expected " + decompressedLength);
+        }
+    }
+
+    private static int writeSequence(byte[] src, int literalOffset, int literalLength,
+                                     byte[] dst, int dp, int distance, int matchLength) {
+        int tokenPos = dp++;
+        int extraMatchLength = matchLength - MIN_MATCH;
+        dst[tokenPos] = (byte) (Math.min(literalLength, RUN_MASK) << 4 | Math.min(extraMatchLength, RUN_MASK));
+        if (literalLength >= RUN_MASK) {
+            dp = writeLength(literalLength - RUN_MASK, dst, dp);
+        }
+        System.arraycopy(src, literalOffset, dst, dp, literalLength);
+        dp += literalLength;
+        dst[dp++] = (byte) distance;
+        dst[dp++] = (byte) (distance >>> Byte.SIZE);
+        if (extraMatchLength >= RUN_MASK) {
+            dp = writeLength(extraMatchLength - RUN_MASK, dst, dp);
+        }
+        return dp;
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalOffset, int literalLength, byte[] dst, int dp) {
+        dst[dp++] = (byte) (Math.min(literalLength, RUN_MASK) << 4);
+        if (literalLength >= RUN_MASK) {
+            dp = writeLength(literalLength - RUN_MASK, dst, dp);
+        }
+        System.arraycopy(src, literalOffset, dst, dp, literalLength);
+        return dp + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dp) {
+        while (length >= MAX_LENGTH_BYTE) {
+            dst[dp++] = (byte) MAX_LENGTH_BYTE;
+            length -= MAX_LENGTH_BYTE;
+        }
+        dst[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static void checkAvailable(int position, int count, int end) {
+        if (count > end - position) {
+            throw new IllegalArgumentException("Malformed LZ4 block: unexpected end of data");
+        }
+    }
+
+    private static int readInt(byte[] b, int offset) {
+        return (b[offset] & BYTE_MASK)
+                | (b[offset + 1] & BYTE_MASK) << 8
+                | (b[offset + 2] & BYTE_MASK) << 16
+                | (b[offset + 3] & BYTE_MASK) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+    }
+}
@@ -231,6 +231,11 @@ public class MapClearExpiredRecordsTask
         return notExist;
     }
 
+    @Override
+    protected int getPartitionId(PartitionContainer container) {
+        return container.getPartitionId();
+    }
+
     @Override
     protected boolean isContainerEmpty(PartitionContainer container) {
         long size = 0L;
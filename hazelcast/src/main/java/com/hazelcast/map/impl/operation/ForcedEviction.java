@@ -18,7 +18,7 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.NodeEngine;
-import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 
 import javax.annotation.Nullable;
 import java.util.concurrent.ConcurrentMap;
@@ -106,14 +106,14 @@ public interface ForcedEviction {
                 && recordStore.getEvictionPolicy() != NONE && recordStore.size() > 0;
     }
 
-    default int mod(MapOperation mapOperation, int threadCount) {
-        return mapOperation.getPartitionId() % threadCount;
-    }
-
-    default int threadCount(MapOperation mapOperation) {
+    /**
+     * @return the index of the partition thread running the operations of
+     * the given partition
+     */
+    default int partitionThreadIndex(MapOperation mapOperation, int partitionId) {
         NodeEngine nodeEngine = mapOperation.getNodeEngine();
-        OperationService operationService = nodeEngine.getOperationService();
-        return operationService.getPartitionThreadCount();
+        OperationServiceImpl operationService = (OperationServiceImpl) nodeEngine.getOperationService();
+        return operationService.getOperationExecutor().toPartitionThreadIndex(partitionId);
     }
 
     default int numberOfPartitions(MapOperation mapOperation) {
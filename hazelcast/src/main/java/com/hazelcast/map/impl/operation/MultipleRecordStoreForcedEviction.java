@@ -51,15 +51,14 @@ class MultipleRecordStoreForcedEviction implements ForcedEviction {
         assert evictionPercentage > 0 && evictionPercentage <= 1;
 
         int partitionCount = numberOfPartitions(mapOperation);
-        int threadCount = threadCount(mapOperation);
-        int mod = mod(mapOperation, threadCount);
+        int threadIndex = partitionThreadIndex(mapOperation, mapOperation.getPartitionId());
         ILogger logger = mapOperation.logger();
 
         int evictionRetryTimes = retryCount(evictionPercentage);
         for (int i = 0; i < evictionRetryTimes; i++) {
             try {
                 for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
-                    if ((partitionId % threadCount) != mod) {
+                    if (partitionThreadIndex(mapOperation, partitionId) != threadIndex) {
                         continue;
                     }
 
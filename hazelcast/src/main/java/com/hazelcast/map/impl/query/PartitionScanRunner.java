@@ -31,10 +31,12 @@ import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.JsonMetadata;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
+import com.hazelcast.query.impl.predicates.VectorizedPredicate;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
@@ -48,9 +50,16 @@ import java.util.function.BiConsumer;
 import static com.hazelcast.internal.util.SortingUtil.compareAnchor;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PARTITION_SCAN_BATCH_SIZE;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
+ * <p>
+ * If the predicate can be evaluated in batches (see {@link VectorizedPredicate}),
+ * the entries are collected into batches of {@link
+ * com.hazelcast.spi.properties.ClusterProperty#QUERY_PARTITION_SCAN_BATCH_SIZE}
+ * entries and the predicate is evaluated for a whole batch at once, otherwise
+ * it's applied entry by entry.
  */
 public class PartitionScanRunner {
 
@@ -61,6 +70,7 @@ public class PartitionScanRunner {
     protected final IPartitionService partitionService;
     protected final OperationService operationService;
     protected final ClusterService clusterService;
+    private final int batchSize;
 
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -70,6 +80,7 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.batchSize = nodeEngine.getProperties().getInteger(QUERY_PARTITION_SCAN_BATCH_SIZE);
     }
 
     @SuppressWarnings("unchecked")
@@ -86,6 +97,24 @@ public class PartitionScanRunner {
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
 
+        // batches would outlive the record store iteration, which native
+        // memory keys and values can't
+        VectorizedPredicate vectorizedPredicate = nativeMemory ? null
+                : compileVectorized(pagingPredicate == null ? predicate : pagingPredicate.getPredicate(),
+                        recordStore.size());
+        if (vectorizedPredicate != null) {
+            Batch batch = new Batch(vectorizedPredicate, extractors, pagingPredicate, nearestAnchorEntry, result);
+            recordStore.forEachAfterLoad((key, record) -> {
+                Object value = useCachedValues ? getValueOrCachedValue(record, ss) : record.getValue();
+                if (value != null) {
+                    batch.add(key, value, record, recordStore.getOrCreateMetadataStore().get(key));
+                }
+            }, false);
+            batch.flush();
+            result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
+            return;
+        }
+
         recordStore.forEachAfterLoad(new BiConsumer<Data, Record>() {
             LazyMapEntry queryEntry = new LazyMapEntry();
 
@@ -147,6 +176,7 @@ public class PartitionScanRunner {
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        VectorizedPredicate vectorizedPredicate = compileVectorized(predicate, fetchSize);
 
         while (resultList.size() < fetchSize && pointers[pointers.length - 1].getIndex() >= 0) {
             MapEntriesWithCursor cursor = recordStore.fetchEntries(pointers, fetchSize - resultList.size());
@@ -155,6 +185,10 @@ public class PartitionScanRunner {
             if (entries.isEmpty()) {
                 break;
             }
+            if (vectorizedPredicate != null) {
+                addMatching(vectorizedPredicate, entries, extractors, resultList);
+                continue;
+            }
             for (Entry<Data, Data> entry : entries) {
                 QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors);
                 if (predicate.apply(queryEntry)) {
@@ -165,7 +199,97 @@ public class PartitionScanRunner {
         return new QueryableEntriesSegment(resultList, pointers);
     }
 
+    private void addMatching(VectorizedPredicate vectorizedPredicate, Collection<? extends Entry<Data, Data>> entries,
+                             Extractors extractors, List<QueryableEntry> resultList) {
+        QueryableEntry[] batch = new QueryableEntry[Math.min(entries.size(), vectorizedPredicate.getBatchSize())];
+        int[] matchIndices = new int[batch.length];
+        int size = 0;
+        int remaining = entries.size();
+        for (Entry<Data, Data> entry : entries) {
+            batch[size++] = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors);
+            remaining--;
+            if (size == batch.length || remaining == 0) {
+                int matchCount = vectorizedPredicate.evaluate(batch, size, matchIndices);
+                for (int i = 0; i < matchCount; i++) {
+                    resultList.add(batch[matchIndices[i]]);
+                }
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * @param maxEntries the expected maximum number of the scanned entries,
+     *                   the batch arrays aren't allocated larger than that
+     */
+    private VectorizedPredicate compileVectorized(Predicate predicate, int maxEntries) {
+        int size = Math.min(batchSize, maxEntries);
+        return size > 0 ? VectorizedPredicate.compile(predicate, size) : null;
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         return mapContainer.isUseCachedDeserializedValuesEnabled(partitionId);
     }
+
+    /**
+     * Collects the scanned entries into batches and adds the matching ones
+     * to the result.
+     */
+    private final class Batch {
+        private final VectorizedPredicate predicate;
+        private final Extractors extractors;
+        private final PagingPredicateImpl pagingPredicate;
+        private final Map.Entry<Integer, Map.Entry> nearestAnchorEntry;
+        private final Result result;
+        private final LazyMapEntry[] entries;
+        private final Data[] keys;
+        private final Object[] values;
+        private final int[] matchIndices;
+        private int size;
+
+        Batch(VectorizedPredicate predicate, Extractors extractors, PagingPredicateImpl pagingPredicate,
+              Map.Entry<Integer, Map.Entry> nearestAnchorEntry, Result result) {
+            this.predicate = predicate;
+            this.extractors = extractors;
+            this.pagingPredicate = pagingPredicate;
+            this.nearestAnchorEntry = nearestAnchorEntry;
+            this.result = result;
+            int batchSize = predicate.getBatchSize();
+            this.entries = new LazyMapEntry[batchSize];
+            this.keys = new Data[batchSize];
+            this.values = new Object[batchSize];
+            this.matchIndices = new int[batchSize];
+        }
+
+        void add(Data key, Object value, Record record, JsonMetadata metadata) {
+            LazyMapEntry entry = entries[size];
+            if (entry == null) {
+                entry = new LazyMapEntry();
+                entries[size] = entry;
+            }
+            entry.init(ss, key, value, extractors);
+            entry.setRecord(record);
+            entry.setMetadata(metadata);
+            keys[size] = key;
+            values[size] = value;
+            if (++size == entries.length) {
+                flush();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void flush() {
+            int matchCount = predicate.evaluate(entries, size, matchIndices);
+            for (int i = 0; i < matchCount; i++) {
+                int index = matchIndices[i];
+                LazyMapEntry entry = entries[index];
+                if (compareAnchor(pagingPredicate, entry, nearestAnchorEntry)) {
+                    result.add(entry.init(ss, toHeapData(keys[index]), values[index], extractors));
+                    // the entry is owned by the result now, allocate a new one
+                    entries[index] = null;
+                }
+            }
+            size = 0;
+        }
+    }
 }
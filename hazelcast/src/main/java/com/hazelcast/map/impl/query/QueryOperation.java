@@ -87,38 +87,47 @@ public class QueryOperation extends AbstractNamedOperation implements ReadonlyOp
         switch (getMapInMemoryFormat()) {
             case BINARY:
             case OBJECT:
-                result = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query);
-                return RESPONSE;
-            case NATIVE:
-                boolean useGlobalIndex = getMapServiceContext().getMapContainer(getName()).shouldUseGlobalIndex();
-
-                if (useGlobalIndex) {
-                    // Try to use HD global index
-                    // Don't do map scan because it is not thread-safe
-                    Result indexResult = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query, false);
-                    if (indexResult != null) {
-                        result = indexResult;
-                        return RESPONSE;
-                    }
-                }
-
-                // Offload query run on the partition threads.
-                BitSet queryPartitions = localPartitions();
-                if (query.getPartitionIdSet() != null) {
-                    queryPartitions.and(query.getPartitionIdSet().bitSetCopy());
-                }
-                if (queryPartitions.cardinality() == 0) {
-                    // important to deal with situation of not having any partitions
-                    result = queryRunner.populateEmptyResult(query, Collections.emptyList());
+                if (!getMapServiceContext().getMapContainer(name).getMapConfig().isOffHeapStorageEnabled()) {
+                    result = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query);
                     return RESPONSE;
-                } else {
-                    return new OffloadedImpl(queryRunner, queryPartitions);
                 }
+                // off-heap storage doesn't support concurrent scans, same as NATIVE
+                return runOnPartitionThreads(queryRunner);
+            case NATIVE:
+                return runOnPartitionThreads(queryRunner);
             default:
                 throw new IllegalArgumentException("Unsupported in memory format");
         }
     }
 
+    @Nonnull
+    private CallStatus runOnPartitionThreads(QueryRunner queryRunner) {
+        boolean useGlobalIndex = getMapServiceContext().getMapContainer(getName()).shouldUseGlobalIndex();
+
+        if (useGlobalIndex) {
+            // Try to use HD global index
+            // Don't do map scan because it is not thread-safe
+            Result indexResult = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query, false);
+            if (indexResult != null) {
+                result = indexResult;
+                return RESPONSE;
+            }
+        }
+
+        // Offload query run on the partition threads.
+        BitSet queryPartitions = localPartitions();
+        if (query.getPartitionIdSet() != null) {
+            queryPartitions.and(query.getPartitionIdSet().bitSetCopy());
+        }
+        if (queryPartitions.cardinality() == 0) {
+            // important to deal with situation of not having any partitions
+            result = queryRunner.populateEmptyResult(query, Collections.emptyList());
+            return RESPONSE;
+        } else {
+            return new OffloadedImpl(queryRunner, queryPartitions);
+        }
+    }
+
     private int partitionCount() {
         return getNodeEngine().getPartitionService().getPartitionCount();
     }
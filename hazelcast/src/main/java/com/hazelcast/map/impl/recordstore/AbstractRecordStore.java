@@ -87,6 +87,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     // overridden in different context
     RecordFactory createRecordFactory() {
         MapConfig mapConfig = mapContainer.getMapConfig();
+        if (mapConfig.isOffHeapStorageEnabled()) {
+            return new OffHeapRecordFactory(serializationService);
+        }
         switch (mapConfig.getInMemoryFormat()) {
             case BINARY:
                 return new DataRecordFactory(mapContainer, serializationService);
@@ -175,6 +178,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (mapContainer.getMapConfig().isOffHeapStorageEnabled()) {
+            return new OffHeapStorage(getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReaderWriter;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * {@link Record} used by {@link OffHeapStorage}.
+ * <p>
+ * A record is created detached, holding its value and metadata on-heap
+ * like any other record. When it is put into an {@link OffHeapStorage},
+ * its state is moved into an off-heap entry slot and the record becomes a
+ * flyweight over that slot: all getters and setters go to off-heap memory
+ * from then on. When the entry is removed from the storage, the state is
+ * copied back and the record is detached again, so a caller still holding
+ * the removed record can safely read it. Other records attached to the
+ * removed entry become stale: any access to them throws {@link
+ * IllegalStateException} instead of touching the freed, or already reused,
+ * slot.
+ * <p>
+ * Like the storage itself, a record must only be accessed by the partition
+ * thread owning the storage.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class OffHeapRecord implements Record<Data> {
+
+    private static final int NUMBER_OF_INTS = 7;
+
+    private OffHeapStorage storage;
+    private int slot = -1;
+    // the stamp of the slot when the record was attached to it
+    private int stamp;
+
+    // state of a detached record
+    private Data value;
+    private int version;
+    private int hits;
+    private int creationTime = UNSET;
+    private int lastAccessTime = UNSET;
+    private int lastUpdateTime = UNSET;
+    private int lastStoredTime = UNSET;
+
+    OffHeapRecord(Data value) {
+        this.value = value;
+    }
+
+    OffHeapRecord(OffHeapStorage storage, int slot) {
+        this.storage = storage;
+        this.slot = slot;
+        this.stamp = storage.getStamp(slot);
+    }
+
+    boolean isAttachedTo(OffHeapStorage storage) {
+        return this.storage == storage;
+    }
+
+    boolean isDetached() {
+        return storage == null;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    void attach(OffHeapStorage storage, int slot) {
+        assert this.storage == null : "Record is already attached to a storage";
+        this.storage = storage;
+        this.slot = slot;
+        this.stamp = storage.getStamp(slot);
+        this.value = null;
+    }
+
+    void detach() {
+        assert isAttached() : "Record is not attached to a storage";
+        value = storage.readValue(slot);
+        version = storage.getInt(slot, OffHeapStorage.VERSION_OFFSET);
+        hits = storage.getInt(slot, OffHeapStorage.HITS_OFFSET);
+        creationTime = storage.getInt(slot, OffHeapStorage.CREATION_TIME_OFFSET);
+        lastAccessTime = storage.getInt(slot, OffHeapStorage.LAST_ACCESS_TIME_OFFSET);
+        lastUpdateTime = storage.getInt(slot, OffHeapStorage.LAST_UPDATE_TIME_OFFSET);
+        lastStoredTime = storage.getInt(slot, OffHeapStorage.LAST_STORED_TIME_OFFSET);
+        storage = null;
+        slot = -1;
+    }
+
+    private boolean isAttached() {
+        if (storage == null) {
+            return false;
+        }
+        if (!storage.isCurrent(slot, stamp)) {
+            throw new IllegalStateException("The entry of the record was removed from the storage, slot: " + slot);
+        }
+        return true;
+    }
+
+    @Override
+    public Data getValue() {
+        return isAttached() ? storage.readValue(slot) : value;
+    }
+
+    @Override
+    public void setValue(Data value) {
+        if (isAttached()) {
+            storage.writeValue(slot, value);
+        } else {
+            this.value = value;
+        }
+    }
+
+    @Override
+    public long getCost() {
+        if (isAttached()) {
+            return OffHeapStorage.SLOT_SIZE + storage.getValueCost(slot);
+        }
+        return OBJECT_HEADER_SIZE + REFERENCE_COST_IN_BYTES + NUMBER_OF_INTS * INT_SIZE_IN_BYTES
+                + (value == null ? 0L : value.getHeapCost());
+    }
+
+    @Override
+    public int getVersion() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.VERSION_OFFSET) : version;
+    }
+
+    @Override
+    public void setVersion(int version) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.VERSION_OFFSET, version);
+        } else {
+            this.version = version;
+        }
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int rawLastStoredTime = getRawLastStoredTime();
+        if (rawLastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(rawLastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public int getHits() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.HITS_OFFSET) : hits;
+    }
+
+    @Override
+    public void setHits(int hits) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.HITS_OFFSET, hits);
+        } else {
+            this.hits = hits;
+        }
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.CREATION_TIME_OFFSET) : creationTime;
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.CREATION_TIME_OFFSET, creationTime);
+        } else {
+            this.creationTime = creationTime;
+        }
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.LAST_ACCESS_TIME_OFFSET) : lastAccessTime;
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+        } else {
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.LAST_UPDATE_TIME_OFFSET) : lastUpdateTime;
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+        } else {
+            this.lastUpdateTime = lastUpdateTime;
+        }
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return isAttached() ? storage.getInt(slot, OffHeapStorage.LAST_STORED_TIME_OFFSET) : lastStoredTime;
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        if (isAttached()) {
+            storage.putInt(slot, OffHeapStorage.LAST_STORED_TIME_OFFSET, lastStoredTime);
+        } else {
+            this.lastStoredTime = lastStoredTime;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (storage != null && !storage.isCurrent(slot, stamp)) {
+            return "OffHeapRecord{stale, slot=" + slot + '}';
+        }
+        return "OffHeapRecord{"
+                + "attached=" + (storage != null)
+                + ", slot=" + slot
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + '}';
+    }
+}
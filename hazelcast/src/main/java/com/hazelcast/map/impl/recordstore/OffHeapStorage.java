@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.GlobalMemoryAccessor;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.HeapMemoryAccessor.ARRAY_BYTE_BASE_OFFSET;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+
+/**
+ * {@link Storage} implementation which keeps keys, values and record
+ * metadata of a {@code BINARY} map in off-heap memory, so that a partition
+ * holding a large number of small entries adds almost nothing to the Java
+ * heap. Enabled per map with {@link
+ * com.hazelcast.config.MapConfig#setOffHeapStorageEnabled(boolean)}.
+ * <p>
+ * Memory layout, all blocks are allocated by an {@link UnsafeMemoryAllocator}:
+ * <ul>
+ * <li>a slot slab: a dense array of fixed size slots, one per entry, each
+ * holding the addresses of the key and value blobs and the record metadata
+ * (see {@link OffHeapRecord}). A slot never moves while its entry is alive,
+ * freed slots are chained into a free list and reused by later puts.</li>
+ * <li>a hash index: an open-addressing, linear-probing table of {@code long}s,
+ * each one packing the hash of a key and the number of its slot. Removal
+ * uses backward-shift deletion, so there are no tombstones.</li>
+ * <li>key and value blobs: the serialized bytes of a {@link Data}
+ * prefixed by their length.</li>
+ * </ul>
+ * Keys and values are returned as on-heap {@link HeapData} copies and records
+ * as {@link OffHeapRecord} flyweights over their slots. Every allocation of a
+ * slot stamps it with a new number, which the record remembers and checks on
+ * each access, so a record kept after its entry was removed fails instead of
+ * reading a freed or reused slot.
+ * <p>
+ * Not thread-safe, the storage must only be accessed by the partition
+ * thread owning the record store. {@link #size()} and the {@link
+ * #getEntryCostEstimator() cost estimate} can be read from any thread.
+ */
+@SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity"})
+public class OffHeapStorage implements Storage<Data, Record> {
+
+    static final int KEY_ADDRESS_OFFSET = 0;
+    static final int VALUE_ADDRESS_OFFSET = KEY_ADDRESS_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int VERSION_OFFSET = VALUE_ADDRESS_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int HITS_OFFSET = VERSION_OFFSET + INT_SIZE_IN_BYTES;
+    static final int CREATION_TIME_OFFSET = HITS_OFFSET + INT_SIZE_IN_BYTES;
+    static final int LAST_ACCESS_TIME_OFFSET = CREATION_TIME_OFFSET + INT_SIZE_IN_BYTES;
+    static final int LAST_UPDATE_TIME_OFFSET = LAST_ACCESS_TIME_OFFSET + INT_SIZE_IN_BYTES;
+    static final int LAST_STORED_TIME_OFFSET = LAST_UPDATE_TIME_OFFSET + INT_SIZE_IN_BYTES;
+    static final int STAMP_OFFSET = LAST_STORED_TIME_OFFSET + INT_SIZE_IN_BYTES;
+    static final int SLOT_SIZE = STAMP_OFFSET + INT_SIZE_IN_BYTES;
+
+    static final int BLOB_HEADER_SIZE = INT_SIZE_IN_BYTES;
+
+    private static final int INDEX_ENTRY_SIZE = LONG_SIZE_IN_BYTES;
+    private static final int INITIAL_SLOT_CAPACITY = 64;
+    private static final int INITIAL_INDEX_CAPACITY = 128;
+    private static final float INDEX_LOAD_FACTOR = 0.6f;
+    private static final long SLOT_MASK = 0xFFFFFFFFL;
+    private static final int NO_FREE_SLOT = -1;
+    private static final int FREE_SLOT_STAMP = 0;
+
+    private static final GlobalMemoryAccessor MEMORY = MEM;
+
+    private final UnsafeMemoryAllocator allocator = new UnsafeMemoryAllocator();
+    private final ExpirySystem expirySystem;
+    private final SerializationService serializationService;
+
+    private long slots = NULL_ADDRESS;
+    private int slotCapacity;
+    private int slotHighWaterMark;
+    private int freeSlotHead = NO_FREE_SLOT;
+    private int lastStamp = FREE_SLOT_STAMP;
+
+    private long index = NULL_ADDRESS;
+    private int indexCapacity;
+    private int indexResizeThreshold;
+
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Storage is mutated only by its own partition thread.")
+    private volatile int size;
+
+    // not final for testing purposes.
+    private EntryCostEstimator entryCostEstimator = new OffHeapEntryCostEstimator();
+
+    OffHeapStorage(ExpirySystem expirySystem, SerializationService serializationService) {
+        this.expirySystem = expirySystem;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        ensureAllocated();
+        byte[] keyBytes = key.toByteArray();
+        int hash = key.hashCode();
+        int position = findPosition(keyBytes, hash);
+        int slot;
+        if (position >= 0) {
+            slot = slotOf(indexEntryAt(position));
+            if (record instanceof OffHeapRecord && ((OffHeapRecord) record).isAttachedTo(this)) {
+                assert ((OffHeapRecord) record).getSlot() == slot : "Record is attached to another slot";
+                return;
+            }
+            freeBlob(slotAddress(slot) + VALUE_ADDRESS_OFFSET);
+        } else {
+            slot = allocateSlot();
+            MEMORY.putLong(slotAddress(slot) + KEY_ADDRESS_OFFSET, writeBlob(keyBytes));
+            MEMORY.putLong(indexAddress(-position - 1), toIndexEntry(hash, slot));
+            size++;
+        }
+        writeRecord(slot, record);
+        if (record instanceof OffHeapRecord && ((OffHeapRecord) record).isDetached()) {
+            ((OffHeapRecord) record).attach(this, slot);
+        }
+        if (size > indexResizeThreshold) {
+            resizeIndex(indexCapacity << 1);
+        }
+    }
+
+    @Override
+    public Record updateRecordValue(Data key, Record record, Object value) {
+        record.setValue(serializationService.toData(value));
+        return record;
+    }
+
+    @Override
+    public Record get(Data key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : new OffHeapRecord(this, slot);
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("OffHeapStorage#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull Record record) {
+        if (size == 0) {
+            return;
+        }
+        int position = findPosition(dataKey.toByteArray(), dataKey.hashCode());
+        if (position < 0) {
+            return;
+        }
+        int slot = slotOf(indexEntryAt(position));
+        if (record instanceof OffHeapRecord && ((OffHeapRecord) record).isAttachedTo(this)) {
+            ((OffHeapRecord) record).detach();
+        }
+        removeIndexEntry(position);
+        freeSlot(slot);
+        size--;
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new SlotIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        dispose();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        dispose();
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        List<EntryView> samples = new ArrayList<>(Math.min(sampleCount, size));
+        int start = ThreadLocalRandomProvider.get().nextInt(slotHighWaterMark);
+        for (int i = 0; i < slotHighWaterMark && samples.size() < sampleCount; i++) {
+            int slot = (start + i) % slotHighWaterMark;
+            if (isLive(slot)) {
+                Data key = readKey(slot);
+                samples.add(new LazyEvictableEntryView<>(key, new OffHeapRecord(this, slot),
+                        expirySystem.getExpiryMetadata(key), serializationService));
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, slot) -> keys.add(key));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                (key, slot) -> entries.add(new AbstractMap.SimpleEntry<>(key, readValue(slot))));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    // accessors used by OffHeapRecord
+
+    int getStamp(int slot) {
+        return MEMORY.getInt(slotAddress(slot) + STAMP_OFFSET);
+    }
+
+    /**
+     * @return whether the slot still holds the entry it held when it had the given stamp
+     */
+    boolean isCurrent(int slot, int stamp) {
+        return slot < slotHighWaterMark && getStamp(slot) == stamp;
+    }
+
+    int getInt(int slot, int offset) {
+        return MEMORY.getInt(slotAddress(slot) + offset);
+    }
+
+    void putInt(int slot, int offset, int value) {
+        MEMORY.putInt(slotAddress(slot) + offset, value);
+    }
+
+    Data readValue(int slot) {
+        return readBlob(MEMORY.getLong(slotAddress(slot) + VALUE_ADDRESS_OFFSET));
+    }
+
+    void writeValue(int slot, Data value) {
+        long valueAddressAddress = slotAddress(slot) + VALUE_ADDRESS_OFFSET;
+        freeBlob(valueAddressAddress);
+        MEMORY.putLong(valueAddressAddress, value == null ? NULL_ADDRESS : writeBlob(value.toByteArray()));
+    }
+
+    long getValueCost(int slot) {
+        return blobCost(MEMORY.getLong(slotAddress(slot) + VALUE_ADDRESS_OFFSET));
+    }
+
+    // slots
+
+    private void ensureAllocated() {
+        if (slots != NULL_ADDRESS) {
+            return;
+        }
+        slots = allocator.allocate((long) INITIAL_SLOT_CAPACITY * SLOT_SIZE);
+        slotCapacity = INITIAL_SLOT_CAPACITY;
+        index = allocator.allocate((long) INITIAL_INDEX_CAPACITY * INDEX_ENTRY_SIZE);
+        indexCapacity = INITIAL_INDEX_CAPACITY;
+        indexResizeThreshold = (int) (indexCapacity * INDEX_LOAD_FACTOR);
+    }
+
+    private long slotAddress(int slot) {
+        assert slot >= 0 && slot < slotHighWaterMark : "Invalid slot " + slot;
+        return slots + (long) slot * SLOT_SIZE;
+    }
+
+    private boolean isLive(int slot) {
+        return MEMORY.getLong(slotAddress(slot) + KEY_ADDRESS_OFFSET) != NULL_ADDRESS;
+    }
+
+    private int allocateSlot() {
+        int slot;
+        if (freeSlotHead != NO_FREE_SLOT) {
+            slot = freeSlotHead;
+            long address = slotAddress(slot);
+            freeSlotHead = (int) MEMORY.getLong(address + VALUE_ADDRESS_OFFSET);
+            MEMORY.setMemory(address, SLOT_SIZE, (byte) 0);
+        } else {
+            if (slotHighWaterMark == slotCapacity) {
+                int newCapacity = slotCapacity << 1;
+                slots = allocator.reallocate(slots, (long) slotCapacity * SLOT_SIZE, (long) newCapacity * SLOT_SIZE);
+                slotCapacity = newCapacity;
+            }
+            slot = slotHighWaterMark++;
+        }
+        if (++lastStamp == FREE_SLOT_STAMP) {
+            lastStamp++;
+        }
+        MEMORY.putInt(slotAddress(slot) + STAMP_OFFSET, lastStamp);
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        long address = slotAddress(slot);
+        freeBlob(address + KEY_ADDRESS_OFFSET);
+        freeBlob(address + VALUE_ADDRESS_OFFSET);
+        MEMORY.putLong(address + VALUE_ADDRESS_OFFSET, freeSlotHead);
+        MEMORY.putInt(address + STAMP_OFFSET, FREE_SLOT_STAMP);
+        freeSlotHead = slot;
+    }
+
+    private void writeRecord(int slot, Record record) {
+        long address = slotAddress(slot);
+        Data value = (Data) record.getValue();
+        MEMORY.putLong(address + VALUE_ADDRESS_OFFSET, value == null ? NULL_ADDRESS : writeBlob(value.toByteArray()));
+        MEMORY.putInt(address + VERSION_OFFSET, record.getVersion());
+        MEMORY.putInt(address + HITS_OFFSET, Math.max(record.getHits(), 0));
+        MEMORY.putInt(address + CREATION_TIME_OFFSET, record.getRawCreationTime());
+        MEMORY.putInt(address + LAST_ACCESS_TIME_OFFSET, record.getRawLastAccessTime());
+        MEMORY.putInt(address + LAST_UPDATE_TIME_OFFSET, record.getRawLastUpdateTime());
+        MEMORY.putInt(address + LAST_STORED_TIME_OFFSET, record.getRawLastStoredTime());
+    }
+
+    private void dispose() {
+        if (slots == NULL_ADDRESS) {
+            return;
+        }
+        for (int slot = 0; slot < slotHighWaterMark; slot++) {
+            long address = slotAddress(slot);
+            if (isLive(slot)) {
+                freeBlob(address + KEY_ADDRESS_OFFSET);
+                freeBlob(address + VALUE_ADDRESS_OFFSET);
+            }
+        }
+        allocator.free(slots, (long) slotCapacity * SLOT_SIZE);
+        allocator.free(index, (long) indexCapacity * INDEX_ENTRY_SIZE);
+        slots = NULL_ADDRESS;
+        index = NULL_ADDRESS;
+        slotCapacity = 0;
+        slotHighWaterMark = 0;
+        freeSlotHead = NO_FREE_SLOT;
+        indexCapacity = 0;
+        indexResizeThreshold = 0;
+        size = 0;
+    }
+
+    // blobs
+
+    private long writeBlob(byte[] bytes) {
+        long address = allocator.allocate(BLOB_HEADER_SIZE + bytes.length);
+        MEMORY.putInt(address, bytes.length);
+        MEMORY.copyFromByteArray(bytes, 0, address + BLOB_HEADER_SIZE, bytes.length);
+        return address;
+    }
+
+    private Data readBlob(long address) {
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] bytes = new byte[MEMORY.getInt(address)];
+        MEMORY.copyToByteArray(address + BLOB_HEADER_SIZE, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Frees the blob whose address is stored at the given
+     * address and clears the stored address.
+     */
+    private void freeBlob(long addressOfAddress) {
+        long address = MEMORY.getLong(addressOfAddress);
+        if (address != NULL_ADDRESS) {
+            allocator.free(address, blobCost(address));
+            MEMORY.putLong(addressOfAddress, NULL_ADDRESS);
+        }
+    }
+
+    private static long blobCost(long address) {
+        return address == NULL_ADDRESS ? 0L : BLOB_HEADER_SIZE + MEMORY.getInt(address);
+    }
+
+    private Data readKey(int slot) {
+        return readBlob(MEMORY.getLong(slotAddress(slot) + KEY_ADDRESS_OFFSET));
+    }
+
+    /**
+     * Compares the given serialized key with a key blob the same
+     * way {@link HeapData#equals(Object)} does, i.e. ignoring
+     * the partition hash.
+     */
+    private static boolean keyEquals(long keyAddress, byte[] keyBytes) {
+        int length = keyBytes.length;
+        if (MEMORY.getInt(keyAddress) != length) {
+            return false;
+        }
+        long dataAddress = keyAddress + BLOB_HEADER_SIZE;
+        int i = DATA_OFFSET;
+        for (; i <= length - LONG_SIZE_IN_BYTES; i += LONG_SIZE_IN_BYTES) {
+            if (MEMORY.getLong(dataAddress + i) != MEMORY.getLong(keyBytes, ARRAY_BYTE_BASE_OFFSET + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (MEMORY.getByte(dataAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // hash index
+
+    private long indexAddress(int position) {
+        return index + (long) position * INDEX_ENTRY_SIZE;
+    }
+
+    private long indexEntryAt(int position) {
+        return MEMORY.getLong(indexAddress(position));
+    }
+
+    private int homePosition(int hash) {
+        return homePosition(hash, indexCapacity);
+    }
+
+    private static int homePosition(int hash, int capacity) {
+        return fastIntMix(hash) & (capacity - 1);
+    }
+
+    private static long toIndexEntry(int hash, int slot) {
+        return ((long) hash << Integer.SIZE) | (slot + 1L);
+    }
+
+    private static int hashOf(long indexEntry) {
+        return (int) (indexEntry >>> Integer.SIZE);
+    }
+
+    private static int slotOf(long indexEntry) {
+        return (int) (indexEntry & SLOT_MASK) - 1;
+    }
+
+    private int findSlot(Data key) {
+        if (size == 0) {
+            return -1;
+        }
+        int position = findPosition(key.toByteArray(), key.hashCode());
+        return position < 0 ? -1 : slotOf(indexEntryAt(position));
+    }
+
+    /**
+     * @return the position of the key in the hash index if it is found,
+     * otherwise {@code -(insertion position) - 1}
+     */
+    private int findPosition(byte[] keyBytes, int hash) {
+        int mask = indexCapacity - 1;
+        for (int position = homePosition(hash); ; position = (position + 1) & mask) {
+            long entry = indexEntryAt(position);
+            if (entry == 0L) {
+                return -position - 1;
+            }
+            if (hashOf(entry) == hash
+                    && keyEquals(MEMORY.getLong(slotAddress(slotOf(entry)) + KEY_ADDRESS_OFFSET), keyBytes)) {
+                return position;
+            }
+        }
+    }
+
+    private void removeIndexEntry(int position) {
+        int mask = indexCapacity - 1;
+        int hole = position;
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            long entry = indexEntryAt(next);
+            if (entry == 0L) {
+                break;
+            }
+            int home = homePosition(hashOf(entry));
+            // move the entry into the hole if its home position
+            // is not located cyclically in (hole, next]
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                MEMORY.putLong(indexAddress(hole), entry);
+                hole = next;
+            }
+        }
+        MEMORY.putLong(indexAddress(hole), 0L);
+    }
+
+    private void resizeIndex(int newCapacity) {
+        long oldIndex = index;
+        int oldCapacity = indexCapacity;
+        index = allocator.allocate((long) newCapacity * INDEX_ENTRY_SIZE);
+        indexCapacity = newCapacity;
+        indexResizeThreshold = (int) (newCapacity * INDEX_LOAD_FACTOR);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long entry = MEMORY.getLong(oldIndex + (long) i * INDEX_ENTRY_SIZE);
+            if (entry != 0L) {
+                int position = homePosition(hashOf(entry));
+                while (indexEntryAt(position) != 0L) {
+                    position = (position + 1) & mask;
+                }
+                MEMORY.putLong(indexAddress(position), entry);
+            }
+        }
+        allocator.free(oldIndex, (long) oldCapacity * INDEX_ENTRY_SIZE);
+    }
+
+    // pointer iteration
+
+    /**
+     * Visits the keys bucket by bucket, in descending order of their home
+     * position in the hash index. Home positions depend only on the key hash
+     * and the index capacity, so the iteration state in {@code pointers}
+     * stays meaningful across index resizes and on other replicas, the same
+     * way as for {@link com.hazelcast.internal.util.SampleableConcurrentHashMap}.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size, ObjIntConsumer<Data> consumer) {
+        pointers = checkPointers(pointers, indexCapacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        if (indexCapacity == 0) {
+            lastPointer.setIndex(-1);
+            return pointers;
+        }
+        int bucket = lastPointer.getIndex() >= 0 && lastPointer.getIndex() < indexCapacity
+                ? lastPointer.getIndex() : indexCapacity - 1;
+        int mask = indexCapacity - 1;
+        int counter = 0;
+        while (bucket >= 0 && counter < size) {
+            // entries with this home position form a part of the
+            // run of occupied positions starting at the bucket
+            for (int position = bucket; ; position = (position + 1) & mask) {
+                long entry = indexEntryAt(position);
+                if (entry == 0L) {
+                    break;
+                }
+                int hash = hashOf(entry);
+                if (homePosition(hash) == bucket && hasNotBeenObserved(hash, pointers)) {
+                    int slot = slotOf(entry);
+                    consumer.accept(readKey(slot), slot);
+                    counter++;
+                }
+            }
+            bucket--;
+        }
+        lastPointer.setIndex(bucket);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentIndexCapacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean indexResized = lastPointer.getSize() != currentIndexCapacity;
+        // clone pointers to avoid mutating given reference
+        // add new pointer if resize happened during iteration
+        int newLength = !iterationStarted && indexResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        // reset last pointer if we haven't started iteration or there was a resize
+        if (iterationStarted || indexResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentIndexCapacity);
+        }
+        return updatedPointers;
+    }
+
+    private static boolean hasNotBeenObserved(int hash, IterationPointer[] pointers) {
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer pointer = pointers[i];
+            if (pointer.getSize() > 0 && homePosition(hash, pointer.getSize()) > pointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the live slots in descending slot order. Entries
+     * removed during iteration are skipped, entries added during
+     * iteration may or may not be returned.
+     */
+    private final class SlotIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private int nextSlot = slotHighWaterMark - 1;
+
+        @Override
+        public boolean hasNext() {
+            nextSlot = Math.min(nextSlot, slotHighWaterMark - 1);
+            while (nextSlot >= 0 && !isLive(nextSlot)) {
+                nextSlot--;
+            }
+            return nextSlot >= 0;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int slot = nextSlot--;
+            return new AbstractMap.SimpleImmutableEntry<>(readKey(slot), new OffHeapRecord(OffHeapStorage.this, slot));
+        }
+    }
+
+    /**
+     * Reports the off-heap memory actually allocated by the storage,
+     * including the slot slab and the hash index.
+     */
+    private final class OffHeapEntryCostEstimator implements EntryCostEstimator<Data, Record> {
+
+        @Override
+        public long getEstimate() {
+            return allocator.getUsedMemory();
+        }
+
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+            // the estimate is maintained by the allocator
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return BLOB_HEADER_SIZE + key.totalSize() + INDEX_ENTRY_SIZE + record.getCost();
+        }
+
+        @Override
+        public void reset() {
+            // the estimate is maintained by the allocator
+        }
+    }
+}
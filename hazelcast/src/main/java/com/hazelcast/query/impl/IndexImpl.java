@@ -23,6 +23,8 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.query.impl.GlobalIndexPartitionTracker.PartitionStamp;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_SORTED_PRIMITIVE_STORE_ENABLED;
+
 /**
  * Provides implementation of on-heap indexes.
  */
@@ -49,7 +51,10 @@ public class IndexImpl extends AbstractIndex {
     protected IndexStore createIndexStore(Node node, IndexConfig config, PerIndexStats stats, String mapName) {
         switch (config.getType()) {
             case SORTED:
-                return new OrderedIndexStore(copyBehavior);
+                // composite values can't be mapped to primitive keys
+                return config.getAttributes().size() == 1 && isPrimitiveStoreEnabled(node)
+                        ? new PrimitiveOrderedIndexStore(copyBehavior, this::getConverter)
+                        : new OrderedIndexStore(copyBehavior);
             case HASH:
                 return new UnorderedIndexStore(copyBehavior);
             case BITMAP:
@@ -59,6 +64,10 @@ public class IndexImpl extends AbstractIndex {
         }
     }
 
+    private static boolean isPrimitiveStoreEnabled(Node node) {
+        return node != null && node.getProperties().getBoolean(INDEX_SORTED_PRIMITIVE_STORE_ENABLED);
+    }
+
     @Override
     public final boolean hasPartitionIndexed(int partitionId) {
         return partitionTracker.isIndexed(partitionId);
@@ -311,8 +311,17 @@ public final class Numbers {
         return clazz == Integer.class || clazz == Short.class || clazz == Byte.class;
     }
 
+    /**
+     * Compares the provided long and double values by taking into account
+     * only their magnitudes and signs, avoiding the boxing-unboxing cycle.
+     *
+     * @param l the long value.
+     * @param d the double value.
+     * @return a negative integer, zero, or a positive integer as the long
+     * value is less than, equal to, or greater than the double value.
+     */
     @SuppressWarnings("checkstyle:magicnumber")
-    private static int compareLongWithDouble(long l, double d) {
+    public static int compareLongWithDouble(long l, double d) {
         if (d > -0x1p53 && d < +0x1p53) {
             // Whole numbers in this range are exactly representable as doubles.
             // After casting the given long value to a double, it either falls
@@ -0,0 +1,1105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Long2ObjectSortedMap;
+import com.hazelcast.query.Predicate;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+
+/**
+ * Store indexes rankly, specialised for attributes which can be represented
+ * as {@code long} values without losing their ordering: integral and
+ * floating-point numbers, {@link Date}, {@link LocalDate} and {@link
+ * LocalTime}.
+ * <p>
+ * Attribute values are encoded into {@code long} keys of a {@link
+ * Long2ObjectSortedMap}, so lookups and range scans don't box or compare
+ * {@link Comparable}s. The key type is chosen by the {@link TypeConverter}
+ * of the indexed attribute when the first non-null value is inserted into
+ * the store. If the converter isn't one of the numeric or temporal ones
+ * listed above, or if a value of a different type shows up later
+ * (polymorphic attributes), the store falls back to a regular {@link
+ * OrderedIndexStore} for good.
+ * <p>
+ * For every index key the store keeps either a single {@link QueryableEntry}
+ * or, if there are several entries with the same key, a map of entries
+ * ordered by {@link OrderedIndexStore#DATA_COMPARATOR}, so the order of
+ * entries is the same as in {@link OrderedIndexStore} and {@link
+ * com.hazelcast.internal.iteration.IndexIterationPointer}-based paging works
+ * the same way for both stores.
+ */
+@SuppressWarnings({"rawtypes", "unchecked", "checkstyle:MethodCount"})
+public class PrimitiveOrderedIndexStore extends BaseSingleValueIndexStore {
+
+    /**
+     * The number of index keys fetched from the tree under a single read lock
+     * acquisition by the lazy SQL iterators.
+     */
+    static final int ITERATOR_BATCH_SIZE = 64;
+
+    private final IndexCopyBehavior copyOn;
+    private final boolean copyOnWrite;
+    private final Supplier<TypeConverter> converter;
+
+    private volatile Long2ObjectSortedMap<Object> records = new Long2ObjectSortedMap<>();
+    private volatile KeyType keyType;
+    private volatile Object nullRecords;
+    private volatile OrderedIndexStore fallback;
+
+    /**
+     * @param copyOn    the copy behavior of the index
+     * @param converter supplies the converter of the indexed attribute, it's
+     *                  expected to be known by the time the first non-null
+     *                  value is inserted
+     */
+    public PrimitiveOrderedIndexStore(IndexCopyBehavior copyOn, Supplier<TypeConverter> converter) {
+        super(copyOn, true);
+        assert copyOn != null;
+        this.copyOn = copyOn;
+        this.copyOnWrite = copyOn == IndexCopyBehavior.COPY_ON_WRITE;
+        this.converter = converter;
+    }
+
+    /**
+     * @return {@code true} if this store gave up on primitive keys and
+     * delegates to a regular {@link OrderedIndexStore}, {@code false}
+     * otherwise.
+     */
+    boolean isFallback() {
+        return fallback != null;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.insertInternal(value, record);
+        }
+
+        if (value == NULL) {
+            Object holder = nullRecords;
+            Object oldValue = previousEntry(holder, record.getKeyData());
+            nullRecords = addToHolder(holder, record);
+            return oldValue;
+        }
+
+        KeyType keyType = this.keyType;
+        if (keyType == null) {
+            keyType = KeyType.of(converter.get());
+            if (keyType == null || value.getClass() != keyType.clazz) {
+                return switchToFallback().insertInternal(value, record);
+            }
+            this.keyType = keyType;
+        } else if (value.getClass() != keyType.clazz) {
+            return switchToFallback().insertInternal(value, record);
+        }
+
+        long key = keyType.encode(value);
+        Object holder = records.get(key);
+        Object oldValue = previousEntry(holder, record.getKeyData());
+        records.put(key, addToHolder(holder, record));
+        return oldValue;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.removeInternal(value, recordKey);
+        }
+
+        if (value == NULL) {
+            Object holder = nullRecords;
+            Object oldValue = previousEntry(holder, recordKey);
+            if (oldValue != null) {
+                nullRecords = removeFromHolder(holder, recordKey);
+            }
+            return oldValue;
+        }
+
+        KeyType keyType = this.keyType;
+        if (keyType == null || value.getClass() != keyType.clazz) {
+            // such values are never stored in the tree
+            return null;
+        }
+
+        long key = keyType.encode(value);
+        Object holder = records.get(key);
+        Object oldValue = previousEntry(holder, recordKey);
+        if (oldValue != null) {
+            Object newHolder = removeFromHolder(holder, recordKey);
+            if (newHolder == null) {
+                records.remove(key);
+            } else if (newHolder != holder) {
+                records.put(key, newHolder);
+            }
+        }
+        return oldValue;
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // see OrderedIndexStore#canonicalizeQueryArgumentScalar
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        // see OrderedIndexStore#canonicalizeScalarForStorage
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            records = new Long2ObjectSortedMap<>();
+            keyType = null;
+            nullRecords = null;
+            fallback = null;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable searchedValue, boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(comparison, searchedValue, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(@Nonnull Comparable value, boolean descending) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getSqlRecordIteratorBatch(value, descending);
+            }
+
+            Object holder = lookup(value);
+            if (holder == null) {
+                return emptyIterator();
+            }
+            return Collections.singletonList(new IndexKeyEntries(value, entries(holder, descending))).iterator();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(descending);
+        }
+        return new RangeIterator(KeyRange.all(), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparison comparison,
+            Comparable searchedValue,
+            boolean descending
+    ) {
+        switch (comparison) {
+            case LESS:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, false, descending);
+            case LESS_OR_EQUAL:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, true, descending);
+            case GREATER:
+                return getSqlRecordIteratorBatch(searchedValue, false, POSITIVE_INFINITY, true, descending);
+            case GREATER_OR_EQUAL:
+                return getSqlRecordIteratorBatch(searchedValue, true, POSITIVE_INFINITY, true, descending);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending);
+        }
+
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptyIterator();
+            }
+            return getSqlRecordIteratorBatch(from, descending);
+        } else if (order > 0) {
+            return emptyIterator();
+        }
+
+        KeyRange range = KeyRange.of(keyType, from, fromInclusive, to, toInclusive);
+        if (range == null) {
+            return scanBatch(from, fromInclusive, to, toInclusive, descending).iterator();
+        }
+        return new RangeIterator(range, descending);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(value);
+            }
+            return toSingleResultSet(asMap(lookup(value)));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(values);
+            }
+
+            MultiResultSet results = createMultiResultSet();
+            for (Comparable value : values) {
+                Object holder = lookup(value);
+                if (holder != null) {
+                    copyToMultiResultSet(results, asMap(holder));
+                }
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        switch (comparison) {
+            case LESS:
+                return getRecords(NULL, false, searchedValue, false);
+            case LESS_OR_EQUAL:
+                return getRecords(NULL, false, searchedValue, true);
+            case GREATER:
+                return getRecords(searchedValue, false, POSITIVE_INFINITY, true);
+            case GREATER_OR_EQUAL:
+                return getRecords(searchedValue, true, POSITIVE_INFINITY, true);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(from, fromInclusive, to, toInclusive);
+            }
+
+            int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+            if (order == 0) {
+                if (!fromInclusive || !toInclusive) {
+                    return emptySet();
+                }
+                return toSingleResultSet(asMap(lookup(from)));
+            } else if (order > 0) {
+                return emptySet();
+            }
+
+            MultiResultSet results = createMultiResultSet();
+            KeyRange range = KeyRange.of(keyType, from, fromInclusive, to, toInclusive);
+            if (range == null) {
+                for (IndexKeyEntries keyEntries : scanBatch(from, fromInclusive, to, toInclusive, false)) {
+                    copyToMultiResultSet(results, asMap(((KeyEntries) keyEntries).holder));
+                }
+                return results;
+            }
+
+            if (range.includeNulls && nullRecords != null) {
+                copyToMultiResultSet(results, asMap(nullRecords));
+            }
+            long[] keys = new long[ITERATOR_BATCH_SIZE];
+            Object[] holders = new Object[ITERATOR_BATCH_SIZE];
+            long lo = range.lo;
+            while (lo <= range.hi) {
+                int count = records.copyAscending(lo, range.hi, keys, holders);
+                for (int i = 0; i < count; i++) {
+                    copyToMultiResultSet(results, asMap(holders[i]));
+                }
+                if (count < ITERATOR_BATCH_SIZE || keys[count - 1] == Long.MAX_VALUE) {
+                    break;
+                }
+                lo = keys[count - 1] + 1;
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Returns the holder of entries equal to the given value or {@code null}
+     * if there are no such entries.
+     * <p>
+     * Needs to be invoked under the read lock.
+     */
+    private Object lookup(Comparable value) {
+        if (value == NULL) {
+            return nullRecords;
+        }
+        KeyType keyType = this.keyType;
+        if (keyType == null) {
+            return null;
+        }
+
+        switch (keyType.exactness(value)) {
+            case EXACT:
+                return records.get(keyType.encodeArgument(value));
+            case INEXACT:
+                return null;
+            default:
+                for (IndexKeyEntries keyEntries : scanBatch(value, true, value, true, false)) {
+                    return ((KeyEntries) keyEntries).holder;
+                }
+                return null;
+        }
+    }
+
+    /**
+     * Scans the whole store comparing index keys to the given range bounds
+     * as {@link OrderedIndexStore} does. Used for query arguments which can't
+     * be translated to the primitive key space, so the semantics of both
+     * stores stay the same even in such corner cases.
+     */
+    private List<IndexKeyEntries> scanBatch(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                            boolean descending) {
+        takeReadLock();
+        try {
+            List<IndexKeyEntries> result = new ArrayList<>();
+            if (nullRecords != null && inRange(NULL, from, fromInclusive, to, toInclusive)) {
+                result.add(new KeyEntries(NULL, nullRecords, descending));
+            }
+            KeyType keyType = this.keyType;
+            if (keyType != null) {
+                long[] keys = new long[ITERATOR_BATCH_SIZE];
+                Object[] holders = new Object[ITERATOR_BATCH_SIZE];
+                long lo = Long.MIN_VALUE;
+                while (true) {
+                    int count = records.copyAscending(lo, Long.MAX_VALUE, keys, holders);
+                    for (int i = 0; i < count; i++) {
+                        Comparable key = keyType.decode(keys[i]);
+                        if (inRange(key, from, fromInclusive, to, toInclusive)) {
+                            result.add(new KeyEntries(key, holders[i], descending));
+                        }
+                    }
+                    if (count < ITERATOR_BATCH_SIZE || keys[count - 1] == Long.MAX_VALUE) {
+                        break;
+                    }
+                    lo = keys[count - 1] + 1;
+                }
+            }
+            if (descending) {
+                Collections.reverse(result);
+            }
+            return result;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static boolean inRange(Comparable value, Comparable from, boolean fromInclusive, Comparable to,
+                                   boolean toInclusive) {
+        int fromOrder = SPECIAL_AWARE_COMPARATOR.compare(value, from);
+        if (fromOrder < 0 || fromOrder == 0 && !fromInclusive) {
+            return false;
+        }
+        int toOrder = SPECIAL_AWARE_COMPARATOR.compare(value, to);
+        return toOrder < 0 || toOrder == 0 && toInclusive;
+    }
+
+    /**
+     * Replaces the primitive tree with a regular {@link OrderedIndexStore}
+     * holding the same entries. Needs to be invoked under the write lock.
+     */
+    private OrderedIndexStore switchToFallback() {
+        OrderedIndexStore fallback = new OrderedIndexStore(copyOn);
+        if (nullRecords != null) {
+            copyEntries(fallback, NULL, nullRecords);
+        }
+        KeyType keyType = this.keyType;
+        if (keyType != null) {
+            long[] keys = new long[ITERATOR_BATCH_SIZE];
+            Object[] holders = new Object[ITERATOR_BATCH_SIZE];
+            long lo = Long.MIN_VALUE;
+            while (true) {
+                int count = records.copyAscending(lo, Long.MAX_VALUE, keys, holders);
+                for (int i = 0; i < count; i++) {
+                    copyEntries(fallback, keyType.decode(keys[i]), holders[i]);
+                }
+                if (count < ITERATOR_BATCH_SIZE || keys[count - 1] == Long.MAX_VALUE) {
+                    break;
+                }
+                lo = keys[count - 1] + 1;
+            }
+        }
+
+        // iterators created before the switch keep reading the old tree
+        this.records = new Long2ObjectSortedMap<>();
+        this.nullRecords = null;
+        this.keyType = null;
+        this.fallback = fallback;
+        return fallback;
+    }
+
+    private static void copyEntries(OrderedIndexStore target, Comparable value, Object holder) {
+        if (holder instanceof NavigableMap) {
+            for (QueryableEntry entry : ((NavigableMap<Data, QueryableEntry>) holder).values()) {
+                target.insertInternal(value, entry);
+            }
+        } else {
+            target.insertInternal(value, (QueryableEntry) holder);
+        }
+    }
+
+    /**
+     * Returns the entry with the given key in the given holder or {@code
+     * null} if there is no such entry.
+     */
+    private static QueryableEntry previousEntry(Object holder, Data recordKey) {
+        if (holder == null) {
+            return null;
+        } else if (holder instanceof NavigableMap) {
+            return ((NavigableMap<Data, QueryableEntry>) holder).get(recordKey);
+        } else {
+            QueryableEntry entry = (QueryableEntry) holder;
+            return entry.getKeyData().equals(recordKey) ? entry : null;
+        }
+    }
+
+    /**
+     * Adds the given entry to the given holder. Needs to be invoked in a
+     * thread-safe way.
+     *
+     * @return the holder to store for the index key, the given holder may be
+     * modified in place unless {@link IndexCopyBehavior#COPY_ON_WRITE} is used.
+     * @see IndexCopyBehavior
+     */
+    private Object addToHolder(Object holder, QueryableEntry entry) {
+        if (holder == null) {
+            return entry;
+        }
+
+        Data recordKey = entry.getKeyData();
+        if (holder instanceof NavigableMap) {
+            NavigableMap<Data, QueryableEntry> entries = (NavigableMap<Data, QueryableEntry>) holder;
+            if (copyOnWrite) {
+                entries = new TreeMap<>(entries);
+            }
+            entries.put(recordKey, entry);
+            return entries;
+        }
+
+        QueryableEntry existing = (QueryableEntry) holder;
+        if (existing.getKeyData().equals(recordKey)) {
+            return entry;
+        }
+        NavigableMap<Data, QueryableEntry> entries = copyOnWrite
+                ? new TreeMap<>(DATA_COMPARATOR)
+                : new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+        entries.put(existing.getKeyData(), existing);
+        entries.put(recordKey, entry);
+        return entries;
+    }
+
+    /**
+     * Removes the entry with the given key from the given holder. Needs to
+     * be invoked in a thread-safe way.
+     *
+     * @return the holder to store for the index key or {@code null} if no
+     * entries are left.
+     * @see IndexCopyBehavior
+     */
+    private Object removeFromHolder(Object holder, Data recordKey) {
+        if (!(holder instanceof NavigableMap)) {
+            return null;
+        }
+
+        NavigableMap<Data, QueryableEntry> entries = (NavigableMap<Data, QueryableEntry>) holder;
+        if (copyOnWrite) {
+            entries = new TreeMap<>(entries);
+        }
+        entries.remove(recordKey);
+        if (entries.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Data, QueryableEntry> first = entries.firstEntry();
+        if (first != null && entries.higherKey(first.getKey()) == null) {
+            // collapse back to a single entry
+            return first.getValue();
+        }
+        return entries;
+    }
+
+    private static Map<Data, QueryableEntry> asMap(Object holder) {
+        if (holder == null) {
+            return null;
+        } else if (holder instanceof NavigableMap) {
+            return (NavigableMap<Data, QueryableEntry>) holder;
+        } else {
+            QueryableEntry entry = (QueryableEntry) holder;
+            return Collections.singletonMap(entry.getKeyData(), entry);
+        }
+    }
+
+    private static Iterator<QueryableEntry> entries(Object holder, boolean descending) {
+        if (holder instanceof NavigableMap) {
+            NavigableMap<Data, QueryableEntry> entries = (NavigableMap<Data, QueryableEntry>) holder;
+            return (descending ? entries.descendingMap() : entries).values().iterator();
+        } else {
+            return Collections.singletonList((QueryableEntry) holder).iterator();
+        }
+    }
+
+    /**
+     * The way attribute values of a particular type are mapped to {@code
+     * long} keys. The mapping preserves the order defined by {@link
+     * Comparables#compare}.
+     */
+    private enum KeyType {
+        LONG(Long.class, TypeConverters.LONG_CONVERTER),
+        INTEGER(Integer.class, TypeConverters.INTEGER_CONVERTER),
+        SHORT(Short.class, TypeConverters.SHORT_CONVERTER),
+        BYTE(Byte.class, TypeConverters.BYTE_CONVERTER),
+        DOUBLE(Double.class, TypeConverters.DOUBLE_CONVERTER),
+        FLOAT(Float.class, TypeConverters.FLOAT_CONVERTER),
+        DATE(Date.class, TypeConverters.DATE_CONVERTER),
+        LOCAL_DATE(LocalDate.class, TypeConverters.LOCAL_DATE_CONVERTER),
+        LOCAL_TIME(LocalTime.class, TypeConverters.LOCAL_TIME_CONVERTER);
+
+        private final Class<?> clazz;
+        private final TypeConverter converter;
+
+        KeyType(Class<?> clazz, TypeConverter converter) {
+            this.clazz = clazz;
+            this.converter = converter;
+        }
+
+        /**
+         * @return the key type for attributes converted by the given
+         * converter or {@code null} if their values can't be mapped to
+         * {@code long} keys.
+         */
+        static KeyType of(TypeConverter converter) {
+            for (KeyType keyType : values()) {
+                if (keyType.converter == converter) {
+                    return keyType;
+                }
+            }
+            return null;
+        }
+
+        boolean isIntegral() {
+            return this == LONG || this == INTEGER || this == SHORT || this == BYTE;
+        }
+
+        boolean isFloatingPoint() {
+            return this == DOUBLE || this == FLOAT;
+        }
+
+        /**
+         * Encodes an attribute value of exactly this type.
+         */
+        long encode(Comparable value) {
+            switch (this) {
+                case LONG:
+                case INTEGER:
+                case SHORT:
+                case BYTE:
+                    return ((Number) value).longValue();
+                case DOUBLE:
+                case FLOAT:
+                    return encodeDouble(((Number) value).doubleValue());
+                case DATE:
+                    return ((Date) value).getTime();
+                case LOCAL_DATE:
+                    return ((LocalDate) value).toEpochDay();
+                case LOCAL_TIME:
+                    return ((LocalTime) value).toNanoOfDay();
+                default:
+                    throw new IllegalStateException("Unexpected key type: " + this);
+            }
+        }
+
+        Comparable decode(long key) {
+            switch (this) {
+                case LONG:
+                    return key;
+                case INTEGER:
+                    return (int) key;
+                case SHORT:
+                    return (short) key;
+                case BYTE:
+                    return (byte) key;
+                case DOUBLE:
+                    return decodeDouble(key);
+                case FLOAT:
+                    return (float) decodeDouble(key);
+                case DATE:
+                    return new Date(key);
+                case LOCAL_DATE:
+                    return LocalDate.ofEpochDay(key);
+                case LOCAL_TIME:
+                    return LocalTime.ofNanoOfDay(key);
+                default:
+                    throw new IllegalStateException("Unexpected key type: " + this);
+            }
+        }
+
+        /**
+         * Checks whether the given query argument is representable as a key
+         * of this type, using the mixed numeric type rules of {@link Numbers}.
+         */
+        Exactness exactness(Comparable value) {
+            Class<?> valueClass = value.getClass();
+            if (valueClass == clazz) {
+                return Exactness.EXACT;
+            }
+            if (!(value instanceof Number)) {
+                return Exactness.UNSUPPORTED;
+            }
+            if (isIntegral()) {
+                if (Numbers.isLongRepresentable(valueClass)) {
+                    return Exactness.EXACT;
+                } else if (Numbers.isDoubleRepresentable(valueClass)) {
+                    double d = ((Number) value).doubleValue();
+                    return Numbers.compareLongWithDouble((long) d, d) == 0 ? Exactness.EXACT : Exactness.INEXACT;
+                }
+            } else if (isFloatingPoint()) {
+                if (Numbers.isDoubleRepresentable(valueClass)) {
+                    return Exactness.EXACT;
+                } else if (Numbers.isLongRepresentable(valueClass)) {
+                    long l = ((Number) value).longValue();
+                    return Numbers.compareLongWithDouble(l, (double) l) == 0 ? Exactness.EXACT : Exactness.INEXACT;
+                }
+            }
+            return Exactness.UNSUPPORTED;
+        }
+
+        /**
+         * Encodes a query argument for which {@link #exactness} returned
+         * {@link Exactness#EXACT}.
+         */
+        long encodeArgument(Comparable value) {
+            if (value.getClass() == clazz) {
+                return encode(value);
+            }
+            Number number = (Number) value;
+            if (isIntegral()) {
+                return Numbers.isLongRepresentable(value.getClass()) ? number.longValue() : (long) number.doubleValue();
+            }
+            return encodeDouble(number.doubleValue());
+        }
+
+        /**
+         * @return {@code true} if all keys are less than the given inexact
+         * query argument, {@code false} otherwise.
+         */
+        boolean isAboveAllKeys(Number number) {
+            // NaN is the greatest of all numbers
+            return isIntegral() && Numbers.compareLongWithDouble(Long.MAX_VALUE, number.doubleValue()) < 0;
+        }
+
+        /**
+         * @return {@code true} if all keys are greater than the given inexact
+         * query argument, {@code false} otherwise.
+         */
+        boolean isBelowAllKeys(Number number) {
+            return isIntegral() && Numbers.compareLongWithDouble(Long.MIN_VALUE, number.doubleValue()) > 0;
+        }
+
+        /**
+         * Returns the lowest key greater than the given inexact query argument
+         * which is not above all keys.
+         */
+        @SuppressWarnings("checkstyle:magicnumber")
+        long lowerBound(Number number) {
+            if (isIntegral()) {
+                double d = number.doubleValue();
+                if (d <= -0x1p63) {
+                    return Long.MIN_VALUE;
+                } else if (d == 0.0) {
+                    // -0.0 is ordered between -1 and 0
+                    return 0;
+                }
+                return (long) Math.ceil(d);
+            } else {
+                long l = number.longValue();
+                double d = (double) l;
+                return Numbers.compareLongWithDouble(l, d) < 0 ? encodeDouble(d) : encodeDouble(Math.nextUp(d));
+            }
+        }
+
+        /**
+         * Returns the highest key less than the given inexact query argument
+         * which is not below all keys.
+         */
+        @SuppressWarnings("checkstyle:magicnumber")
+        long upperBound(Number number) {
+            if (isIntegral()) {
+                double d = number.doubleValue();
+                if (Double.isNaN(d) || d >= 0x1p63) {
+                    return Long.MAX_VALUE;
+                } else if (d == 0.0) {
+                    return -1;
+                }
+                return (long) Math.floor(d);
+            } else {
+                long l = number.longValue();
+                double d = (double) l;
+                return Numbers.compareLongWithDouble(l, d) > 0 ? encodeDouble(d) : encodeDouble(Math.nextDown(d));
+            }
+        }
+
+        /**
+         * Maps doubles to longs preserving the order of {@link Double#compare}.
+         */
+        private static long encodeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+
+        private static double decodeDouble(long key) {
+            return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+        }
+    }
+
+    private enum Exactness {
+        /**
+         * The argument maps to a key of the tree.
+         */
+        EXACT,
+        /**
+         * The argument is comparable with the keys, but isn't equal to any
+         * of them, e.g. {@code 1.5} for integral keys.
+         */
+        INEXACT,
+        /**
+         * The argument can't be translated to the key space.
+         */
+        UNSUPPORTED
+    }
+
+    /**
+     * A range of keys in the primitive key space with inclusive bounds.
+     */
+    private static final class KeyRange {
+        private final long lo;
+        private final long hi;
+        private final boolean includeNulls;
+
+        private KeyRange(long lo, long hi, boolean includeNulls) {
+            this.lo = lo;
+            this.hi = hi;
+            this.includeNulls = includeNulls;
+        }
+
+        static KeyRange all() {
+            return new KeyRange(Long.MIN_VALUE, Long.MAX_VALUE, true);
+        }
+
+        /**
+         * @return the range or {@code null} if the given bounds can't be
+         * translated to the key space.
+         */
+        @SuppressWarnings("checkstyle:NPathComplexity")
+        static KeyRange of(KeyType keyType, Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            boolean includeNulls = from == NULL && fromInclusive;
+            if (keyType == null) {
+                // the tree is empty, only nulls may match
+                return new KeyRange(0, -1, includeNulls);
+            }
+
+            long lo;
+            if (from == NULL) {
+                lo = Long.MIN_VALUE;
+            } else {
+                switch (keyType.exactness(from)) {
+                    case EXACT:
+                        lo = keyType.encodeArgument(from);
+                        if (!fromInclusive) {
+                            if (lo == Long.MAX_VALUE) {
+                                return new KeyRange(0, -1, includeNulls);
+                            }
+                            lo++;
+                        }
+                        break;
+                    case INEXACT:
+                        if (keyType.isAboveAllKeys((Number) from)) {
+                            return new KeyRange(0, -1, includeNulls);
+                        }
+                        lo = keyType.lowerBound((Number) from);
+                        break;
+                    default:
+                        return null;
+                }
+            }
+
+            long hi;
+            if (to == POSITIVE_INFINITY) {
+                hi = Long.MAX_VALUE;
+            } else {
+                switch (keyType.exactness(to)) {
+                    case EXACT:
+                        hi = keyType.encodeArgument(to);
+                        if (!toInclusive) {
+                            if (hi == Long.MIN_VALUE) {
+                                return new KeyRange(0, -1, includeNulls);
+                            }
+                            hi--;
+                        }
+                        break;
+                    case INEXACT:
+                        if (keyType.isBelowAllKeys((Number) to)) {
+                            return new KeyRange(0, -1, includeNulls);
+                        }
+                        hi = keyType.upperBound((Number) to);
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            return new KeyRange(lo, hi, includeNulls);
+        }
+    }
+
+    private static final class KeyEntries extends IndexKeyEntries {
+        private final Object holder;
+
+        KeyEntries(Comparable key, Object holder, boolean descending) {
+            super(key, entries(holder, descending));
+            this.holder = holder;
+        }
+    }
+
+    /**
+     * Lazily iterates over the index keys in the given range. The keys are
+     * fetched in batches, every batch under its own read lock acquisition;
+     * the next batch starts right after the last seen key, so concurrent
+     * modifications of the tree are tolerated the same way the iterators of
+     * {@link ConcurrentSkipListMap} tolerate them.
+     */
+    private final class RangeIterator implements Iterator<IndexKeyEntries> {
+        private final Long2ObjectSortedMap<Object> tree;
+        private final KeyType keyType;
+        private final boolean descending;
+        private final long[] keys = new long[ITERATOR_BATCH_SIZE];
+        private final Object[] holders = new Object[ITERATOR_BATCH_SIZE];
+
+        private long lo;
+        private long hi;
+        private boolean nullsPending;
+        private Object nullHolder;
+        private boolean treeExhausted;
+        private int position;
+        private int count;
+
+        RangeIterator(KeyRange range, boolean descending) {
+            this.tree = records;
+            this.keyType = PrimitiveOrderedIndexStore.this.keyType;
+            this.descending = descending;
+            this.lo = range.lo;
+            this.hi = range.hi;
+            this.nullsPending = range.includeNulls;
+            this.treeExhausted = keyType == null || lo > hi;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < count || nullHolder != null) {
+                return true;
+            }
+            // nulls are less than any other value
+            if (!descending && takeNulls()) {
+                return true;
+            }
+            if (fetch()) {
+                return true;
+            }
+            return descending && takeNulls();
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nullHolder != null) {
+                Object holder = nullHolder;
+                nullHolder = null;
+                return new IndexKeyEntries(NULL, entries(holder, descending));
+            }
+            IndexKeyEntries next = new IndexKeyEntries(keyType.decode(keys[position]),
+                    entries(holders[position], descending));
+            holders[position] = null;
+            position++;
+            return next;
+        }
+
+        private boolean takeNulls() {
+            if (!nullsPending) {
+                return false;
+            }
+            nullsPending = false;
+            nullHolder = nullRecords;
+            return nullHolder != null;
+        }
+
+        private boolean fetch() {
+            if (treeExhausted) {
+                return false;
+            }
+            takeReadLock();
+            try {
+                count = descending
+                        ? tree.copyDescending(lo, hi, keys, holders)
+                        : tree.copyAscending(lo, hi, keys, holders);
+            } finally {
+                releaseReadLock();
+            }
+            position = 0;
+            if (count < ITERATOR_BATCH_SIZE) {
+                treeExhausted = true;
+            } else {
+                long last = keys[count - 1];
+                if (descending) {
+                    treeExhausted = last == Long.MIN_VALUE;
+                    hi = last - 1;
+                } else {
+                    treeExhausted = last == Long.MAX_VALUE;
+                    lo = last + 1;
+                }
+            }
+            return count > 0;
+        }
+    }
+
+    private static final class IteratorFromBatch implements Iterator<QueryableEntry> {
+        private final Iterator<IndexKeyEntries> iterator;
+        private Iterator<QueryableEntry> indexKeyIterator;
+
+        private IteratorFromBatch(@Nonnull Iterator<IndexKeyEntries> iterator) {
+            this.iterator = iterator;
+            this.indexKeyIterator = iterator.hasNext() ? iterator.next().getEntries() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (indexKeyIterator == null) {
+                return false;
+            }
+            if (indexKeyIterator.hasNext()) {
+                return true;
+            } else {
+                while (iterator.hasNext()) {
+                    indexKeyIterator = iterator.next().getEntries();
+                    if (indexKeyIterator.hasNext()) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return indexKeyIterator.next();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.json.Json;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.compact.CompactInternalGenericRecord;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
@@ -80,6 +81,21 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     protected abstract Object getTargetObject(boolean key);
 
+    /**
+     * Returns the key or the value of this entry as a record whose top-level
+     * field with the given name can be read directly from the serialized
+     * bytes.
+     *
+     * @param key       {@code true} for the key, {@code false} for the value
+     * @param fieldName the name of the top-level field
+     * @return the record or {@code null} if the key or the value is not
+     * available in Compact serialized form or if the field is extracted by a
+     * custom extractor
+     */
+    public CompactInternalGenericRecord getCompactRecord(boolean key, String fieldName) {
+        return extractors == null ? null : extractors.readCompactRecord(getTargetObject(key), fieldName);
+    }
+
     /**
      * Returns a converter corresponding to the attribute with the given name.
      * Never {@code null}, but may return {@link TypeConverters#NULL_CONVERTER}
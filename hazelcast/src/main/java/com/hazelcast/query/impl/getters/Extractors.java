@@ -20,7 +20,9 @@ import com.hazelcast.config.AttributeConfig;
 import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.InternalGenericRecord;
 import com.hazelcast.internal.serialization.impl.compact.CompactGenericRecord;
+import com.hazelcast.internal.serialization.impl.compact.CompactInternalGenericRecord;
 import com.hazelcast.internal.serialization.impl.portable.PortableGenericRecord;
 import com.hazelcast.internal.util.Preconditions;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
@@ -91,6 +93,29 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Returns the given Compact serialized target as a record whose top-level
+     * fields can be read directly from the serialized bytes, without
+     * deserializing the whole object.
+     *
+     * @param target    the extraction target
+     * @param fieldName the name of the top-level field to read
+     * @return the record or {@code null} if the target is not Compact
+     * serialized {@link Data} or if there is a custom extractor registered
+     * under the given name
+     */
+    public CompactInternalGenericRecord readCompactRecord(Object target, String fieldName) {
+        if (!(target instanceof Data) || !((Data) target).isCompact() || extractors.containsKey(fieldName)) {
+            return null;
+        }
+        try {
+            InternalGenericRecord record = ss.readAsInternalGenericRecord((Data) target);
+            return record instanceof CompactInternalGenericRecord ? (CompactInternalGenericRecord) record : null;
+        } catch (Exception ex) {
+            throw new QueryException(ex);
+        }
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
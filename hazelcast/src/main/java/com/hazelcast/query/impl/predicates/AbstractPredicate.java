@@ -61,7 +61,34 @@ public abstract class AbstractPredicate<K, V> implements Predicate<K, V>, Identi
 
     @Override
     public boolean apply(Map.Entry<K, V> mapEntry) {
-        Object attributeValue = readAttributeValue(mapEntry);
+        if (mapEntry instanceof QueryableEntry) {
+            Boolean result = applyForCompactField((QueryableEntry) mapEntry);
+            if (result != null) {
+                return result;
+            }
+        }
+        return applyForAttributeValue(readAttributeValue(mapEntry));
+    }
+
+    /**
+     * Applies this predicate directly to the serialized attribute value of
+     * an entry whose key or value is Compact serialized, without extracting
+     * and deserializing the attribute value.
+     *
+     * @return the result or {@code null} if the predicate can't be applied
+     * this way and the attribute value has to be extracted.
+     * @see CompactFieldComparator
+     */
+    Boolean applyForCompactField(QueryableEntry entry) {
+        return null;
+    }
+
+    /**
+     * Applies this predicate to the given attribute value as it was read from
+     * an entry, so callers which already extracted the value don't have to
+     * extract it again.
+     */
+    boolean applyForAttributeValue(Object attributeValue) {
         if (attributeValue instanceof MultiResult) {
             return applyForMultiResult((MultiResult) attributeValue);
         } else if (attributeValue instanceof Collection || attributeValue instanceof Object[]) {
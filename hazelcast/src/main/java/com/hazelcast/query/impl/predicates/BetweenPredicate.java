@@ -29,6 +29,8 @@ import com.hazelcast.query.impl.QueryableEntry;
 import java.io.IOException;
 import java.util.Set;
 
+import static com.hazelcast.query.impl.predicates.CompactFieldComparator.NOT_COMPARABLE;
+
 /**
  * Between Predicate
  */
@@ -40,6 +42,9 @@ public class BetweenPredicate extends AbstractIndexAwarePredicate implements Vis
     Comparable to;
     Comparable from;
 
+    private transient volatile CompactFieldComparator fromComparator;
+    private transient volatile CompactFieldComparator toComparator;
+
     public BetweenPredicate() {
     }
 
@@ -52,6 +57,27 @@ public class BetweenPredicate extends AbstractIndexAwarePredicate implements Vis
         this.to = to;
     }
 
+    @Override
+    Boolean applyForCompactField(QueryableEntry entry) {
+        CompactFieldComparator fromComparator = this.fromComparator;
+        CompactFieldComparator toComparator = this.toComparator;
+        if (fromComparator == null || toComparator == null) {
+            fromComparator = CompactFieldComparator.create(attributeName, from);
+            toComparator = CompactFieldComparator.create(attributeName, to);
+            this.fromComparator = fromComparator;
+            this.toComparator = toComparator;
+        }
+        int fromResult = fromComparator.compare(this, entry);
+        if (fromResult == NOT_COMPARABLE) {
+            return null;
+        }
+        if (fromResult < 0) {
+            return false;
+        }
+        int toResult = toComparator.compare(this, entry);
+        return toResult == NOT_COMPARABLE ? null : toResult <= 0;
+    }
+
     @Override
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         if (attributeValue == null) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.impl.compact.CompactInternalGenericRecord;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.Numbers.compareLongWithDouble;
+import static com.hazelcast.query.impl.Numbers.equalDoubles;
+import static com.hazelcast.query.impl.Numbers.equalLongAndDouble;
+import static com.hazelcast.query.impl.Numbers.isDoubleRepresentable;
+import static com.hazelcast.query.impl.Numbers.isLongRepresentable;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Compares a top-level field of Compact serialized keys or values with the
+ * value of a predicate directly on the serialized bytes: the field is located
+ * using the offsets of the Compact format and neither the field value nor the
+ * whole object is deserialized.
+ * <p>
+ * Supported are the non-nullable primitive fields and, for equality only,
+ * the string fields. The predicate value is converted to the type of the
+ * field exactly as {@link AbstractPredicate#convert} does it for the
+ * extracted attribute values, and the comparison follows the semantics of
+ * {@link com.hazelcast.query.impl.Comparables}, so the result is the same as
+ * the one of the regular, deserializing, path. Whenever the field can't be
+ * compared in place, {@link #NOT_COMPARABLE} is returned and the predicate
+ * falls back to the regular path.
+ * <p>
+ * Strings are compared only for equality since the order of the UTF-8
+ * encoded bytes is not the order of {@link String#compareTo}.
+ */
+final class CompactFieldComparator {
+
+    /**
+     * Returned if the field can't be compared in place.
+     */
+    static final int NOT_COMPARABLE = Integer.MIN_VALUE;
+
+    private static final boolean ENABLED = !Boolean.getBoolean("hazelcast.query.disableCompactZeroCopy");
+
+    private static final CompactFieldComparator DISABLED = new CompactFieldComparator(false, null, null);
+
+    private final boolean key;
+    private final String fieldName;
+    private final Comparable value;
+
+    private volatile ConvertedValue convertedValue;
+
+    private CompactFieldComparator(boolean key, String fieldName, Comparable value) {
+        this.key = key;
+        this.fieldName = fieldName;
+        this.value = value;
+    }
+
+    /**
+     * Creates a comparator of the given attribute with the given predicate
+     * value. If the attribute is not a top-level field or the value is
+     * {@code null}, the returned comparator never compares in place.
+     */
+    static CompactFieldComparator create(String attributeName, Comparable value) {
+        if (!ENABLED || attributeName == null || isNull(value) || value.getClass().isEnum()) {
+            return DISABLED;
+        }
+        String keyPrefix = KEY_ATTRIBUTE_NAME.value() + ".";
+        boolean key = attributeName.startsWith(keyPrefix);
+        String fieldName = key ? attributeName.substring(keyPrefix.length()) : attributeName;
+        if (fieldName.isEmpty() || fieldName.indexOf('.') >= 0 || fieldName.indexOf('[') >= 0
+                || KEY_ATTRIBUTE_NAME.value().equals(fieldName) || THIS_ATTRIBUTE_NAME.value().equals(fieldName)) {
+            return DISABLED;
+        }
+        return new CompactFieldComparator(key, fieldName, value);
+    }
+
+    /**
+     * Checks the field of the given entry and the predicate value for
+     * equality.
+     *
+     * @return {@code 0} if they are equal, {@code 1} if they are not or
+     * {@link #NOT_COMPARABLE}
+     */
+    int equal(AbstractPredicate predicate, QueryableEntry entry) {
+        return compare(predicate, entry, true);
+    }
+
+    /**
+     * Compares the field of the given entry with the predicate value.
+     *
+     * @return a negative integer, zero, or a positive integer as the field
+     * value is less than, equal to, or greater than the predicate value or
+     * {@link #NOT_COMPARABLE}
+     */
+    int compare(AbstractPredicate predicate, QueryableEntry entry) {
+        return compare(predicate, entry, false);
+    }
+
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    private int compare(AbstractPredicate predicate, QueryableEntry entry, boolean equality) {
+        if (fieldName == null) {
+            return NOT_COMPARABLE;
+        }
+        CompactInternalGenericRecord record = entry.getCompactRecord(key, fieldName);
+        if (record == null) {
+            return NOT_COMPARABLE;
+        }
+        FieldKind kind = record.getFieldKind(fieldName);
+        ConvertedValue converted = convert(predicate, kind);
+        if (!converted.comparable) {
+            return NOT_COMPARABLE;
+        }
+        switch (kind) {
+            case BOOLEAN:
+                return Boolean.compare(record.getBoolean(fieldName), converted.booleanValue);
+            case INT8:
+                return converted.compareLong(record.getInt8(fieldName), equality);
+            case INT16:
+                return converted.compareLong(record.getInt16(fieldName), equality);
+            case INT32:
+                return converted.compareLong(record.getInt32(fieldName), equality);
+            case INT64:
+                return converted.compareLong(record.getInt64(fieldName), equality);
+            case FLOAT32:
+                return converted.compareDouble(record.getFloat32(fieldName), equality);
+            case FLOAT64:
+                return converted.compareDouble(record.getFloat64(fieldName), equality);
+            case STRING:
+                if (!equality) {
+                    return NOT_COMPARABLE;
+                }
+                return record.isStringEqual(fieldName, converted.utf8Value) ? 0 : 1;
+            default:
+                return NOT_COMPARABLE;
+        }
+    }
+
+    private ConvertedValue convert(AbstractPredicate predicate, FieldKind kind) {
+        ConvertedValue converted = convertedValue;
+        if (converted == null || converted.kind != kind) {
+            // the conversion depends only on the type of the attribute value,
+            // so it's done once for a boxed sample of the field's type
+            Comparable sample = sample(kind);
+            converted = new ConvertedValue(kind, sample == null ? null : predicate.convert(sample, value));
+            convertedValue = converted;
+        }
+        return converted;
+    }
+
+    private static Comparable sample(FieldKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return false;
+            case INT8:
+                return (byte) 0;
+            case INT16:
+                return (short) 0;
+            case INT32:
+                return 0;
+            case INT64:
+                return 0L;
+            case FLOAT32:
+                return 0.0f;
+            case FLOAT64:
+                return 0.0d;
+            case STRING:
+                return "";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The predicate value converted to the type of a field of a certain kind.
+     */
+    private static final class ConvertedValue {
+
+        final FieldKind kind;
+        final boolean comparable;
+        final boolean longValueExact;
+        final long longValue;
+        final double doubleValue;
+        final boolean booleanValue;
+        final byte[] utf8Value;
+
+        ConvertedValue(FieldKind kind, Object converted) {
+            this.kind = kind;
+            boolean numeric = converted instanceof Number && kind != FieldKind.BOOLEAN && kind != FieldKind.STRING;
+            Class clazz = numeric ? converted.getClass() : null;
+            this.longValueExact = numeric && isLongRepresentable(clazz);
+            this.longValue = numeric ? ((Number) converted).longValue() : 0;
+            this.doubleValue = numeric ? ((Number) converted).doubleValue() : 0;
+            this.booleanValue = kind == FieldKind.BOOLEAN && Boolean.TRUE.equals(converted);
+            this.utf8Value = kind == FieldKind.STRING && converted instanceof String
+                    ? ((String) converted).getBytes(StandardCharsets.UTF_8) : null;
+            this.comparable = numeric && (longValueExact || isDoubleRepresentable(clazz))
+                    || kind == FieldKind.BOOLEAN && converted instanceof Boolean
+                    || utf8Value != null;
+        }
+
+        int compareLong(long fieldValue, boolean equality) {
+            if (longValueExact) {
+                return Long.compare(fieldValue, longValue);
+            } else if (equality) {
+                return equalLongAndDouble(fieldValue, doubleValue) ? 0 : 1;
+            } else {
+                return compareLongWithDouble(fieldValue, doubleValue);
+            }
+        }
+
+        int compareDouble(double fieldValue, boolean equality) {
+            if (longValueExact) {
+                if (equality) {
+                    return equalLongAndDouble(longValue, fieldValue) ? 0 : 1;
+                }
+                return -Integer.signum(compareLongWithDouble(longValue, fieldValue));
+            } else if (equality) {
+                return equalDoubles(fieldValue, doubleValue) ? 0 : 1;
+            } else {
+                return Double.compare(fieldValue, doubleValue);
+            }
+        }
+    }
+}
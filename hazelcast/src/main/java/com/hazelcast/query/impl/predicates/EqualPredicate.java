@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.Objects;
 import java.util.Set;
 
+import static com.hazelcast.query.impl.predicates.CompactFieldComparator.NOT_COMPARABLE;
 import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
 
 /**
@@ -43,6 +44,8 @@ public class EqualPredicate extends AbstractIndexAwarePredicate
 
     Comparable value;
 
+    private transient volatile CompactFieldComparator compactFieldComparator;
+
     public EqualPredicate() {
     }
 
@@ -69,6 +72,17 @@ public class EqualPredicate extends AbstractIndexAwarePredicate
         return index.getRecords(value);
     }
 
+    @Override
+    Boolean applyForCompactField(QueryableEntry entry) {
+        CompactFieldComparator comparator = compactFieldComparator;
+        if (comparator == null) {
+            comparator = CompactFieldComparator.create(attributeName, value);
+            compactFieldComparator = comparator;
+        }
+        int result = comparator.equal(this, entry);
+        return result == NOT_COMPARABLE ? null : result == 0;
+    }
+
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         if (attributeValue == null) {
             return isNull(value);
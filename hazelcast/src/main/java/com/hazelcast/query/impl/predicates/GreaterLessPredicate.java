@@ -29,6 +29,8 @@ import com.hazelcast.query.impl.QueryableEntry;
 import java.io.IOException;
 import java.util.Set;
 
+import static com.hazelcast.query.impl.predicates.CompactFieldComparator.NOT_COMPARABLE;
+
 /**
  * Greater Less Predicate
  */
@@ -41,6 +43,8 @@ public final class GreaterLessPredicate extends AbstractIndexAwarePredicate impl
     boolean equal;
     boolean less;
 
+    private transient volatile CompactFieldComparator compactFieldComparator;
+
     public GreaterLessPredicate() {
     }
 
@@ -56,6 +60,20 @@ public final class GreaterLessPredicate extends AbstractIndexAwarePredicate impl
         this.less = less;
     }
 
+    @Override
+    Boolean applyForCompactField(QueryableEntry entry) {
+        CompactFieldComparator comparator = compactFieldComparator;
+        if (comparator == null) {
+            comparator = CompactFieldComparator.create(attributeName, value);
+            compactFieldComparator = comparator;
+        }
+        int result = comparator.compare(this, entry);
+        if (result == NOT_COMPARABLE) {
+            return null;
+        }
+        return equal && result == 0 || (less ? (result < 0) : (result > 0));
+    }
+
     @Override
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         if (attributeValue == null) {
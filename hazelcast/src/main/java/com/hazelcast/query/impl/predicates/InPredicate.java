@@ -95,21 +95,36 @@ public class InPredicate extends AbstractIndexAwarePredicate implements Visitabl
 
         attributeValue = (Comparable) convertEnumValue(attributeValue);
         if (set == null) {
-            set = createHashSet(values.length);
-            for (Comparable value : values) {
-                Comparable converted = convert(attributeValue, value);
-                if (isNull(converted)) {
-                    // Convert all kind of nulls to plain Java null, so we can
-                    // match all of them using set.contains(...).
-                    converted = null;
-                }
-                set.add(Comparables.canonicalizeForHashLookup(converted));
-            }
-            convertedInValues = set;
+            set = convertInValues(attributeValue);
         }
         return set.contains(Comparables.canonicalizeForHashLookup(attributeValue));
     }
 
+    /**
+     * Returns the canonicalized values of this predicate converted to the
+     * type of the given non-null attribute value, converting them if that
+     * was not done yet.
+     */
+    Set<Comparable> convertedInValues(Comparable attributeValue) {
+        Set<Comparable> set = convertedInValues;
+        return set != null ? set : convertInValues((Comparable) convertEnumValue(attributeValue));
+    }
+
+    private Set<Comparable> convertInValues(Comparable attributeValue) {
+        Set<Comparable> set = createHashSet(values.length);
+        for (Comparable value : values) {
+            Comparable converted = convert(attributeValue, value);
+            if (isNull(converted)) {
+                // Convert all kind of nulls to plain Java null, so we can
+                // match all of them using set.contains(...).
+                converted = null;
+            }
+            set.add(Comparables.canonicalizeForHashLookup(converted));
+        }
+        convertedInValues = set;
+        return set;
+    }
+
     @Override
     public Set<QueryableEntry> filter(QueryContext queryContext) {
         Index index = matchIndex(queryContext, QueryContext.IndexMatchHint.PREFER_UNORDERED);
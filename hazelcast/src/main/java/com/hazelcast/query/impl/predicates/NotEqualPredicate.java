@@ -22,11 +22,13 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Comparables;
 import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.hazelcast.query.impl.predicates.CompactFieldComparator.NOT_COMPARABLE;
 import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
 
 /**
@@ -39,6 +41,8 @@ public class NotEqualPredicate extends AbstractPredicate implements NegatablePre
 
     Comparable value;
 
+    private transient volatile CompactFieldComparator compactFieldComparator;
+
     public NotEqualPredicate() {
     }
 
@@ -62,6 +66,17 @@ public class NotEqualPredicate extends AbstractPredicate implements NegatablePre
         return !super.apply(mapEntry);
     }
 
+    @Override
+    Boolean applyForCompactField(QueryableEntry entry) {
+        CompactFieldComparator comparator = compactFieldComparator;
+        if (comparator == null) {
+            comparator = CompactFieldComparator.create(attributeName, value);
+            compactFieldComparator = comparator;
+        }
+        int result = comparator.equal(this, entry);
+        return result == NOT_COMPARABLE ? null : result == 0;
+    }
+
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         // XXX: The code below performs equality check, instead of inequality.
         // The result of this check is negated in NotEqualPredicate.apply method.
@@ -0,0 +1,721 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.json.JsonValue;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * Evaluates a predicate over a batch of entries at once instead of entry by
+ * entry.
+ * <p>
+ * The predicate tree is compiled into a tree of nodes operating on selection
+ * bitmaps: every node receives the set of batch rows it has to look at and
+ * produces the subset of them it matches. {@link AndPredicate} narrows the
+ * selection from one child to another, {@link OrPredicate} passes only the
+ * rows not matched yet to its next child, so every leaf predicate is applied
+ * to exactly the same rows as the row-by-row evaluation would apply it to.
+ * <p>
+ * {@link EqualPredicate}, {@link GreaterLessPredicate}, {@link
+ * BetweenPredicate} and {@link InPredicate} leaves read their attribute from
+ * a column shared by all leaves referring to the same attribute, so every
+ * attribute is extracted at most once per entry. Numeric attribute values are
+ * additionally unpacked into primitive {@code long} and {@code double}
+ * arrays: if the selected rows hold values of a single numeric type, the
+ * comparison operands are converted once per batch and the leaf is evaluated
+ * by a tight loop over the primitive values. Other values are passed to the
+ * predicate itself, and any other predicate found in the tree is evaluated
+ * row by row using {@link Predicate#apply}.
+ * <p>
+ * Instances are stateful and must be confined to a single thread; the
+ * compiled predicate is shared as usual.
+ */
+public final class VectorizedPredicate {
+
+    private static final int KIND_NULL = 0;
+    private static final int KIND_LONG = 1;
+    private static final int KIND_DOUBLE = 2;
+    private static final int KIND_OBJECT = 3;
+    private static final int KIND_COMPLEX = 4;
+
+    private final Node root;
+    private final Column[] columns;
+    private final int batchSize;
+    private final long[] selection;
+    private final long[] matches;
+
+    private VectorizedPredicate(Node root, Column[] columns, int batchSize) {
+        this.root = root;
+        this.columns = columns;
+        this.batchSize = batchSize;
+        this.selection = new long[words(batchSize)];
+        this.matches = new long[words(batchSize)];
+    }
+
+    /**
+     * Compiles the given predicate for batched evaluation.
+     *
+     * @param predicate the predicate to compile
+     * @param batchSize the maximum number of entries evaluated at once
+     * @return the compiled predicate or {@code null} if the predicate contains
+     * nothing which would benefit from the batched evaluation, in which case
+     * it should be applied row by row.
+     */
+    public static VectorizedPredicate compile(Predicate predicate, int batchSize) {
+        checkTrue(batchSize > 0, "batchSize must be positive");
+        if (predicate == null) {
+            return null;
+        }
+        Compiler compiler = new Compiler(batchSize);
+        Node root = compiler.compile(predicate);
+        if (compiler.columns.isEmpty()) {
+            return null;
+        }
+        return new VectorizedPredicate(root, compiler.columns.values().toArray(new Column[0]), batchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Evaluates the predicate over the first {@code size} given entries.
+     *
+     * @param entries      the entries to evaluate, must implement {@link
+     *                     Extractable}
+     * @param size         the number of entries to evaluate, at most the
+     *                     batch size
+     * @param matchIndices the array to store the indexes of the matching
+     *                     entries to in ascending order
+     * @return the number of matching entries
+     */
+    public int evaluate(QueryableEntry[] entries, int size, int[] matchIndices) {
+        assert size <= batchSize;
+        if (size == 0) {
+            return 0;
+        }
+        for (Column column : columns) {
+            column.reset();
+        }
+        Arrays.fill(selection, 0);
+        int fullWords = size >>> 6;
+        Arrays.fill(selection, 0, fullWords, -1L);
+        if ((size & 63) != 0) {
+            selection[fullWords] = (1L << size) - 1;
+        }
+
+        try {
+            root.evaluate(entries, selection, matches);
+        } finally {
+            for (Column column : columns) {
+                column.release();
+            }
+        }
+
+        int count = 0;
+        for (int w = 0; w < matches.length; w++) {
+            for (long word = matches[w]; word != 0; word &= word - 1) {
+                matchIndices[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return count;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int firstRow(long[] selection) {
+        for (int w = 0; w < selection.length; w++) {
+            if (selection[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(selection[w]);
+            }
+        }
+        throw new IllegalStateException("Empty selection");
+    }
+
+    private static boolean isEmpty(long[] bitmap) {
+        for (long word : bitmap) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Compiler {
+        private final int batchSize;
+        private final Map<String, Column> columns = new HashMap<>();
+
+        Compiler(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        Node compile(Predicate predicate) {
+            // exact class checks: subclasses, like NotEqualPredicate, may
+            // interpret the results of the base class differently
+            Class<?> predicateClass = predicate.getClass();
+            if (predicateClass == AndPredicate.class) {
+                return new AndNode(compile(((AndPredicate) predicate).predicates), batchSize);
+            } else if (predicateClass == OrPredicate.class) {
+                return new OrNode(compile(((OrPredicate) predicate).predicates), batchSize);
+            } else if (predicateClass == EqualPredicate.class) {
+                EqualPredicate equal = (EqualPredicate) predicate;
+                return new EqualNode(equal, column(equal.attributeName));
+            } else if (predicateClass == GreaterLessPredicate.class) {
+                GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+                return new GreaterLessNode(greaterLess, column(greaterLess.attributeName));
+            } else if (predicateClass == BetweenPredicate.class) {
+                BetweenPredicate between = (BetweenPredicate) predicate;
+                return new BetweenNode(between, column(between.attributeName));
+            } else if (predicateClass == InPredicate.class) {
+                InPredicate in = (InPredicate) predicate;
+                return new InNode(in, column(in.attributeName));
+            }
+            return new RowNode(predicate);
+        }
+
+        private Node[] compile(Predicate[] predicates) {
+            Node[] nodes = new Node[predicates.length];
+            for (int i = 0; i < predicates.length; i++) {
+                nodes[i] = compile(predicates[i]);
+            }
+            return nodes;
+        }
+
+        private Column column(String attributeName) {
+            return columns.computeIfAbsent(attributeName, name -> new Column(name, batchSize));
+        }
+    }
+
+    /**
+     * Values of a single attribute for the current batch, extracted lazily
+     * only for the rows some leaf has actually been asked to evaluate.
+     */
+    private static final class Column {
+        private final String attributeName;
+        private final Object[] values;
+        private final byte[] kinds;
+        private final long[] longs;
+        private final double[] doubles;
+        private final long[] loaded;
+
+        Column(String attributeName, int batchSize) {
+            this.attributeName = attributeName;
+            this.values = new Object[batchSize];
+            this.kinds = new byte[batchSize];
+            this.longs = new long[batchSize];
+            this.doubles = new double[batchSize];
+            this.loaded = new long[words(batchSize)];
+        }
+
+        void reset() {
+            Arrays.fill(loaded, 0);
+        }
+
+        void release() {
+            // don't retain user values between batches
+            Arrays.fill(values, null);
+        }
+
+        void load(QueryableEntry[] entries, long[] selection) {
+            for (int w = 0; w < selection.length; w++) {
+                for (long word = selection[w] & ~loaded[w]; word != 0; word &= word - 1) {
+                    load(entries, (w << 6) + Long.numberOfTrailingZeros(word));
+                }
+                loaded[w] |= selection[w];
+            }
+        }
+
+        private void load(QueryableEntry[] entries, int row) {
+            Object value = ((Extractable) entries[row]).getAttributeValue(attributeName);
+            values[row] = value;
+            if (value == null) {
+                kinds[row] = KIND_NULL;
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                kinds[row] = KIND_LONG;
+                longs[row] = ((Number) value).longValue();
+            } else if (value instanceof Double || value instanceof Float) {
+                kinds[row] = KIND_DOUBLE;
+                doubles[row] = ((Number) value).doubleValue();
+            } else if (value instanceof Comparable && !(value instanceof JsonValue)) {
+                kinds[row] = KIND_OBJECT;
+            } else {
+                // multi-values, JSON, arrays and collections, non-comparables:
+                // left for AbstractPredicate to deal with
+                assert value instanceof MultiResult || value instanceof JsonValue || value instanceof Collection
+                        || value instanceof Object[] || !(value instanceof Comparable);
+                kinds[row] = KIND_COMPLEX;
+            }
+        }
+
+        /**
+         * @return the class of the values of the selected rows if all of them
+         * are non-null numbers of the same class, {@code null} otherwise.
+         */
+        Class<?> commonNumericClass(long[] selection) {
+            Class<?> common = null;
+            for (int w = 0; w < selection.length; w++) {
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    int kind = kinds[row];
+                    if (kind != KIND_LONG && kind != KIND_DOUBLE) {
+                        return null;
+                    }
+                    Class<?> valueClass = values[row].getClass();
+                    if (common == null) {
+                        common = valueClass;
+                    } else if (common != valueClass) {
+                        return null;
+                    }
+                }
+            }
+            return common;
+        }
+    }
+
+    /**
+     * A node of the compiled predicate tree.
+     */
+    private abstract static class Node {
+        /**
+         * Evaluates this node for the rows set in {@code selection} and sets
+         * the bits of the matching ones in {@code result}, which must not be
+         * the same array. Bits not set in {@code selection} are cleared.
+         */
+        abstract void evaluate(QueryableEntry[] entries, long[] selection, long[] result);
+    }
+
+    private static final class AndNode extends Node {
+        private final Node[] children;
+        private final long[] current;
+
+        AndNode(Node[] children, int batchSize) {
+            this.children = children;
+            this.current = new long[words(batchSize)];
+        }
+
+        @Override
+        void evaluate(QueryableEntry[] entries, long[] selection, long[] result) {
+            System.arraycopy(selection, 0, result, 0, result.length);
+            for (Node child : children) {
+                if (isEmpty(result)) {
+                    return;
+                }
+                System.arraycopy(result, 0, current, 0, current.length);
+                child.evaluate(entries, current, result);
+            }
+        }
+    }
+
+    private static final class OrNode extends Node {
+        private final Node[] children;
+        private final long[] remaining;
+        private final long[] matched;
+
+        OrNode(Node[] children, int batchSize) {
+            this.children = children;
+            this.remaining = new long[words(batchSize)];
+            this.matched = new long[words(batchSize)];
+        }
+
+        @Override
+        void evaluate(QueryableEntry[] entries, long[] selection, long[] result) {
+            System.arraycopy(selection, 0, remaining, 0, remaining.length);
+            Arrays.fill(result, 0);
+            for (Node child : children) {
+                if (isEmpty(remaining)) {
+                    return;
+                }
+                child.evaluate(entries, remaining, matched);
+                for (int w = 0; w < result.length; w++) {
+                    result[w] |= matched[w];
+                    remaining[w] &= ~matched[w];
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a predicate which can't be batched row by row.
+     */
+    private static final class RowNode extends Node {
+        private final Predicate predicate;
+
+        RowNode(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void evaluate(QueryableEntry[] entries, long[] selection, long[] result) {
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (predicate.apply(entries[(w << 6) + bit])) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+    }
+
+    /**
+     * Base for the leaves evaluated over an attribute column.
+     * <p>
+     * Subclasses prepare their operands from a sample value of the selected
+     * rows and implement the primitive loops; rows for which the primitive
+     * evaluation is not possible are passed to the predicate itself.
+     */
+    private abstract static class LeafNode<P extends AbstractPredicate> extends Node {
+        final P predicate;
+        final Column column;
+
+        LeafNode(P predicate, Column column) {
+            this.predicate = predicate;
+            this.column = column;
+        }
+
+        @Override
+        void evaluate(QueryableEntry[] entries, long[] selection, long[] result) {
+            column.load(entries, selection);
+            Class<?> numericClass = column.commonNumericClass(selection);
+            if (numericClass != null) {
+                int sampleRow = firstRow(selection);
+                if (prepare(numericClass, (Comparable) column.values[sampleRow])) {
+                    if (column.kinds[sampleRow] == KIND_LONG) {
+                        evaluateLongs(column.longs, selection, result);
+                    } else {
+                        evaluateDoubles(column.doubles, selection, result);
+                    }
+                    return;
+                }
+            }
+            evaluateValues(selection, result);
+        }
+
+        /**
+         * Evaluates the selected rows one by one using the predicate.
+         */
+        final void evaluateValues(long[] selection, long[] result) {
+            int nullResult = -1;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    int row = (w << 6) + bit;
+                    Object value = column.values[row];
+                    boolean match;
+                    switch (column.kinds[row]) {
+                        case KIND_NULL:
+                            if (nullResult == -1) {
+                                nullResult = predicate.applyForSingleAttributeValue(null) ? 1 : 0;
+                            }
+                            match = nullResult == 1;
+                            break;
+                        case KIND_COMPLEX:
+                            match = predicate.applyForAttributeValue(value);
+                            break;
+                        default:
+                            match = predicate.applyForSingleAttributeValue((Comparable) value);
+                            break;
+                    }
+                    if (match) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        /**
+         * Prepares the primitive operands for the selected rows, all of which
+         * hold non-null values of the given numeric class.
+         *
+         * @param valueClass the class of the values
+         * @param sample     one of the values
+         * @return {@code true} if the primitive evaluation is possible,
+         * {@code false} otherwise.
+         */
+        abstract boolean prepare(Class<?> valueClass, Comparable sample);
+
+        abstract void evaluateLongs(long[] values, long[] selection, long[] result);
+
+        abstract void evaluateDoubles(double[] values, long[] selection, long[] result);
+    }
+
+    private static final class EqualNode extends LeafNode<EqualPredicate> {
+        private long longOperand;
+        private double doubleOperand;
+
+        EqualNode(EqualPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean prepare(Class<?> valueClass, Comparable sample) {
+            // mirrors EqualPredicate.applyForSingleAttributeValue which keeps
+            // the converted value
+            Comparable operand = predicate.convert(sample, predicate.value);
+            predicate.value = operand;
+            if (operand == null || operand.getClass() != valueClass) {
+                return false;
+            }
+            longOperand = ((Number) operand).longValue();
+            doubleOperand = ((Number) operand).doubleValue();
+            return true;
+        }
+
+        @Override
+        void evaluateLongs(long[] values, long[] selection, long[] result) {
+            long operand = longOperand;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (values[(w << 6) + bit] == operand) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        @Override
+        void evaluateDoubles(double[] values, long[] selection, long[] result) {
+            double operand = doubleOperand;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    // Double.compare agrees with Double.equals and Float.equals
+                    if (Double.compare(values[(w << 6) + bit], operand) == 0) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+    }
+
+    private static final class GreaterLessNode extends LeafNode<GreaterLessPredicate> {
+        private long longOperand;
+        private double doubleOperand;
+
+        GreaterLessNode(GreaterLessPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean prepare(Class<?> valueClass, Comparable sample) {
+            Comparable operand = predicate.convert(sample, predicate.value);
+            if (operand == null || operand.getClass() != valueClass) {
+                return false;
+            }
+            longOperand = ((Number) operand).longValue();
+            doubleOperand = ((Number) operand).doubleValue();
+            return true;
+        }
+
+        @Override
+        void evaluateLongs(long[] values, long[] selection, long[] result) {
+            long operand = longOperand;
+            boolean equal = predicate.equal;
+            boolean less = predicate.less;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    int order = Long.compare(values[(w << 6) + bit], operand);
+                    if (equal && order == 0 || (less ? order < 0 : order > 0)) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        @Override
+        void evaluateDoubles(double[] values, long[] selection, long[] result) {
+            double operand = doubleOperand;
+            boolean equal = predicate.equal;
+            boolean less = predicate.less;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    int order = Double.compare(values[(w << 6) + bit], operand);
+                    if (equal && order == 0 || (less ? order < 0 : order > 0)) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+    }
+
+    private static final class BetweenNode extends LeafNode<BetweenPredicate> {
+        private long longFrom;
+        private long longTo;
+        private double doubleFrom;
+        private double doubleTo;
+
+        BetweenNode(BetweenPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean prepare(Class<?> valueClass, Comparable sample) {
+            Comparable from = predicate.convert(sample, predicate.from);
+            Comparable to = predicate.convert(sample, predicate.to);
+            if (from == null || to == null || from.getClass() != valueClass || to.getClass() != valueClass) {
+                return false;
+            }
+            longFrom = ((Number) from).longValue();
+            longTo = ((Number) to).longValue();
+            doubleFrom = ((Number) from).doubleValue();
+            doubleTo = ((Number) to).doubleValue();
+            return true;
+        }
+
+        @Override
+        void evaluateLongs(long[] values, long[] selection, long[] result) {
+            long from = longFrom;
+            long to = longTo;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    long value = values[(w << 6) + bit];
+                    if (value >= from && value <= to) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        @Override
+        void evaluateDoubles(double[] values, long[] selection, long[] result) {
+            double from = doubleFrom;
+            double to = doubleTo;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    double value = values[(w << 6) + bit];
+                    if (Double.compare(value, from) >= 0 && Double.compare(value, to) <= 0) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+    }
+
+    private static final class InNode extends LeafNode<InPredicate> {
+        private Set<Comparable> preparedFor;
+        private long[] longValues;
+        private long[] doubleBits;
+
+        InNode(InPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean prepare(Class<?> valueClass, Comparable sample) {
+            Set<Comparable> set = predicate.convertedInValues(sample);
+            if (set == preparedFor) {
+                return true;
+            }
+            // the set holds the values canonicalized for the hash lookup:
+            // whole numbers are longs, everything else is doubles
+            long[] longs = new long[set.size()];
+            long[] bits = new long[set.size()];
+            int longCount = 0;
+            int doubleCount = 0;
+            for (Comparable value : set) {
+                if (value instanceof Long) {
+                    longs[longCount++] = (Long) value;
+                } else if (value instanceof Double) {
+                    bits[doubleCount++] = Double.doubleToLongBits((Double) value);
+                }
+            }
+            longValues = Arrays.copyOf(longs, longCount);
+            doubleBits = Arrays.copyOf(bits, doubleCount);
+            Arrays.sort(longValues);
+            Arrays.sort(doubleBits);
+            preparedFor = set;
+            return true;
+        }
+
+        @Override
+        void evaluateLongs(long[] values, long[] selection, long[] result) {
+            long[] lookup = longValues;
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (Arrays.binarySearch(lookup, values[(w << 6) + bit]) >= 0) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        @Override
+        void evaluateDoubles(double[] values, long[] selection, long[] result) {
+            for (int w = 0; w < selection.length; w++) {
+                long bits = 0;
+                for (long word = selection[w]; word != 0; word &= word - 1) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (contains(values[(w << 6) + bit])) {
+                        bits |= 1L << bit;
+                    }
+                }
+                result[w] = bits;
+            }
+        }
+
+        /**
+         * Mirrors {@link com.hazelcast.query.impl.Numbers#canonicalizeForHashLookup}
+         * followed by a lookup in the converted values set.
+         */
+        private boolean contains(double value) {
+            long longValue = (long) value;
+            if (Double.doubleToLongBits(value) == Double.doubleToLongBits((double) longValue)) {
+                return Arrays.binarySearch(longValues, longValue) >= 0;
+            }
+            return Arrays.binarySearch(doubleBits, Double.doubleToLongBits(value)) >= 0;
+        }
+    }
+}
@@ -50,6 +50,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_QUEUE_SIZE;
@@ -65,7 +66,11 @@ import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandle
 import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD;
 import static com.hazelcast.spi.properties.ClusterProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -88,6 +93,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * specific to a partition, e.g. a heart beat.
  * </li>
  * </ol>
+ * If the {@link com.hazelcast.spi.properties.ClusterProperty#PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED
+ * work stealing} is enabled, the partitions are initially assigned to the partition-specific operation threads
+ * the same way, but an idle thread can take over a partition from a busy one. See {@link PartitionThreadBalancer}.
  */
 @SuppressWarnings("checkstyle:methodcount")
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
@@ -100,6 +108,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null if the work stealing is disabled
+    private final PartitionThreadBalancer balancer;
 
     private final OperationQueue genericQueue
             = new OperationQueueImpl(new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>());
@@ -130,8 +140,11 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         if (!tpcServerBootstrap.isEnabled()) {
-            this.partitionThreads = initClassicPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
+            PartitionOperationThread[] threads = new PartitionOperationThread[getClassicPartitionThreadCount(properties)];
+            this.balancer = initBalancer(properties, threads);
+            this.partitionThreads = initClassicPartitionThreads(threads, properties, hzName, nodeExtension, configClassLoader);
         } else {
+            this.balancer = null;
             this.partitionThreads = initTpcPartitionThreads(tpcServerBootstrap, hzName, nodeExtension, configClassLoader);
         }
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
@@ -162,16 +175,29 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return operationRunners;
     }
 
-    private PartitionOperationThread[] initClassicPartitionThreads(HazelcastProperties properties, String hzName,
-                                                                   NodeExtension nodeExtension, ClassLoader configClassLoader) {
-
-        int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
+    private int getClassicPartitionThreadCount(HazelcastProperties properties) {
         if (threadAffinity.isEnabled()) {
-            threadCount = threadAffinity.getThreadCount();
+            return threadAffinity.getThreadCount();
         }
+        return properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
+    }
 
+    private PartitionThreadBalancer initBalancer(HazelcastProperties properties, PartitionOperationThread[] threads) {
+        if (!properties.getBoolean(PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED)) {
+            return null;
+        }
+        int stealThreshold = properties.getInteger(PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD);
+        long stealIntervalMillis = properties.getMillis(PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS);
+        logger.info("Partition operation thread work stealing is enabled");
+        return new PartitionThreadBalancer(threads, partitionOperationRunners, stealThreshold,
+                MILLISECONDS.toNanos(stealIntervalMillis));
+    }
+
+    private PartitionOperationThread[] initClassicPartitionThreads(PartitionOperationThread[] threads,
+                                                                   HazelcastProperties properties, String hzName,
+                                                                   NodeExtension nodeExtension, ClassLoader configClassLoader) {
+        int threadCount = threads.length;
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
-        PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
             // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
@@ -180,7 +206,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
             OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
 
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId,
-                    operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                    operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader, balancer);
             partitionThread.setThreadAffinity(threadAffinity);
             threads[threadId] = partitionThread;
             normalQueue.setConsumerThread(partitionThread);
@@ -381,6 +407,15 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return partitionThreads.length;
     }
 
+    @Probe(name = OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT)
+    private long getPartitionStealCount() {
+        long result = 0;
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            result += partitionThread.stolenPartitionCount.get();
+        }
+        return result;
+    }
+
     @Override
     @Probe(name = OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT)
     public int getGenericThreadCount() {
@@ -389,7 +424,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public int getPartitionThreadId(int partitionId) {
-        return getPartitionThreadId(partitionId, partitionThreads.length);
+        return toPartitionThreadIndex(partitionId);
     }
 
     @Override
@@ -405,7 +440,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         checkNotNull(partitions, "partitions can't be null");
 
         for (PartitionOperationThread partitionThread : partitionThreads) {
-            TaskBatch batch = new TaskBatch(taskFactory, partitions, partitionThread.threadId, partitionThreads.length);
+            TaskBatch batch = new TaskBatch(taskFactory, partitions, partitionThread.threadId, partitionThreads.length,
+                    balancer);
             partitionThread.queue.add(batch, false);
         }
     }
@@ -425,6 +461,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private void execute(Object task, int partitionId, boolean priority) {
         if (partitionId < 0) {
             genericQueue.add(task, priority);
+        } else if (balancer != null) {
+            balancer.execute(task, partitionId, priority);
         } else {
             OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
             partitionThread.queue.add(task, priority);
@@ -436,6 +474,11 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         checkNotNull(task, "task can't be null");
         boolean priority = task instanceof UrgentSystemOperation;
 
+        if (balancer != null) {
+            balancer.executeOnPartitionThreads(task, priority);
+            return;
+        }
+
         for (OperationThread partitionThread : partitionThreads) {
             partitionThread.queue.add(task, priority);
         }
@@ -502,6 +545,9 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
         // so it's a partition operation thread, now we need to make sure that this operation thread is allowed
         // to execute operations for this particular partitionId
+        if (balancer != null) {
+            return balancer.isOwner(partitionId, partitionThread.threadId);
+        }
         return toPartitionThreadIndex(partitionId) == partitionThread.threadId;
     }
 
@@ -553,6 +599,9 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     // public for testing purposes
     public int toPartitionThreadIndex(int partitionId) {
+        if (balancer != null) {
+            return balancer.threadIndex(partitionId);
+        }
         return partitionId % partitionThreads.length;
     }
 
@@ -16,6 +16,8 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * The OperationQueue is the queue used to schedule operations/tasks on an
  * OperationThread.
@@ -56,6 +58,19 @@ public interface OperationQueue {
      */
     Object take(boolean priorityOnly) throws InterruptedException;
 
+    /**
+     * Takes an item from this queue. If no item is available, the call blocks
+     * until an item becomes available or the timeout expires.
+     *
+     * This method should always be called by the same thread.
+     *
+     * @param timeout how long to wait before giving up
+     * @param unit    the unit of the timeout
+     * @return the taken item or null if the timeout expired.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    Object poll(long timeout, TimeUnit unit) throws InterruptedException;
+
     /**
      * returns the number of normal operations pending.
      *
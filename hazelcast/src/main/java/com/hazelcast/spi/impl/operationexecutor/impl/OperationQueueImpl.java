@@ -20,8 +20,10 @@ import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public final class OperationQueueImpl implements OperationQueue {
 
@@ -112,4 +114,22 @@ public final class OperationQueueImpl implements OperationQueue {
             return normalItem;
         }
     }
+
+    @Override
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        for (; ; ) {
+            Object priorityItem = priorityQueue.poll();
+            if (priorityItem != null) {
+                return priorityItem;
+            }
+
+            Object normalItem = normalQueue.poll(deadlineNanos - System.nanoTime(), NANOSECONDS);
+            if (normalItem == TRIGGER_TASK) {
+                continue;
+            }
+
+            return normalItem;
+        }
+    }
 }
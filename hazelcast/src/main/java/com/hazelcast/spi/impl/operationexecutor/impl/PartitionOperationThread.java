@@ -18,12 +18,22 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.collection.Int2ObjectHashMap;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_SURRENDERED_PARTITION_COUNT;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
@@ -33,6 +43,21 @@ public class PartitionOperationThread extends OperationThread {
 
     OperationRunner[] partitionOperationRunners;
 
+    // the fields below are only used if the work stealing is enabled
+    // and are only accessed by this thread, except for the counters
+    // which are read by the MetricsRegistry.
+    final PartitionThreadBalancer balancer;
+    // tasks of the partitions being handed over to this thread
+    final Int2ObjectHashMap<Queue<Object>> incomingTasks;
+    // tasks queued to all partition threads, deferred until the
+    // incoming tasks have run
+    final Queue<Object> deferredTasks;
+    long lastStealAttemptNanos;
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT)
+    final SwCounter stolenPartitionCount = newSwCounter();
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_SURRENDERED_PARTITION_COUNT)
+    final SwCounter surrenderedPartitionCount = newSwCounter();
+
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
                                     int threadId,
@@ -41,8 +66,58 @@ public class PartitionOperationThread extends OperationThread {
                                     NodeExtension nodeExtension,
                                     OperationRunner[] partitionOperationRunners,
                                     ClassLoader configClassLoader) {
+        this(name, threadId, queue, logger, nodeExtension, partitionOperationRunners, configClassLoader, null);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    PartitionOperationThread(String name,
+                             int threadId,
+                             OperationQueue queue,
+                             ILogger logger,
+                             NodeExtension nodeExtension,
+                             OperationRunner[] partitionOperationRunners,
+                             ClassLoader configClassLoader,
+                             PartitionThreadBalancer balancer) {
         super(name, threadId, queue, logger, nodeExtension, false, configClassLoader);
         this.partitionOperationRunners = partitionOperationRunners;
+        this.balancer = balancer;
+        this.incomingTasks = balancer == null ? null : new Int2ObjectHashMap<>();
+        this.deferredTasks = balancer == null ? null : new ArrayDeque<>();
+    }
+
+    @Override
+    protected void loop() throws Exception {
+        if (balancer == null) {
+            super.loop();
+            return;
+        }
+
+        while (!isShutdown()) {
+            Object task = queue.poll();
+            if (task == null) {
+                // an idle thread keeps looking for a partition to take over
+                // at the steal interval
+                balancer.onIdle(this);
+                try {
+                    task = queue.poll(balancer.stealIntervalNanos(), NANOSECONDS);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (task == null) {
+                    continue;
+                }
+            }
+
+            process(task);
+        }
+    }
+
+    @Override
+    void process(Object task) {
+        if (balancer == null || balancer.admit(this, task)) {
+            super.process(task);
+        }
     }
 
     /**
@@ -63,4 +138,15 @@ public class PartitionOperationThread extends OperationThread {
     int normalPendingCount() {
         return queue.normalSize();
     }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT)
+    int ownedPartitionCount() {
+        int count = 0;
+        for (OperationRunner runner : partitionOperationRunners) {
+            if (runner.currentThread() == this) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
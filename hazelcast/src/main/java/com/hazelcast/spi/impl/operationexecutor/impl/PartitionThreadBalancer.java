@@ -0,0 +1,538 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.getPartitionThreadId;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Moves partitions between the {@link PartitionOperationThread}s when the
+ * load is skewed: an idle partition thread takes over a partition from the
+ * partition thread with the longest queue.
+ * <p>
+ * Every partition has two routes, the threads its normal and its priority
+ * tasks are queued to, and an owner, the thread allowed to run them. All of
+ * them start as {@code partitionId % threadCount}. A partition is handed
+ * over in the following steps, each executed by a single thread between two
+ * tasks, so while no task of the partition is running:
+ * <ol>
+ * <li>The idle thread asks the busy thread to surrender one of its
+ * partitions by a priority task.</li>
+ * <li>The busy thread selects the partition, switches its normal route to
+ * the idle thread, waits until the normal tasks that were routed to it
+ * before the switch are in its queue and queues a marker behind them. It
+ * keeps running the tasks of the partition till the marker, the priority
+ * tasks of the partition are still queued to its priority queue.</li>
+ * <li>When the busy thread reaches the marker, it does the same with the
+ * priority route: it switches the route, waits for the priority tasks routed
+ * to it before the switch and queues a priority marker behind them.</li>
+ * <li>When the busy thread reaches the priority marker, it gives up the
+ * ownership and releases the partition to the idle thread. The idle thread,
+ * which has put aside the tasks of the partition it received in the
+ * meantime, becomes the owner and runs them, the priority tasks first, in
+ * the order they were received.</li>
+ * </ol>
+ * So the tasks of a partition are still run one at a time and in the order
+ * they were submitted, and its priority tasks wait at most until the busy
+ * thread runs the tasks in its priority queue.
+ * <p>
+ * The tasks executed on all partition threads, such as the migration
+ * barriers, must not overtake the tasks put aside by a thread. A thread
+ * which has put aside tasks of a partition defers these tasks until the
+ * partition is released to it.
+ * <p>
+ * To know when all tasks routed to the previous owner are queued, every
+ * route has two counters of tasks being routed and a parity bit selecting
+ * the counter the producers use. A switch of the route flips the parity, so
+ * the producers which could have seen the old route are exactly the ones
+ * counted by the old counter.
+ */
+final class PartitionThreadBalancer {
+
+    /**
+     * The owner of a partition which is being handed over.
+     */
+    static final int NO_OWNER = -1;
+
+    private static final int PARITY_BIT = 1 << 16;
+    private static final int THREAD_MASK = PARITY_BIT - 1;
+
+    private static final long MAX_SPINS = 100;
+    private static final long MAX_YIELDS = 10;
+    private static final long MIN_PARK_NANOS = 1;
+    private static final long MAX_PARK_NANOS = MICROSECONDS.toNanos(100);
+    private static final IdleStrategy ROUTING_IDLER
+            = new BackoffIdleStrategy(MAX_SPINS, MAX_YIELDS, MIN_PARK_NANOS, MAX_PARK_NANOS);
+
+    private final PartitionOperationThread[] threads;
+    private final OperationRunner[] partitionOperationRunners;
+    private final AtomicIntegerArray routes;
+    private final AtomicIntegerArray priorityRoutes;
+    private final AtomicIntegerArray owners;
+    private final AtomicIntegerArray pendingRoutings;
+    private final AtomicIntegerArray pendingPriorityRoutings;
+    // the thread a partition is being handed over to, by the surrendering thread
+    private final AtomicIntegerArray handovers;
+    // only accessed by the owner of the partition
+    private final long[] executedOperationCounts;
+    private final int stealThreshold;
+    private final long stealIntervalNanos;
+
+    /**
+     * @param threads                   the partition threads, the array may
+     *                                  be populated after the construction
+     * @param partitionOperationRunners the operation runners of the partitions
+     * @param stealThreshold            the minimum queue size of a thread to
+     *                                  take a partition over from
+     * @param stealIntervalNanos        the minimum time between two attempts
+     *                                  of a thread to take a partition over
+     */
+    PartitionThreadBalancer(PartitionOperationThread[] threads, OperationRunner[] partitionOperationRunners,
+                            int stealThreshold, long stealIntervalNanos) {
+        if (threads.length > THREAD_MASK) {
+            throw new IllegalArgumentException("Too many partition threads for work stealing: " + threads.length);
+        }
+        int partitionCount = partitionOperationRunners.length;
+        this.threads = threads;
+        this.partitionOperationRunners = partitionOperationRunners;
+        this.routes = new AtomicIntegerArray(partitionCount);
+        this.priorityRoutes = new AtomicIntegerArray(partitionCount);
+        this.owners = new AtomicIntegerArray(partitionCount);
+        this.pendingRoutings = new AtomicIntegerArray(2 * partitionCount);
+        this.pendingPriorityRoutings = new AtomicIntegerArray(2 * partitionCount);
+        this.handovers = new AtomicIntegerArray(threads.length);
+        this.executedOperationCounts = new long[partitionCount];
+        this.stealThreshold = Math.max(1, stealThreshold);
+        this.stealIntervalNanos = Math.max(1, stealIntervalNanos);
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            int threadId = getPartitionThreadId(partitionId, threads.length);
+            routes.set(partitionId, threadId);
+            priorityRoutes.set(partitionId, threadId);
+            owners.set(partitionId, threadId);
+        }
+        for (int threadId = 0; threadId < threads.length; threadId++) {
+            handovers.set(threadId, NO_OWNER);
+        }
+    }
+
+    /**
+     * Returns the minimum time between two attempts of a thread to take a
+     * partition over.
+     */
+    long stealIntervalNanos() {
+        return stealIntervalNanos;
+    }
+
+    /**
+     * Queues the task to the thread the partition is routed to.
+     */
+    void execute(Object task, int partitionId, boolean priority) {
+        AtomicIntegerArray routes = priority ? this.priorityRoutes : this.routes;
+        AtomicIntegerArray pendingRoutings = priority ? this.pendingPriorityRoutings : this.pendingRoutings;
+        for (; ; ) {
+            int route = routes.get(partitionId);
+            int counter = pendingRoutingCounter(partitionId, route);
+            pendingRoutings.incrementAndGet(counter);
+            try {
+                // if the route got switched meanwhile, the surrendering thread
+                // may not wait for this task anymore
+                if (routes.get(partitionId) == route) {
+                    threads[route & THREAD_MASK].queue.add(task, priority);
+                    return;
+                }
+            } finally {
+                pendingRoutings.decrementAndGet(counter);
+            }
+        }
+    }
+
+    /**
+     * Queues the task to all partition threads. A thread runs the task only
+     * after the tasks it has put aside, see {@link #admit}.
+     */
+    void executeOnPartitionThreads(Runnable task, boolean priority) {
+        Barrier barrier = new Barrier(task);
+        for (PartitionOperationThread thread : threads) {
+            thread.queue.add(barrier, priority);
+        }
+    }
+
+    /**
+     * Returns the ID of the thread owning the partition or, if the
+     * partition is being handed over and the previous owner has already
+     * given it up, the ID of the thread it is handed over to.
+     */
+    int threadIndex(int partitionId) {
+        int owner = owners.get(partitionId);
+        return owner == NO_OWNER ? routes.get(partitionId) & THREAD_MASK : owner;
+    }
+
+    /**
+     * Checks if the given thread is allowed to run tasks of the partition.
+     * If the check is done by the thread itself, the result is stable until
+     * the current task completes.
+     */
+    boolean isOwner(int partitionId, int threadId) {
+        return owners.get(partitionId) == threadId;
+    }
+
+    /**
+     * Checks if the given thread can run the task it has taken from its
+     * queue. If not, the task is put aside until the partition is released
+     * to the thread or, if the partition has been moved away, it's queued to
+     * the current route of the partition. A task queued to all partition
+     * threads is deferred while the thread has tasks put aside.
+     *
+     * @return {@code true} if the task can be run, {@code false} otherwise
+     */
+    boolean admit(PartitionOperationThread thread, Object task) {
+        int partitionId = partitionId(task);
+        if (partitionId < 0) {
+            if (task instanceof Barrier && !thread.incomingTasks.isEmpty()) {
+                thread.deferredTasks.add(task);
+                return false;
+            }
+            return true;
+        }
+        if (owners.get(partitionId) == thread.threadId) {
+            return true;
+        }
+
+        boolean priority = isUrgent(task);
+        AtomicIntegerArray routes = priority ? this.priorityRoutes : this.routes;
+        if ((routes.get(partitionId) & THREAD_MASK) == thread.threadId) {
+            thread.incomingTasks.computeIfAbsent(partitionId, k -> new ArrayDeque<>()).add(task);
+        } else {
+            execute(task, partitionId, priority);
+        }
+        return false;
+    }
+
+    /**
+     * Queues the task of the given factory to the current owner of the
+     * partition. Used for the partitions of a {@link TaskBatch} which have
+     * been moved away from the thread the batch runs on.
+     */
+    void forward(PartitionTaskFactory taskFactory, int partitionId) {
+        Object task = taskFactory.create(partitionId);
+        if (task instanceof Operation) {
+            execute(task, partitionId, false);
+        } else {
+            execute(new ForwardedRunnable((Runnable) task, partitionId), partitionId, false);
+        }
+    }
+
+    /**
+     * Called by a thread when its queue is empty. If there is a thread with
+     * enough queued tasks, asks it to surrender one of its partitions.
+     */
+    void onIdle(PartitionOperationThread thief) {
+        long now = System.nanoTime();
+        if (now - thief.lastStealAttemptNanos < stealIntervalNanos) {
+            return;
+        }
+        thief.lastStealAttemptNanos = now;
+
+        PartitionOperationThread victim = null;
+        int maxQueueSize = stealThreshold - 1;
+        for (PartitionOperationThread thread : threads) {
+            int queueSize = thread.queue.normalSize();
+            if (thread != thief && queueSize > maxQueueSize) {
+                victim = thread;
+                maxQueueSize = queueSize;
+            }
+        }
+
+        if (victim != null && handovers.compareAndSet(victim.threadId, NO_OWNER, thief.threadId)) {
+            victim.queue.add(new SurrenderTask(victim, thief.threadId), true);
+        }
+    }
+
+    private void surrender(PartitionOperationThread victim, int thiefId) {
+        int partitionId = selectPartition(victim.threadId);
+        if (partitionId < 0) {
+            handovers.set(victim.threadId, NO_OWNER);
+            return;
+        }
+
+        switchRoute(routes, pendingRoutings, partitionId, thiefId);
+        victim.queue.add(new HandoverMarker(victim, partitionId, thiefId), false);
+    }
+
+    /**
+     * Routes the tasks of the partition to the given thread and waits until
+     * the tasks routed to the previous thread are queued.
+     */
+    private static void switchRoute(AtomicIntegerArray routes, AtomicIntegerArray pendingRoutings,
+                                    int partitionId, int threadId) {
+        int route = routes.get(partitionId);
+        routes.set(partitionId, ((route ^ PARITY_BIT) & PARITY_BIT) | threadId);
+        int counter = pendingRoutingCounter(partitionId, route);
+        for (long idleCount = 0; pendingRoutings.get(counter) != 0; idleCount++) {
+            ROUTING_IDLER.idle(idleCount);
+        }
+    }
+
+    /**
+     * Selects the partition of the thread whose number of operations since
+     * the last selection is the closest to the half of the operations of
+     * the thread. The partition is moved only if the thread has executed
+     * operations of other partitions as well, moving the only busy partition
+     * doesn't help.
+     */
+    private int selectPartition(int threadId) {
+        long total = 0;
+        for (int partitionId = 0; partitionId < owners.length(); partitionId++) {
+            if (owners.get(partitionId) == threadId) {
+                total += executedOperationsSinceLastSelection(partitionId);
+            }
+        }
+
+        int selected = -1;
+        long minDistance = Long.MAX_VALUE;
+        for (int partitionId = 0; partitionId < owners.length(); partitionId++) {
+            if (owners.get(partitionId) != threadId) {
+                continue;
+            }
+            long executed = executedOperationsSinceLastSelection(partitionId);
+            executedOperationCounts[partitionId] += executed;
+            long distance = Math.abs(2 * executed - total);
+            if (executed > 0 && executed < total && distance < minDistance) {
+                selected = partitionId;
+                minDistance = distance;
+            }
+        }
+        return selected;
+    }
+
+    private long executedOperationsSinceLastSelection(int partitionId) {
+        return partitionOperationRunners[partitionId].executedOperationsCount() - executedOperationCounts[partitionId];
+    }
+
+    private static int pendingRoutingCounter(int partitionId, int route) {
+        return 2 * partitionId + ((route & PARITY_BIT) == 0 ? 0 : 1);
+    }
+
+    private static int partitionId(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        } else {
+            return -1;
+        }
+    }
+
+    private static boolean isUrgent(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).isUrgent();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).isUrgent();
+        } else {
+            return task instanceof UrgentSystemOperation;
+        }
+    }
+
+    /**
+     * Asks the busy thread to surrender one of its partitions.
+     */
+    private final class SurrenderTask implements Runnable {
+        private final PartitionOperationThread victim;
+        private final int thiefId;
+
+        SurrenderTask(PartitionOperationThread victim, int thiefId) {
+            this.victim = victim;
+            this.thiefId = thiefId;
+        }
+
+        @Override
+        public void run() {
+            surrender(victim, thiefId);
+        }
+
+        @Override
+        public String toString() {
+            return "SurrenderTask{thief=" + thiefId + '}';
+        }
+    }
+
+    /**
+     * Queued by the surrendering thread behind the normal tasks of the
+     * partition it has received before the normal route got switched.
+     */
+    private final class HandoverMarker implements Runnable {
+        private final PartitionOperationThread victim;
+        private final int partitionId;
+        private final int thiefId;
+
+        HandoverMarker(PartitionOperationThread victim, int partitionId, int thiefId) {
+            this.victim = victim;
+            this.partitionId = partitionId;
+            this.thiefId = thiefId;
+        }
+
+        @Override
+        public void run() {
+            switchRoute(priorityRoutes, pendingPriorityRoutings, partitionId, thiefId);
+            victim.queue.add(new PriorityHandoverMarker(victim, partitionId, thiefId), true);
+        }
+
+        @Override
+        public String toString() {
+            return "HandoverMarker{partitionId=" + partitionId + ", thief=" + thiefId + '}';
+        }
+    }
+
+    /**
+     * Queued by the surrendering thread behind the priority tasks of the
+     * partition it has received before the priority route got switched.
+     */
+    private final class PriorityHandoverMarker implements Runnable {
+        private final PartitionOperationThread victim;
+        private final int partitionId;
+        private final int thiefId;
+
+        PriorityHandoverMarker(PartitionOperationThread victim, int partitionId, int thiefId) {
+            this.victim = victim;
+            this.partitionId = partitionId;
+            this.thiefId = thiefId;
+        }
+
+        @Override
+        public void run() {
+            owners.set(partitionId, NO_OWNER);
+            victim.surrenderedPartitionCount.inc();
+            handovers.set(victim.threadId, NO_OWNER);
+            threads[thiefId].queue.add(new HandoverRelease(partitionId), true);
+        }
+
+        @Override
+        public String toString() {
+            return "PriorityHandoverMarker{partitionId=" + partitionId + ", thief=" + thiefId + '}';
+        }
+    }
+
+    /**
+     * Makes the thread the partition is handed over to its owner.
+     */
+    private final class HandoverRelease implements Runnable {
+        private final int partitionId;
+
+        HandoverRelease(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public void run() {
+            PartitionOperationThread thief = (PartitionOperationThread) Thread.currentThread();
+            partitionOperationRunners[partitionId].setCurrentThread(thief);
+            owners.set(partitionId, thief.threadId);
+            thief.stolenPartitionCount.inc();
+
+            Queue<Object> tasks = thief.incomingTasks.remove(partitionId);
+            if (tasks != null) {
+                // the priority tasks overtake the normal ones like in the queue
+                for (Object task : tasks) {
+                    if (isUrgent(task)) {
+                        thief.process(task);
+                    }
+                }
+                for (Object task : tasks) {
+                    if (!isUrgent(task)) {
+                        thief.process(task);
+                    }
+                }
+            }
+
+            if (thief.incomingTasks.isEmpty()) {
+                for (Object task = thief.deferredTasks.poll(); task != null; task = thief.deferredTasks.poll()) {
+                    thief.process(task);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "HandoverRelease{partitionId=" + partitionId + '}';
+        }
+    }
+
+    /**
+     * A task queued to all partition threads.
+     */
+    private static final class Barrier implements Runnable {
+        private final Runnable task;
+
+        Barrier(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String toString() {
+            return "Barrier{task=" + task + '}';
+        }
+    }
+
+    /**
+     * A runnable of a {@link TaskBatch} forwarded to the owner of its
+     * partition.
+     */
+    private static final class ForwardedRunnable implements PartitionSpecificRunnable {
+        private final Runnable task;
+        private final int partitionId;
+
+        ForwardedRunnable(Runnable task, int partitionId) {
+            this.task = task;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String toString() {
+            return "ForwardedRunnable{task=" + task + ", partitionId=" + partitionId + '}';
+        }
+    }
+}
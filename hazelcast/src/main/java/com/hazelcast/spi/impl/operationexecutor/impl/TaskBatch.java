@@ -31,13 +31,20 @@ public class TaskBatch {
     private final BitSet partitions;
     private final int threadId;
     private final int partitionThreadCount;
+    private final PartitionThreadBalancer balancer;
     private int nextPartitionId;
 
     public TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, int threadId, int partitionThreadCount) {
+        this(taskFactory, partitions, threadId, partitionThreadCount, null);
+    }
+
+    TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, int threadId, int partitionThreadCount,
+              PartitionThreadBalancer balancer) {
         this.taskFactory = taskFactory;
         this.partitions = partitions;
         this.threadId = threadId;
         this.partitionThreadCount = partitionThreadCount;
+        this.balancer = balancer;
     }
 
     public PartitionTaskFactory taskFactory() {
@@ -63,10 +70,16 @@ public class TaskBatch {
 
             nextPartitionId = partitionId + 1;
 
-            if (getPartitionThreadId(partitionId, partitionThreadCount) == threadId) {
+            if (getPartitionThreadId(partitionId, partitionThreadCount) != threadId) {
                 // only selected partitions that belong to the right partition thread.
+                continue;
+            }
+
+            if (balancer == null || balancer.isOwner(partitionId, threadId)) {
                 return partitionId;
             }
+            // the partition has been taken over by another partition thread
+            balancer.forward(taskFactory, partitionId);
         }
     }
 }
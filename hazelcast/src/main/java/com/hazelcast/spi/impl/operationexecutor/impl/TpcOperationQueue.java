@@ -19,6 +19,7 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 import com.hazelcast.internal.tpcengine.Reactor;
 
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
@@ -51,6 +52,12 @@ public class TpcOperationQueue implements OperationQueue {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+        // We never want to block on the TpcPartitionOperationThread.
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public int normalSize() {
         return normalQueue.size();
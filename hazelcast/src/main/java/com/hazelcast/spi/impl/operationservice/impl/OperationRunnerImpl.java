@@ -503,6 +503,10 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
             logOperationDeserializationException(throwable, callId);
             throw ExceptionUtil.rethrow(throwable);
         } finally {
+            // a pooled payload is released only after the operation has run. The Data fields
+            // of the operation are copied out of it by ObjectDataInput.readData(), but the
+            // lazily deserialized ones may still read from it while the operation runs
+            packet.release();
             if (op != null) {
                 op.clearThreadContext();
             }
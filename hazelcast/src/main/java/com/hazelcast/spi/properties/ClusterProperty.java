@@ -363,6 +363,79 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * Optimization that makes the IO input threads read the payloads of
+     * inbound member operation packets into buffers borrowed from a
+     * per-thread pool instead of allocating a new byte array for every
+     * packet. The buffers are returned to the pool by the operation threads
+     * once the operations have run. This can reduce the
+     * garbage collection pressure under high operation throughput.
+     * <p>
+     * It is disabled by default.
+     *
+     * @see #IO_PACKET_BUFFER_POOL_MAX_BUFFER_SIZE
+     * @since 5.4
+     */
+    public static final HazelcastProperty IO_PACKET_BUFFER_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.packet.buffer.pool.enabled", false);
+
+    /**
+     * The maximum size in bytes of a packet payload read into a pooled buffer
+     * when {@link #IO_PACKET_BUFFER_POOL_ENABLED} is set. Larger payloads are
+     * always allocated.
+     * <p>
+     * The default is 64 KB.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty IO_PACKET_BUFFER_POOL_MAX_BUFFER_SIZE
+            = new HazelcastProperty("hazelcast.io.packet.buffer.pool.max.buffer.size", 1 << 16);
+
+    /**
+     * Optimization that makes the member to member connections encode the
+     * outbound packets into a vector of buffers which is written to the
+     * socket using a single gathering write. The headers and small payloads
+     * are still copied into a send buffer, but larger payloads are written
+     * without copying them first.
+     * <p>
+     * It is disabled by default.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_ENABLED
+            = new HazelcastProperty("hazelcast.io.gathering.write.enabled", false);
+
+    /**
+     * The maximum time in microseconds an IO output thread delays writing a
+     * small amount of outbound data to the socket, waiting for further frames
+     * to the same connection so that they are written using a single system
+     * call. The delay is adaptive: when no frames arrive during the delay, the
+     * following writes are done without delay for a while. The IO thread
+     * keeps serving other connections during the delay. It waits in the
+     * selector, whose timeout has millisecond granularity, so unless the
+     * {@code selectnow} selector mode is used, the delay can be up to a
+     * millisecond longer than configured.
+     * <p>
+     * The default is 0, which disables the write coalescing.
+     *
+     * @see #IO_WRITE_COALESCING_MAX_BYTES
+     * @since 5.4
+     */
+    public static final HazelcastProperty IO_WRITE_COALESCING_LATENCY_MICROS
+            = new HazelcastProperty("hazelcast.io.write.coalescing.latency.micros", 0, MICROSECONDS);
+
+    /**
+     * The amount of pending outbound data in bytes after which the IO output
+     * thread stops delaying the socket write when
+     * {@link #IO_WRITE_COALESCING_LATENCY_MICROS} is set.
+     * <p>
+     * The default is 32 KB.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty IO_WRITE_COALESCING_MAX_BYTES
+            = new HazelcastProperty("hazelcast.io.write.coalescing.max.bytes", 1 << 15);
+
     /**
      * Property needed for concurrency detection so that write through can be
      * done correctly.
@@ -998,6 +1071,27 @@ public final class ClusterProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Number of entries evaluated at once by full partition scans of queries
+     * on maps.
+     * <p>
+     * Instead of applying the predicate entry by entry, the scan collects a
+     * batch of entries and evaluates the equal, greater/less, between and in
+     * predicates, and conjunctions and disjunctions of them, over the whole
+     * batch: every attribute is extracted once per entry and numeric
+     * attribute values are compared in tight loops over primitive arrays.
+     * Predicates which can't be evaluated this way are still applied entry
+     * by entry.
+     * <p>
+     * Set to {@code 0} to disable the batched evaluation.
+     * <p>
+     * The default is {@code 1024}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty QUERY_PARTITION_SCAN_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.query.partition.scan.batch.size", 1024);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -1148,6 +1242,25 @@ public final class ClusterProperty {
     public static final HazelcastProperty INDEX_COPY_BEHAVIOR
             = new HazelcastProperty("hazelcast.index.copy.behavior", IndexCopyBehavior.COPY_ON_READ.toString());
 
+    /**
+     * Enables the primitive store for sorted indexes on a single numeric or
+     * temporal attribute.
+     * <p>
+     * When enabled, sorted indexes whose attribute is of an integral or
+     * floating-point number type, {@code java.util.Date}, {@code LocalDate}
+     * or {@code LocalTime} keep their keys as {@code long} values in a tree
+     * specialised for them, so index lookups and range scans don't box or
+     * compare {@code Comparable}s. Indexes on attributes of other types, and
+     * indexes on polymorphic attributes, keep using the regular sorted index
+     * store.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty INDEX_SORTED_PRIMITIVE_STORE_ENABLED
+            = new HazelcastProperty("hazelcast.index.sorted.primitive.store.enabled", false);
+
     /**
      * The number of threads that the client engine has available for processing
      * requests that are related to the query engine.
@@ -1437,6 +1550,49 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.operation.thread.count",
             (Function<HazelcastProperties, Integer>) properties -> max(2, RuntimeAvailableProcessors.get()));
 
+    /**
+     * Enables the work stealing between the partition operation threads.
+     * <p>
+     * By default, the partition operations are assigned to the partition
+     * operation threads by {@code partitionId % threadCount}, so with a
+     * skewed load one thread can be saturated while the others are idle. If
+     * enabled, an idle partition operation thread takes over a partition from
+     * the partition operation thread with the longest queue. The partition is
+     * handed over once the previous thread has processed all the operations
+     * of the partition it had received, so the operations of a partition are
+     * still executed one at a time and in the order they were submitted.
+     * <p>
+     * Routing the operations becomes slightly more expensive, therefore this
+     * is disabled by default. It has no effect if TPC is enabled.
+     *
+     * @see #PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD
+     * @see #PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.partitionthread.workstealing.enabled", false);
+
+    /**
+     * The minimum number of operations queued on a partition operation thread
+     * for an idle partition operation thread to take over one of its
+     * partitions.
+     *
+     * @see #PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD
+            = new HazelcastProperty("hazelcast.operation.partitionthread.workstealing.threshold", 100);
+
+    /**
+     * The minimum time in milliseconds between two attempts of an idle
+     * partition operation thread to take over a partition.
+     *
+     * @see #PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.operation.partitionthread.workstealing.interval.millis", 100, MILLISECONDS);
+
     /**
      * The number of generic operation handler threads per member.
      * <p>
@@ -1839,6 +1995,157 @@ public final class ClusterProperty {
     public static final HazelcastProperty PROCESSOR_CUSTOM_LIB_DIR
             = new HazelcastProperty("hazelcast.jet.custom.lib.dir", "custom-lib");
 
+    /**
+     * Enables work stealing between the cooperative Jet worker threads.
+     * <p>
+     * The cooperative tasklets of a job are assigned to the worker threads
+     * round-robin when the job starts. If enabled, a worker whose tasklets
+     * made no progress in an iteration asks the worker with the most busy
+     * tasklets to give it one of them. The tasklet is handed over between
+     * two of its calls, it never runs on two threads at the same time. This
+     * helps when the vertices of a job have very different load, at the cost
+     * of worse cache locality of the moved tasklets.
+     * <p>
+     * The {@code utilizationPercent}, {@code stolenTaskletCount} and {@code
+     * givenAwayTaskletCount} metrics of the cooperative workers show the
+     * imbalance and the steals.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_WORK_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.jet.cooperative.work.stealing.enabled", false);
+
+    /**
+     * The latency target of the batches sent to the service by the
+     * asynchronous batched mapping stages, such as {@link
+     * com.hazelcast.jet.pipeline.GeneralStage#mapUsingServiceAsyncBatched}.
+     * <p>
+     * If set to a positive value, the batch size adapts to the observed
+     * latency of the service: a processor starts with small batches, grows
+     * them while there are more items waiting in its inbox and the latency
+     * stays below the target, and shrinks them when the latency exceeds the
+     * target. The batch size never exceeds the maximum batch size given to
+     * the stage. If zero, the default, the batches always take as many items
+     * as available, up to the maximum batch size.
+     * <p>
+     * The current batch size and the latency histogram of the batches are
+     * reported as the {@code asyncBatchSize} and {@code
+     * asyncBatchLatency*} processor metrics.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_ASYNC_BATCH_TARGET_LATENCY
+            = new HazelcastProperty("hazelcast.jet.async.batch.target.latency.millis", 0, MILLISECONDS);
+
+    /**
+     * Enables spilling of the state of batch grouping and sorting processors
+     * to local disk.
+     * <p>
+     * By default, a processor that accumulates more records than {@link
+     * com.hazelcast.jet.config.InstanceConfig#setMaxProcessorAccumulatedRecords
+     * maxProcessorAccumulatedRecords} fails the job with an {@code
+     * AccumulationLimitExceededException}. If spilling is enabled, the
+     * aggregation and sort processors of batch jobs instead write the excess
+     * records to temporary files in {@link #JET_SPILL_DIRECTORY} and read them
+     * back when their input is complete, so the job finishes with a bounded
+     * heap at the cost of disk I/O. The number of spill files and the number
+     * of bytes written are reported as the {@code spillCount} and {@code
+     * spilledBytes} processor metrics.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SPILL_ENABLED
+            = new HazelcastProperty("hazelcast.jet.spill.enabled", false);
+
+    /**
+     * The directory in which the processors create their spill files, see
+     * {@link #JET_SPILL_ENABLED}. The default is the directory given by the
+     * {@code java.io.tmpdir} system property.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.spill.directory", System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Enables compression of the chunks of Jet state snapshots. The chunks
+     * are compressed with the LZ4 block format before they are stored in the
+     * snapshot {@code IMap}, a chunk that doesn't get smaller is stored
+     * uncompressed. This reduces the memory used by the snapshots and the
+     * amount of data replicated to the backups at the cost of some CPU time
+     * when the snapshot is written and restored.
+     * <p>
+     * The setting has to be the same on all members, restoring a compressed
+     * snapshot is always supported.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.jet.snapshot.compression.enabled", false);
+
+    /**
+     * Enables incremental automatic snapshots of Jet jobs.
+     * <p>
+     * If enabled, an automatic snapshot following a successful automatic
+     * snapshot of the same job execution only stores the entries of the state
+     * that were added or changed since the previous snapshot and tombstones
+     * for the removed entries. The deltas are chained to the last full
+     * snapshot and the job is restored by applying the whole chain. A full
+     * snapshot is taken again after {@link
+     * #JET_SNAPSHOT_INCREMENTAL_MAX_CHAIN_LENGTH} snapshots, after a failed
+     * snapshot and in the first snapshot of each execution. Exported
+     * snapshots are always full.
+     * <p>
+     * The members remember a hash of each state entry of the previous
+     * snapshot to compute the deltas, which needs additional heap memory.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_INCREMENTAL_ENABLED
+            = new HazelcastProperty("hazelcast.jet.snapshot.incremental.enabled", false);
+
+    /**
+     * The maximum number of snapshots in a chain of incremental snapshots,
+     * including the full snapshot at its start, see {@link
+     * #JET_SNAPSHOT_INCREMENTAL_ENABLED}. When reached, the next snapshot is a
+     * full one, which compacts the chain.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_INCREMENTAL_MAX_CHAIN_LENGTH
+            = new HazelcastProperty("hazelcast.jet.snapshot.incremental.max.chain.length", 10);
+
+    /**
+     * The number of processors on each member that read the snapshot when a
+     * Jet job restores its state. Each of them reads a share of the
+     * partitions of the snapshot {@code IMap} owned by the local member and
+     * deserializes the chunks it read, so the restore time scales with the
+     * number of cores and members. A value of {@code -1} uses the
+     * {@linkplain com.hazelcast.jet.config.JetConfig#getCooperativeThreadCount()
+     * cooperative thread count}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_RESTORE_PARALLELISM
+            = new HazelcastProperty("hazelcast.jet.snapshot.restore.parallelism", -1);
+
+    /**
+     * Enables the batched encoding of the items sent through distributed Jet
+     * edges. Consecutive items are sent in runs sharing the type header, runs
+     * of {@code Long}, {@code Integer}, {@code Double}, {@code String}, {@code
+     * Tuple2} and Compact items are column-encoded. This reduces the network
+     * traffic and the serialization overhead of high rates of small items.
+     * <p>
+     * The encoding is only used once the cluster version is at least 5.4, the
+     * receiving member supports both encodings.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_DISTRIBUTED_EDGE_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.jet.distributed.edge.batching.enabled", false);
+
     /**
      * Controls whether cluster emojis can be used in log messages. This is just a hint for components calling the logging.
      *
@@ -1867,6 +2174,38 @@ public final class ClusterProperty {
     public static final HazelcastProperty SQL_CUSTOM_TYPES_ENABLED = new HazelcastProperty(
             "hazelcast.sql.experimental.custom.types.enabled", false);
 
+    /**
+     * Controls how the filters and projections of SQL {@code Calc} operators
+     * are evaluated:
+     * <ul>
+     * <li>ENABLED - the expressions are compiled to evaluators working with
+     * primitive values where possible, the parts that can't be compiled are
+     * interpreted.
+     * </li>
+     * <li>DISABLED - the expression trees are interpreted. Default value.
+     * </li>
+     * <li>VERIFY - each row is evaluated both ways and the query fails if the
+     * results differ. Meant for testing only, it's slower than either of the
+     * other modes and fails for non-deterministic functions like
+     * {@code RAND()}.
+     * </li>
+     * </ul>
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty SQL_EXPRESSION_COMPILATION = new HazelcastProperty(
+            "hazelcast.sql.expression.compilation", "DISABLED");
+
+    /**
+     * The maximum number of rows sampled by {@code ANALYZE MAPPING} to
+     * compute the column statistics used by the SQL optimizer. The rows are
+     * read from randomly chosen partitions of the IMap.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty SQL_STATISTICS_SAMPLE_SIZE = new HazelcastProperty(
+            "hazelcast.sql.statistics.sample.size", 10_000);
+
     /**
      * When {@code true}, enables monitoring of the runtime environment to detect the intent of shutdown
      * and automate cluster state management decisions.
@@ -223,8 +223,9 @@ public class SqlClientResult implements SqlResult {
                     onExecuteError(QueryException.cancelledByUser());
                 }
 
-                // Make sure that all subsequent fetches will fail.
-                if (fetch == null) {
+                // Make sure that all subsequent fetches will fail, including the ones that would return
+                // a page fetched ahead.
+                if (fetch == null || !fetch.isPending()) {
                     fetch = new SqlFetchResult();
                 }
 
@@ -301,12 +302,37 @@ public class SqlClientResult implements SqlResult {
         }
     }
 
+    /**
+     * Requests the page following the given one without waiting for the response, so that the member prepares
+     * it while the current page is being iterated. The next {@link #fetch(long)} then awaits the pending request
+     * instead of starting a new one. At most one page is requested ahead, so there's never more than one fetch
+     * in flight for a cursor.
+     */
+    private void prefetch(SqlPage page) {
+        if (page.isLast() || !service.isPrefetchEnabled() || Boolean.TRUE.equals(isInfiniteRows)) {
+            // Streaming queries may take arbitrarily long to produce the next page, don't keep a fetch open.
+            return;
+        }
+
+        synchronized (mux) {
+            if (closed || fetch != null) {
+                return;
+            }
+
+            fetch = new SqlFetchResult();
+            service.fetchAsync(connection, queryId, cursorBufferSize, this);
+        }
+    }
+
     /**
      * Callback invoked when the fetch operation is finished.
      */
     public void onFetchFinished(SqlPage page, RuntimeException error) {
         synchronized (mux) {
-            assert fetch != null && fetch.isPending();
+            if (fetch == null || !fetch.isPending()) {
+                // The result was closed while the fetch was in flight.
+                return;
+            }
 
             fetch.onResult(page, error);
 
@@ -434,6 +460,8 @@ public class SqlClientResult implements SqlResult {
                 this.last = true;
 
                 markClosed();
+            } else {
+                prefetch(page);
             }
         }
 
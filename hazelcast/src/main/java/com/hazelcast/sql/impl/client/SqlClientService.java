@@ -55,6 +55,7 @@ import java.util.function.Function;
 import static com.hazelcast.client.properties.ClientProperty.INVOCATION_RETRY_PAUSE_MILLIS;
 import static com.hazelcast.client.properties.ClientProperty.INVOCATION_TIMEOUT_SECONDS;
 import static com.hazelcast.client.properties.ClientProperty.PARTITION_ARGUMENT_CACHE_SIZE;
+import static com.hazelcast.client.properties.ClientProperty.SQL_PREFETCH_ENABLED;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
@@ -85,6 +86,7 @@ public class SqlClientService implements SqlService {
     private final long resubmissionTimeoutNano;
     private final long resubmissionRetryPauseMillis;
     private final boolean isSmartRouting;
+    private final boolean prefetchEnabled;
 
     public SqlClientService(HazelcastClientInstanceImpl client) {
         this.client = client;
@@ -95,6 +97,7 @@ public class SqlClientService implements SqlService {
         this.resubmissionRetryPauseMillis = client.getProperties().getPositiveMillisOrDefault(INVOCATION_RETRY_PAUSE_MILLIS);
 
         this.isSmartRouting = !client.getConnectionManager().isUnisocketClient();
+        this.prefetchEnabled = client.getProperties().getBoolean(SQL_PREFETCH_ENABLED);
         final int partitionArgCacheSize = client.getProperties().getInteger(PARTITION_ARGUMENT_CACHE_SIZE);
         final int partitionArgCacheThreshold = partitionArgCacheSize + Math.min(partitionArgCacheSize / 10, 50);
         this.partitionArgumentIndexCache = new ReadOptimizedLruCache<>(partitionArgCacheSize, partitionArgCacheThreshold);
@@ -439,6 +442,10 @@ public class SqlClientService implements SqlService {
         return client.getSerializationService();
     }
 
+    boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
     private ClientInvocationFuture invokeAsync(ClientMessage request, ClientConnection connection) {
         ClientInvocation invocation = new ClientInvocation(client, request, null, connection);
 
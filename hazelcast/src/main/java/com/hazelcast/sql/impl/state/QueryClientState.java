@@ -16,11 +16,15 @@
 
 package com.hazelcast.sql.impl.state;
 
+import com.hazelcast.sql.SqlColumnMetadata;
+import com.hazelcast.sql.SqlColumnType;
 import com.hazelcast.sql.SqlRow;
 import com.hazelcast.sql.impl.AbstractSqlResult;
 import com.hazelcast.sql.impl.QueryId;
 import com.hazelcast.sql.impl.ResultIterator;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class QueryClientState {
@@ -32,6 +36,7 @@ public class QueryClientState {
     private final long createdAt;
 
     private ResultIterator<SqlRow> iterator;
+    private List<SqlColumnType> columnTypes;
 
     public QueryClientState(UUID clientId, QueryId queryId, AbstractSqlResult sqlResult, boolean closed) {
         this.clientId = clientId;
@@ -71,4 +76,21 @@ public class QueryClientState {
 
         return iterator;
     }
+
+    public List<SqlColumnType> getColumnTypes() {
+        assert sqlResult != null;
+
+        if (columnTypes == null) {
+            List<SqlColumnMetadata> columns = sqlResult.getRowMetadata().getColumns();
+            List<SqlColumnType> types = new ArrayList<>(columns.size());
+
+            for (SqlColumnMetadata column : columns) {
+                types.add(column.getType());
+            }
+
+            columnTypes = types;
+        }
+
+        return columnTypes;
+    }
 }
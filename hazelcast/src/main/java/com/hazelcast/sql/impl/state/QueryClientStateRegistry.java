@@ -18,7 +18,6 @@ package com.hazelcast.sql.impl.state;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.sql.HazelcastSqlException;
-import com.hazelcast.sql.SqlColumnMetadata;
 import com.hazelcast.sql.SqlColumnType;
 import com.hazelcast.sql.SqlResult;
 import com.hazelcast.sql.SqlRow;
@@ -47,6 +46,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public class QueryClientStateRegistry {
 
     private static final long DEFAULT_CLOSED_CURSOR_CLEANUP_TIMEOUT_NS = NANOSECONDS.convert(30, SECONDS);
+    private static final int INITIAL_PAGE_CAPACITY = 1024;
 
     private final ConcurrentHashMap<QueryId, QueryClientState> clientCursors = new ConcurrentHashMap<>();
     private volatile long closedCursorCleanupTimeoutNs = DEFAULT_CLOSED_CURSOR_CLEANUP_TIMEOUT_NS;
@@ -130,12 +130,7 @@ public class QueryClientStateRegistry {
         InternalSerializationService serializationService,
         boolean respondImmediately
     ) {
-        List<SqlColumnMetadata> columns = clientCursor.getSqlResult().getRowMetadata().getColumns();
-        List<SqlColumnType> columnTypes = new ArrayList<>(columns.size());
-
-        for (SqlColumnMetadata column : columns) {
-            columnTypes.add(column.getType());
-        }
+        List<SqlColumnType> columnTypes = clientCursor.getColumnTypes();
 
         if (respondImmediately) {
             return SqlPage.fromRows(columnTypes, Collections.emptyList(), false, serializationService);
@@ -144,7 +139,10 @@ public class QueryClientStateRegistry {
         ResultIterator<SqlRow> iterator = clientCursor.getIterator();
 
         try {
-            List<SqlRow> rows = new ArrayList<>(cursorBufferSize);
+            // The rows are pulled from the query only now, when the client asks for them, the rest stays in
+            // the bounded queue of the query result. Don't size the page by the requested buffer size upfront,
+            // the query may have far fewer rows ready.
+            List<SqlRow> rows = new ArrayList<>(Math.min(cursorBufferSize, INITIAL_PAGE_CAPACITY));
             boolean last = fetchPage(iterator, rows, cursorBufferSize);
 
             return SqlPage.fromRows(columnTypes, rows, last, serializationService);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.clientside;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+
+import static com.hazelcast.client.impl.clientside.ClientTestUtil.getHazelcastClientInstanceImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientSchemaPrefetchTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance writer;
+    private HazelcastInstance reader;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        writer = hazelcastFactory.newHazelcastClient();
+        reader = hazelcastFactory.newHazelcastClient();
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testSchemasOfBulkResultsArePrefetched() {
+        String mapName = randomMapName();
+        IMap<Integer, GenericRecord> map = writer.getMap(mapName);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, GenericRecordBuilder.compact("type" + i).setInt32("field" + i, i).build());
+        }
+        ClientSchemaService schemaService = getHazelcastClientInstanceImpl(reader).getSchemaService();
+        assertFalse(schemaService.hasAnySchemas());
+
+        // the values are deserialized lazily, so the schemas can only be known by prefetching
+        Collection<GenericRecord> values = reader.<Integer, GenericRecord>getMap(mapName).values();
+        assertTrue(schemaService.hasAnySchemas());
+
+        int sum = 0;
+        for (GenericRecord value : values) {
+            sum += value.getInt32(value.getFieldNames().iterator().next());
+        }
+        assertEquals(45, sum);
+    }
+}
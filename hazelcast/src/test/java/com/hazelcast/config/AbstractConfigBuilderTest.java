@@ -147,6 +147,9 @@ public abstract class AbstractConfigBuilderTest extends HazelcastTestSupport {
     @Test
     public abstract void testMapConfig_perEntryStatsEnabled();
 
+    @Test
+    public abstract void testMapConfig_offHeapStorageEnabled();
+
     @Test
     public abstract void testMapConfig_metadataPolicy_defaultValue();
 
@@ -117,6 +117,18 @@ public class NearCacheConfigTest {
         assertTrue(config.isSerializeKeys());
     }
 
+    @Test
+    public void testIsOffHeapStorageEnabled_whenDefault() {
+        assertFalse(config.isOffHeapStorageEnabled());
+    }
+
+    @Test
+    public void testIsOffHeapStorageEnabled_whenEnabled_thenCopied() {
+        config.setOffHeapStorageEnabled(true);
+        assertTrue(config.isOffHeapStorageEnabled());
+        assertTrue(new NearCacheConfig(config).isOffHeapStorageEnabled());
+    }
+
     @Test
     public void testMaxSize_whenValueIsPositive_thenSetValue() {
         config.getEvictionConfig().setSize(4531);
@@ -1020,6 +1020,20 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertTrue(mapConfig.isPerEntryStatsEnabled());
     }
 
+    @Override
+    public void testMapConfig_offHeapStorageEnabled() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "<off-heap-storage-enabled>true</off-heap-storage-enabled>"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertTrue(mapConfig.isOffHeapStorageEnabled());
+    }
+
     @Override
     @Test
     public void testMapConfig_metadataPolicy_defaultValue() {
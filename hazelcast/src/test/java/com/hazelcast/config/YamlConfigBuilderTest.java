@@ -999,6 +999,20 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertTrue(mapConfig.isStatisticsEnabled());
     }
 
+    @Override
+    public void testMapConfig_offHeapStorageEnabled() {
+        String yaml = ""
+                + "hazelcast:\n"
+                + "  map:\n"
+                + "    mymap:\n"
+                + "      off-heap-storage-enabled: true";
+
+        Config config = buildConfig(yaml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertTrue(mapConfig.isOffHeapStorageEnabled());
+    }
+
     @Override
     @Test
     public void testMapConfig_metadataPolicy_defaultValue() {
@@ -30,6 +30,8 @@ import org.junit.runner.RunWith;
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.config.MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE;
+import static com.hazelcast.config.MaxSizePolicy.USED_NATIVE_MEMORY_SIZE;
 import static com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy.CACHE_ON_UPDATE;
 import static com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy.INVALIDATE;
 import static com.hazelcast.internal.config.ConfigValidator.checkNearCacheConfig;
@@ -105,6 +107,43 @@ public class ConfigValidatorNearCacheConfigTest extends HazelcastTestSupport {
         checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
     }
 
+    @Test
+    public void checkNearCacheConfig_withOffHeapStorage_BINARY() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(BINARY)
+                .setOffHeapStorageEnabled(true);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(USED_NATIVE_MEMORY_SIZE);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withOffHeapStorage_OBJECT() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(OBJECT)
+                .setOffHeapStorageEnabled(true);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withOffHeapStorage_andUnsupportedMaxSizePolicy() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(BINARY)
+                .setOffHeapStorageEnabled(true);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(USED_NATIVE_MEMORY_PERCENTAGE);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withoutOffHeapStorage_andNativeMaxSizePolicy() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(BINARY);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(USED_NATIVE_MEMORY_SIZE);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
     private NearCacheConfig getNearCacheConfig(InMemoryFormat inMemoryFormat) {
         return new NearCacheConfig()
                 .setInMemoryFormat(inMemoryFormat)
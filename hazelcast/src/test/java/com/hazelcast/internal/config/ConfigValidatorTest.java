@@ -109,6 +109,18 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkMapConfig(getMapConfig(true), nativeMemoryConfig, splitBrainMergePolicyProvider, properties, logger);
     }
 
+    @Test
+    public void checkMapConfig_offHeapStorage_BINARY() {
+        checkMapConfig(getMapConfig(BINARY).setOffHeapStorageEnabled(true),
+                nativeMemoryConfig, splitBrainMergePolicyProvider, properties, logger);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkMapConfig_offHeapStorage_OBJECT() {
+        checkMapConfig(getMapConfig(OBJECT).setOffHeapStorageEnabled(true),
+                nativeMemoryConfig, splitBrainMergePolicyProvider, properties, logger);
+    }
+
     private MapConfig getMapConfig(InMemoryFormat inMemoryFormat) {
         MapConfig mapConfig = new MapConfig()
                 .setInMemoryFormat(inMemoryFormat)
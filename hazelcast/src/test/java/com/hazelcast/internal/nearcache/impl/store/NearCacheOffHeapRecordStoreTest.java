@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapData;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheOffHeapRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.WRITE_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheOffHeapRecordStoreTest {
+
+    private static final int RECORD_COUNT = 100;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private NearCacheOffHeapRecordStore<Integer, String> store;
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void putAndGetRecord() {
+        store = createStore(new NearCacheConfig());
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            store.put(i, null, "Record-" + i, null);
+        }
+
+        assertEquals(RECORD_COUNT, store.size());
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            assertEquals("Record-" + i, store.get(i));
+        }
+        assertTrue(store.getUsedNativeMemory() > 0);
+        assertEquals(store.getUsedNativeMemory(), store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void keysAndValuesStoredOffHeap() {
+        store = createStore(new NearCacheConfig());
+        store.put(1, null, "Record-1", null);
+
+        Data keyData = serializationService.toData(1);
+        NearCacheOffHeapRecord record = store.getRecord(1);
+        assertTrue(record.getValue() instanceof NearCacheOffHeapData);
+        assertEquals(keyData, record.getKey());
+        assertEquals(serializationService.toData("Record-1"), record.getValue());
+
+        // the record can be looked up by the serialized key as well
+        assertEquals("Record-1", ((NearCacheOffHeapRecordStore) store).get(keyData));
+    }
+
+    @Test
+    public void invalidateRecord_freesNativeMemory() {
+        store = createStore(new NearCacheConfig());
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            store.put(i, null, "Record-" + i, null);
+        }
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            store.invalidate(i);
+            assertNull(store.get(i));
+        }
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getUsedNativeMemory());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void updateRecord_freesPreviousValue() {
+        store = createStore(new NearCacheConfig());
+        store.put(1, null, "Record-1", null);
+        long usedNativeMemory = store.getUsedNativeMemory();
+
+        for (int i = 0; i < 10; i++) {
+            long reservationId = store.tryReserveForUpdate(1, null, WRITE_UPDATE);
+            assertNotEquals(NOT_RESERVED, reservationId);
+            assertEquals("Record-2", store.tryPublishReserved(1, "Record-2", reservationId, true));
+        }
+
+        assertEquals("Record-2", store.get(1));
+        assertEquals(usedNativeMemory, store.getUsedNativeMemory());
+    }
+
+    @Test
+    public void failedReservation_freesCopiedKey() {
+        store = createStore(new NearCacheConfig());
+
+        long reservationId = store.tryReserveForUpdate(1, null, READ_UPDATE);
+        long usedNativeMemory = store.getUsedNativeMemory();
+        assertEquals(NOT_RESERVED, store.tryReserveForUpdate(1, null, READ_UPDATE));
+        assertEquals(usedNativeMemory, store.getUsedNativeMemory());
+
+        store.tryPublishReserved(1, "Record-1", reservationId, false);
+        assertEquals("Record-1", store.get(1));
+    }
+
+    @Test
+    public void clearRecords_freesNativeMemory() {
+        store = createStore(new NearCacheConfig());
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            store.put(i, null, "Record-" + i, null);
+        }
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getUsedNativeMemory());
+        assertEquals(RECORD_COUNT, store.getNearCacheStats().getInvalidations());
+    }
+
+    @Test
+    public void evictionWithEntryCountPolicy() {
+        int size = RECORD_COUNT / 2;
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(size);
+        store = createStore(nearCacheConfig);
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            store.doEviction(false);
+            store.put(i, null, "Record-" + i, null);
+        }
+
+        assertTrue(store.size() <= size);
+        assertTrue(store.getNearCacheStats().getEvictions() > 0);
+        assertEquals(store.getUsedNativeMemory(), store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void evictionWithUsedNativeMemorySizePolicy() {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LFU)
+                .setMaxSizePolicy(MaxSizePolicy.USED_NATIVE_MEMORY_SIZE)
+                .setSize(1);
+        store = createStore(nearCacheConfig);
+
+        // values of 64 KB, so 1 MB is exceeded by the 17th record
+        String value = new String(new char[64 * 1024]);
+        for (int i = 0; i < 32; i++) {
+            store.doEviction(false);
+            store.put(i, null, value, null);
+        }
+
+        assertTrue(store.getNearCacheStats().getEvictions() > 0);
+        assertTrue(store.size() < 32);
+    }
+
+    private NearCacheOffHeapRecordStore<Integer, String> createStore(NearCacheConfig nearCacheConfig) {
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.BINARY)
+                .setOffHeapStorageEnabled(true);
+        NearCacheOffHeapRecordStore<Integer, String> store = new NearCacheOffHeapRecordStore<>("name", nearCacheConfig,
+                serializationService, getClass().getClassLoader());
+        store.initialize();
+        return store;
+    }
+}
@@ -37,9 +37,12 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -175,6 +178,24 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
         verify(errorHandler).onError((Channel) isNull(), any(OutOfMemoryError.class));
     }
 
+    @Test
+    public void whenTaskScheduled_thenRunOnceAfterDeadline() {
+        startThread();
+
+        AtomicInteger runCount = new AtomicInteger();
+        AtomicLong runTime = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        thread.addTaskAndWakeup(() -> thread.scheduleTask(() -> {
+            runTime.set(System.nanoTime());
+            runCount.incrementAndGet();
+        }, deadline));
+
+        assertTrueEventually(() -> assertEquals(1, runCount.get()));
+        assertTrue(runTime.get() - deadline >= 0);
+        assertTrueAllTheTime(() -> assertEquals(1, runCount.get()), 1);
+        assertStillRunning();
+    }
+
     @Test
     public void testToString() {
         startThread();
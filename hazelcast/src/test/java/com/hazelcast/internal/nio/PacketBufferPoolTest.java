@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketBufferPoolTest extends HazelcastTestSupport {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final PacketBufferPool pool = new PacketBufferPool(1024);
+    private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final PacketIOHelper packetReader = new PacketIOHelper();
+
+    @Test
+    public void testOperationPacketIsPooled() {
+        Packet original = operationPacket("operation");
+
+        Packet packet = transfer(original);
+
+        assertTrue(packet.isPooled());
+        assertEquals(original.totalSize(), packet.totalSize());
+        assertEquals(original, packet);
+        assertEquals("operation", serializationService.toObject(packet));
+        assertEquals(1, pool.misses());
+    }
+
+    @Test
+    public void testReleasedBufferIsReused() {
+        Packet packet = transfer(operationPacket("operation"));
+        byte[] buffer = HeapData.bufferOf(packet);
+
+        assertTrue(packet.release());
+        assertFalse(packet.isPooled());
+        assertEquals(1, pool.released());
+
+        Packet next = transfer(operationPacket("another operation"));
+        assertEquals(1, pool.hits());
+        assertTrue(buffer == HeapData.bufferOf(next));
+        assertEquals("another operation", serializationService.toObject(next));
+    }
+
+    @Test
+    public void testPooledPayloadIsBoundedToTotalSize() {
+        Packet packet = transfer(operationPacket("a rather long operation, longer than the next one"));
+        assertTrue(packet.release());
+
+        Packet next = transfer(operationPacket("short"));
+        assertTrue(HeapData.bufferOf(next).length > next.totalSize());
+        assertEquals(next.totalSize(), next.toByteArray().length);
+        assertEquals(new HeapData(next.toByteArray()), next);
+        assertEquals("short", serializationService.toObject(next));
+    }
+
+    @Test
+    public void testRetainedPacketIsReleasedByLastReference() {
+        Packet packet = transfer(operationPacket("operation"));
+
+        packet.retain();
+        assertFalse(packet.release());
+        assertTrue(packet.isPooled());
+        assertTrue(packet.release());
+
+        assertEquals(1, pool.released());
+        assertFalse(packet.isPooled());
+        assertFalse(packet.release());
+    }
+
+    @Test
+    public void testOtherPacketsAreNotPooled() {
+        Packet response = operationPacket("response").raiseFlags(FLAG_OP_RESPONSE);
+        Packet event = new Packet(serializationService.toBytes("event")).setPacketType(Packet.Type.EVENT);
+        Packet large = operationPacket(new byte[2048]);
+
+        for (Packet original : new Packet[]{response, event, large}) {
+            Packet packet = transfer(original);
+            assertFalse(packet.isPooled());
+            assertFalse(packet.release());
+            assertEquals(original, packet);
+        }
+        assertEquals(0, pool.hits() + pool.misses());
+    }
+
+    @Test
+    public void testLeakedBuffersAreCounted() {
+        assertTrueEventually(() -> {
+            for (int i = 0; i < 1000; i++) {
+                transfer(operationPacket("leaked"));
+            }
+            System.gc();
+            transfer(operationPacket("leaked"));
+
+            assertTrue(pool.leaked() > 0);
+        });
+        assertEquals(0, pool.released());
+    }
+
+    private Packet operationPacket(Object operation) {
+        return new Packet(serializationService.toBytes(operation), 1).setPacketType(Packet.Type.OPERATION);
+    }
+
+    private Packet transfer(Packet packet) {
+        ByteBuffer buffer = ByteBuffer.allocate(packet.getFrameLength());
+        assertTrue(packetWriter.writeTo(packet, buffer));
+        upcast(buffer).flip();
+        Packet read = packetReader.readFrom(buffer, pool);
+        assertNotNull(read);
+        return read;
+    }
+}
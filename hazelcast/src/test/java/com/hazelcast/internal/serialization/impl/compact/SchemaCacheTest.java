@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SchemaCacheTest extends HazelcastTestSupport {
+
+    private final CountingSchemaService schemaService = new CountingSchemaService();
+
+    @Test
+    public void testHitIsNotLookedUpInSchemaService() {
+        Schema schema = schema("foo");
+        schemaService.putLocal(schema);
+        SchemaCache cache = new SchemaCache(schemaService);
+
+        assertSame(schema, cache.get(schema.getSchemaId()));
+        assertSame(schema, cache.get(schema.getSchemaId()));
+        assertEquals(1, schemaService.lookups.get());
+    }
+
+    @Test
+    public void testUnknownSchemaIsNotCached() {
+        Schema schema = schema("foo");
+        SchemaCache cache = new SchemaCache(schemaService);
+
+        assertNull(cache.get(schema.getSchemaId()));
+        schemaService.putLocal(schema);
+        assertSame(schema, cache.get(schema.getSchemaId()));
+        assertEquals(2, schemaService.lookups.get());
+    }
+
+    @Test
+    public void testSchemasSharingSlotAreReplaced() {
+        Schema foo = schema("foo");
+        Schema bar = schema("bar");
+        schemaService.putLocal(foo);
+        schemaService.putLocal(bar);
+        SchemaCache cache = new SchemaCache(schemaService, 1);
+
+        assertSame(foo, cache.get(foo.getSchemaId()));
+        assertSame(bar, cache.get(bar.getSchemaId()));
+        assertSame(foo, cache.get(foo.getSchemaId()));
+        assertEquals(3, schemaService.lookups.get());
+    }
+
+    @Test
+    public void testThreadsHaveSeparateTables() {
+        Schema schema = schema("foo");
+        schemaService.putLocal(schema);
+        SchemaCache cache = new SchemaCache(schemaService);
+
+        assertSame(schema, cache.get(schema.getSchemaId()));
+        AtomicReference<Schema> otherThreadSchema = new AtomicReference<>();
+        Thread thread = new Thread(() -> otherThreadSchema.set(cache.get(schema.getSchemaId())));
+        thread.start();
+        assertJoinable(thread);
+
+        assertSame(schema, otherThreadSchema.get());
+        assertEquals(2, schemaService.lookups.get());
+    }
+
+    private static Schema schema(String typeName) {
+        SchemaWriter writer = new SchemaWriter(typeName);
+        writer.writeInt32(typeName, 0);
+        return writer.build();
+    }
+
+    private static class CountingSchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public Schema get(long schemaId) {
+            lookups.incrementAndGet();
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            putLocal(schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            schemas.put(schema.getSchemaId(), schema);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.ByteBufferVector;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.tcp.PacketEncoderTest.PacketSupplier;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GatheringPacketEncoderTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private GatheringPacketEncoder encoder;
+    private PacketSupplier src;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        encoder = new GatheringPacketEncoder();
+        encoder.initBuffers(4096, false);
+        src = new PacketSupplier();
+        encoder.src(src);
+    }
+
+    @Test
+    public void whenSmallPacketsWritten_thenSingleWrite() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            packets.add(new Packet(serializationService.toBytes("foobar" + i), i));
+        }
+        src.queue.addAll(packets);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        CollectingChannel channel = new CollectingChannel(Integer.MAX_VALUE);
+        encoder.dst().writeTo(channel);
+        assertEquals(1, channel.writes);
+        assertEquals(packets, readPackets(channel, packets.size()));
+    }
+
+    @Test
+    public void whenLargePayload_thenPayloadNotCopied() throws Exception {
+        Packet packet = new Packet(serializationService.toBytes(new byte[3000]));
+        src.queue.add(packet);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        ByteBufferVector vector = encoder.dst();
+        assertEquals(packet.getFrameLength(), vector.remaining());
+        assertTrue(vector.last().array() == packet.toByteArray());
+
+        CollectingChannel channel = new CollectingChannel(Integer.MAX_VALUE);
+        vector.writeTo(channel);
+        assertTrue(vector.isEmpty());
+        assertEquals(packet, readPackets(channel, 1).get(0));
+    }
+
+    @Test
+    public void whenNotEnoughSpace_thenDirty() {
+        for (int i = 0; i < 10; i++) {
+            src.queue.add(new Packet(serializationService.toBytes(new byte[1000])));
+        }
+
+        assertEquals(DIRTY, encoder.onWrite());
+        assertFalse(src.queue.isEmpty());
+    }
+
+    @Test
+    public void whenPartiallyWritten() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            packets.add(new Packet(serializationService.toBytes(new byte[i * 37]), i));
+        }
+        src.queue.addAll(packets);
+
+        CollectingChannel channel = new CollectingChannel(500);
+        HandlerStatus status;
+        do {
+            status = encoder.onWrite();
+            encoder.dst().writeTo(channel);
+        } while (status != CLEAN || !encoder.dst().isEmpty());
+
+        assertEquals(packets, readPackets(channel, packets.size()));
+    }
+
+    private static List<Packet> readPackets(CollectingChannel channel, int count) {
+        ByteBuffer bytes = ByteBuffer.wrap(channel.out.toByteArray());
+        PacketIOHelper reader = new PacketIOHelper();
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            packets.add(reader.readFrom(bytes));
+        }
+        assertEquals(0, bytes.remaining());
+        return packets;
+    }
+
+    private static class CollectingChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int maxBytesPerWrite;
+        private int writes;
+
+        CollectingChannel(int maxBytesPerWrite) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            writes++;
+            long written = 0;
+            for (int i = offset; i < offset + length; i++) {
+                while (srcs[i].hasRemaining() && written < maxBytesPerWrite) {
+                    out.write(srcs[i].get());
+                    written++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class Long2ObjectSortedMapTest {
+
+    private final Long2ObjectSortedMap<String> map = new Long2ObjectSortedMap<>(4);
+
+    @Test
+    public void shouldDoPutAndThenGet() {
+        map.put(7, "Seven");
+
+        assertEquals("Seven", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldReplaceExistingValueForTheSameKey() {
+        map.put(7, "Seven");
+
+        assertEquals("Seven", map.put(7, "New Seven"));
+        assertEquals("New Seven", map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldRemoveAcrossLeaves() {
+        for (long i = 0; i < 100; i++) {
+            map.put(i, Long.toString(i));
+        }
+        for (long i = 0; i < 100; i += 2) {
+            assertEquals(Long.toString(i), map.remove(i));
+        }
+
+        assertNull(map.remove(0));
+        assertEquals(50, map.size());
+        for (long i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? null : Long.toString(i), map.get(i));
+        }
+    }
+
+    @Test
+    public void shouldHandleExtremeKeys() {
+        map.put(Long.MAX_VALUE, "max");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(0, "zero");
+
+        long[] keys = new long[3];
+        Object[] values = new Object[3];
+        assertEquals(3, map.copyAscending(Long.MIN_VALUE, Long.MAX_VALUE, keys, values));
+        assertEquals(Long.MIN_VALUE, keys[0]);
+        assertEquals(Long.MAX_VALUE, keys[2]);
+        assertEquals("max", values[2]);
+    }
+
+    @Test
+    public void shouldCopyRangesInBatches() {
+        for (long i = 0; i < 100; i++) {
+            map.put(i * 10, Long.toString(i * 10));
+        }
+
+        long[] keys = new long[8];
+        Object[] values = new Object[8];
+        assertEquals(8, map.copyAscending(15, 1000, keys, values));
+        assertEquals(20, keys[0]);
+        assertEquals(90, keys[7]);
+        assertEquals(2, map.copyAscending(971, 2000, keys, values));
+        assertEquals(980, keys[0]);
+
+        assertEquals(8, map.copyDescending(-5, 995, keys, values));
+        assertEquals(990, keys[0]);
+        assertEquals(920, keys[7]);
+        assertEquals(2, map.copyDescending(-5, 15, keys, values));
+        assertEquals(0, keys[1]);
+        assertEquals(0, map.copyDescending(11, 19, keys, values));
+        assertEquals(0, map.copyAscending(20, 10, keys, values));
+    }
+
+    @Test
+    public void shouldBehaveLikeTreeMap() {
+        Random random = new Random(42);
+        NavigableMap<Long, String> expected = new TreeMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(1000);
+            String value = Integer.toString(i);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        long[] keys = new long[16];
+        Object[] values = new Object[16];
+        List<Long> actualKeys = new ArrayList<>();
+        long from = Long.MIN_VALUE;
+        int count;
+        do {
+            count = map.copyAscending(from, Long.MAX_VALUE, keys, values);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected.get(keys[i]), values[i]);
+                actualKeys.add(keys[i]);
+            }
+            from = count > 0 ? keys[count - 1] + 1 : from;
+        } while (count == keys.length);
+
+        assertEquals(new ArrayList<>(expected.keySet()), actualKeys);
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.core.metrics.Measurement;
+import com.hazelcast.jet.impl.execution.KeyGroupEntry;
+import com.hazelcast.jet.impl.execution.MockSnapshotContext;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.CompressedSnapshotChunk;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_RESTORE_BYTES;
+import static com.hazelcast.jet.core.metrics.MetricNames.SNAPSHOT_RESTORE_ENTRIES;
+import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
+import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_INCREMENTAL_ENABLED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class IncrementalSnapshotTest extends SimpleTestInClusterSupport {
+
+    private static final String VERTEX_NAME = "vertex";
+
+    private MockSnapshotContext snapshotContext;
+    private AsyncSnapshotWriterImpl writer;
+    private InternalSerializationService serializationService;
+    private String mapName;
+
+    @BeforeClass
+    public static void setUp() {
+        Config config = smallInstanceConfig()
+                .setProperty(JET_SNAPSHOT_COMPRESSION_ENABLED.getName(), "true")
+                .setProperty(JET_SNAPSHOT_INCREMENTAL_ENABLED.getName(), "true");
+        initialize(1, config);
+    }
+
+    @Before
+    public void before() {
+        NodeEngineImpl nodeEngine = getNodeEngine(instance());
+        serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
+        mapName = randomMapName();
+        snapshotContext = new MockSnapshotContext();
+        snapshotContext.setCurrentMapName(mapName);
+        writer = new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, VERTEX_NAME, 0, 1, serializationService);
+    }
+
+    @Test
+    public void when_chainOfIncrementalSnapshots_then_lastStateRestored() {
+        Map<String, String> state = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            state.put("key-" + i, "value-" + i);
+        }
+        writeSnapshot(1, false, state, "broadcast", "broadcast");
+        assertEquals(102, writer.getTotalKeys());
+
+        // 50 changed, 25 removed, 20 added
+        for (int i = 50; i < 75; i++) {
+            state.put("key-" + i, "changed-" + i);
+        }
+        for (int i = 75; i < 100; i++) {
+            state.remove("key-" + i);
+        }
+        for (int i = 100; i < 120; i++) {
+            state.put("key-" + i, "value-" + i);
+        }
+        writeSnapshot(2, true, state, "broadcast");
+        // 25 changed and 20 added entries, tombstones for 25 old values, 25 removed entries and 1 broadcast entry
+        assertEquals(25 + 20 + 25 + 25 + 1, writer.getTotalKeys());
+
+        state.put("key-0", "changed-0");
+        state.put("key-50", "value-50");
+        state.remove("key-100");
+        writeSnapshot(3, true, state, "broadcast", "broadcast", "broadcast");
+        assertEquals(2 + 3 + 1 + 2, writer.getTotalKeys());
+
+        List<Entry<String, String>> expected = new ArrayList<>();
+        state.forEach((k, v) -> expected.add(entry(k, v)));
+        for (int i = 0; i < 3; i++) {
+            expected.add(entry("broadcast", "broadcast"));
+        }
+        assertThat(restore(1, 2, 3)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void when_restoringPrefixOfChain_then_stateOfThatSnapshot() {
+        Map<String, String> state1 = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            state1.put("key-" + i, "value-" + i);
+        }
+        writeSnapshot(1, false, state1);
+        Map<String, String> state2 = new HashMap<>(state1);
+        state2.remove("key-0");
+        state2.put("key-1", "changed-1");
+        writeSnapshot(2, true, state2);
+        // the data of a snapshot missing in the chain is ignored
+        writeSnapshot(3, true, new HashMap<>());
+
+        List<Entry<String, String>> expected = new ArrayList<>();
+        state2.forEach((k, v) -> expected.add(entry(k, v)));
+        assertThat(restore(1, 2)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void when_fullSnapshot_then_chunksCompressedAndRestored() {
+        Map<String, String> state = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            state.put("key-" + i, "value-" + i % 10);
+        }
+        writeSnapshot(1, false, state);
+
+        assertThat(instance().getMap(mapName).values()).allMatch(v -> v instanceof CompressedSnapshotChunk);
+        List<Entry<String, String>> expected = new ArrayList<>();
+        state.forEach((k, v) -> expected.add(entry(k, v)));
+        assertThat(restore(1)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void when_restoredInParallel_then_chainOfEachPartitionMerged() {
+        Map<String, String> state = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            state.put("key-" + i, "value-" + i);
+        }
+        writeSnapshot(1, false, state);
+        for (int i = 0; i < 1000; i += 2) {
+            state.put("key-" + i, "changed-" + i);
+        }
+        for (int i = 1; i < 1000; i += 4) {
+            state.remove("key-" + i);
+        }
+        writeSnapshot(2, true, state);
+
+        List<Entry<String, String>> expected = new ArrayList<>();
+        state.forEach((k, v) -> expected.add(entry(k, v)));
+        Job job = restoreJob(4, 1, 2);
+        assertThat(instance().getList(job.getConfig().getName()))
+                .containsExactlyInAnyOrderElementsOf(expected);
+
+        assertEquals(state.size(), sum(job.getMetrics().get(SNAPSHOT_RESTORE_ENTRIES)));
+        assertThat(sum(job.getMetrics().get(SNAPSHOT_RESTORE_BYTES))).isPositive();
+    }
+
+    @Test
+    public void when_restored_then_entriesCarryKeyGroupOfTheirKey() {
+        Map<String, String> state = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            state.put("key-" + i, "value-" + i);
+        }
+        writeSnapshot(1, false, state);
+        writeSnapshot(2, true, state);
+
+        List<Object> restored = new ArrayList<>(restore(1));
+        restored.addAll(restore(1, 2));
+        assertEquals(2 * state.size(), restored.size());
+        for (Object item : restored) {
+            KeyGroupEntry<?, ?> entry = (KeyGroupEntry<?, ?>) item;
+            assertEquals(instance().getPartitionService().getPartition(entry.getKey()).getPartitionId(),
+                    entry.keyGroup());
+        }
+    }
+
+    @Test
+    public void when_incrementalSnapshotNotFollowingPrevious_then_error() {
+        Map<String, String> state = new HashMap<>();
+        state.put("key", "value");
+        writeSnapshot(1, false, state);
+        assertNull(writer.getError());
+
+        writeSnapshot(3, true, state);
+        assertNotNull(writer.getError());
+    }
+
+    @Test
+    public void when_noSnapshotWritten_then_noBaseline() {
+        assertFalse(writer.hasIncrementalBaseline());
+        Map<String, String> state = new HashMap<>();
+        state.put("key", "value");
+        writeSnapshot(1, false, state);
+        assertTrue(writer.hasIncrementalBaseline());
+    }
+
+    private void writeSnapshot(long snapshotId, boolean incremental, Map<String, String> state,
+                               String... broadcastKeys) {
+        snapshotContext.setCurrentSnapshotId(snapshotId);
+        snapshotContext.setIncrementalSnapshot(incremental);
+        writer.resetStats();
+        for (Entry<String, String> e : state.entrySet()) {
+            assertTrue(writer.offer(entry(serializationService.toData(e.getKey()),
+                    serializationService.toData(e.getValue()))));
+        }
+        for (String key : broadcastKeys) {
+            assertTrue(writer.offer(entry(serializationService.toData(key), serializationService.toData(key))));
+        }
+        assertTrue(writer.flushAndResetMap());
+        assertTrueEventually(() -> assertFalse(writer.hasPendingAsyncOps()));
+    }
+
+    private List<Object> restore(long... snapshotChain) {
+        Job job = restoreJob(1, snapshotChain);
+        return new ArrayList<>(instance().getList(job.getConfig().getName()));
+    }
+
+    /**
+     * Restores the snapshot chain to a list named after the returned job.
+     */
+    private Job restoreJob(int parallelism, long... snapshotChain) {
+        String listName = randomName();
+        Map<String, Integer> vertexToOrdinal = new HashMap<>();
+        vertexToOrdinal.put(VERTEX_NAME, 0);
+
+        DAG dag = new DAG();
+        Vertex read = dag.newVertex("read", readMapP(mapName)).localParallelism(parallelism);
+        Vertex explode = dag.newVertex("explode", () -> new ExplodeSnapshotP(vertexToOrdinal, snapshotChain))
+                            .localParallelism(parallelism);
+        Vertex sink = dag.newVertex("sink", writeListP(listName));
+        dag.edge(between(read, explode).isolated())
+           .edge(between(explode, sink));
+        JobConfig config = new JobConfig().setName(listName).setStoreMetricsAfterJobCompletion(true);
+        Job job = instance().getJet().newJob(dag, config);
+        job.join();
+        return job;
+    }
+
+    private static long sum(List<Measurement> measurements) {
+        return measurements.stream().mapToLong(Measurement::value).sum();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.jet.Traversers.traverseStream;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.JobStatus.RUNNING;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Restores keyed state on a cluster with more members, so that some of the
+ * restored entries travel over the network on the snapshot restore edge.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class SnapshotRestoreKeyGroupTest extends JetTestSupport {
+
+    private static final int NODE_COUNT = 2;
+    private static final int LOCAL_PARALLELISM = 2;
+    private static final int KEY_COUNT = 1000;
+
+    private static final Map<Integer, Integer> RESTORED = new ConcurrentHashMap<>();
+
+    private HazelcastInstance[] instances;
+
+    @Before
+    public void before() {
+        RESTORED.clear();
+        instances = createHazelcastInstances(NODE_COUNT);
+    }
+
+    @Test
+    public void when_stateKeysNotJavaSerializable_then_restoredOnAllMembers() {
+        DAG dag = new DAG();
+        dag.newVertex("stateful", StatefulP::new).localParallelism(LOCAL_PARALLELISM);
+
+        Job job = instances[0].getJet().newJob(dag,
+                new JobConfig().setProcessingGuarantee(EXACTLY_ONCE).setSnapshotIntervalMillis(100));
+        assertJobStatusEventually(job, RUNNING);
+        waitForFirstSnapshot(new JobRepository(instances[0]), job.getId(), 10, false);
+
+        job.restart();
+
+        assertTrueEventually(() -> assertEquals(KEY_COUNT, RESTORED.size()));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), RESTORED.get(i));
+        }
+        assertJobStatusEventually(job, RUNNING);
+    }
+
+    /**
+     * Saves a share of the keys to the snapshot, the keys can't be
+     * serialized with Java serialization.
+     */
+    private static final class StatefulP extends AbstractProcessor {
+
+        private int globalIndex;
+        private int totalParallelism;
+        private Traverser<Entry<Key, Integer>> snapshotTraverser;
+
+        @Override
+        protected void init(@Nonnull Context context) {
+            globalIndex = context.globalProcessorIndex();
+            totalParallelism = context.totalParallelism();
+        }
+
+        @Override
+        public boolean complete() {
+            return false;
+        }
+
+        @Override
+        public boolean saveToSnapshot() {
+            if (snapshotTraverser == null) {
+                snapshotTraverser = traverseStream(IntStream.range(0, KEY_COUNT)
+                        .filter(i -> i % totalParallelism == globalIndex)
+                        .mapToObj(i -> entry(new Key(i), i)))
+                        .onFirstNull(() -> snapshotTraverser = null);
+            }
+            return emitFromTraverserToSnapshot(snapshotTraverser);
+        }
+
+        @Override
+        protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+            RESTORED.put(((Key) key).id, (Integer) value);
+        }
+    }
+
+    public static final class Key implements DataSerializable {
+
+        private int id;
+
+        public Key() {
+        }
+
+        Key(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(id);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import example.serialization.EmployeeDTO;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.execution.ItemBatchCodec.MAX_RUN_LENGTH;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ItemBatchCodecTest {
+
+    private final InternalSerializationService serializationService = createSerializationService();
+    private final Counter columnEncodedCounter = SwCounter.newSwCounter();
+
+    @Test
+    public void when_primitiveRuns_then_columnEncoded() throws IOException {
+        List<Object> items = asList(1L, 2L, 3L, 4, 5, 6.5, 7.5, "a", "b", 'c');
+        assertEquals(items, roundTrip(items));
+        assertEquals(9, columnEncodedCounter.get());
+    }
+
+    @Test
+    public void when_tuple2Run_then_columnEncoded() throws IOException {
+        List<Object> items = asList(tuple2(1L, "a"), tuple2(2L, null), tuple2(3L, tuple2(4, 5.0)));
+        assertEquals(items, roundTrip(items));
+        assertEquals(3, columnEncodedCounter.get());
+    }
+
+    @Test
+    public void when_compactRun_then_columnEncoded() throws IOException {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new EmployeeDTO(i, i * 100L));
+        }
+        items.add(tuple2(new EmployeeDTO(1, 2), new EmployeeDTO(3, 4)));
+        assertEquals(items, roundTrip(items));
+        assertEquals(11, columnEncodedCounter.get());
+    }
+
+    @Test
+    public void when_heterogeneousItems_then_sharedRun() throws IOException {
+        List<Object> items = asList('a', (short) 1, new ArrayList<>(), DONE_ITEM, 'b');
+        Queue<Object> queue = new ArrayDeque<>(items);
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        ItemBatchCodec codec = new ItemBatchCodec(serializationService);
+
+        assertEquals(items.size(), codec.writeRun(queue, out, columnEncodedCounter));
+        assertTrue(queue.isEmpty());
+        assertEquals(0, columnEncodedCounter.get());
+    }
+
+    @Test
+    public void when_longRun_then_splitAtMaxRunLength() throws IOException {
+        List<Object> items = new ArrayList<>();
+        for (long i = 0; i < MAX_RUN_LENGTH * 2 + 1; i++) {
+            items.add(i);
+        }
+        assertEquals(items, roundTrip(items));
+    }
+
+    @Test
+    public void when_partitionIds_then_preserved() throws IOException {
+        Queue<Object> queue = new ArrayDeque<>();
+        queue.add(new ObjectWithPartitionId(1L, 10));
+        queue.add(new ObjectWithPartitionId(2L, 10));
+        queue.add(new ObjectWithPartitionId(3L, 11));
+        queue.add(4L);
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        ItemBatchCodec codec = new ItemBatchCodec(serializationService);
+        assertEquals(4, codec.writeRun(queue, out, columnEncodedCounter));
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(out.toByteArray());
+        assertEquals(4, codec.readRun(in));
+        assertEquals(asList(10, 10, 11, -1),
+                asList(codec.partitionId(0), codec.partitionId(1), codec.partitionId(2), codec.partitionId(3)));
+    }
+
+    @Test
+    public void itemSizes_addUpToRunSize() {
+        int sum = 0;
+        for (int i = 0; i < 7; i++) {
+            sum += ItemBatchCodec.itemSize(100, 7, i);
+        }
+        assertEquals(100, sum);
+    }
+
+    private List<Object> roundTrip(List<Object> items) throws IOException {
+        Queue<Object> queue = new ArrayDeque<>(items);
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        ItemBatchCodec writer = new ItemBatchCodec(serializationService);
+        int runCount = 0;
+        while (!queue.isEmpty()) {
+            writer.writeRun(queue, out, columnEncodedCounter);
+            runCount++;
+        }
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(out.toByteArray());
+        ItemBatchCodec reader = new ItemBatchCodec(serializationService);
+        List<Object> result = new ArrayList<>();
+        for (int run = 0; run < runCount; run++) {
+            int runLength = reader.readRun(in);
+            for (int i = 0; i < runLength; i++) {
+                result.add(reader.item(i));
+            }
+        }
+        assertEquals(out.position(), in.position());
+        return result;
+    }
+}
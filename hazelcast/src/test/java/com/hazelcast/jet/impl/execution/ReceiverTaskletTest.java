@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -62,6 +63,13 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
+    @Test
+    public void when_receiveBatchedObjects_then_emitThem() throws IOException {
+        pushBatchedObjects(1L, 2L, "a", 'b');
+        t.call();
+        assertEquals(asList(1L, 2L, "a", 'b'), collector.getBuffer());
+    }
+
     private void pushObjects(Object... objs) throws IOException {
         final BufferObjectDataOutput out = serService.createObjectDataOutput();
         // packet header
@@ -76,4 +84,20 @@ public class ReceiverTaskletTest {
         }
         queue.add(out.toByteArray());
     }
+
+    private void pushBatchedObjects(Object... objs) throws IOException {
+        final BufferObjectDataOutput out = serService.createObjectDataOutput();
+        // packet header
+        out.writeLong(0);
+        out.writeInt(0);
+        out.writeInt(0);
+        // the packet
+        out.writeInt(~objs.length);
+        Queue<Object> items = new ArrayDeque<>(asList(objs));
+        ItemBatchCodec codec = new ItemBatchCodec(serService);
+        while (!items.isEmpty()) {
+            codec.writeRun(items, out, SwCounter.newSwCounter());
+        }
+        queue.add(out.toByteArray());
+    }
 }
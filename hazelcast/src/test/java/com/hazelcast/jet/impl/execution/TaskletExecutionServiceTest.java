@@ -42,9 +42,11 @@ import org.junit.runner.RunWith;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -58,7 +60,9 @@ import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING_ENABLED;
 import static java.util.Arrays.asList;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
@@ -86,12 +90,13 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
 
     private TaskletExecutionService tes;
     private ExecutorService executor;
+    private NodeEngineImpl neMock;
     private final ClassLoader classLoader = getClass().getClassLoader();
 
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         when(neMock.getHazelcastInstance()).thenReturn(hzMock);
@@ -132,6 +137,19 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         t.assertDone();
     }
 
+    @Test
+    public void when_blockingTaskOnVirtualThread_then_executed() {
+        // Given
+        final MockTasklet t = new MockTasklet().blocking().callsBeforeDone(10);
+
+        // When
+        // falls back to a platform thread before Java 21
+        tes.beginExecute(singletonList(t), cancellationFuture, classLoader, true).join();
+
+        // Then
+        t.assertDone();
+    }
+
     @Test
     public void when_nonBlockingTask_then_executed() {
         // Given
@@ -392,6 +410,35 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_workStealingEnabled_then_busyTaskletMovesToIdleWorker() {
+        // Given
+        Properties properties = new Properties();
+        properties.setProperty(JET_COOPERATIVE_WORK_STEALING_ENABLED.getName(), "true");
+        TaskletExecutionService stealingTes =
+                new TaskletExecutionService(neMock, THREAD_COUNT, new HazelcastProperties(properties));
+        try {
+            // the tasklets are assigned round-robin, both busy tasklets go to the first worker
+            List<ThreadRecordingTasklet> tasklets = Stream.generate(ThreadRecordingTasklet::new)
+                                                          .limit(THREAD_COUNT + 1)
+                                                          .collect(toList());
+            ThreadRecordingTasklet busy1 = tasklets.get(0);
+            ThreadRecordingTasklet busy2 = tasklets.get(THREAD_COUNT);
+            busy1.busy = true;
+            busy2.busy = true;
+
+            // When
+            CompletableFuture<Void> f = stealingTes.beginExecute(tasklets, cancellationFuture, classLoader);
+
+            // Then
+            assertTrueEventually(() -> assertTrue(busy1.threads.size() + busy2.threads.size() > 2));
+            tasklets.forEach(t -> t.done = true);
+            f.join();
+        } finally {
+            stealingTes.shutdown();
+        }
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
         f.join();
@@ -504,6 +551,20 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    private static class ThreadRecordingTasklet implements Tasklet {
+
+        final Set<Thread> threads = newSetFromMap(new ConcurrentHashMap<>());
+        volatile boolean busy;
+        volatile boolean done;
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            threads.add(Thread.currentThread());
+            return done ? DONE : busy ? MADE_PROGRESS : NO_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
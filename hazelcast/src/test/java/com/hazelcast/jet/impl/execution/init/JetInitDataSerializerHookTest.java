@@ -48,6 +48,7 @@ import static java.lang.reflect.Modifier.TRANSIENT;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
@@ -135,6 +136,8 @@ public class JetInitDataSerializerHookTest {
                         val = i;
                     } else if (type == boolean.class) {
                         val = true;
+                    } else if (type == long[].class) {
+                        val = new long[]{i, i + 1};
                     } else {
                         throw new UnsupportedOperationException("Unsupported type: " + type);
                     }
@@ -180,6 +183,8 @@ public class JetInitDataSerializerHookTest {
             assertEquals(msg, ((AtomicLong) expected).get(), ((AtomicLong) actual).get());
         } else if (expected instanceof AtomicInteger) {
             assertEquals(msg, ((AtomicInteger) expected).get(), ((AtomicInteger) actual).get());
+        } else if (expected instanceof long[]) {
+            assertArrayEquals(msg, (long[]) expected, (long[]) actual);
         } else {
             assertEquals(msg, expected, actual);
         }
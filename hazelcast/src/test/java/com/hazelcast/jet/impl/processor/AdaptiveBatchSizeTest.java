@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveBatchSizeTest {
+
+    private static final long TARGET_NANOS = MILLISECONDS.toNanos(10);
+
+    @Test
+    public void when_disabled_then_alwaysMaxBatchSize() {
+        AdaptiveBatchSize size = new AdaptiveBatchSize(128, 0);
+        assertEquals(128, size.batchSize());
+
+        size.batchCompleted(MILLISECONDS.toNanos(100), true);
+        assertEquals(128, size.batchSize());
+    }
+
+    @Test
+    public void when_fastAndBacklogged_then_growsToMax() {
+        AdaptiveBatchSize size = new AdaptiveBatchSize(128, TARGET_NANOS);
+        assertEquals(8, size.batchSize());
+
+        for (int i = 0; i < 100; i++) {
+            size.batchCompleted(MILLISECONDS.toNanos(1), true);
+        }
+        assertEquals(128, size.batchSize());
+    }
+
+    @Test
+    public void when_fastButNotBacklogged_then_doesNotGrow() {
+        AdaptiveBatchSize size = new AdaptiveBatchSize(128, TARGET_NANOS);
+
+        for (int i = 0; i < 100; i++) {
+            size.batchCompleted(MILLISECONDS.toNanos(1), false);
+        }
+        assertEquals(8, size.batchSize());
+    }
+
+    @Test
+    public void when_slow_then_shrinksToOne() {
+        AdaptiveBatchSize size = new AdaptiveBatchSize(128, TARGET_NANOS);
+        for (int i = 0; i < 100; i++) {
+            size.batchCompleted(MILLISECONDS.toNanos(1), true);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            size.batchCompleted(MILLISECONDS.toNanos(50), true);
+        }
+        assertEquals(1, size.batchSize());
+    }
+
+    @Test
+    public void when_latencyProportionalToSize_then_settlesBelowTarget() {
+        // 0.2 ms per item, the target of 10 ms allows batches of up to 50 items
+        AdaptiveBatchSize size = new AdaptiveBatchSize(1000, TARGET_NANOS);
+        for (int i = 0; i < 1000; i++) {
+            size.batchCompleted(size.batchSize() * 200_000L, true);
+        }
+        assertTrue("batchSize=" + size.batchSize(), size.batchSize() > 25 && size.batchSize() <= 55);
+    }
+}
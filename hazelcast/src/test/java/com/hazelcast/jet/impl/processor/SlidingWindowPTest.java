@@ -124,6 +124,9 @@ public class SlidingWindowPTest {
                 lastSuppliedProcessor.tsToKeyToAcc.isEmpty());
         assertTrue("slidingWindow is not empty: " + lastSuppliedProcessor.slidingWindow,
                 lastSuppliedProcessor.slidingWindow == null || lastSuppliedProcessor.slidingWindow.isEmpty());
+        ColumnarWindowState<?, ?> columnarState = lastSuppliedProcessor.columnarState;
+        assertTrue("columnarState is not empty",
+                columnarState == null || columnarState.isEmpty() && columnarState.isSlidingWindowEmpty());
     }
 
     @Test
@@ -131,6 +131,8 @@ public class SlidingWindowP_changeWindowSizeTest {
         }
         assertTrue("tsToKeyToAcc not empty", p.tsToKeyToAcc.isEmpty());
         assertTrue("slidingWindow not empty", p.slidingWindow == null || p.slidingWindow.isEmpty());
+        assertTrue("columnarState not empty",
+                p.columnarState == null || p.columnarState.isEmpty() && p.columnarState.isSlidingWindowEmpty());
     }
 
     private static SlidingWindowP createProcessor(SlidingWindowPolicy winPolicy) {
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.SlidingWindowPolicy;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.averagingDouble;
+import static com.hazelcast.jet.aggregate.AggregateOperations.averagingLong;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingDouble;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingLong;
+import static com.hazelcast.jet.core.JetTestSupport.wm;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.tumblingWinPolicy;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+/**
+ * Checks that the results of the {@link ColumnarWindowState} match the
+ * results of the generic accumulation path of {@link SlidingWindowP}.
+ */
+@RunWith(HazelcastParametrizedRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+public class SlidingWindowP_columnarTest {
+
+    private static final int EVENT_COUNT = 5_000;
+    private static final int KEY_COUNT = 50;
+    private static final long FRAME_SIZE = 10;
+
+    @Parameter
+    public String name;
+
+    @Parameter(1)
+    public SupplierEx<AggregateOperation1<long[], ?, ?>> aggrOpSupplier;
+
+    @Parameter(2)
+    public SlidingWindowPolicy winPolicy;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        List<Object[]> result = new ArrayList<>();
+        List<Object[]> aggrOps = List.of(
+                new Object[]{"counting", (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> counting()},
+                new Object[]{"summingLong",
+                        (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> summingLong((long[] e) -> e[2])},
+                new Object[]{"summingDouble",
+                        (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> summingDouble((long[] e) -> e[2] / 7.0)},
+                new Object[]{"averagingLong",
+                        (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> averagingLong((long[] e) -> e[2])},
+                new Object[]{"averagingDouble",
+                        (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> averagingDouble((long[] e) -> e[2] / 7.0)},
+                new Object[]{"summingLongWithoutDeduct",
+                        (SupplierEx<AggregateOperation1<long[], ?, ?>>) () -> AggregateOperation
+                                .withCreate(LongAccumulator::new)
+                                .andAccumulate((LongAccumulator a, long[] e) -> a.add(e[2]))
+                                .andCombine(LongAccumulator::add)
+                                .andExportFinish(LongAccumulator::get)}
+        );
+        for (Object[] aggrOp : aggrOps) {
+            result.add(new Object[]{aggrOp[0] + "-tumbling", aggrOp[1], tumblingWinPolicy(FRAME_SIZE)});
+            result.add(new Object[]{aggrOp[0] + "-sliding", aggrOp[1], slidingWinPolicy(4 * FRAME_SIZE, FRAME_SIZE)});
+        }
+        return result;
+    }
+
+    @Test
+    public void when_columnar_then_sameResultsAsGeneric() throws Exception {
+        List<long[]> events = events();
+
+        SlidingWindowP<?, ?, ?, ?> columnar = createProcessor(true);
+        SlidingWindowP<?, ?, ?, ?> generic = createProcessor(false);
+
+        assertEquals(new HashSet<>(run(generic, events)), new HashSet<>(run(columnar, events)));
+        assertTrue(columnar.columnarState.isEmpty());
+        assertTrue(columnar.columnarState.isSlidingWindowEmpty());
+    }
+
+    @Test
+    public void when_snapshotSavedByColumnar_then_restoredByGeneric() throws Exception {
+        List<long[]> events = events();
+        List<long[]> eventsBefore = events.subList(0, EVENT_COUNT / 2);
+        List<long[]> eventsAfter = events.subList(EVENT_COUNT / 2, EVENT_COUNT);
+
+        SlidingWindowP<?, ?, ?, ?> columnar = createProcessor(true);
+        TestOutbox outbox = newOutbox();
+        columnar.init(outbox, new TestProcessorContext());
+        List<Object> resultsBefore = process(columnar, outbox, eventsBefore);
+        List<Entry<Object, Object>> snapshot = new ArrayList<>();
+        boolean done;
+        do {
+            done = columnar.saveToSnapshot();
+            outbox.drainSnapshotQueueAndReset(snapshot, false);
+        } while (!done);
+
+        List<Object> expected = new ArrayList<>(resultsBefore);
+        expected.addAll(restoreAndRun(createProcessor(true), snapshot, eventsAfter));
+        List<Object> actual = new ArrayList<>(resultsBefore);
+        actual.addAll(restoreAndRun(createProcessor(false), snapshot, eventsAfter));
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    private static List<Object> run(SlidingWindowP<?, ?, ?, ?> p, List<long[]> events) throws Exception {
+        TestOutbox outbox = newOutbox();
+        p.init(outbox, new TestProcessorContext());
+        List<Object> results = process(p, outbox, events);
+        complete(p, outbox, results);
+        return results;
+    }
+
+    private static List<Object> restoreAndRun(
+            SlidingWindowP<?, ?, ?, ?> p, List<Entry<Object, Object>> snapshot, List<long[]> events
+    ) throws Exception {
+        TestOutbox outbox = newOutbox();
+        p.init(outbox, new TestProcessorContext());
+        for (Entry<Object, Object> e : snapshot) {
+            p.restoreFromSnapshot(e.getKey(), e.getValue());
+        }
+        assertTrue(p.finishSnapshotRestore());
+        List<Object> results = process(p, outbox, events);
+        complete(p, outbox, results);
+        return results;
+    }
+    private static List<Object> process(SlidingWindowP<?, ?, ?, ?> p, TestOutbox outbox, List<long[]> events) {
+        List<Object> results = new ArrayList<>();
+        TestInbox inbox = new TestInbox();
+        long topTs = Long.MIN_VALUE;
+        for (int i = 0; i < events.size(); i++) {
+            long[] event = events.get(i);
+            topTs = Math.max(topTs, event[0]);
+            inbox.add(event);
+            while (!inbox.isEmpty()) {
+                p.process(0, inbox);
+                outbox.drainQueueAndReset(0, results, false);
+            }
+            if (i % 100 == 99) {
+                while (!p.tryProcessWatermark(wm(topTs - 2 * FRAME_SIZE))) {
+                    outbox.drainQueueAndReset(0, results, false);
+                }
+                outbox.drainQueueAndReset(0, results, false);
+            }
+        }
+        return results;
+    }
+
+    private static void complete(SlidingWindowP<?, ?, ?, ?> p, TestOutbox outbox, List<Object> results) {
+        boolean done;
+        do {
+            done = p.complete();
+            outbox.drainQueueAndReset(0, results, false);
+        } while (!done);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SlidingWindowP<?, ?, ?, ?> createProcessor(boolean columnar) {
+        SlidingWindowPolicy winPolicy = this.winPolicy;
+        FunctionEx<long[], Long> keyFn = e -> e[1];
+        ToLongFunctionEx<long[]> timestampFn = e -> winPolicy.higherFrameTs(e[0]);
+        return new SlidingWindowP<Long, Object, Object, KeyedWindowResult<Long, Object>>(
+                singletonList(keyFn),
+                singletonList(timestampFn),
+                winPolicy,
+                0L,
+                (AggregateOperation1) aggrOpSupplier.get(),
+                KeyedWindowResult::new,
+                true,
+                (byte) 0
+        ) {
+            @Override
+            protected void init(@Nonnull Context context) {
+                super.init(context);
+                assertNotNull("columnar state not created for " + name, columnarState);
+                if (!columnar) {
+                    columnarState = null;
+                }
+            }
+        };
+    }
+
+    private static List<long[]> events() {
+        Random random = new Random(42);
+        List<long[]> events = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            // [timestamp, key, value], the timestamps are a bit out of order
+            long ts = i / 10 + random.nextInt(15);
+            events.add(new long[]{ts, random.nextInt(KEY_COUNT), random.nextInt(2000) - 1000});
+        }
+        return events;
+    }
+
+    private static TestOutbox newOutbox() {
+        return new TestOutbox(new int[]{128}, 128);
+    }
+}
@@ -82,6 +82,8 @@ public class SlidingWindowP_stage1Test {
         for (SlidingWindowP processor : suppliedProcessors) {
             assertTrue("map not empty after emitting everything: " + processor.tsToKeyToAcc,
                     processor.tsToKeyToAcc.isEmpty());
+            assertTrue("columnar state not empty after emitting everything",
+                    processor.columnarState == null || processor.columnarState.isEmpty());
         }
     }
 
@@ -207,6 +207,8 @@ public class SlidingWindowP_twoStageSnapshotTest {
                 p.tsToKeyToAcc.isEmpty());
         assertTrue("slidingWindow is not empty: " + p.slidingWindow,
                 p.slidingWindow == null || p.slidingWindow.isEmpty());
+        assertTrue("columnarState is not empty",
+                p.columnarState == null || p.columnarState.isEmpty() && p.columnarState.isSlidingWindowEmpty());
     }
 
     private static KeyedWindowResult<Long, ?> outboxFrame(long ts, long value) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class Lz4BlockCodecTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void test_empty() {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void test_shorterThanMinimumMatch() {
+        for (int length = 1; length < 20; length++) {
+            byte[] data = new byte[length];
+            Arrays.fill(data, (byte) 'a');
+            assertRoundTrip(data);
+        }
+    }
+
+    @Test
+    public void test_randomData() {
+        byte[] data = new byte[100_000];
+        random.nextBytes(data);
+        assertRoundTrip(data);
+    }
+
+    @Test
+    public void test_repetitiveData_compressed() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            sb.append("key-").append(i % 100).append("=value-").append(i % 7).append(';');
+        }
+        byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+        int compressedLength = assertRoundTrip(data);
+        assertTrue("compressedLength=" + compressedLength, compressedLength < data.length / 4);
+    }
+
+    @Test
+    public void test_longRun_overlappingMatch() {
+        // a match overlapping the bytes it produces, longer than 15 + 255 bytes
+        byte[] data = new byte[10_000];
+        Arrays.fill(data, (byte) 7);
+        data[0] = 1;
+        int compressedLength = assertRoundTrip(data);
+        assertTrue("compressedLength=" + compressedLength, compressedLength < 100);
+    }
+
+    @Test
+    public void test_longLiterals() {
+        // long literal runs between matches
+        byte[] data = new byte[50_000];
+        random.nextBytes(data);
+        System.arraycopy(data, 0, data, 20_000, 1_000);
+        System.arraycopy(data, 5_000, data, 40_000, 300);
+        assertRoundTrip(data);
+    }
+
+    @Test
+    public void test_offsetAndLength() {
+        byte[] data = "xxxabcabcabcabcabcabcabcabcabcabcabcyyy".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = new byte[10 + Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, 3, data.length - 6, compressed, 10);
+
+        byte[] decompressed = new byte[data.length];
+        Lz4BlockCodec.decompress(compressed, 10, compressedLength, decompressed, 3, data.length - 6);
+        assertArrayEquals(Arrays.copyOfRange(data, 3, data.length - 3),
+                Arrays.copyOfRange(decompressed, 3, data.length - 3));
+    }
+
+    @Test
+    public void test_truncatedInput_then_fails() {
+        byte[] data = new byte[1_000];
+        Arrays.fill(data, (byte) 'a');
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, 0, data.length, compressed, 0);
+
+        assertThatThrownBy(() -> Lz4BlockCodec.decompress(compressed, 0, compressedLength - 1,
+                new byte[data.length], 0, data.length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void test_wrongDecompressedLength_then_fails() {
+        byte[] data = new byte[1_000];
+        random.nextBytes(data);
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, 0, data.length, compressed, 0);
+
+        assertThatThrownBy(() -> Lz4BlockCodec.decompress(compressed, 0, compressedLength,
+                new byte[data.length + 1], 0, data.length + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int assertRoundTrip(byte[] data) {
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = Lz4BlockCodec.compress(data, 0, data.length, compressed, 0);
+
+        byte[] decompressed = new byte[data.length];
+        Lz4BlockCodec.decompress(compressed, 0, compressedLength, decompressed, 0, data.length);
+        assertArrayEquals(data, decompressed);
+        return compressedLength;
+    }
+}
@@ -74,6 +74,11 @@ public class MockAsyncSnapshotWriter implements AsyncSnapshotWriter {
         return isFlushed && !hasPendingFlushes;
     }
 
+    @Override
+    public boolean hasIncrementalBaseline() {
+        return false;
+    }
+
     public Entry<? extends Data, ? extends Data> poll() {
         return entries.poll();
     }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testBasicOperations() {
+        IMap<Integer, String> map = createMap(getConfig());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+        }
+        for (int i = 1; i < ENTRY_COUNT; i += 4) {
+            map.replace(i, "replaced" + i);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            String expected = i % 2 == 0 ? null : (i % 4 == 1 ? "replaced" : "value") + i;
+            assertEquals(expected, map.get(i));
+        }
+        assertTrue(map.getLocalMapStats().getOwnedEntryMemoryCost() > 0);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testEntryStats() {
+        IMap<Integer, String> map = createMap(getConfig());
+
+        map.put(1, "value");
+        map.get(1);
+        map.get(1);
+
+        EntryView<Integer, String> entryView = map.getEntryView(1);
+        assertEquals(2, entryView.getHits());
+        assertTrue(entryView.getCreationTime() > 0);
+    }
+
+    @Test
+    public void testQueryAndIteration() {
+        IMap<Integer, Integer> map = createMap(getConfig());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        Collection<Integer> values = map.values(Predicates.lessThan("this", 10));
+        assertEquals(10, values.size());
+
+        Set<Integer> keys = new HashSet<>();
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            assertTrue(keys.add(entry.getKey()));
+        }
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void testEviction() {
+        Config config = getConfig();
+        config.getMapConfig("default").getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+
+        for (int i = 0; i < ENTRY_COUNT * 10; i++) {
+            map.put(i, i);
+        }
+
+        int partitionCount = instance.getPartitionService().getPartitions().size();
+        assertTrue(map.size() <= partitionCount * 10);
+    }
+
+    @Test
+    public void testBackupsAndMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = getConfig();
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance1.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> migratedMap = instance2.getMap(map.getName());
+        assertEquals(ENTRY_COUNT, migratedMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) migratedMap.get(i));
+        }
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("default")
+                .setOffHeapStorageEnabled(true);
+        return config;
+    }
+
+    private <K, V> IMap<K, V> createMap(Config config) {
+        return createHazelcastInstance(config).getMap(randomMapName());
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageTest {
+
+    private SerializationService ss;
+    private OffHeapStorage storage;
+    private OffHeapRecordFactory recordFactory;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        storage = new OffHeapStorage(expirySystem, ss);
+        recordFactory = new OffHeapRecordFactory(ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testPutAndGet() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, "value" + i);
+        }
+
+        assertEquals(1000, storage.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, ss.toObject(storage.get(ss.toData(i)).getValue()));
+        }
+        assertNull(storage.get(ss.toData(1000)));
+        assertFalse(storage.containsKey(ss.toData(1000)));
+    }
+
+    @Test
+    public void testRecordIsAttachedOnPut() {
+        Data key = ss.toData(1);
+        Record record = recordFactory.newRecord(key, "value");
+        record.setVersion(3);
+        storage.put(key, record);
+
+        record.setHits(5);
+        record.setLastAccessTime(System.currentTimeMillis());
+
+        Record stored = storage.get(key);
+        assertEquals(3, stored.getVersion());
+        assertEquals(5, stored.getHits());
+        assertEquals(record.getLastAccessTime(), stored.getLastAccessTime());
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Data key = ss.toData(1);
+        put(1, "value");
+
+        Record record = storage.get(key);
+        storage.updateRecordValue(key, record, "a much longer value than before");
+
+        assertEquals("a much longer value than before", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testRemoveRecord_detachesRecord() {
+        Data key = ss.toData(1);
+        put(1, "value");
+        Record record = storage.get(key);
+        record.setVersion(7);
+
+        storage.removeRecord(key, record);
+
+        assertNull(storage.get(key));
+        assertTrue(storage.isEmpty());
+        assertEquals("value", ss.toObject(record.getValue()));
+        assertEquals(7, record.getVersion());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherRecordOfRemovedEntry_isStale() {
+        Data key = ss.toData(1);
+        put(1, "value");
+        Record other = storage.get(key);
+        storage.removeRecord(key, storage.get(key));
+        // reuses the freed slot
+        put(2, "other value");
+
+        other.getValue();
+    }
+
+    @Test
+    public void testRemoveAndReinsert() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+        for (int i = 1; i < 1000; i += 2) {
+            assertEquals(i, (int) ss.toObject(storage.get(ss.toData(i)).getValue()));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            put(i, -i);
+        }
+
+        assertEquals(1000, storage.size());
+        for (int i = 0; i < 1000; i++) {
+            int expected = i % 2 == 0 ? -i : i;
+            assertEquals(expected, (int) ss.toObject(storage.get(ss.toData(i)).getValue()));
+        }
+    }
+
+    @Test
+    public void testMutationTolerantIterator_toleratesRemoval() {
+        for (int i = 0; i < 100; i++) {
+            put(i, i);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            seen.add(ss.toObject(entry.getKey()));
+            storage.removeRecord(entry.getKey(), entry.getValue());
+        }
+
+        assertEquals(100, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testFetchKeys_returnsAllKeysOnce() {
+        for (int i = 0; i < 500; i++) {
+            put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        while (pointers[pointers.length - 1].getIndex() >= 0) {
+            MapKeysWithCursor cursor = storage.fetchKeys(pointers, 10);
+            for (Data key : cursor.getBatch()) {
+                assertTrue(keys.add(ss.toObject(key)));
+            }
+            pointers = cursor.getIterationPointers();
+        }
+
+        assertEquals(500, keys.size());
+    }
+
+    @Test
+    public void testFetchEntries_withResizeDuringIteration() {
+        for (int i = 0; i < 50; i++) {
+            put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        MapEntriesWithCursor cursor = storage.fetchEntries(pointers, 10);
+        for (Map.Entry<Data, Data> entry : cursor.getBatch()) {
+            assertTrue(keys.add(ss.toObject(entry.getKey())));
+        }
+        pointers = cursor.getIterationPointers();
+
+        // grow the hash index
+        for (int i = 50; i < 5000; i++) {
+            put(i, i);
+        }
+
+        while (pointers[pointers.length - 1].getIndex() >= 0) {
+            cursor = storage.fetchEntries(pointers, 10);
+            for (Map.Entry<Data, Data> entry : cursor.getBatch()) {
+                int key = ss.toObject(entry.getKey());
+                assertEquals(key, (int) ss.toObject(entry.getValue()));
+                assertTrue(keys.add(key));
+            }
+            pointers = cursor.getIterationPointers();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(keys.contains(i));
+        }
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            put(i, i);
+        }
+
+        int count = 0;
+        for (EntryView entryView : storage.getRandomSamples(15)) {
+            Data key = storage.extractDataKeyFromLazy(entryView);
+            assertEquals(entryView.getKey(), ss.toObject(key));
+            assertEquals(entryView.getValue(), entryView.getKey());
+            count++;
+        }
+        assertEquals(15, count);
+    }
+
+    @Test
+    public void testEntryCostEstimator_reportsOffHeapUsage() {
+        long empty = storage.getEntryCostEstimator().getEstimate();
+        put(1, "value");
+        long one = storage.getEntryCostEstimator().getEstimate();
+        assertTrue(one > empty);
+
+        Data key = ss.toData(1);
+        storage.removeRecord(key, storage.get(key));
+        assertTrue(storage.getEntryCostEstimator().getEstimate() < one);
+
+        storage.clear(false);
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    private void put(Object key, Object value) {
+        Data dataKey = ss.toData(key);
+        storage.put(dataKey, recordFactory.newRecord(dataKey, value));
+    }
+}
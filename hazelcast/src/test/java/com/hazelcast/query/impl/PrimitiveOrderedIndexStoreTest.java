@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+@SuppressWarnings("rawtypes")
+public class PrimitiveOrderedIndexStoreTest {
+
+    private static final Comparable[] INTEGER_ARGUMENTS = {
+            NULL, -1000, -1, 0, 1, 5, 999, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            5L, Long.MIN_VALUE, Long.MAX_VALUE, 2.5, -2.5, -0.0, 0.0, 1e30, -1e30,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 3.0f, (short) 7, (byte) -3,
+    };
+
+    private static final Comparable[] DOUBLE_ARGUMENTS = {
+            NULL, -0.0, 0.0, 0.5, -0.5, 100.25, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, 0.5f, 0, 100, -100L, Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1,
+    };
+
+    @Parameter
+    public IndexCopyBehavior copyBehavior;
+
+    @Parameters(name = "copyBehavior: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {IndexCopyBehavior.COPY_ON_READ},
+                {IndexCopyBehavior.COPY_ON_WRITE},
+                {IndexCopyBehavior.NEVER},
+        });
+    }
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    private TypeConverter converter = TypeConverters.INTEGER_CONVERTER;
+
+    @Test
+    public void integerAttribute_behavesLikeOrderedIndexStore() {
+        Random random = new Random(42);
+        List<Comparable> values = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            values.add(random.nextInt(10) == 0 ? null : random.nextInt(2000) - 1000);
+        }
+        values.add(Integer.MIN_VALUE);
+        values.add(Integer.MAX_VALUE);
+        converter = TypeConverters.INTEGER_CONVERTER;
+
+        assertSameBehavior(values, INTEGER_ARGUMENTS, false);
+    }
+
+    @Test
+    public void doubleAttribute_behavesLikeOrderedIndexStore() {
+        Random random = new Random(42);
+        List<Comparable> values = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            values.add(random.nextInt(10) == 0 ? null : (random.nextInt(800) - 400) / 4.0);
+        }
+        values.addAll(Arrays.asList(-0.0, 0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, 9.223372036854775807E18, -9.223372036854775807E18));
+        converter = TypeConverters.DOUBLE_CONVERTER;
+
+        assertSameBehavior(values, DOUBLE_ARGUMENTS, false);
+    }
+
+    @Test
+    public void localDateAttribute_behavesLikeOrderedIndexStore() {
+        LocalDate epoch = LocalDate.of(2023, 1, 1);
+        List<Comparable> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add(epoch.plusDays(i % 200 - 100));
+        }
+        Comparable[] arguments = {NULL, epoch, epoch.minusDays(100), epoch.plusDays(99), epoch.plusDays(1000)};
+        converter = TypeConverters.LOCAL_DATE_CONVERTER;
+
+        assertSameBehavior(values, arguments, false);
+    }
+
+    @Test
+    public void polymorphicAttribute_fallsBackToOrderedIndexStore() {
+        List<Comparable> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add(i % 3 == 0 ? (Comparable) (long) i : (Comparable) i);
+        }
+        converter = TypeConverters.LONG_CONVERTER;
+
+        PrimitiveOrderedIndexStore store = assertSameBehavior(values, INTEGER_ARGUMENTS, true);
+        assertTrue(store.isFallback());
+    }
+
+    @Test
+    public void nonPrimitiveConverter_usesOrderedIndexStore() {
+        List<Comparable> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add(i % 10 == 0 ? null : "value-" + (i % 50));
+        }
+        converter = TypeConverters.STRING_CONVERTER;
+
+        PrimitiveOrderedIndexStore store = assertSameBehavior(values, new Comparable[]{NULL, "value-1", "value-7"}, true);
+        assertTrue(store.isFallback());
+    }
+
+    @Test
+    public void removal_collapsesEntriesWithSameKey() {
+        PrimitiveOrderedIndexStore store = new PrimitiveOrderedIndexStore(copyBehavior, () -> converter);
+        store.insert(7, null, entry(1, 7), IndexOperationStats.EMPTY);
+        store.insert(7, null, entry(2, 7), IndexOperationStats.EMPTY);
+        store.insert(8, null, entry(3, 8), IndexOperationStats.EMPTY);
+        assertEquals(2, store.getRecords(7).size());
+
+        store.remove(7, entry(1, 7), IndexOperationStats.EMPTY);
+        assertEquals(keys(2), keysOf(store.getRecords(7)));
+        store.remove(7, entry(2, 7), IndexOperationStats.EMPTY);
+        assertTrue(store.getRecords(7).isEmpty());
+        assertEquals(keys(3), keysOf(store.getRecords(Comparison.GREATER_OR_EQUAL, 7)));
+        assertFalse(store.isFallback());
+    }
+
+    @Test
+    public void sqlIterator_toleratesConcurrentModification() {
+        PrimitiveOrderedIndexStore store = new PrimitiveOrderedIndexStore(copyBehavior, () -> converter);
+        int count = PrimitiveOrderedIndexStore.ITERATOR_BATCH_SIZE * 3;
+        for (int i = 0; i < count; i++) {
+            store.insert(i, null, entry(i, i), IndexOperationStats.EMPTY);
+        }
+
+        Iterator<IndexKeyEntries> iterator = store.getSqlRecordIteratorBatch(false);
+        int seen = 0;
+        while (iterator.hasNext()) {
+            IndexKeyEntries keyEntries = iterator.next();
+            assertEquals(seen, keyEntries.getIndexKey());
+            if (seen == 1) {
+                // removes keys from the batches which weren't fetched yet
+                for (int i = count - 10; i < count; i++) {
+                    store.remove(i, entry(i, i), IndexOperationStats.EMPTY);
+                }
+            }
+            seen++;
+        }
+        assertEquals(count - 10, seen);
+    }
+
+    @Test
+    public void clear_resetsKeyType() {
+        PrimitiveOrderedIndexStore store = new PrimitiveOrderedIndexStore(copyBehavior, () -> converter);
+        store.insert(1, null, entry(1, 1), IndexOperationStats.EMPTY);
+        store.insert(2L, null, entry(2, 2L), IndexOperationStats.EMPTY);
+        assertTrue(store.isFallback());
+
+        store.clear();
+        assertFalse(store.isFallback());
+        // the index obtains the converter again after being cleared
+        converter = TypeConverters.LONG_CONVERTER;
+        store.insert(3L, null, entry(3, 3L), IndexOperationStats.EMPTY);
+        assertFalse(store.isFallback());
+        assertEquals(keys(3), keysOf(store.getRecords(3L)));
+        assertFalse(store.getSqlRecordIteratorBatch(1, false).hasNext());
+    }
+
+    private PrimitiveOrderedIndexStore assertSameBehavior(List<Comparable> values, Comparable[] arguments,
+                                                          boolean expectFallback) {
+        OrderedIndexStore expected = new OrderedIndexStore(copyBehavior);
+        PrimitiveOrderedIndexStore actual = new PrimitiveOrderedIndexStore(copyBehavior, () -> converter);
+        for (int i = 0; i < values.size(); i++) {
+            CachedQueryEntry entry = entry(i, values.get(i));
+            expected.insert(values.get(i), entry, entry, IndexOperationStats.EMPTY);
+            actual.insert(values.get(i), entry, entry, IndexOperationStats.EMPTY);
+        }
+        // updates and removals
+        for (int i = 0; i < values.size(); i += 7) {
+            CachedQueryEntry entry = entry(i, values.get(i));
+            expected.remove(values.get(i), entry, IndexOperationStats.EMPTY);
+            actual.remove(values.get(i), entry, IndexOperationStats.EMPTY);
+        }
+        for (int i = 1; i < values.size(); i += 11) {
+            Comparable newValue = values.get(i - 1);
+            CachedQueryEntry entry = entry(i, newValue);
+            expected.update(values.get(i), newValue, entry, entry, IndexOperationStats.EMPTY);
+            actual.update(values.get(i), newValue, entry, entry, IndexOperationStats.EMPTY);
+        }
+        assertEquals(expectFallback, actual.isFallback());
+
+        assertSameIteration(expected.getSqlRecordIteratorBatch(false), actual.getSqlRecordIteratorBatch(false));
+        assertSameIteration(expected.getSqlRecordIteratorBatch(true), actual.getSqlRecordIteratorBatch(true));
+        for (Comparable from : arguments) {
+            assertEquals(keysOf(expected.getRecords(from)), keysOf(actual.getRecords(from)));
+            assertEquals(keysOf(expected.getRecords(singleton(from))), keysOf(actual.getRecords(singleton(from))));
+            if (from != NULL) {
+                assertSameIteration(expected.getSqlRecordIteratorBatch(from, true),
+                        actual.getSqlRecordIteratorBatch(from, true));
+                for (Comparison comparison : Comparison.values()) {
+                    assertEquals(comparison + " " + from, keysOf(expected.getRecords(comparison, from)),
+                            keysOf(actual.getRecords(comparison, from)));
+                    assertSameIteration(expected.getSqlRecordIteratorBatch(comparison, from, false),
+                            actual.getSqlRecordIteratorBatch(comparison, from, false));
+                }
+            }
+            for (Comparable to : arguments) {
+                if (to == NULL) {
+                    continue;
+                }
+                for (int inclusive = 0; inclusive < 4; inclusive++) {
+                    boolean fromInclusive = (inclusive & 1) != 0;
+                    boolean toInclusive = (inclusive & 2) != 0;
+                    String message = from + (fromInclusive ? "<=" : "<") + " x " + (toInclusive ? "<=" : "<") + to;
+                    assertEquals(message, keysOf(expected.getRecords(from, fromInclusive, to, toInclusive)),
+                            keysOf(actual.getRecords(from, fromInclusive, to, toInclusive)));
+                    assertSameIteration(
+                            expected.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, inclusive == 3),
+                            actual.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, inclusive == 3));
+                }
+            }
+            assertEquals(keysOf(expected.getRecords(from, true, POSITIVE_INFINITY, true)),
+                    keysOf(actual.getRecords(from, true, POSITIVE_INFINITY, true)));
+        }
+        return actual;
+    }
+
+    private static void assertSameIteration(Iterator<IndexKeyEntries> expected, Iterator<IndexKeyEntries> actual) {
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            IndexKeyEntries expectedEntries = expected.next();
+            IndexKeyEntries actualEntries = actual.next();
+            assertEquals(0, OrderedIndexStore.SPECIAL_AWARE_COMPARATOR.compare(
+                    expectedEntries.getIndexKey(), actualEntries.getIndexKey()));
+            assertEquals(orderedKeysOf(expectedEntries.getEntries()), orderedKeysOf(actualEntries.getEntries()));
+        }
+        assertFalse(actual.hasNext());
+    }
+
+    private CachedQueryEntry entry(int key, Comparable value) {
+        return new CachedQueryEntry<>(ss, ss.toData(key), value, extractors);
+    }
+
+    private static Set<Data> keysOf(Set<QueryableEntry> entries) {
+        Set<Data> keys = new HashSet<>();
+        for (QueryableEntry entry : entries) {
+            keys.add(entry.getKeyData());
+        }
+        return keys;
+    }
+
+    private static List<Data> orderedKeysOf(Iterator<QueryableEntry> entries) {
+        List<Data> keys = new ArrayList<>();
+        entries.forEachRemaining(entry -> keys.add(entry.getKeyData()));
+        return keys;
+    }
+
+    private Set<Data> keys(int... keys) {
+        Set<Data> result = new HashSet<>();
+        for (int key : keys) {
+            result.add(ss.toData(key));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createSerializationService;
+import static com.hazelcast.query.impl.predicates.CompactFieldComparator.NOT_COMPARABLE;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactFieldComparatorTest extends HazelcastTestSupport {
+
+    private static final Object[] VALUES = {
+            0, 29, 30, 31, 30L, 30.0, 30.5f, 29.99, Long.MAX_VALUE, -1.0e20, Double.NaN, -0.0, 0.0,
+            "30", "Joe", "joe", "J\u00f6e", "", true, false, "true",
+    };
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+
+    @Before
+    public void before() {
+        serializationService = createSerializationService();
+        extractors = Extractors.newBuilder(serializationService).build();
+    }
+
+    @After
+    public void after() {
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testPrimitiveAndStringFieldsAreComparedInPlace() {
+        QueryableEntry entry = compactEntry(employee(30, 1000.5, "Joe", true));
+
+        assertEquals(0, CompactFieldComparator.create("age", 30L).equal(new EqualPredicate(), entry));
+        assertEquals(1, CompactFieldComparator.create("age", 31).equal(new EqualPredicate(), entry));
+        assertEquals(-1, Integer.signum(CompactFieldComparator.create("salary", 2000).compare(new EqualPredicate(), entry)));
+        assertEquals(0, CompactFieldComparator.create("name", "Joe").equal(new EqualPredicate(), entry));
+        assertEquals(1, CompactFieldComparator.create("name", "J\u00f6e").equal(new EqualPredicate(), entry));
+        assertEquals(0, CompactFieldComparator.create("__key.id", 42).equal(new EqualPredicate(), entry));
+    }
+
+    @Test
+    public void testNotComparableInPlace() {
+        GenericRecord employee = employee(30, 1000.5, "Joe", true);
+        QueryableEntry entry = compactEntry(employee);
+
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("name", "Joe").compare(new EqualPredicate(), entry));
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("bonus", 1).equal(new EqualPredicate(), entry));
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("missing", 1).equal(new EqualPredicate(), entry));
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("address.city", "x").equal(new EqualPredicate(), entry));
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("age", null).equal(new EqualPredicate(), entry));
+
+        QueryableEntry deserializedEntry = new QueryEntry(serializationService, key(), employee, extractors);
+        assertEquals(NOT_COMPARABLE, CompactFieldComparator.create("age", 30).equal(new EqualPredicate(), deserializedEntry));
+    }
+
+    @Test
+    public void testResultsMatchDeserializedEntries() {
+        GenericRecord[] employees = {
+                employee(30, 1000.5, "Joe", true),
+                employee(0, -0.0, "J\u00f6e", false),
+                employee(Integer.MAX_VALUE, Double.NaN, "", true),
+                employee(-30, 30.0, null, false),
+        };
+        for (GenericRecord employee : employees) {
+            QueryableEntry compactEntry = compactEntry(employee);
+            QueryableEntry deserializedEntry = new QueryEntry(serializationService, key(), employee, extractors);
+
+            for (Predicate predicate : predicates()) {
+                Object expected = apply(predicate, deserializedEntry);
+                assertEquals(predicate + " on " + employee, expected, apply(predicate, compactEntry));
+            }
+        }
+    }
+
+    private static Object apply(Predicate predicate, QueryableEntry entry) {
+        try {
+            return predicate.apply(entry);
+        } catch (RuntimeException e) {
+            // the value can't be converted to the type of the attribute
+            return e.getClass();
+        }
+    }
+
+    private static List<Predicate> predicates() {
+        List<Predicate> predicates = new ArrayList<>();
+        for (String attribute : new String[]{"age", "salary", "name", "active", "__key.id"}) {
+            for (Object value : VALUES) {
+                Comparable comparable = (Comparable) value;
+                predicates.add(new EqualPredicate(attribute, comparable));
+                predicates.add(new NotEqualPredicate(attribute, comparable));
+                predicates.add(new GreaterLessPredicate(attribute, comparable, false, false));
+                predicates.add(new GreaterLessPredicate(attribute, comparable, true, true));
+                predicates.add(new BetweenPredicate(attribute, comparable, comparable));
+            }
+        }
+        return predicates;
+    }
+
+    private QueryableEntry compactEntry(GenericRecord value) {
+        return new QueryEntry(serializationService, key(), serializationService.toData(value), extractors);
+    }
+
+    private Data key() {
+        return serializationService.toData(GenericRecordBuilder.compact("employeeId").setInt32("id", 42).build());
+    }
+
+    private static GenericRecord employee(int age, double salary, String name, boolean active) {
+        return GenericRecordBuilder.compact("employee")
+                .setInt32("age", age)
+                .setFloat64("salary", salary)
+                .setString("name", name)
+                .setBoolean("active", active)
+                .setNullableInt32("bonus", 1)
+                .build();
+    }
+}
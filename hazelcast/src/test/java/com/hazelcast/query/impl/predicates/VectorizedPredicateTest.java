@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static com.hazelcast.instance.impl.TestUtil.toData;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class VectorizedPredicateTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(serializationService).build();
+    private final Random random = new Random(42);
+
+    @Test
+    public void testNotBatchablePredicates() {
+        assertNull(VectorizedPredicate.compile(Predicates.alwaysTrue(), BATCH_SIZE));
+        assertNull(VectorizedPredicate.compile(Predicates.like("name", "a%"), BATCH_SIZE));
+        assertNull(VectorizedPredicate.compile(Predicates.notEqual("id", 1), BATCH_SIZE));
+        assertNull(VectorizedPredicate.compile(Predicates.not(Predicates.equal("id", 1)), BATCH_SIZE));
+        assertNotNull(VectorizedPredicate.compile(
+                Predicates.and(Predicates.like("name", "a%"), Predicates.equal("id", 1)), BATCH_SIZE));
+    }
+
+    @Test
+    public void testHomogeneousNumbers() {
+        List<QueryableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.add(entry(new Item(i, (long) i % 17, i / 8.0, Integer.toString(i % 5))));
+        }
+
+        assertMatchesRowEvaluation(entries, () -> Predicates.equal("id", 5L));
+        assertMatchesRowEvaluation(entries, () -> Predicates.greaterEqual("amount", 10));
+        assertMatchesRowEvaluation(entries, () -> Predicates.lessThan("price", 7));
+        assertMatchesRowEvaluation(entries, () -> Predicates.between("price", "2.5", 100.0f));
+        assertMatchesRowEvaluation(entries, () -> Predicates.in("amount", 1, 3L, 5.0, 7.5, null));
+        assertMatchesRowEvaluation(entries, () -> Predicates.in("price", 1, 2.125, 3.0f, 4.5));
+        assertMatchesRowEvaluation(entries, () -> Predicates.or(
+                Predicates.and(Predicates.greaterThan("id", 100), Predicates.lessEqual("amount", 3)),
+                Predicates.equal("name", "4"),
+                Predicates.between("price", 10, 20)));
+    }
+
+    @Test
+    public void testNullsAndMixedTypes() {
+        List<QueryableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Comparable amount;
+            switch (i % 4) {
+                case 0:
+                    amount = null;
+                    break;
+                case 1:
+                    amount = i;
+                    break;
+                case 2:
+                    amount = (double) i;
+                    break;
+                default:
+                    amount = (long) i;
+                    break;
+            }
+            double price = i % 10 == 0 ? Double.NaN : i % 10 == 1 ? -0.0 : i % 13;
+            entries.add(entry(new Item(i, amount, price, i % 3 == 0 ? null : "name")));
+        }
+
+        assertMatchesRowEvaluation(entries, () -> Predicates.equal("amount", 501));
+        assertMatchesRowEvaluation(entries, () -> Predicates.equal("amount", null));
+        assertMatchesRowEvaluation(entries, () -> Predicates.greaterThan("amount", 500.5));
+        assertMatchesRowEvaluation(entries, () -> Predicates.in("amount", null, 1, 2.0, 3L));
+        assertMatchesRowEvaluation(entries, () -> Predicates.equal("price", Double.NaN));
+        assertMatchesRowEvaluation(entries, () -> Predicates.equal("price", 0.0));
+        assertMatchesRowEvaluation(entries, () -> Predicates.between("price", -0.0, 5));
+        assertMatchesRowEvaluation(entries, () -> Predicates.in("price", -0.0, Double.NaN, 3));
+        assertMatchesRowEvaluation(entries, () -> Predicates.and(
+                Predicates.equal("name", "name"), Predicates.lessThan("amount", 300)));
+    }
+
+    @Test
+    public void testRandomPredicates() {
+        List<QueryableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.add(entry(new Item(i, random.nextInt(10) == 0 ? null : (long) random.nextInt(50),
+                    random.nextInt(100) / 4.0, "name" + random.nextInt(5))));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Supplier<Predicate> predicate = randomPredicate(0);
+            assertMatchesRowEvaluation(entries, predicate);
+        }
+    }
+
+    private Supplier<Predicate> randomPredicate(int depth) {
+        String attribute = random.nextBoolean() ? "amount" : random.nextBoolean() ? "price" : "id";
+        Comparable value = random.nextBoolean() ? (Comparable) random.nextInt(50) : (Comparable) (random.nextInt(100) / 4.0);
+        boolean equal = random.nextBoolean();
+        boolean less = random.nextBoolean();
+        switch (random.nextInt(depth > 2 ? 5 : 7)) {
+            case 0:
+                return () -> Predicates.equal(attribute, value);
+            case 1:
+                return () -> new GreaterLessPredicate(attribute, value, equal, less);
+            case 2:
+                return () -> Predicates.between(attribute, value, 30);
+            case 3:
+                return () -> Predicates.in(attribute, value, 10, 20L, 30.5);
+            case 4:
+                return () -> Predicates.like("name", "name" + value.hashCode() % 5);
+            default:
+                Supplier<Predicate> left = randomPredicate(depth + 1);
+                Supplier<Predicate> right = randomPredicate(depth + 1);
+                return equal
+                        ? () -> Predicates.and(left.get(), right.get())
+                        : () -> Predicates.or(left.get(), right.get());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertMatchesRowEvaluation(List<QueryableEntry> entries, Supplier<Predicate> predicateSupplier) {
+        Predicate predicate = predicateSupplier.get();
+        List<QueryableEntry> expected = new ArrayList<>();
+        for (QueryableEntry entry : entries) {
+            if (predicate.apply(entry)) {
+                expected.add(entry);
+            }
+        }
+
+        VectorizedPredicate vectorizedPredicate = VectorizedPredicate.compile(predicateSupplier.get(), BATCH_SIZE);
+        if (vectorizedPredicate == null) {
+            return;
+        }
+        List<QueryableEntry> actual = new ArrayList<>();
+        QueryableEntry[] batch = new QueryableEntry[BATCH_SIZE];
+        int[] matchIndices = new int[BATCH_SIZE];
+        for (int offset = 0; offset < entries.size(); offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, entries.size() - offset);
+            for (int i = 0; i < size; i++) {
+                batch[i] = entries.get(offset + i);
+            }
+            int matchCount = vectorizedPredicate.evaluate(batch, size, matchIndices);
+            for (int i = 0; i < matchCount; i++) {
+                actual.add(batch[matchIndices[i]]);
+            }
+        }
+        assertEquals(predicate.toString(), expected, actual);
+    }
+
+    private QueryableEntry entry(Item item) {
+        return new QueryEntry(serializationService, toData(item.id), item, extractors);
+    }
+
+    private static class Item implements Serializable {
+        private final int id;
+        private final Comparable amount;
+        private final double price;
+        private final String name;
+
+        Item(int id, Comparable amount, double price, String name) {
+            this.id = id;
+            this.amount = amount;
+            this.price = price;
+            this.name = name;
+        }
+    }
+}
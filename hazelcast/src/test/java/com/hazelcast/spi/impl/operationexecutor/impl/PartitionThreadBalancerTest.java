@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class PartitionThreadBalancerTest extends OperationExecutorImpl_AbstractTest {
+
+    private static final int PARTITION_COUNT_VALUE = 4;
+    private static final int OPERATIONS_PER_PARTITION = 500;
+
+    @Before
+    public void setupBalancer() {
+        config.setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE));
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PARTITION_OPERATION_THREAD_WORK_STEALING_ENABLED.getName(), "true");
+        config.setProperty(PARTITION_OPERATION_THREAD_WORK_STEALING_THRESHOLD.getName(), "10");
+        config.setProperty(PARTITION_OPERATION_THREAD_WORK_STEALING_INTERVAL_MILLIS.getName(), "1");
+        handlerFactory = new CountingOperationRunnerFactory();
+    }
+
+    @Test
+    public void whenLoadSkewed_thenPartitionStolen_andOrderPreserved() {
+        initExecutor();
+
+        // partitions 0 and 2 are both initially owned by the thread 0
+        List<OrderedOperation> operations = new ArrayList<>();
+        AtomicInteger[] executedCounts = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        for (int i = 0; i < OPERATIONS_PER_PARTITION; i++) {
+            for (int partitionId = 0; partitionId <= 2; partitionId += 2) {
+                OrderedOperation operation = new OrderedOperation(partitionId, i, executedCounts[partitionId]);
+                operations.add(operation);
+                executor.execute(operation);
+            }
+        }
+
+        assertTrueEventually(() -> {
+            for (OrderedOperation operation : operations) {
+                assertTrue(operation + " not executed", operation.executed);
+            }
+        });
+
+        for (OrderedOperation operation : operations) {
+            assertTrue(operation + " executed out of order", operation.inOrder);
+            assertTrue(operation + " executed by a thread not owning the partition", operation.runAllowed);
+        }
+        assertEquals(OPERATIONS_PER_PARTITION, executedCounts[0].get());
+        assertEquals(OPERATIONS_PER_PARTITION, executedCounts[2].get());
+
+        PartitionOperationThread[] threads = executor.getPartitionThreads();
+        assertEquals(1, threads[1].stolenPartitionCount.get());
+        assertEquals(1, threads[0].surrenderedPartitionCount.get());
+        assertEquals(1, executor.toPartitionThreadIndex(0) + executor.toPartitionThreadIndex(2));
+    }
+
+    @Test
+    public void whenPartitionHandedOver_thenBarrierRunsAfterUrgentOperations() {
+        initExecutor();
+
+        for (int i = 0; i < OPERATIONS_PER_PARTITION; i++) {
+            for (int partitionId = 0; partitionId <= 2; partitionId += 2) {
+                executor.execute(new OrderedOperation(partitionId, i, new AtomicInteger(i)));
+            }
+        }
+
+        // the barriers are run on both threads while the partitions are
+        // being handed over and must not overtake the urgent operations
+        // submitted before them
+        for (int i = 0; i < 100; i++) {
+            List<UrgentOperation> operations = new ArrayList<>();
+            for (int partitionId = 0; partitionId <= 2; partitionId += 2) {
+                UrgentOperation operation = new UrgentOperation(partitionId);
+                operations.add(operation);
+                executor.execute(operation);
+            }
+            CountDownLatch latch = new CountDownLatch(executor.getPartitionThreadCount());
+            executor.executeOnPartitionThreads(new UrgentBarrierTask(latch));
+            assertOpenEventually(latch);
+
+            for (UrgentOperation operation : operations) {
+                assertTrue(operation + " not executed before the barrier", operation.executed);
+                assertTrue(operation + " executed by a thread not owning the partition", operation.runAllowed);
+            }
+        }
+        assertTrueEventually(() -> assertEquals(1, executor.getPartitionThreads()[1].stolenPartitionCount.get()));
+    }
+
+    @Test
+    public void whenLoadBalanced_thenNoPartitionStolen() {
+        initExecutor();
+
+        List<OrderedOperation> operations = new ArrayList<>();
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            AtomicInteger executedCount = new AtomicInteger();
+            for (int i = 0; i < 5; i++) {
+                OrderedOperation operation = new OrderedOperation(partitionId, i, executedCount);
+                operations.add(operation);
+                executor.execute(operation);
+            }
+        }
+
+        assertTrueEventually(() -> {
+            for (OrderedOperation operation : operations) {
+                assertTrue(operation + " not executed", operation.executed);
+            }
+        });
+
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            assertEquals(partitionId % 2, executor.toPartitionThreadIndex(partitionId));
+        }
+        for (PartitionOperationThread thread : executor.getPartitionThreads()) {
+            assertEquals(0, thread.stolenPartitionCount.get());
+        }
+    }
+
+    class OrderedOperation extends Operation {
+
+        private final int sequence;
+        private final AtomicInteger executedCount;
+        private volatile boolean executed;
+        private volatile boolean inOrder;
+        private volatile boolean runAllowed;
+
+        OrderedOperation(int partitionId, int sequence, AtomicInteger executedCount) {
+            this.sequence = sequence;
+            this.executedCount = executedCount;
+            setPartitionId(partitionId);
+        }
+
+        @Override
+        public void run() {
+            runAllowed = executor.isRunAllowed(this);
+            inOrder = executedCount.getAndIncrement() == sequence;
+            // keep the thread busy, so the queue builds up
+            sleepMillis(1);
+            executed = true;
+        }
+
+        @Override
+        public String toString() {
+            return "OrderedOperation{partitionId=" + getPartitionId() + ", sequence=" + sequence + '}';
+        }
+    }
+
+    class UrgentOperation extends Operation implements UrgentSystemOperation {
+
+        private volatile boolean executed;
+        private volatile boolean runAllowed;
+
+        UrgentOperation(int partitionId) {
+            setPartitionId(partitionId);
+        }
+
+        @Override
+        public void run() {
+            runAllowed = executor.isRunAllowed(this);
+            executed = true;
+        }
+    }
+
+    static class UrgentBarrierTask implements Runnable, UrgentSystemOperation {
+
+        private final CountDownLatch latch;
+
+        UrgentBarrierTask(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+
+    class CountingOperationRunnerFactory extends DummyOperationRunnerFactory {
+
+        @Override
+        public OperationRunner createPartitionRunner(int partitionId) {
+            CountingOperationRunner operationHandler = new CountingOperationRunner(partitionId);
+            partitionOperationHandlers.add(operationHandler);
+            return operationHandler;
+        }
+    }
+
+    class CountingOperationRunner extends DummyOperationRunner {
+
+        private final AtomicLong executedOperationsCount = new AtomicLong();
+
+        CountingOperationRunner(int partitionId) {
+            super(partitionId);
+        }
+
+        @Override
+        public long executedOperationsCount() {
+            return executedOperationsCount.get();
+        }
+
+        @Override
+        public void run(Operation task) {
+            executedOperationsCount.incrementAndGet();
+            super.run(task);
+        }
+
+        @Override
+        public void run(Runnable task) {
+            executedOperationsCount.incrementAndGet();
+            super.run(task);
+        }
+    }
+}